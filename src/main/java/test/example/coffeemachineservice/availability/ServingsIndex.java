@@ -0,0 +1,87 @@
+package test.example.coffeemachineservice.availability;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Максимальное число порций каждого напитка: минимум по ингредиентам рецепта от свободный остаток / расход.
+ * Изменение остатка пересчитывает только напитки, в которые входит этот ингредиент.
+ * Не потокобезопасен, синхронизация — на стороне владельца.
+ */
+public class ServingsIndex<D, R, I> {
+
+    private final Map<D, R> drinkRecipes = new HashMap<>();
+
+    private final Map<R, Map<I, Integer>> recipeQuantities = new HashMap<>();
+
+    private final Map<I, Set<D>> drinksByIngredient = new HashMap<>();
+
+    private final Map<I, Integer> freeStock = new HashMap<>();
+
+    private final Map<D, Integer> servings = new HashMap<>();
+
+    public void addDrink(D drink, R recipe, Map<I, Integer> quantities) {
+        drinkRecipes.put(drink, recipe);
+        recipeQuantities.put(recipe, Map.copyOf(quantities));
+        quantities.keySet().forEach(ingredient ->
+                drinksByIngredient.computeIfAbsent(ingredient, key -> new HashSet<>()).add(drink));
+        servings.put(drink, computeServings(recipe));
+    }
+
+    public void setFreeStock(I ingredient, int amount) {
+        freeStock.put(ingredient, amount);
+        recomputeDrinksWith(ingredient);
+    }
+
+    public void addFreeStock(I ingredient, int delta) {
+        freeStock.merge(ingredient, delta, Integer::sum);
+        recomputeDrinksWith(ingredient);
+    }
+
+    // Резерв под заказ уменьшает свободный остаток каждого ингредиента рецепта на его расход
+    public void reserveRecipe(R recipe) {
+        Map<I, Integer> quantities = recipeQuantities.get(recipe);
+        if (quantities != null) {
+            quantities.forEach((ingredient, quantity) -> addFreeStock(ingredient, -quantity));
+        }
+    }
+
+    public int getServings(D drink) {
+        return servings.getOrDefault(drink, 0);
+    }
+
+    public List<Map.Entry<D, Integer>> available() {
+        List<Map.Entry<D, Integer>> available = new ArrayList<>();
+        servings.forEach((drink, count) -> {
+            if (count > 0) {
+                available.add(Map.entry(drink, count));
+            }
+        });
+        return available;
+    }
+
+    public int size() {
+        return servings.size();
+    }
+
+    private void recomputeDrinksWith(I ingredient) {
+        drinksByIngredient.getOrDefault(ingredient, Set.of())
+                .forEach(drink -> servings.put(drink, computeServings(drinkRecipes.get(drink))));
+    }
+
+    private int computeServings(R recipe) {
+        int result = Integer.MAX_VALUE;
+        for (Map.Entry<I, Integer> entry : recipeQuantities.get(recipe).entrySet()) {
+            int quantity = entry.getValue();
+            if (quantity <= 0) {
+                continue;
+            }
+            result = Math.min(result, Math.max(0, freeStock.getOrDefault(entry.getKey(), 0)) / quantity);
+        }
+        return result == Integer.MAX_VALUE ? 0 : result;
+    }
+}
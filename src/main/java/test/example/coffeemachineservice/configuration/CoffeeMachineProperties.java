@@ -0,0 +1,232 @@
+package test.example.coffeemachineservice.configuration;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import test.example.coffeemachineservice.partition.PartitionGranularity;
+import test.example.coffeemachineservice.partition.PartitionRetentionPolicy;
+
+import java.time.Duration;
+import java.time.Period;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "coffee-machine")
+public class CoffeeMachineProperties {
+
+    private Scheduler scheduler = new Scheduler();
+
+    private OrderCompletion orderCompletion = new OrderCompletion();
+
+    private Brewing brewing = new Brewing();
+
+    private OrderPipeline orderPipeline = new OrderPipeline();
+
+    private OrderEvents orderEvents = new OrderEvents();
+
+    private Exports exports = new Exports();
+
+    private Popularity popularity = new Popularity();
+
+    private Reservations reservations = new Reservations();
+
+    private Idempotency idempotency = new Idempotency();
+
+    private Admission admission = new Admission();
+
+    private Availability availability = new Availability();
+
+    private Rollups rollups = new Rollups();
+
+    private Partitions partitions = new Partitions();
+
+    private Persistence persistence = new Persistence();
+
+    private EntityCache entityCache = new EntityCache();
+
+    private OptimisticRetry optimisticRetry = new OptimisticRetry();
+
+    @Getter
+    @Setter
+    public static class Scheduler {
+
+        private int poolSize = 2;
+    }
+
+    @Getter
+    @Setter
+    public static class OrderCompletion {
+
+        private Duration sweepInterval = Duration.ofSeconds(5);
+    }
+
+    @Getter
+    @Setter
+    public static class Brewing {
+
+        private int slots = 1;
+
+        private int queueCapacity = 20;
+    }
+
+    @Getter
+    @Setter
+    public static class OrderPipeline {
+
+        private int poolSize = 4;
+
+        private int queueCapacity = 100;
+
+        private Duration shutdownTimeout = Duration.ofSeconds(30);
+    }
+
+    @Getter
+    @Setter
+    public static class OrderEvents {
+
+        private Duration timeout = Duration.ofMinutes(5);
+    }
+
+    @Getter
+    @Setter
+    public static class Exports {
+
+        // Каждая выгрузка держит поток и соединение с курсором до конца передачи
+        private int poolSize = 4;
+
+        private int queueCapacity = 8;
+
+        private Duration timeout = Duration.ofMinutes(30);
+    }
+
+    @Getter
+    @Setter
+    public static class Popularity {
+
+        private int capacity = 100;
+    }
+
+    @Getter
+    @Setter
+    public static class Reservations {
+
+        // Должен превышать худшее ожидание в очереди приготовления, иначе ждущие заказы будут отменяться
+        private Duration ttl = Duration.ofHours(1);
+
+        private Duration sweepInterval = Duration.ofSeconds(30);
+    }
+
+    @Getter
+    @Setter
+    public static class Idempotency {
+
+        private Duration ttl = Duration.ofHours(24);
+
+        private long maximumSize = 10_000;
+
+        // Ответы дополнительно пишутся в таблицу idempotency_keys и переживают перезапуск
+        private boolean durable = false;
+
+        // Сколько ключ остаётся занятым без ответа, если экземпляр сервиса упал, не дописав ответ
+        private Duration claimTimeout = Duration.ofMinutes(1);
+
+        private Duration purgeInterval = Duration.ofMinutes(10);
+    }
+
+    @Getter
+    @Setter
+    public static class Admission {
+
+        // Ниже размера пула соединений, чтобы планировщикам и остальным запросам всегда хватало соединений
+        private int maxInFlight = 8;
+
+        private int maxPendingConnections = 2;
+
+        private Duration maxPoolWait = Duration.ofMillis(200);
+
+        private Duration poolWaitSampleInterval = Duration.ofSeconds(1);
+
+        private Duration retryAfter = Duration.ofSeconds(1);
+    }
+
+    @Getter
+    @Setter
+    public static class Availability {
+
+        private Duration resyncInterval = Duration.ofMinutes(5);
+    }
+
+    @Getter
+    @Setter
+    public static class Rollups {
+
+        // Столько сводки отстают от заказов
+        private Duration foldInterval = Duration.ofSeconds(10);
+
+        private int batchSize = 10_000;
+    }
+
+    @Getter
+    @Setter
+    public static class Partitions {
+
+        private PartitionGranularity granularity = PartitionGranularity.MONTH;
+
+        // Сколько следующих диапазонов держать созданными сверх текущего
+        private int ahead = 3;
+
+        // Партиция истекает, когда весь её диапазон старше этого срока
+        private Period retention = Period.ofYears(5);
+
+        private PartitionRetentionPolicy retentionPolicy = PartitionRetentionPolicy.ARCHIVE;
+
+        private String archiveDirectory = "archive/orders";
+
+        private Duration maintenanceInterval = Duration.ofHours(1);
+    }
+
+    @Getter
+    @Setter
+    public static class Persistence {
+
+        // Строк в одном JDBC-пакете; 1 отключает пакетную запись
+        private int batchSize = 50;
+
+        // Вставки и обновления группируются по сущностям, иначе чередование таблиц рвёт пакет
+        private boolean orderInserts = true;
+
+        private boolean orderUpdates = true;
+
+        // Пакетировать и обновления сущностей с @Version: число строк проверяется по каждому элементу пакета
+        private boolean batchVersionedData = true;
+    }
+
+    @Getter
+    @Setter
+    public static class EntityCache {
+
+        private boolean enabled = true;
+
+        // Записей в каждом регионе
+        private long maximumSize = 1_000;
+
+        // Рецепты и напитки меняются только через админские эндпоинты, изменение вытесняет запись сразу
+        private Duration catalogTtl = Duration.ofHours(1);
+
+        // Резервы меняют остатки запросами в обход сессии, поэтому копия ингредиента живёт недолго
+        private Duration ingredientTtl = Duration.ofSeconds(30);
+    }
+
+    @Getter
+    @Setter
+    public static class OptimisticRetry {
+
+        // Включая первую попытку
+        private int maxAttempts = 5;
+
+        // Окно случайной паузы удваивается с каждым повтором, но не выходит за maxBackoff
+        private Duration initialBackoff = Duration.ofMillis(10);
+
+        private Duration maxBackoff = Duration.ofMillis(200);
+    }
+}
@@ -0,0 +1,88 @@
+package test.example.coffeemachineservice.configuration;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.JCacheMetrics;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.Cache;
+import javax.cache.CacheManager;
+import javax.cache.spi.CachingProvider;
+import java.time.Duration;
+import java.util.OptionalLong;
+
+import static test.example.coffeemachineservice.constant.ApplicationConstant.DRINK_CACHE_REGION;
+import static test.example.coffeemachineservice.constant.ApplicationConstant.INGREDIENT_CACHE_REGION;
+import static test.example.coffeemachineservice.constant.ApplicationConstant.RECIPE_CACHE_REGION;
+import static test.example.coffeemachineservice.constant.ApplicationConstant.RECIPE_INGREDIENTS_CACHE_REGION;
+import static test.example.coffeemachineservice.constant.ApplicationConstant.RECIPE_INGREDIENT_CACHE_REGION;
+
+// Кэш сущностей второго уровня в памяти процесса. Регионы создаются здесь со своими сроками жизни,
+// Hibernate получает готовый CacheManager и не создаёт регионы сам
+@Configuration
+public class EntityCacheConfiguration {
+
+    private static final String HIT_RATIO_METER = "coffee.entity.cache.hit.ratio";
+
+    @Bean
+    public CacheManager entityCacheManager(CoffeeMachineProperties properties, MeterRegistry meterRegistry) {
+        CoffeeMachineProperties.EntityCache entityCache = properties.getEntityCache();
+        // Свой провайдер: менеджер не делится с другими контекстами приложения в той же JVM
+        CachingProvider cachingProvider = new CaffeineCachingProvider();
+        CacheManager cacheManager = cachingProvider.getCacheManager(
+                cachingProvider.getDefaultURI(), getClass().getClassLoader());
+        long maximumSize = entityCache.getMaximumSize();
+        createRegion(cacheManager, meterRegistry, RECIPE_CACHE_REGION, maximumSize, entityCache.getCatalogTtl());
+        createRegion(cacheManager, meterRegistry, RECIPE_INGREDIENTS_CACHE_REGION, maximumSize, entityCache.getCatalogTtl());
+        createRegion(cacheManager, meterRegistry, RECIPE_INGREDIENT_CACHE_REGION, maximumSize, entityCache.getCatalogTtl());
+        createRegion(cacheManager, meterRegistry, DRINK_CACHE_REGION, maximumSize, entityCache.getCatalogTtl());
+        createRegion(cacheManager, meterRegistry, INGREDIENT_CACHE_REGION, maximumSize, entityCache.getIngredientTtl());
+        return cacheManager;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer entityCacheCustomizer(CoffeeMachineProperties properties,
+                                                               CacheManager entityCacheManager) {
+        boolean enabled = properties.getEntityCache().isEnabled();
+        return hibernateProperties -> {
+            hibernateProperties.put(AvailableSettings.USE_SECOND_LEVEL_CACHE, enabled);
+            if (enabled) {
+                hibernateProperties.put(AvailableSettings.CACHE_REGION_FACTORY, ConfigSettings.SIMPLE_FACTORY_NAME);
+                hibernateProperties.put(ConfigSettings.CACHE_MANAGER, entityCacheManager);
+            }
+        };
+    }
+
+    private void createRegion(CacheManager cacheManager, MeterRegistry meterRegistry, String region,
+                              long maximumSize, Duration ttl) {
+        CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>()
+                .setMaximumSize(OptionalLong.of(maximumSize))
+                .setExpireAfterWrite(OptionalLong.of(ttl.toNanos()))
+                .setStatisticsEnabled(true);
+        Cache<Object, Object> cache = cacheManager.createCache(region, configuration);
+        JCacheMetrics.monitor(meterRegistry, cache);
+        Gauge.builder(HIT_RATIO_METER, meterRegistry, registry -> hitRatio(registry, region))
+                .description("Доля чтений сущностей из кэша второго уровня без обращения к БД")
+                .tag("cache", region)
+                .register(meterRegistry);
+    }
+
+    private static double hitRatio(MeterRegistry meterRegistry, String region) {
+        double hits = countGets(meterRegistry, region, "hit");
+        double total = hits + countGets(meterRegistry, region, "miss");
+        return total == 0 ? 0 : hits / total;
+    }
+
+    private static double countGets(MeterRegistry meterRegistry, String region, String result) {
+        FunctionCounter gets = meterRegistry.find("cache.gets").tag("cache", region).tag("result", result)
+                .functionCounter();
+        return gets == null ? 0 : gets.count();
+    }
+}
@@ -0,0 +1,44 @@
+package test.example.coffeemachineservice.configuration;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+// Потоковые выгрузки (StreamingResponseBody) пишут ответ в пуле MVC. Без явного пула Spring берёт
+// SimpleAsyncTaskExecutor, который заводит поток на каждую выгрузку без ограничений
+@Configuration
+public class OrderExportConfiguration {
+
+    @Bean
+    public ThreadPoolTaskExecutor orderExportExecutor(CoffeeMachineProperties properties, MeterRegistry meterRegistry) {
+        CoffeeMachineProperties.Exports exports = properties.getExports();
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(exports.getPoolSize());
+        executor.setMaxPoolSize(exports.getPoolSize());
+        executor.setQueueCapacity(exports.getQueueCapacity());
+        executor.setThreadNamePrefix("coffee-export-");
+        executor.initialize();
+        Gauge.builder("coffee.export.queue.size", executor,
+                        exportExecutor -> exportExecutor.getThreadPoolExecutor().getQueue().size())
+                .description("Выгрузки, ожидающие свободного потока")
+                .register(meterRegistry);
+        return executor;
+    }
+
+    @Bean
+    public WebMvcConfigurer orderExportAsyncSupport(ThreadPoolTaskExecutor orderExportExecutor,
+                                                    CoffeeMachineProperties properties) {
+        long timeoutMillis = properties.getExports().getTimeout().toMillis();
+        return new WebMvcConfigurer() {
+            @Override
+            public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+                configurer.setTaskExecutor(orderExportExecutor);
+                configurer.setDefaultTimeout(timeoutMillis);
+            }
+        };
+    }
+}
@@ -0,0 +1,29 @@
+package test.example.coffeemachineservice.configuration;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+@Configuration
+public class OrderPipelineConfiguration {
+
+    @Bean
+    public ThreadPoolTaskExecutor orderPipelineExecutor(CoffeeMachineProperties properties, MeterRegistry meterRegistry) {
+        CoffeeMachineProperties.OrderPipeline orderPipeline = properties.getOrderPipeline();
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(orderPipeline.getPoolSize());
+        executor.setMaxPoolSize(orderPipeline.getPoolSize());
+        executor.setQueueCapacity(orderPipeline.getQueueCapacity());
+        executor.setThreadNamePrefix("coffee-order-");
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds((int) orderPipeline.getShutdownTimeout().toSeconds());
+        executor.initialize();
+        Gauge.builder("coffee.order.pipeline.queue.size", executor,
+                        pipelineExecutor -> pipelineExecutor.getThreadPoolExecutor().getQueue().size())
+                .description("Асинхронные заказы, ожидающие обработки")
+                .register(meterRegistry);
+        return executor;
+    }
+}
@@ -0,0 +1,22 @@
+package test.example.coffeemachineservice.configuration;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+// Профиль записи Hibernate: пакеты JDBC и порядок вставок и обновлений задаются в coffee-machine.persistence
+@Configuration
+public class PersistenceConfiguration {
+
+    @Bean
+    public HibernatePropertiesCustomizer writeProfileCustomizer(CoffeeMachineProperties properties) {
+        CoffeeMachineProperties.Persistence persistence = properties.getPersistence();
+        return hibernateProperties -> {
+            hibernateProperties.put(AvailableSettings.STATEMENT_BATCH_SIZE, persistence.getBatchSize());
+            hibernateProperties.put(AvailableSettings.ORDER_INSERTS, persistence.isOrderInserts());
+            hibernateProperties.put(AvailableSettings.ORDER_UPDATES, persistence.isOrderUpdates());
+            hibernateProperties.put(AvailableSettings.BATCH_VERSIONED_DATA, persistence.isBatchVersionedData());
+        };
+    }
+}
@@ -0,0 +1,26 @@
+package test.example.coffeemachineservice.configuration;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+
+@Configuration
+@EnableScheduling
+public class SchedulerConfiguration {
+
+    @Bean
+    public ThreadPoolTaskScheduler taskScheduler(CoffeeMachineProperties properties, MeterRegistry meterRegistry) {
+        ThreadPoolTaskScheduler taskScheduler = new ThreadPoolTaskScheduler();
+        taskScheduler.setPoolSize(properties.getScheduler().getPoolSize());
+        taskScheduler.setThreadNamePrefix("coffee-scheduler-");
+        taskScheduler.setRemoveOnCancelPolicy(true);
+        Gauge.builder("coffee.scheduler.queue.size", taskScheduler,
+                        scheduler -> scheduler.getScheduledThreadPoolExecutor().getQueue().size())
+                .description("Задачи, ожидающие выполнения в общем планировщике")
+                .register(meterRegistry);
+        return taskScheduler;
+    }
+}
@@ -28,6 +28,8 @@ public class ApplicationConstant {
 
     public static final String INGREDIENT_DELETED_MESSAGE = "Ингредиент удален";
 
+    public static final String INGREDIENTS_CONCURRENT_UPDATE_MESSAGE = "Остатки ингредиентов изменяются другими заказами, повторите попытку";
+
     public static final String DRINK_SUCCESS_ADD_MESSAGE = "Напиток добавлен";
 
     public static final String DRINKS_NOT_FOUND_MESSAGE = "Напитки не найдены";
@@ -44,18 +46,73 @@ public class ApplicationConstant {
 
     public static final String NOT_ENOUGH_INGREDIENTS_MESSAGE = "Недостаточно ингредиентов для приготовления напитка";
 
+    public static final String MISSING_INGREDIENTS_MESSAGE = NOT_ENOUGH_INGREDIENTS_MESSAGE + ": %s";
+
     public static final String WAIT_UNTIL_READY_MESSAGE = "Напиток готовится, подождите 2 минуты...";
 
     public static final String ORDERS_NOT_FOUND_MESSAGE = "Заказы не найдены";
 
+    public static final String ORDER_PAGE_DEFAULT_SIZE = "100";
+
+    public static final int ORDER_PAGE_MAX_SIZE = 500;
+
+    public static final String ORDER_PAGE_SIZE_MESSAGE = "Размер страницы должен быть от 1 до " + ORDER_PAGE_MAX_SIZE;
+
+    public static final String INCORRECT_PAGE_TOKEN_MESSAGE = "Некорректный токен страницы";
+
+    public static final int ORDER_EXPORT_FETCH_ROWS = 1000;
+
+    // Строковая форма для @QueryHint, которому нужна константа-строка
+    public static final String ORDER_EXPORT_FETCH_SIZE = "" + ORDER_EXPORT_FETCH_ROWS;
+
+    public static final String ORDER_EXPORTS_BUSY_MESSAGE = "Слишком много выгрузок выполняется, повторите запрос позже";
+
     public static final String ORDER_NOT_FOUND_MESSAGE = "Заказ с указанным ID не найден";
 
     public static final String ORDER_DELETED_MESSAGE = "Заказ удален";
 
-    public static final String CAN_ONLY_ONE_ACTIVE_ORDER_MESSAGE = "Может быть только один активный заказ";
+    public static final String BREWING_QUEUE_FULL_MESSAGE = "Очередь приготовления заполнена, повторите заказ позже";
+
+    public static final String ORDER_QUEUED_MESSAGE = "Заказ принят, позиция в очереди: %d";
+
+    public static final String ORDER_PIPELINE_BUSY_MESSAGE = "Слишком много заказов в обработке, повторите заказ позже";
+
+    public static final String SERVICE_OVERLOADED_MESSAGE = "Кофемашина перегружена, повторите заказ позже";
 
     public static final int MINUTES_MAKE_DRINK = 2;
 
+    public static final int MAKE_DRINKS_BATCH_MAX_SIZE = 50;
+
+    public static final String MAKE_DRINKS_BATCH_TOO_LARGE_MESSAGE = "Пакет не может содержать больше " + MAKE_DRINKS_BATCH_MAX_SIZE + " напитков";
+
+    public static final String DRINK_CATALOG_CACHE = "drinkCatalog";
+
+    public static final String RECIPE_CACHE_REGION = "entity.recipes";
+
+    public static final String RECIPE_INGREDIENTS_CACHE_REGION = "entity.recipes.recipeIngredients";
+
+    public static final String RECIPE_INGREDIENT_CACHE_REGION = "entity.recipeIngredients";
+
+    public static final String DRINK_CACHE_REGION = "entity.drinks";
+
+    public static final String INGREDIENT_CACHE_REGION = "entity.ingredients";
+
+    public static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+
+    public static final int IDEMPOTENCY_KEY_MAX_LENGTH = 100;
+
+    public static final String IDEMPOTENCY_KEY_TOO_LONG_MESSAGE = "Ключ идемпотентности не может быть длиннее " + IDEMPOTENCY_KEY_MAX_LENGTH + " символов";
+
+    public static final String IDEMPOTENCY_KEY_REUSED_MESSAGE = "Ключ идемпотентности уже использован для другого запроса";
+
+    public static final String IDEMPOTENCY_KEY_IN_PROGRESS_MESSAGE = "Запрос с этим ключом идемпотентности ещё выполняется, повторите его позже";
+
+    public static final String TOP_DRINKS_DEFAULT_LIMIT = "10";
+
+    public static final int TOP_DRINKS_MAX_LIMIT = 50;
+
+    public static final String TOP_DRINKS_LIMIT_MESSAGE = "Размер рейтинга должен быть от 1 до " + TOP_DRINKS_MAX_LIMIT;
+
     public static final String REGEXP_UUID = "^[0-9a-fA-F]{8}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{12}$";
 
     public static final String INCOMING_PARAMETER_MISSING_MESSAGE = "Обязательный входной параметр отсутствует";
@@ -1,6 +1,9 @@
 package test.example.coffeemachineservice.controller;
 
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.enums.ParameterIn;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.ExampleObject;
 import io.swagger.v3.oas.annotations.media.Schema;
@@ -9,27 +12,40 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Size;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestBody;
 import test.example.coffeemachineservice.dto.request.AddNewDrinkRequestDto;
 import test.example.coffeemachineservice.dto.request.MakeDrinkRequestDto;
+import test.example.coffeemachineservice.dto.request.MakeDrinksBatchRequestDto;
+import test.example.coffeemachineservice.dto.response.AvailableDrinkResponseDto;
 import test.example.coffeemachineservice.dto.response.DrinkResponseDto;
+import test.example.coffeemachineservice.dto.response.MakeDrinkResultDto;
+import test.example.coffeemachineservice.dto.response.OrderResponseDto;
 
 import java.util.List;
 
-import static test.example.coffeemachineservice.constant.ApplicationConstant.CAN_ONLY_ONE_ACTIVE_ORDER_MESSAGE;
+import static test.example.coffeemachineservice.constant.ApplicationConstant.BREWING_QUEUE_FULL_MESSAGE;
 import static test.example.coffeemachineservice.constant.ApplicationConstant.DRINKS_NOT_FOUND_MESSAGE;
 import static test.example.coffeemachineservice.constant.ApplicationConstant.DRINK_ALREADY_EXISTS_MESSAGE;
 import static test.example.coffeemachineservice.constant.ApplicationConstant.DRINK_DELETED_MESSAGE;
 import static test.example.coffeemachineservice.constant.ApplicationConstant.DRINK_ID_NOT_FOUND_MESSAGE;
 import static test.example.coffeemachineservice.constant.ApplicationConstant.DRINK_NOT_FOUND_MESSAGE;
 import static test.example.coffeemachineservice.constant.ApplicationConstant.DRINK_SUCCESS_ADD_MESSAGE;
+import static test.example.coffeemachineservice.constant.ApplicationConstant.IDEMPOTENCY_KEY_HEADER;
+import static test.example.coffeemachineservice.constant.ApplicationConstant.IDEMPOTENCY_KEY_IN_PROGRESS_MESSAGE;
+import static test.example.coffeemachineservice.constant.ApplicationConstant.IDEMPOTENCY_KEY_MAX_LENGTH;
+import static test.example.coffeemachineservice.constant.ApplicationConstant.IDEMPOTENCY_KEY_REUSED_MESSAGE;
+import static test.example.coffeemachineservice.constant.ApplicationConstant.IDEMPOTENCY_KEY_TOO_LONG_MESSAGE;
 import static test.example.coffeemachineservice.constant.ApplicationConstant.INCOMING_PARAMETER_MISSING_MESSAGE;
 import static test.example.coffeemachineservice.constant.ApplicationConstant.INCORRECT_UUID_FORMAT_MESSAGE;
+import static test.example.coffeemachineservice.constant.ApplicationConstant.MAKE_DRINKS_BATCH_TOO_LARGE_MESSAGE;
 import static test.example.coffeemachineservice.constant.ApplicationConstant.NOT_ENOUGH_INGREDIENTS_MESSAGE;
+import static test.example.coffeemachineservice.constant.ApplicationConstant.ORDER_PIPELINE_BUSY_MESSAGE;
 import static test.example.coffeemachineservice.constant.ApplicationConstant.RECIPE_NOT_FOUND_MESSAGE;
 import static test.example.coffeemachineservice.constant.ApplicationConstant.REGEXP_UUID;
+import static test.example.coffeemachineservice.constant.ApplicationConstant.SERVICE_OVERLOADED_MESSAGE;
 import static test.example.coffeemachineservice.constant.ApplicationConstant.WAIT_UNTIL_READY_MESSAGE;
 
 @Tag(name = "Контроллер для взаимодействия с напитками", description = "Drink API version v1")
@@ -67,25 +83,105 @@ public interface DrinkController {
     })
     ResponseEntity<List<DrinkResponseDto>> getAllDrinks();
 
+    @Operation(
+            summary = "Напитки, доступные для приготовления",
+            description = "Эндпоинт просмотра напитков, которые можно приготовить из текущих остатков, " +
+                    "с максимальным числом порций каждого"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Успешный ответ",
+                    content = @Content(schema = @Schema(implementation = AvailableDrinkResponseDto.class)))
+    })
+    ResponseEntity<List<AvailableDrinkResponseDto>> getAvailableDrinks();
+
     @Operation(
             summary = "Приготовить напиток",
             description = "Эндпоинт приготовления напитка"
     )
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Успешный ответ",
-                    content = @Content(schema = @Schema(example = WAIT_UNTIL_READY_MESSAGE))),
+                    content = @Content(
+                            schema = @Schema(oneOf = {String.class}),
+                            examples = {
+                                    @ExampleObject(name = "Напиток готовится", value = WAIT_UNTIL_READY_MESSAGE),
+                                    @ExampleObject(name = "Заказ в очереди", value = "Заказ принят, позиция в очереди: 2")
+                            }
+                    )),
             @ApiResponse(responseCode = "400", description = "Некорректный запрос",
                     content = @Content(
                             schema = @Schema(oneOf = {String.class}),
                             examples = {
-                                    @ExampleObject(name = "Один активный заказ", value = CAN_ONLY_ONE_ACTIVE_ORDER_MESSAGE),
+                                    @ExampleObject(name = "Очередь заполнена", value = BREWING_QUEUE_FULL_MESSAGE),
                                     @ExampleObject(name = "Недостаточно ингредиентов", value = NOT_ENOUGH_INGREDIENTS_MESSAGE)
                             }
                     )),
+            @ApiResponse(responseCode = "409", description = "Запрос с этим ключом идемпотентности ещё выполняется",
+                    content = @Content(schema = @Schema(example = IDEMPOTENCY_KEY_IN_PROGRESS_MESSAGE))),
+            @ApiResponse(responseCode = "422", description = "Ключ идемпотентности использован для другого напитка",
+                    content = @Content(schema = @Schema(example = IDEMPOTENCY_KEY_REUSED_MESSAGE))),
+            @ApiResponse(responseCode = "429", description = "Кофемашина перегружена, повторите запрос через Retry-After секунд",
+                    content = @Content(schema = @Schema(example = SERVICE_OVERLOADED_MESSAGE))),
             @ApiResponse(responseCode = "404", description = "Не найдено",
                     content = @Content(schema = @Schema(example = DRINK_NOT_FOUND_MESSAGE)))
     })
-    ResponseEntity<String> makeDrink(@Valid @RequestBody MakeDrinkRequestDto requestDto);
+    ResponseEntity<String> makeDrink(@Valid @RequestBody MakeDrinkRequestDto requestDto,
+            @Parameter(in = ParameterIn.HEADER, name = IDEMPOTENCY_KEY_HEADER,
+                    description = "Ключ идемпотентности: повтор запроса с тем же ключом вернёт исходный ответ")
+            @Size(max = IDEMPOTENCY_KEY_MAX_LENGTH, message = IDEMPOTENCY_KEY_TOO_LONG_MESSAGE) String idempotencyKey);
+
+    @Operation(
+            summary = "Приготовить напиток асинхронно",
+            description = "Эндпоинт сразу возвращает созданный заказ, списание и постановка в очередь выполняются в фоне. "
+                    + "Статус отслеживается через /api/v1/coffee/order/{orderId} и /api/v1/coffee/order/{orderId}/events"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "202", description = "Заказ принят",
+                    content = @Content(schema = @Schema(implementation = OrderResponseDto.class))),
+            @ApiResponse(responseCode = "400", description = "Некорректный запрос",
+                    content = @Content(
+                            schema = @Schema(oneOf = {String.class}),
+                            examples = {
+                                    @ExampleObject(name = "Очередь заполнена", value = BREWING_QUEUE_FULL_MESSAGE),
+                                    @ExampleObject(name = "Отсутствующий параметр", value = INCOMING_PARAMETER_MISSING_MESSAGE)
+                            }
+                    )),
+            @ApiResponse(responseCode = "409", description = "Запрос с этим ключом идемпотентности ещё выполняется",
+                    content = @Content(schema = @Schema(example = IDEMPOTENCY_KEY_IN_PROGRESS_MESSAGE))),
+            @ApiResponse(responseCode = "422", description = "Ключ идемпотентности использован для другого напитка",
+                    content = @Content(schema = @Schema(example = IDEMPOTENCY_KEY_REUSED_MESSAGE))),
+            @ApiResponse(responseCode = "429", description = "Кофемашина перегружена, повторите запрос через Retry-After секунд",
+                    content = @Content(schema = @Schema(example = SERVICE_OVERLOADED_MESSAGE))),
+            @ApiResponse(responseCode = "404", description = "Не найдено",
+                    content = @Content(schema = @Schema(example = DRINK_NOT_FOUND_MESSAGE))),
+            @ApiResponse(responseCode = "503", description = "Сервис перегружен",
+                    content = @Content(schema = @Schema(example = ORDER_PIPELINE_BUSY_MESSAGE)))
+    })
+    ResponseEntity<OrderResponseDto> makeDrinkAsync(@Valid @RequestBody MakeDrinkRequestDto requestDto,
+            @Parameter(in = ParameterIn.HEADER, name = IDEMPOTENCY_KEY_HEADER,
+                    description = "Ключ идемпотентности: повтор запроса с тем же ключом вернёт исходный ответ")
+            @Size(max = IDEMPOTENCY_KEY_MAX_LENGTH, message = IDEMPOTENCY_KEY_TOO_LONG_MESSAGE) String idempotencyKey);
+
+    @Operation(
+            summary = "Приготовить несколько напитков",
+            description = "Эндпоинт пакетного приготовления напитков: остатки проверяются и списываются одной транзакцией, "
+                    + "результат возвращается для каждого напитка"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Успешный ответ",
+                    content = @Content(array = @ArraySchema(schema = @Schema(implementation = MakeDrinkResultDto.class)))),
+            @ApiResponse(responseCode = "400", description = "Некорректный запрос",
+                    content = @Content(
+                            schema = @Schema(oneOf = {String.class}),
+                            examples = {
+                                    @ExampleObject(name = "Отсутствующий параметр", value = INCOMING_PARAMETER_MISSING_MESSAGE),
+                                    @ExampleObject(name = "Слишком большой пакет", value = MAKE_DRINKS_BATCH_TOO_LARGE_MESSAGE)
+                            }
+                    )),
+            @ApiResponse(responseCode = "429", description = "Кофемашина перегружена или в очереди не хватает мест "
+                    + "для пакета, повторите запрос через Retry-After секунд",
+                    content = @Content(schema = @Schema(example = SERVICE_OVERLOADED_MESSAGE)))
+    })
+    ResponseEntity<List<MakeDrinkResultDto>> makeDrinks(@Valid @RequestBody MakeDrinksBatchRequestDto requestDto);
 
     @Operation(
             summary = "Удалить напиток",
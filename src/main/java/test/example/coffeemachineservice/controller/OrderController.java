@@ -0,0 +1,59 @@
+package test.example.coffeemachineservice.controller;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Pattern;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import test.example.coffeemachineservice.dto.response.OrderResponseDto;
+import test.example.coffeemachineservice.dto.response.OrderStatusEventDto;
+
+import static test.example.coffeemachineservice.constant.ApplicationConstant.INCORRECT_UUID_FORMAT_MESSAGE;
+import static test.example.coffeemachineservice.constant.ApplicationConstant.ORDER_NOT_FOUND_MESSAGE;
+import static test.example.coffeemachineservice.constant.ApplicationConstant.REGEXP_UUID;
+
+@Tag(name = "Контроллер для отслеживания заказов", description = "Order API version v1")
+public interface OrderController {
+
+    @Operation(
+            summary = "Просмотр заказа",
+            description = "Эндпоинт просмотра текущего статуса заказа"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Успешный ответ",
+                    content = @Content(schema = @Schema(implementation = OrderResponseDto.class))),
+            @ApiResponse(responseCode = "400", description = "Неверный UUID",
+                    content = @Content(schema = @Schema(example = INCORRECT_UUID_FORMAT_MESSAGE))),
+            @ApiResponse(responseCode = "404", description = "Не найдено",
+                    content = @Content(schema = @Schema(example = ORDER_NOT_FOUND_MESSAGE)))
+    })
+    ResponseEntity<OrderResponseDto> getOrder(
+            @PathVariable("orderId")
+            @Schema(description = "orderId", example = "1568b827-4f03-4185-b622-64a5b9f46be3")
+            @Valid @Pattern(regexp = REGEXP_UUID, message = INCORRECT_UUID_FORMAT_MESSAGE) String orderId);
+
+    @Operation(
+            summary = "Подписка на статусы заказа",
+            description = "SSE-поток событий 'status': текущий статус и все последующие переходы. "
+                    + "Поток закрывается после статуса 'Выполнено' или 'Отменена'"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Успешный ответ",
+                    content = @Content(mediaType = "text/event-stream",
+                            schema = @Schema(implementation = OrderStatusEventDto.class))),
+            @ApiResponse(responseCode = "400", description = "Неверный UUID",
+                    content = @Content(schema = @Schema(example = INCORRECT_UUID_FORMAT_MESSAGE))),
+            @ApiResponse(responseCode = "404", description = "Не найдено",
+                    content = @Content(schema = @Schema(example = ORDER_NOT_FOUND_MESSAGE)))
+    })
+    SseEmitter streamOrderStatus(
+            @PathVariable("orderId")
+            @Schema(description = "orderId", example = "1568b827-4f03-4185-b622-64a5b9f46be3")
+            @Valid @Pattern(regexp = REGEXP_UUID, message = INCORRECT_UUID_FORMAT_MESSAGE) String orderId);
+}
@@ -1,29 +1,48 @@
 package test.example.coffeemachineservice.controller;
 
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
 import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.ExampleObject;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.Pattern;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import test.example.coffeemachineservice.dto.request.PeriodRequestDto;
 import test.example.coffeemachineservice.dto.response.DrinkResponseDto;
+import test.example.coffeemachineservice.dto.response.OrderCountResponseDto;
+import test.example.coffeemachineservice.dto.response.OrderPageResponseDto;
 import test.example.coffeemachineservice.dto.response.OrderResponseDto;
+import test.example.coffeemachineservice.dto.response.OrderSummaryResponseDto;
+import test.example.coffeemachineservice.dto.response.PopularDrinkResponseDto;
+import test.example.coffeemachineservice.export.OrderExportFormat;
 
 import java.util.List;
 
 import static test.example.coffeemachineservice.constant.ApplicationConstant.INCOMING_PARAMETER_MISSING_MESSAGE;
+import static test.example.coffeemachineservice.constant.ApplicationConstant.INCORRECT_PAGE_TOKEN_MESSAGE;
 import static test.example.coffeemachineservice.constant.ApplicationConstant.INCORRECT_UUID_FORMAT_MESSAGE;
 import static test.example.coffeemachineservice.constant.ApplicationConstant.ORDERS_NOT_FOUND_MESSAGE;
 import static test.example.coffeemachineservice.constant.ApplicationConstant.ORDER_DELETED_MESSAGE;
+import static test.example.coffeemachineservice.constant.ApplicationConstant.ORDER_EXPORTS_BUSY_MESSAGE;
+import static test.example.coffeemachineservice.constant.ApplicationConstant.ORDER_PAGE_DEFAULT_SIZE;
+import static test.example.coffeemachineservice.constant.ApplicationConstant.ORDER_PAGE_MAX_SIZE;
+import static test.example.coffeemachineservice.constant.ApplicationConstant.ORDER_PAGE_SIZE_MESSAGE;
 import static test.example.coffeemachineservice.constant.ApplicationConstant.ORDER_NOT_FOUND_MESSAGE;
 import static test.example.coffeemachineservice.constant.ApplicationConstant.POPULAR_DRINK_NOT_FOUND_MESSAGE;
 import static test.example.coffeemachineservice.constant.ApplicationConstant.REGEXP_UUID;
+import static test.example.coffeemachineservice.constant.ApplicationConstant.TOP_DRINKS_DEFAULT_LIMIT;
+import static test.example.coffeemachineservice.constant.ApplicationConstant.TOP_DRINKS_LIMIT_MESSAGE;
+import static test.example.coffeemachineservice.constant.ApplicationConstant.TOP_DRINKS_MAX_LIMIT;
 
 @Tag(name = "Контроллер для взаимодействия со статистикой", description = "Statistic API version v1")
 public interface StatisticController {
@@ -40,17 +59,88 @@ public interface StatisticController {
     })
     ResponseEntity<DrinkResponseDto> getPopularDrink();
 
+    @Operation(
+            summary = "Просмотр самых популярных напитков",
+            description = "Эндпоинт просмотра самых популярных напитков за всё время"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Успешный ответ",
+                    content = @Content(array = @ArraySchema(schema = @Schema(implementation = PopularDrinkResponseDto.class)))),
+            @ApiResponse(responseCode = "400", description = "Некорректный размер рейтинга",
+                    content = @Content(schema = @Schema(example = TOP_DRINKS_LIMIT_MESSAGE)))
+    })
+    ResponseEntity<List<PopularDrinkResponseDto>> getTopDrinks(
+            @Parameter(description = "Количество напитков в рейтинге", example = TOP_DRINKS_DEFAULT_LIMIT)
+            @Min(value = 1, message = TOP_DRINKS_LIMIT_MESSAGE)
+            @Max(value = TOP_DRINKS_MAX_LIMIT, message = TOP_DRINKS_LIMIT_MESSAGE) int limit);
+
+    @Operation(
+            summary = "Просмотр самых популярных напитков за последний час",
+            description = "Эндпоинт просмотра самых популярных напитков за последний час"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Успешный ответ",
+                    content = @Content(array = @ArraySchema(schema = @Schema(implementation = PopularDrinkResponseDto.class)))),
+            @ApiResponse(responseCode = "400", description = "Некорректный размер рейтинга",
+                    content = @Content(schema = @Schema(example = TOP_DRINKS_LIMIT_MESSAGE)))
+    })
+    ResponseEntity<List<PopularDrinkResponseDto>> getTopDrinksForLastHour(
+            @Parameter(description = "Количество напитков в рейтинге", example = TOP_DRINKS_DEFAULT_LIMIT)
+            @Min(value = 1, message = TOP_DRINKS_LIMIT_MESSAGE)
+            @Max(value = TOP_DRINKS_MAX_LIMIT, message = TOP_DRINKS_LIMIT_MESSAGE) int limit);
+
+    @Operation(
+            summary = "Просмотр самых популярных напитков за последние сутки",
+            description = "Эндпоинт просмотра самых популярных напитков за последние сутки"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Успешный ответ",
+                    content = @Content(array = @ArraySchema(schema = @Schema(implementation = PopularDrinkResponseDto.class)))),
+            @ApiResponse(responseCode = "400", description = "Некорректный размер рейтинга",
+                    content = @Content(schema = @Schema(example = TOP_DRINKS_LIMIT_MESSAGE)))
+    })
+    ResponseEntity<List<PopularDrinkResponseDto>> getTopDrinksForLastDay(
+            @Parameter(description = "Количество напитков в рейтинге", example = TOP_DRINKS_DEFAULT_LIMIT)
+            @Min(value = 1, message = TOP_DRINKS_LIMIT_MESSAGE)
+            @Max(value = TOP_DRINKS_MAX_LIMIT, message = TOP_DRINKS_LIMIT_MESSAGE) int limit);
+
+    @Operation(
+            summary = "Просмотр самых популярных напитков за последнюю неделю",
+            description = "Эндпоинт просмотра самых популярных напитков за последнюю неделю"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Успешный ответ",
+                    content = @Content(array = @ArraySchema(schema = @Schema(implementation = PopularDrinkResponseDto.class)))),
+            @ApiResponse(responseCode = "400", description = "Некорректный размер рейтинга",
+                    content = @Content(schema = @Schema(example = TOP_DRINKS_LIMIT_MESSAGE)))
+    })
+    ResponseEntity<List<PopularDrinkResponseDto>> getTopDrinksForLastWeek(
+            @Parameter(description = "Количество напитков в рейтинге", example = TOP_DRINKS_DEFAULT_LIMIT)
+            @Min(value = 1, message = TOP_DRINKS_LIMIT_MESSAGE)
+            @Max(value = TOP_DRINKS_MAX_LIMIT, message = TOP_DRINKS_LIMIT_MESSAGE) int limit);
+
     @Operation(
             summary = "Просмотр всех заказов",
             description = "Эндпоинт для просмотра всех заказов"
     )
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Успешный ответ",
-                    content = @Content(schema = @Schema(implementation = OrderResponseDto.class))),
+                    content = @Content(schema = @Schema(implementation = OrderPageResponseDto.class))),
+            @ApiResponse(responseCode = "400", description = "Некорректный размер страницы или токен",
+                    content = @Content(schema = @Schema(oneOf = {String.class}),
+                            examples = {
+                                    @ExampleObject(name = "Размер страницы", value = ORDER_PAGE_SIZE_MESSAGE),
+                                    @ExampleObject(name = "Токен страницы", value = INCORRECT_PAGE_TOKEN_MESSAGE)
+                            })),
             @ApiResponse(responseCode = "404", description = "Не найдено",
                     content = @Content(schema = @Schema(example = ORDERS_NOT_FOUND_MESSAGE)))
     })
-    ResponseEntity<List<OrderResponseDto>> getAllOrders();
+    ResponseEntity<OrderPageResponseDto> getAllOrders(
+            @Parameter(description = "Токен страницы из nextPageToken предыдущего ответа")
+            String pageToken,
+            @Parameter(description = "Размер страницы", example = ORDER_PAGE_DEFAULT_SIZE)
+            @Min(value = 1, message = ORDER_PAGE_SIZE_MESSAGE)
+            @Max(value = ORDER_PAGE_MAX_SIZE, message = ORDER_PAGE_SIZE_MESSAGE) int size);
 
     @Operation(
             summary = "Просмотр заказов за текущий день",
@@ -58,11 +148,22 @@ public interface StatisticController {
     )
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Успешный ответ",
-                    content = @Content(schema = @Schema(implementation = OrderResponseDto.class))),
+                    content = @Content(schema = @Schema(implementation = OrderPageResponseDto.class))),
+            @ApiResponse(responseCode = "400", description = "Некорректный размер страницы или токен",
+                    content = @Content(schema = @Schema(oneOf = {String.class}),
+                            examples = {
+                                    @ExampleObject(name = "Размер страницы", value = ORDER_PAGE_SIZE_MESSAGE),
+                                    @ExampleObject(name = "Токен страницы", value = INCORRECT_PAGE_TOKEN_MESSAGE)
+                            })),
             @ApiResponse(responseCode = "404", description = "Не найдено",
                     content = @Content(schema = @Schema(example = ORDERS_NOT_FOUND_MESSAGE)))
     })
-    ResponseEntity<List<OrderResponseDto>> getOrdersForToday();
+    ResponseEntity<OrderPageResponseDto> getOrdersForToday(
+            @Parameter(description = "Токен страницы из nextPageToken предыдущего ответа")
+            String pageToken,
+            @Parameter(description = "Размер страницы", example = ORDER_PAGE_DEFAULT_SIZE)
+            @Min(value = 1, message = ORDER_PAGE_SIZE_MESSAGE)
+            @Max(value = ORDER_PAGE_MAX_SIZE, message = ORDER_PAGE_SIZE_MESSAGE) int size);
 
     @Operation(
             summary = "Просмотр заказов за текущую неделю",
@@ -70,11 +171,22 @@ public interface StatisticController {
     )
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Успешный ответ",
-                    content = @Content(schema = @Schema(implementation = OrderResponseDto.class))),
+                    content = @Content(schema = @Schema(implementation = OrderPageResponseDto.class))),
+            @ApiResponse(responseCode = "400", description = "Некорректный размер страницы или токен",
+                    content = @Content(schema = @Schema(oneOf = {String.class}),
+                            examples = {
+                                    @ExampleObject(name = "Размер страницы", value = ORDER_PAGE_SIZE_MESSAGE),
+                                    @ExampleObject(name = "Токен страницы", value = INCORRECT_PAGE_TOKEN_MESSAGE)
+                            })),
             @ApiResponse(responseCode = "404", description = "Не найдено",
                     content = @Content(schema = @Schema(example = ORDERS_NOT_FOUND_MESSAGE)))
     })
-    ResponseEntity<List<OrderResponseDto>> getOrdersForCurrentWeek();
+    ResponseEntity<OrderPageResponseDto> getOrdersForCurrentWeek(
+            @Parameter(description = "Токен страницы из nextPageToken предыдущего ответа")
+            String pageToken,
+            @Parameter(description = "Размер страницы", example = ORDER_PAGE_DEFAULT_SIZE)
+            @Min(value = 1, message = ORDER_PAGE_SIZE_MESSAGE)
+            @Max(value = ORDER_PAGE_MAX_SIZE, message = ORDER_PAGE_SIZE_MESSAGE) int size);
 
     @Operation(
             summary = "Просмотр заказов за указанный период",
@@ -82,13 +194,103 @@ public interface StatisticController {
     )
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Успешный ответ",
-                    content = @Content(schema = @Schema(implementation = OrderResponseDto.class))),
-            @ApiResponse(responseCode = "400", description = "Отсутствующий параметр",
-                    content = @Content(schema = @Schema(example = INCOMING_PARAMETER_MISSING_MESSAGE))),
+                    content = @Content(schema = @Schema(implementation = OrderPageResponseDto.class))),
+            @ApiResponse(responseCode = "400", description = "Отсутствующий параметр, некорректный размер страницы или токен",
+                    content = @Content(schema = @Schema(oneOf = {String.class}),
+                            examples = {
+                                    @ExampleObject(name = "Отсутствующий параметр", value = INCOMING_PARAMETER_MISSING_MESSAGE),
+                                    @ExampleObject(name = "Размер страницы", value = ORDER_PAGE_SIZE_MESSAGE),
+                                    @ExampleObject(name = "Токен страницы", value = INCORRECT_PAGE_TOKEN_MESSAGE)
+                            })),
             @ApiResponse(responseCode = "404", description = "Не найдено",
                     content = @Content(schema = @Schema(example = ORDERS_NOT_FOUND_MESSAGE)))
     })
-    ResponseEntity<List<OrderResponseDto>> getOrdersForPeriod(@Valid @RequestBody PeriodRequestDto requestDto);
+    ResponseEntity<OrderPageResponseDto> getOrdersForPeriod(
+            @Valid @RequestBody PeriodRequestDto requestDto,
+            @Parameter(description = "Токен страницы из nextPageToken предыдущего ответа")
+            String pageToken,
+            @Parameter(description = "Размер страницы", example = ORDER_PAGE_DEFAULT_SIZE)
+            @Min(value = 1, message = ORDER_PAGE_SIZE_MESSAGE)
+            @Max(value = ORDER_PAGE_MAX_SIZE, message = ORDER_PAGE_SIZE_MESSAGE) int size);
+
+    @Operation(
+            summary = "Выгрузка заказов за указанный период",
+            description = "Эндпоинт потоковой выгрузки заказов за период в NDJSON или CSV. "
+                    + "Строки пишутся в ответ по мере чтения из БД, размер периода не ограничен"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Успешный ответ",
+                    content = {
+                            @Content(mediaType = "application/x-ndjson",
+                                    schema = @Schema(implementation = OrderResponseDto.class)),
+                            @Content(mediaType = "text/csv",
+                                    schema = @Schema(example = "order_id,drink_name,status,created_at"))
+                    }),
+            @ApiResponse(responseCode = "400", description = "Отсутствующий параметр",
+                    content = @Content(schema = @Schema(example = INCOMING_PARAMETER_MISSING_MESSAGE))),
+            @ApiResponse(responseCode = "503", description = "Все потоки выгрузки заняты",
+                    content = @Content(schema = @Schema(example = ORDER_EXPORTS_BUSY_MESSAGE)))
+    })
+    ResponseEntity<StreamingResponseBody> exportOrdersForPeriod(
+            @Valid @RequestBody PeriodRequestDto requestDto,
+            @Parameter(description = "Формат выгрузки", example = "NDJSON") OrderExportFormat format);
+
+    @Operation(
+            summary = "Выгрузка архивных заказов за указанный период",
+            description = "Эндпоинт потоковой выгрузки заказов из архивов истёкших партиций в NDJSON или CSV. "
+                    + "Читаются только архивы, диапазон которых пересекается с периодом"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Успешный ответ",
+                    content = {
+                            @Content(mediaType = "application/x-ndjson",
+                                    schema = @Schema(implementation = OrderResponseDto.class)),
+                            @Content(mediaType = "text/csv",
+                                    schema = @Schema(example = "order_id,drink_name,status,created_at"))
+                    }),
+            @ApiResponse(responseCode = "400", description = "Отсутствующий параметр",
+                    content = @Content(schema = @Schema(example = INCOMING_PARAMETER_MISSING_MESSAGE))),
+            @ApiResponse(responseCode = "503", description = "Все потоки выгрузки заняты",
+                    content = @Content(schema = @Schema(example = ORDER_EXPORTS_BUSY_MESSAGE)))
+    })
+    ResponseEntity<StreamingResponseBody> exportArchivedOrdersForPeriod(
+            @Valid @RequestBody PeriodRequestDto requestDto,
+            @Parameter(description = "Формат выгрузки", example = "NDJSON") OrderExportFormat format);
+
+    @Operation(
+            summary = "Сводка по заказам за указанный период",
+            description = "Эндпоинт сводки по заказам за период: всего, выполнено, отменено и доля отмен. "
+                    + "Считается по дневным сводкам, которые отстают от заказов на интервал свёртки"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Успешный ответ",
+                    content = @Content(schema = @Schema(implementation = OrderSummaryResponseDto.class))),
+            @ApiResponse(responseCode = "400", description = "Отсутствующий параметр",
+                    content = @Content(schema = @Schema(example = INCOMING_PARAMETER_MISSING_MESSAGE)))
+    })
+    ResponseEntity<OrderSummaryResponseDto> getOrderSummary(@Valid @RequestBody PeriodRequestDto requestDto);
+
+    @Operation(
+            summary = "Число заказов по дням и напиткам за указанный период",
+            description = "Эндпоинт числа заказов каждого напитка по дням за период"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Успешный ответ",
+                    content = @Content(array = @ArraySchema(schema = @Schema(implementation = OrderCountResponseDto.class)))),
+            @ApiResponse(responseCode = "400", description = "Отсутствующий параметр",
+                    content = @Content(schema = @Schema(example = INCOMING_PARAMETER_MISSING_MESSAGE)))
+    })
+    ResponseEntity<List<OrderCountResponseDto>> getDailyOrderCounts(@Valid @RequestBody PeriodRequestDto requestDto);
+
+    @Operation(
+            summary = "Число заказов по часам и напиткам за сегодня",
+            description = "Эндпоинт числа заказов каждого напитка по часам за текущий день"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Успешный ответ",
+                    content = @Content(array = @ArraySchema(schema = @Schema(implementation = OrderCountResponseDto.class))))
+    })
+    ResponseEntity<List<OrderCountResponseDto>> getHourlyOrderCountsForToday();
 
     @Operation(
             summary = "Удаление заказа по ID",
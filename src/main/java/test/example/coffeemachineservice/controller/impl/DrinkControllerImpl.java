@@ -3,6 +3,7 @@ package test.example.coffeemachineservice.controller.impl;
 import io.swagger.v3.oas.annotations.media.Schema;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Size;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -11,17 +12,27 @@ import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 import test.example.coffeemachineservice.controller.DrinkController;
 import test.example.coffeemachineservice.dto.request.AddNewDrinkRequestDto;
 import test.example.coffeemachineservice.dto.request.MakeDrinkRequestDto;
+import test.example.coffeemachineservice.dto.request.MakeDrinksBatchRequestDto;
+import test.example.coffeemachineservice.dto.response.AvailableDrinkResponseDto;
 import test.example.coffeemachineservice.dto.response.DrinkResponseDto;
+import test.example.coffeemachineservice.dto.response.MakeDrinkResultDto;
+import test.example.coffeemachineservice.dto.response.OrderResponseDto;
+import test.example.coffeemachineservice.service.DrinkAvailabilityService;
 import test.example.coffeemachineservice.service.DrinkService;
 
+import java.net.URI;
 import java.util.List;
 
 import static test.example.coffeemachineservice.constant.ApplicationConstant.DRINK_SUCCESS_ADD_MESSAGE;
+import static test.example.coffeemachineservice.constant.ApplicationConstant.IDEMPOTENCY_KEY_HEADER;
+import static test.example.coffeemachineservice.constant.ApplicationConstant.IDEMPOTENCY_KEY_MAX_LENGTH;
+import static test.example.coffeemachineservice.constant.ApplicationConstant.IDEMPOTENCY_KEY_TOO_LONG_MESSAGE;
 import static test.example.coffeemachineservice.constant.ApplicationConstant.INCORRECT_UUID_FORMAT_MESSAGE;
 import static test.example.coffeemachineservice.constant.ApplicationConstant.REGEXP_UUID;
 
@@ -30,8 +41,12 @@ import static test.example.coffeemachineservice.constant.ApplicationConstant.REG
 @RequestMapping("/api/v1/coffee/drink")
 public class DrinkControllerImpl implements DrinkController {
 
+    private static final String ORDER_LOCATION_PREFIX = "/api/v1/coffee/order/";
+
     private final DrinkService drinkService;
 
+    private final DrinkAvailabilityService drinkAvailabilityService;
+
     @Override
     @PostMapping("/add")
     public ResponseEntity<String> addDrink(@Valid @RequestBody AddNewDrinkRequestDto requestDto) {
@@ -45,10 +60,35 @@ public class DrinkControllerImpl implements DrinkController {
         return ResponseEntity.ok(drinkService.getAllDrinks());
     }
 
+    @Override
+    @GetMapping("/available")
+    public ResponseEntity<List<AvailableDrinkResponseDto>> getAvailableDrinks() {
+        return ResponseEntity.ok(drinkAvailabilityService.getAvailableDrinks());
+    }
+
     @Override
     @PostMapping("/makeCoffee")
-    public ResponseEntity<String> makeDrink(@Valid @RequestBody MakeDrinkRequestDto requestDto) {
-        return ResponseEntity.ok(drinkService.makeDrink(requestDto));
+    public ResponseEntity<String> makeDrink(@Valid @RequestBody MakeDrinkRequestDto requestDto,
+            @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false)
+            @Size(max = IDEMPOTENCY_KEY_MAX_LENGTH, message = IDEMPOTENCY_KEY_TOO_LONG_MESSAGE) String idempotencyKey) {
+        return ResponseEntity.ok(drinkService.makeDrink(requestDto, idempotencyKey));
+    }
+
+    @Override
+    @PostMapping("/makeCoffee/async")
+    public ResponseEntity<OrderResponseDto> makeDrinkAsync(@Valid @RequestBody MakeDrinkRequestDto requestDto,
+            @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false)
+            @Size(max = IDEMPOTENCY_KEY_MAX_LENGTH, message = IDEMPOTENCY_KEY_TOO_LONG_MESSAGE) String idempotencyKey) {
+        OrderResponseDto acceptedOrder = drinkService.makeDrinkAsync(requestDto, idempotencyKey);
+        return ResponseEntity.accepted()
+                .location(URI.create(ORDER_LOCATION_PREFIX + acceptedOrder.getOrderId()))
+                .body(acceptedOrder);
+    }
+
+    @Override
+    @PostMapping("/makeCoffee/batch")
+    public ResponseEntity<List<MakeDrinkResultDto>> makeDrinks(@Valid @RequestBody MakeDrinksBatchRequestDto requestDto) {
+        return ResponseEntity.ok(drinkService.makeDrinks(requestDto));
     }
 
     @Override
@@ -0,0 +1,48 @@
+package test.example.coffeemachineservice.controller.impl;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Pattern;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import test.example.coffeemachineservice.controller.OrderController;
+import test.example.coffeemachineservice.dto.response.OrderResponseDto;
+import test.example.coffeemachineservice.service.OrderService;
+import test.example.coffeemachineservice.service.OrderStatusStreamService;
+
+import static test.example.coffeemachineservice.constant.ApplicationConstant.INCORRECT_UUID_FORMAT_MESSAGE;
+import static test.example.coffeemachineservice.constant.ApplicationConstant.REGEXP_UUID;
+
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/api/v1/coffee/order")
+public class OrderControllerImpl implements OrderController {
+
+    private final OrderService orderService;
+
+    private final OrderStatusStreamService orderStatusStreamService;
+
+    @Override
+    @GetMapping("/{orderId}")
+    public ResponseEntity<OrderResponseDto> getOrder(
+            @PathVariable("orderId")
+            @Schema(description = "orderId", example = "1568b827-4f03-4185-b622-64a5b9f46be3")
+            @Valid @Pattern(regexp = REGEXP_UUID, message = INCORRECT_UUID_FORMAT_MESSAGE) String orderId) {
+        return ResponseEntity.ok(orderService.getOrder(orderId));
+    }
+
+    @Override
+    @GetMapping(value = "/{orderId}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamOrderStatus(
+            @PathVariable("orderId")
+            @Schema(description = "orderId", example = "1568b827-4f03-4185-b622-64a5b9f46be3")
+            @Valid @Pattern(regexp = REGEXP_UUID, message = INCORRECT_UUID_FORMAT_MESSAGE) String orderId) {
+        return orderStatusStreamService.subscribe(orderId);
+    }
+}
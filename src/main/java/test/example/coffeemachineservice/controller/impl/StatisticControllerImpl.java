@@ -2,8 +2,13 @@ package test.example.coffeemachineservice.controller.impl;
 
 import io.swagger.v3.oas.annotations.media.Schema;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.Pattern;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -11,18 +16,37 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import test.example.coffeemachineservice.controller.StatisticController;
 import test.example.coffeemachineservice.dto.request.PeriodRequestDto;
 import test.example.coffeemachineservice.dto.response.DrinkResponseDto;
-import test.example.coffeemachineservice.dto.response.OrderResponseDto;
+import test.example.coffeemachineservice.dto.response.OrderCountResponseDto;
+import test.example.coffeemachineservice.dto.response.OrderPageResponseDto;
+import test.example.coffeemachineservice.dto.response.OrderSummaryResponseDto;
+import test.example.coffeemachineservice.dto.response.PopularDrinkResponseDto;
+import test.example.coffeemachineservice.export.OrderExportFormat;
+import test.example.coffeemachineservice.service.DrinkPopularityService;
 import test.example.coffeemachineservice.service.DrinkService;
+import test.example.coffeemachineservice.service.OrderArchiveService;
+import test.example.coffeemachineservice.service.OrderExportService;
+import test.example.coffeemachineservice.service.OrderRollupService;
 import test.example.coffeemachineservice.service.OrderService;
 
 import java.util.List;
 
 import static test.example.coffeemachineservice.constant.ApplicationConstant.INCORRECT_UUID_FORMAT_MESSAGE;
+import static test.example.coffeemachineservice.constant.ApplicationConstant.ORDER_PAGE_DEFAULT_SIZE;
+import static test.example.coffeemachineservice.constant.ApplicationConstant.ORDER_PAGE_MAX_SIZE;
+import static test.example.coffeemachineservice.constant.ApplicationConstant.ORDER_PAGE_SIZE_MESSAGE;
 import static test.example.coffeemachineservice.constant.ApplicationConstant.REGEXP_UUID;
+import static test.example.coffeemachineservice.constant.ApplicationConstant.TOP_DRINKS_DEFAULT_LIMIT;
+import static test.example.coffeemachineservice.constant.ApplicationConstant.TOP_DRINKS_LIMIT_MESSAGE;
+import static test.example.coffeemachineservice.constant.ApplicationConstant.TOP_DRINKS_MAX_LIMIT;
+import static test.example.coffeemachineservice.popularity.PopularityWindow.DAY;
+import static test.example.coffeemachineservice.popularity.PopularityWindow.HOUR;
+import static test.example.coffeemachineservice.popularity.PopularityWindow.WEEK;
 
 @RestController
 @RequiredArgsConstructor
@@ -33,34 +57,145 @@ public class StatisticControllerImpl implements StatisticController {
 
     private final OrderService orderService;
 
+    private final DrinkPopularityService drinkPopularityService;
+
+    private final OrderExportService orderExportService;
+
+    private final OrderRollupService orderRollupService;
+
+    private final OrderArchiveService orderArchiveService;
+
     @Override
     @GetMapping("/drink/popular")
     public ResponseEntity<DrinkResponseDto> getPopularDrink() {
         return ResponseEntity.ok(drinkService.getPopularDrink());
     }
 
+    @Override
+    @GetMapping("/drink/top")
+    public ResponseEntity<List<PopularDrinkResponseDto>> getTopDrinks(
+            @RequestParam(value = "limit", defaultValue = TOP_DRINKS_DEFAULT_LIMIT)
+            @Min(value = 1, message = TOP_DRINKS_LIMIT_MESSAGE)
+            @Max(value = TOP_DRINKS_MAX_LIMIT, message = TOP_DRINKS_LIMIT_MESSAGE) int limit) {
+        return ResponseEntity.ok(drinkPopularityService.getTopDrinks(limit));
+    }
+
+    @Override
+    @GetMapping("/drink/top/hour")
+    public ResponseEntity<List<PopularDrinkResponseDto>> getTopDrinksForLastHour(
+            @RequestParam(value = "limit", defaultValue = TOP_DRINKS_DEFAULT_LIMIT)
+            @Min(value = 1, message = TOP_DRINKS_LIMIT_MESSAGE)
+            @Max(value = TOP_DRINKS_MAX_LIMIT, message = TOP_DRINKS_LIMIT_MESSAGE) int limit) {
+        return ResponseEntity.ok(drinkPopularityService.getTopDrinks(HOUR, limit));
+    }
+
+    @Override
+    @GetMapping("/drink/top/day")
+    public ResponseEntity<List<PopularDrinkResponseDto>> getTopDrinksForLastDay(
+            @RequestParam(value = "limit", defaultValue = TOP_DRINKS_DEFAULT_LIMIT)
+            @Min(value = 1, message = TOP_DRINKS_LIMIT_MESSAGE)
+            @Max(value = TOP_DRINKS_MAX_LIMIT, message = TOP_DRINKS_LIMIT_MESSAGE) int limit) {
+        return ResponseEntity.ok(drinkPopularityService.getTopDrinks(DAY, limit));
+    }
+
+    @Override
+    @GetMapping("/drink/top/week")
+    public ResponseEntity<List<PopularDrinkResponseDto>> getTopDrinksForLastWeek(
+            @RequestParam(value = "limit", defaultValue = TOP_DRINKS_DEFAULT_LIMIT)
+            @Min(value = 1, message = TOP_DRINKS_LIMIT_MESSAGE)
+            @Max(value = TOP_DRINKS_MAX_LIMIT, message = TOP_DRINKS_LIMIT_MESSAGE) int limit) {
+        return ResponseEntity.ok(drinkPopularityService.getTopDrinks(WEEK, limit));
+    }
+
     @Override
     @GetMapping("/order/all")
-    public ResponseEntity<List<OrderResponseDto>> getAllOrders() {
-        return ResponseEntity.ok(orderService.getAllOrders());
+    public ResponseEntity<OrderPageResponseDto> getAllOrders(
+            @RequestParam(value = "pageToken", required = false) String pageToken,
+            @RequestParam(value = "size", defaultValue = ORDER_PAGE_DEFAULT_SIZE)
+            @Min(value = 1, message = ORDER_PAGE_SIZE_MESSAGE)
+            @Max(value = ORDER_PAGE_MAX_SIZE, message = ORDER_PAGE_SIZE_MESSAGE) int size) {
+        return ResponseEntity.ok(orderService.getAllOrders(pageToken, size));
     }
 
     @Override
     @GetMapping("/order/today")
-    public ResponseEntity<List<OrderResponseDto>> getOrdersForToday() {
-        return ResponseEntity.ok(orderService.getOrdersForToday());
+    public ResponseEntity<OrderPageResponseDto> getOrdersForToday(
+            @RequestParam(value = "pageToken", required = false) String pageToken,
+            @RequestParam(value = "size", defaultValue = ORDER_PAGE_DEFAULT_SIZE)
+            @Min(value = 1, message = ORDER_PAGE_SIZE_MESSAGE)
+            @Max(value = ORDER_PAGE_MAX_SIZE, message = ORDER_PAGE_SIZE_MESSAGE) int size) {
+        return ResponseEntity.ok(orderService.getOrdersForToday(pageToken, size));
     }
 
     @Override
     @GetMapping("/order/week")
-    public ResponseEntity<List<OrderResponseDto>> getOrdersForCurrentWeek() {
-        return ResponseEntity.ok(orderService.getOrdersForCurrentWeek());
+    public ResponseEntity<OrderPageResponseDto> getOrdersForCurrentWeek(
+            @RequestParam(value = "pageToken", required = false) String pageToken,
+            @RequestParam(value = "size", defaultValue = ORDER_PAGE_DEFAULT_SIZE)
+            @Min(value = 1, message = ORDER_PAGE_SIZE_MESSAGE)
+            @Max(value = ORDER_PAGE_MAX_SIZE, message = ORDER_PAGE_SIZE_MESSAGE) int size) {
+        return ResponseEntity.ok(orderService.getOrdersForCurrentWeek(pageToken, size));
     }
 
     @Override
     @PostMapping("/order/period")
-    public ResponseEntity<List<OrderResponseDto>> getOrdersForPeriod(@Valid @RequestBody PeriodRequestDto requestDto) {
-        return ResponseEntity.ok(orderService.getOrdersForPeriod(requestDto));
+    public ResponseEntity<OrderPageResponseDto> getOrdersForPeriod(
+            @Valid @RequestBody PeriodRequestDto requestDto,
+            @RequestParam(value = "pageToken", required = false) String pageToken,
+            @RequestParam(value = "size", defaultValue = ORDER_PAGE_DEFAULT_SIZE)
+            @Min(value = 1, message = ORDER_PAGE_SIZE_MESSAGE)
+            @Max(value = ORDER_PAGE_MAX_SIZE, message = ORDER_PAGE_SIZE_MESSAGE) int size) {
+        return ResponseEntity.ok(orderService.getOrdersForPeriod(requestDto, pageToken, size));
+    }
+
+    @Override
+    @PostMapping("/order/period/export")
+    public ResponseEntity<StreamingResponseBody> exportOrdersForPeriod(
+            @Valid @RequestBody PeriodRequestDto requestDto,
+            @RequestParam(value = "format", defaultValue = "NDJSON") OrderExportFormat format) {
+        String fileName = "orders_" + requestDto.getStartDate() + "_" + requestDto.getEndDate()
+                + "." + format.getFileExtension();
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(format.getMediaType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename(fileName)
+                        .build()
+                        .toString())
+                .body(outputStream -> orderExportService.exportOrdersForPeriod(requestDto, format, outputStream));
+    }
+
+    @Override
+    @PostMapping("/order/archive/export")
+    public ResponseEntity<StreamingResponseBody> exportArchivedOrdersForPeriod(
+            @Valid @RequestBody PeriodRequestDto requestDto,
+            @RequestParam(value = "format", defaultValue = "NDJSON") OrderExportFormat format) {
+        String fileName = "orders_archive_" + requestDto.getStartDate() + "_" + requestDto.getEndDate()
+                + "." + format.getFileExtension();
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(format.getMediaType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename(fileName)
+                        .build()
+                        .toString())
+                .body(outputStream -> orderArchiveService.exportArchivedOrders(requestDto, format, outputStream));
+    }
+
+    @Override
+    @PostMapping("/order/summary")
+    public ResponseEntity<OrderSummaryResponseDto> getOrderSummary(@Valid @RequestBody PeriodRequestDto requestDto) {
+        return ResponseEntity.ok(orderRollupService.getSummary(requestDto));
+    }
+
+    @Override
+    @PostMapping("/order/count/daily")
+    public ResponseEntity<List<OrderCountResponseDto>> getDailyOrderCounts(@Valid @RequestBody PeriodRequestDto requestDto) {
+        return ResponseEntity.ok(orderRollupService.getDailyCounts(requestDto));
+    }
+
+    @Override
+    @GetMapping("/order/count/today/hourly")
+    public ResponseEntity<List<OrderCountResponseDto>> getHourlyOrderCountsForToday() {
+        return ResponseEntity.ok(orderRollupService.getHourlyCountsForToday());
     }
 
     @Override
@@ -0,0 +1,23 @@
+package test.example.coffeemachineservice.dto.catalog;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.UUID;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CompositionIngredientDto {
+
+    private UUID ingredientId;
+
+    private String ingredientName;
+
+    private int quantityOnRecipe;
+}
@@ -0,0 +1,28 @@
+package test.example.coffeemachineservice.dto.catalog;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+import java.util.UUID;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class DrinkCompositionDto {
+
+    private UUID drinkId;
+
+    private String drinkName;
+
+    private UUID recipeId;
+
+    private String recipeName;
+
+    private List<CompositionIngredientDto> ingredients;
+}
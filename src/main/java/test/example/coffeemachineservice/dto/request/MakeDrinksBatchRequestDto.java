@@ -0,0 +1,32 @@
+package test.example.coffeemachineservice.dto.request;
+
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+import static test.example.coffeemachineservice.constant.ApplicationConstant.INCOMING_PARAMETER_MISSING_MESSAGE;
+import static test.example.coffeemachineservice.constant.ApplicationConstant.MAKE_DRINKS_BATCH_MAX_SIZE;
+import static test.example.coffeemachineservice.constant.ApplicationConstant.MAKE_DRINKS_BATCH_TOO_LARGE_MESSAGE;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Schema(description = "Сущность для пакетного приготовления напитков")
+public class MakeDrinksBatchRequestDto {
+
+    @ArraySchema(schema = @Schema(implementation = MakeDrinkRequestDto.class), maxItems = MAKE_DRINKS_BATCH_MAX_SIZE)
+    @NotEmpty(message = INCOMING_PARAMETER_MISSING_MESSAGE)
+    @Size(max = MAKE_DRINKS_BATCH_MAX_SIZE, message = MAKE_DRINKS_BATCH_TOO_LARGE_MESSAGE)
+    private List<@Valid MakeDrinkRequestDto> drinks;
+}
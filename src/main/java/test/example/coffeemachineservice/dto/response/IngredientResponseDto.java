@@ -24,6 +24,9 @@ public class IngredientResponseDto {
     @Schema(description = "amountAvailable", example = "100")
     private int amountAvailable;
 
+    @Schema(description = "amountReserved", example = "30")
+    private int amountReserved;
+
     @Schema(description = "unit", example = "мл")
     private String unit;
 }
\ No newline at end of file
@@ -0,0 +1,29 @@
+package test.example.coffeemachineservice.dto.response;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Schema(description = "Результат приготовления напитка из пакета")
+public class MakeDrinkResultDto {
+
+    @Schema(description = "drinkName", example = "Раф")
+    private String drinkName;
+
+    @Schema(description = "orderId", example = "1568b827-4f03-4185-b622-64a5b9f46be3")
+    private String orderId;
+
+    @Schema(description = "accepted", example = "true")
+    private boolean accepted;
+
+    @Schema(description = "message", example = "Заказ принят, позиция в очереди: 2")
+    private String message;
+}
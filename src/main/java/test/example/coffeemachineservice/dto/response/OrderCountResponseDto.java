@@ -0,0 +1,37 @@
+package test.example.coffeemachineservice.dto.response;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Schema(description = "Сущность отображения числа заказов напитка за час или день")
+public class OrderCountResponseDto {
+
+    @Schema(description = "periodStart", example = "2025-01-01T12:00:00")
+    private LocalDateTime periodStart;
+
+    @Schema(description = "drinkId", example = "1568b827-4f03-4185-b622-64a5b9f46be3")
+    private String drinkId;
+
+    @Schema(description = "drinkName", example = "Раф")
+    private String drinkName;
+
+    @Schema(description = "ordersCount", example = "12")
+    private long ordersCount;
+
+    @Schema(description = "completedCount", example = "10")
+    private long completedCount;
+
+    @Schema(description = "refusedCount", example = "1")
+    private long refusedCount;
+}
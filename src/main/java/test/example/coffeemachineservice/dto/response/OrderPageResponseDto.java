@@ -0,0 +1,26 @@
+package test.example.coffeemachineservice.dto.response;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Schema(description = "Страница заказов")
+public class OrderPageResponseDto {
+
+    @Schema(description = "orders")
+    private List<OrderResponseDto> orders;
+
+    @Schema(description = "Токен следующей страницы, отсутствует на последней странице",
+            example = "MjAyNS0wMS0wMVQxMjowMH4xNTY4Yjgy")
+    private String nextPageToken;
+}
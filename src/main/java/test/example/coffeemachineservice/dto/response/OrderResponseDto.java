@@ -6,6 +6,7 @@ import lombok.Builder;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import test.example.coffeemachineservice.persistent.enums.OrderStatus;
 
 import java.time.LocalDateTime;
 
@@ -28,4 +29,9 @@ public class OrderResponseDto {
 
     @Schema(description = "createdAt", example = "01.01.2025 12:00:00")
     private LocalDateTime createdAt;
+
+    // Для выборки страниц заказов сразу в DTO: статус из БД приходит кодом
+    public OrderResponseDto(String orderId, String drinkName, OrderStatus status, LocalDateTime createdAt) {
+        this(orderId, drinkName, status.getStatusName(), createdAt);
+    }
 }
\ No newline at end of file
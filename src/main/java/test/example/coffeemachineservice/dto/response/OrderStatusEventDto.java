@@ -0,0 +1,23 @@
+package test.example.coffeemachineservice.dto.response;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Schema(description = "Событие изменения статуса заказа")
+public class OrderStatusEventDto {
+
+    @Schema(description = "orderId", example = "1568b827-4f03-4185-b622-64a5b9f46be3")
+    private String orderId;
+
+    @Schema(description = "status", example = "В процессе")
+    private String status;
+}
@@ -0,0 +1,37 @@
+package test.example.coffeemachineservice.dto.response;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDate;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Schema(description = "Сущность отображения сводки по заказам за период")
+public class OrderSummaryResponseDto {
+
+    @Schema(description = "startDate", example = "2025-01-01")
+    private LocalDate startDate;
+
+    @Schema(description = "endDate", example = "2025-04-04")
+    private LocalDate endDate;
+
+    @Schema(description = "ordersCount", example = "200")
+    private long ordersCount;
+
+    @Schema(description = "completedCount", example = "180")
+    private long completedCount;
+
+    @Schema(description = "refusedCount", example = "10")
+    private long refusedCount;
+
+    @Schema(description = "Доля отменённых заказов", example = "0.05")
+    private double refusalRate;
+}
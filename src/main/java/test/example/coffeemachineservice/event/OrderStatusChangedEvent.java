@@ -0,0 +1,16 @@
+package test.example.coffeemachineservice.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import test.example.coffeemachineservice.persistent.enums.OrderStatus;
+
+import java.util.UUID;
+
+@Getter
+@AllArgsConstructor
+public class OrderStatusChangedEvent {
+
+    private final UUID orderId;
+
+    private final OrderStatus status;
+}
@@ -0,0 +1,19 @@
+package test.example.coffeemachineservice.exception;
+
+import lombok.Getter;
+import org.springframework.http.HttpStatus;
+
+import java.time.Duration;
+
+@Getter
+public class OverloadException extends RuntimeException {
+
+    private final HttpStatus status = HttpStatus.TOO_MANY_REQUESTS;
+
+    private final Duration retryAfter;
+
+    public OverloadException(String message, Duration retryAfter) {
+        super(message);
+        this.retryAfter = retryAfter;
+    }
+}
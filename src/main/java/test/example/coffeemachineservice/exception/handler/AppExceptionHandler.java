@@ -1,6 +1,8 @@
 package test.example.coffeemachineservice.exception.handler;
 
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
@@ -9,11 +11,14 @@ import org.springframework.web.method.annotation.HandlerMethodValidationExceptio
 import test.example.coffeemachineservice.exception.DrinkException;
 import test.example.coffeemachineservice.exception.IngredientException;
 import test.example.coffeemachineservice.exception.OrderException;
+import test.example.coffeemachineservice.exception.OverloadException;
 import test.example.coffeemachineservice.exception.RecipeException;
 
 import java.util.Objects;
 
+import static org.springframework.http.HttpStatus.SERVICE_UNAVAILABLE;
 import static test.example.coffeemachineservice.constant.ApplicationConstant.ERROR_LOG_TEMPLATE;
+import static test.example.coffeemachineservice.constant.ApplicationConstant.ORDER_EXPORTS_BUSY_MESSAGE;
 
 
 @Slf4j
@@ -52,6 +57,24 @@ public class AppExceptionHandler {
                 .body(exception.getMessage());
     }
 
+    @ExceptionHandler(OverloadException.class)
+    public ResponseEntity<String> handleOverloadException(OverloadException exception) {
+        log.warn(ERROR_LOG_TEMPLATE, exception.getStatus(), exception.getMessage(), exception.getStackTrace());
+        return ResponseEntity
+                .status(exception.getStatus())
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(Math.max(1, exception.getRetryAfter().toSeconds())))
+                .body(exception.getMessage());
+    }
+
+    // Пул потоковых выгрузок и его очередь заняты: выгрузка не начинается, а не ждёт без ограничения
+    @ExceptionHandler(TaskRejectedException.class)
+    public ResponseEntity<String> handleTaskRejectedException(TaskRejectedException exception) {
+        log.warn(ERROR_LOG_TEMPLATE, SERVICE_UNAVAILABLE, exception.getMessage(), exception.getStackTrace());
+        return ResponseEntity
+                .status(SERVICE_UNAVAILABLE)
+                .body(ORDER_EXPORTS_BUSY_MESSAGE);
+    }
+
     @ExceptionHandler({MethodArgumentNotValidException.class})
     public ResponseEntity<String> handleGenericMethodArgumentNotValidException(MethodArgumentNotValidException exception) {
         log.error(ERROR_LOG_TEMPLATE, exception.getStatusCode(), exception.getMessage(), exception.getStackTrace());
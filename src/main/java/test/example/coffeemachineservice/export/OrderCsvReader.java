@@ -0,0 +1,75 @@
+package test.example.coffeemachineservice.export;
+
+import test.example.coffeemachineservice.dto.response.OrderResponseDto;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+// Читает CSV, записанный OrderExportWriter. Поле в кавычках может содержать запятые и удвоенные кавычки,
+// перевод строки внутри поля не поддерживается: в названиях напитков и статусов его нет
+public class OrderCsvReader {
+
+    private static final int CSV_COLUMNS = 4;
+
+    private final BufferedReader reader;
+
+    private boolean headerSkipped;
+
+    public OrderCsvReader(Reader reader) {
+        this.reader = new BufferedReader(reader);
+    }
+
+    // null после последней строки
+    public OrderResponseDto next() throws IOException {
+        if (!headerSkipped) {
+            reader.readLine();
+            headerSkipped = true;
+        }
+        String line = reader.readLine();
+        if (line == null || line.isEmpty()) {
+            return null;
+        }
+        List<String> fields = parseLine(line);
+        if (fields.size() != CSV_COLUMNS) {
+            throw new IOException("Ожидалось " + CSV_COLUMNS + " поля в строке CSV, получено " + fields.size());
+        }
+        return OrderResponseDto.builder()
+                .orderId(fields.get(0))
+                .drinkName(fields.get(1))
+                .status(fields.get(2))
+                .createdAt(LocalDateTime.parse(fields.get(3)))
+                .build();
+    }
+
+    private List<String> parseLine(String line) {
+        List<String> fields = new ArrayList<>(CSV_COLUMNS);
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char symbol = line.charAt(i);
+            if (quoted) {
+                if (symbol != '"') {
+                    field.append(symbol);
+                } else if (i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else {
+                    quoted = false;
+                }
+            } else if (symbol == '"') {
+                quoted = true;
+            } else if (symbol == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(symbol);
+            }
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+}
@@ -0,0 +1,64 @@
+package test.example.coffeemachineservice.export;
+
+import com.fasterxml.jackson.databind.ObjectWriter;
+import test.example.coffeemachineservice.dto.response.OrderResponseDto;
+
+import java.io.IOException;
+import java.io.Writer;
+
+// Пишет заказы построчно в выбранном формате; закрытие нижележащего потока остаётся за вызывающим
+public class OrderExportWriter {
+
+    public static final String CSV_HEADER = "order_id,drink_name,status,created_at";
+
+    private final Writer writer;
+
+    private final OrderExportFormat format;
+
+    private final ObjectWriter orderWriter;
+
+    public OrderExportWriter(Writer writer, OrderExportFormat format, ObjectWriter orderWriter) {
+        this.writer = writer;
+        this.format = format;
+        this.orderWriter = orderWriter;
+    }
+
+    public void writeHeader() throws IOException {
+        if (format == OrderExportFormat.CSV) {
+            writer.write(CSV_HEADER);
+            writer.write('\n');
+        }
+    }
+
+    public void write(OrderResponseDto order) throws IOException {
+        if (format == OrderExportFormat.CSV) {
+            writeCsv(order);
+        } else {
+            writer.write(orderWriter.writeValueAsString(order));
+            writer.write('\n');
+        }
+    }
+
+    public void flush() throws IOException {
+        writer.flush();
+    }
+
+    private void writeCsv(OrderResponseDto order) throws IOException {
+        writer.write(order.getOrderId());
+        writer.write(',');
+        writer.write(escapeCsv(order.getDrinkName()));
+        writer.write(',');
+        writer.write(escapeCsv(order.getStatus()));
+        writer.write(',');
+        writer.write(order.getCreatedAt().toString());
+        writer.write('\n');
+    }
+
+    // RFC 4180: поле с разделителем, кавычкой или переводом строки берётся в кавычки, кавычки удваиваются
+    private String escapeCsv(String value) {
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
@@ -2,9 +2,12 @@ package test.example.coffeemachineservice.mapper;
 
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
+import test.example.coffeemachineservice.dto.catalog.CompositionIngredientDto;
+import test.example.coffeemachineservice.dto.catalog.DrinkCompositionDto;
 import test.example.coffeemachineservice.dto.request.AddNewDrinkRequestDto;
 import test.example.coffeemachineservice.dto.response.DrinkResponseDto;
 import test.example.coffeemachineservice.persistent.entity.Drink;
+import test.example.coffeemachineservice.persistent.entity.RecipeIngredient;
 
 @Mapper(componentModel = "spring", uses = RecipeMapper.class)
 public interface DrinkMapper {
@@ -15,4 +18,13 @@ public interface DrinkMapper {
     Drink mapToDrink(AddNewDrinkRequestDto requestDto);
 
     DrinkResponseDto mapToDrinkResponseDto(Drink drink);
-}
\ No newline at end of file
+
+    @Mapping(source = "recipe.recipeId", target = "recipeId")
+    @Mapping(source = "recipe.recipeName", target = "recipeName")
+    @Mapping(source = "recipe.recipeIngredients", target = "ingredients")
+    DrinkCompositionDto mapToDrinkCompositionDto(Drink drink);
+
+    @Mapping(source = "ingredient.ingredientId", target = "ingredientId")
+    @Mapping(source = "ingredient.ingredientName", target = "ingredientName")
+    CompositionIngredientDto mapToCompositionIngredientDto(RecipeIngredient recipeIngredient);
+}
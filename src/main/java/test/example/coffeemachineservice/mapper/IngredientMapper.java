@@ -10,7 +10,10 @@ import test.example.coffeemachineservice.persistent.entity.Ingredient;
 public interface IngredientMapper {
 
     @Mapping(target = "ingredientId", ignore = true)
+    @Mapping(target = "amountReserved", ignore = true)
+    @Mapping(target = "version", ignore = true)
     Ingredient mapToIngredient(AddNewIngredientRequestDto requestDto);
 
+    @Mapping(target = "amountReserved", source = "amountReserved")
     IngredientResponseDto mapToIngredientResponseDto(Ingredient ingredient);
 }
\ No newline at end of file
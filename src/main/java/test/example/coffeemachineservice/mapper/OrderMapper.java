@@ -9,5 +9,6 @@ import test.example.coffeemachineservice.persistent.entity.Order;
 public interface OrderMapper {
 
     @Mapping(target = "drinkName", source = "drink.drinkName")
+    @Mapping(target = "status", source = "status.statusName")
     OrderResponseDto mapToOrderResponseDto(Order order);
 }
\ No newline at end of file
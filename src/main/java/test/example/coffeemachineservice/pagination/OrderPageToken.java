@@ -0,0 +1,47 @@
+package test.example.coffeemachineservice.pagination;
+
+import test.example.coffeemachineservice.dto.response.OrderResponseDto;
+import test.example.coffeemachineservice.exception.OrderException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.UUID;
+
+import static test.example.coffeemachineservice.constant.ApplicationConstant.INCORRECT_PAGE_TOKEN_MESSAGE;
+
+/**
+ * Токен продолжения для постраничной выдачи заказов: ключ (created_at, order_id) последнего заказа страницы.
+ * Для клиента непрозрачен — Base64 без отступов, безопасный для URL.
+ */
+public record OrderPageToken(LocalDateTime createdAt, UUID orderId) {
+
+    private static final String SEPARATOR = "~";
+
+    public static OrderPageToken of(OrderResponseDto lastOrder) {
+        return new OrderPageToken(lastOrder.getCreatedAt(), UUID.fromString(lastOrder.getOrderId()));
+    }
+
+    public String encode() {
+        String key = createdAt + SEPARATOR + orderId;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(key.getBytes(StandardCharsets.UTF_8));
+    }
+
+    // Пустой токен — первая страница
+    public static OrderPageToken decode(String token) {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+        try {
+            String key = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = key.split(SEPARATOR, -1);
+            if (parts.length != 2) {
+                throw new OrderException(INCORRECT_PAGE_TOKEN_MESSAGE);
+            }
+            return new OrderPageToken(LocalDateTime.parse(parts[0]), UUID.fromString(parts[1]));
+        } catch (IllegalArgumentException | DateTimeParseException exception) {
+            throw new OrderException(INCORRECT_PAGE_TOKEN_MESSAGE);
+        }
+    }
+}
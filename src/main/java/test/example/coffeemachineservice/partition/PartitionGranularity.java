@@ -0,0 +1,40 @@
+package test.example.coffeemachineservice.partition;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+
+// Имя партиции — orders_ и начало диапазона: orders_2025_02_01, orders_2025_02, orders_2025
+public enum PartitionGranularity {
+
+    DAY(ChronoUnit.DAYS, "yyyy_MM_dd"),
+    MONTH(ChronoUnit.MONTHS, "yyyy_MM"),
+    YEAR(ChronoUnit.YEARS, "yyyy");
+
+    private static final String PARTITION_NAME_PREFIX = "orders_";
+
+    private final ChronoUnit unit;
+
+    private final DateTimeFormatter suffixFormat;
+
+    PartitionGranularity(ChronoUnit unit, String suffixPattern) {
+        this.unit = unit;
+        this.suffixFormat = DateTimeFormatter.ofPattern(suffixPattern);
+    }
+
+    public LocalDate rangeStart(LocalDate date) {
+        return switch (this) {
+            case DAY -> date;
+            case MONTH -> date.withDayOfMonth(1);
+            case YEAR -> date.withDayOfYear(1);
+        };
+    }
+
+    public LocalDate nextRangeStart(LocalDate rangeStart) {
+        return rangeStart.plus(1, unit);
+    }
+
+    public String partitionName(LocalDate rangeStart) {
+        return PARTITION_NAME_PREFIX + rangeStart.format(suffixFormat);
+    }
+}
@@ -0,0 +1,10 @@
+package test.example.coffeemachineservice.partition;
+
+public enum PartitionRetentionPolicy {
+
+    // Партиция перестаёт участвовать в запросах к orders, но её таблица с данными сохраняется
+    DETACH,
+    DROP,
+    // Партиция отсоединяется, выгружается в сжатый файл в каталоге архивов и удаляется
+    ARCHIVE
+}
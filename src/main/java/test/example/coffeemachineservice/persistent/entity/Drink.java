@@ -1,5 +1,6 @@
 package test.example.coffeemachineservice.persistent.entity;
 
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
@@ -13,15 +14,23 @@ import lombok.Builder;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.util.UUID;
 
+import static test.example.coffeemachineservice.constant.ApplicationConstant.DRINK_CACHE_REGION;
+
+// orders_count пишется JDBC-пакетами в обход сессии: у копии из кэша счётчик может отставать,
+// поэтому счётчики читаются запросами, а не из связей
 @Getter
 @Setter
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.NONSTRICT_READ_WRITE, region = DRINK_CACHE_REGION)
 @Table(name = "drinks")
 public class Drink {
 
@@ -39,8 +48,4 @@ public class Drink {
 
     @Column(name = "orders_count", nullable = false)
     private int ordersCount;
-
-    public void incrementOrdersCount() {
-        this.ordersCount++;
-    }
 }
\ No newline at end of file
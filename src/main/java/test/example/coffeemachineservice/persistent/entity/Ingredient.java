@@ -1,25 +1,35 @@
 package test.example.coffeemachineservice.persistent.entity;
 
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.util.UUID;
 
+import static test.example.coffeemachineservice.constant.ApplicationConstant.INGREDIENT_CACHE_REGION;
+
+// Остатки меняются на каждом заказе: списание резерва вытесняет регион через пространство запроса,
+// резервы и их снятие идут запросами в обход сессии, поэтому регион живёт недолго
 @Getter
 @Setter
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = INGREDIENT_CACHE_REGION)
 @Table(name = "ingredients")
 public class Ingredient {
 
@@ -34,6 +44,15 @@ public class Ingredient {
     @Column(name = "amount_available", nullable = false)
     private int amountAvailable;
 
+    // Меняется только запросами резервирования, поэтому сущность его не перезаписывает
+    @Column(name = "amount_reserved", nullable = false, insertable = false, updatable = false)
+    private int amountReserved;
+
     @Column(name = "unit", nullable = false)
     private String unit;
+
+    // Растёт и при списании резервов запросом, поэтому пополнение по устаревшему остатку получает конфликт
+    @Version
+    @Column(name = "version", nullable = false)
+    private long version;
 }
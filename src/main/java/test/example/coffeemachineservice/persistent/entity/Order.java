@@ -2,8 +2,6 @@ package test.example.coffeemachineservice.persistent.entity;
 
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
-import jakarta.persistence.GeneratedValue;
-import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
@@ -13,6 +11,8 @@ import lombok.Builder;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import test.example.coffeemachineservice.persistent.enums.OrderStatus;
+import test.example.coffeemachineservice.persistent.generator.TimeOrderedOrderId;
 
 import java.time.LocalDateTime;
 import java.util.UUID;
@@ -26,8 +26,9 @@ import java.util.UUID;
 @Table(name = "orders")
 public class Order {
 
+    // Первичный ключ таблицы — (order_id, created_at); created_at восстанавливается из идентификатора
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @TimeOrderedOrderId
     @Column(name = "order_id", nullable = false)
     private UUID orderId;
 
@@ -36,8 +37,11 @@ public class Order {
     private Drink drink;
 
     @Column(name = "status", nullable = false)
-    private String status;
+    private OrderStatus status;
 
     @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt;
+
+    @Column(name = "ready_at")
+    private LocalDateTime readyAt;
 }
@@ -0,0 +1,52 @@
+package test.example.coffeemachineservice.persistent.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import test.example.coffeemachineservice.persistent.enums.OrderArchiveStatus;
+
+import java.time.LocalDateTime;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Entity
+@Table(name = "order_archives")
+public class OrderArchive {
+
+    @Id
+    @Column(name = "partition_name", nullable = false)
+    private String partitionName;
+
+    @Column(name = "range_start", nullable = false)
+    private LocalDateTime rangeStart;
+
+    @Column(name = "range_end", nullable = false)
+    private LocalDateTime rangeEnd;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false)
+    private OrderArchiveStatus status;
+
+    @Column(name = "file_name")
+    private String fileName;
+
+    @Column(name = "orders_count")
+    private Long ordersCount;
+
+    @Column(name = "detached_at", nullable = false)
+    private LocalDateTime detachedAt;
+
+    @Column(name = "archived_at")
+    private LocalDateTime archivedAt;
+}
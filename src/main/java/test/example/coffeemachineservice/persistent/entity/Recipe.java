@@ -1,5 +1,6 @@
 package test.example.coffeemachineservice.persistent.entity;
 
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.CascadeType;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
@@ -13,16 +14,23 @@ import lombok.Builder;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.util.List;
 import java.util.UUID;
 
+import static test.example.coffeemachineservice.constant.ApplicationConstant.RECIPE_CACHE_REGION;
+import static test.example.coffeemachineservice.constant.ApplicationConstant.RECIPE_INGREDIENTS_CACHE_REGION;
+
 @Getter
 @Setter
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.NONSTRICT_READ_WRITE, region = RECIPE_CACHE_REGION)
 @Table(name = "recipes")
 public class Recipe {
 
@@ -35,5 +43,6 @@ public class Recipe {
     private String recipeName;
 
     @OneToMany(mappedBy = "recipe", cascade = CascadeType.ALL)
+    @Cache(usage = CacheConcurrencyStrategy.NONSTRICT_READ_WRITE, region = RECIPE_INGREDIENTS_CACHE_REGION)
     private List<RecipeIngredient> recipeIngredients;
 }
\ No newline at end of file
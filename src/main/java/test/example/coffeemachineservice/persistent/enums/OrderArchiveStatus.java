@@ -0,0 +1,8 @@
+package test.example.coffeemachineservice.persistent.enums;
+
+public enum OrderArchiveStatus {
+
+    // Партиция отсоединена, но её файл ещё не записан
+    DETACHED,
+    ARCHIVED
+}
@@ -1,19 +1,36 @@
 package test.example.coffeemachineservice.persistent.enums;
 
+import java.util.Arrays;
+
+// В БД хранится код статуса, название отдаётся только наружу через API
 public enum OrderStatus {
 
-    CREATED("Создана"),
-    REFUSED("Отменена"),
-    PROGRESS("В процессе"),
-    COMPLETED("Выполнено");
+    CREATED((short) 1, "Создана"),
+    REFUSED((short) 2, "Отменена"),
+    PROGRESS((short) 3, "В процессе"),
+    COMPLETED((short) 4, "Выполнено");
+
+    private final short code;
 
     private final String statusName;
 
-    OrderStatus(String statusName) {
+    OrderStatus(short code, String statusName) {
+        this.code = code;
         this.statusName = statusName;
     }
 
+    public short getCode() {
+        return code;
+    }
+
     public String getStatusName() {
         return statusName;
     }
-}
\ No newline at end of file
+
+    public static OrderStatus fromCode(short code) {
+        return Arrays.stream(values())
+                .filter(status -> status.code == code)
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("Неизвестный код статуса заказа: " + code));
+    }
+}
@@ -0,0 +1,28 @@
+package test.example.coffeemachineservice.persistent.generator;
+
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.generator.BeforeExecutionGenerator;
+import org.hibernate.generator.EventType;
+import org.hibernate.generator.EventTypeSets;
+import test.example.coffeemachineservice.persistent.entity.Order;
+
+import java.util.EnumSet;
+
+// Идентификатор строится из created_at самого заказа, поэтому время создания заказа нужно задать до сохранения
+public class OrderIdGenerator implements BeforeExecutionGenerator {
+
+    @Override
+    public Object generate(SharedSessionContractImplementor session, Object owner, Object currentValue,
+                           EventType eventType) {
+        Order order = (Order) owner;
+        if (order.getCreatedAt() == null) {
+            throw new IllegalStateException("Для идентификатора заказа нужно время создания");
+        }
+        return OrderIds.newOrderId(order.getCreatedAt());
+    }
+
+    @Override
+    public EnumSet<EventType> getEventTypes() {
+        return EventTypeSets.INSERT_ONLY;
+    }
+}
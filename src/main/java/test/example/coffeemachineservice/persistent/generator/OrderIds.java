@@ -0,0 +1,67 @@
+package test.example.coffeemachineservice.persistent.generator;
+
+import java.security.SecureRandom;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.Collection;
+import java.util.UUID;
+
+/**
+ * Идентификаторы заказов в формате UUID версии 7: старшие 48 бит — миллисекунды created_at, остальное случайно.
+ * created_at читается как UTC, поэтому метка однозначно переводится обратно независимо от часового пояса сервера,
+ * и по идентификатору можно найти партицию заказа.
+ */
+public final class OrderIds {
+
+    private static final int UUID_VERSION = 7;
+
+    // Заказы со случайными UUID, созданные до перехода на версию 7, ищутся по всему диапазону партиций
+    private static final CreatedAtRange ANY_CREATED_AT = new CreatedAtRange(
+            LocalDateTime.of(1970, 1, 1, 0, 0), LocalDateTime.of(9999, 12, 31, 0, 0));
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    private OrderIds() {
+    }
+
+    public static UUID newOrderId(LocalDateTime createdAt) {
+        long timestamp = createdAt.toInstant(ZoneOffset.UTC).toEpochMilli();
+        long mostSigBits = (timestamp << 16) | ((long) UUID_VERSION << 12) | (RANDOM.nextInt() & 0x0FFFL);
+        long leastSigBits = (RANDOM.nextLong() & 0x3FFFFFFFFFFFFFFFL) | 0x8000000000000000L;
+        return new UUID(mostSigBits, leastSigBits);
+    }
+
+    public static CreatedAtRange createdAtRange(UUID orderId) {
+        if (orderId.version() != UUID_VERSION) {
+            return ANY_CREATED_AT;
+        }
+        LocalDateTime createdFrom = LocalDateTime.ofInstant(
+                Instant.ofEpochMilli(orderId.getMostSignificantBits() >>> 16), ZoneOffset.UTC);
+        return new CreatedAtRange(createdFrom, createdFrom.plus(1, ChronoUnit.MILLIS));
+    }
+
+    // Наименьший полуинтервал, покрывающий все заказы пакета: хотя бы один прежний UUID расширяет его до всех партиций
+    public static CreatedAtRange createdAtRange(Collection<UUID> orderIds) {
+        if (orderIds.isEmpty()) {
+            return ANY_CREATED_AT;
+        }
+        LocalDateTime createdFrom = LocalDateTime.MAX;
+        LocalDateTime createdTo = LocalDateTime.MIN;
+        for (UUID orderId : orderIds) {
+            CreatedAtRange range = createdAtRange(orderId);
+            if (range.from().isBefore(createdFrom)) {
+                createdFrom = range.from();
+            }
+            if (range.to().isAfter(createdTo)) {
+                createdTo = range.to();
+            }
+        }
+        return new CreatedAtRange(createdFrom, createdTo);
+    }
+
+    // Полуинтервал [from, to)
+    public record CreatedAtRange(LocalDateTime from, LocalDateTime to) {
+    }
+}
@@ -0,0 +1,15 @@
+package test.example.coffeemachineservice.persistent.projection;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+public interface CompletedOrderView {
+
+    UUID getOrderId();
+
+    UUID getDrinkId();
+
+    String getDrinkName();
+
+    LocalDateTime getReadyAt();
+}
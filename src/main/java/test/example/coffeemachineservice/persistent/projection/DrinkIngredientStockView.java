@@ -0,0 +1,18 @@
+package test.example.coffeemachineservice.persistent.projection;
+
+import java.util.UUID;
+
+public interface DrinkIngredientStockView {
+
+    UUID getDrinkId();
+
+    String getDrinkName();
+
+    UUID getRecipeId();
+
+    UUID getIngredientId();
+
+    int getQuantityOnRecipe();
+
+    int getFreeAmount();
+}
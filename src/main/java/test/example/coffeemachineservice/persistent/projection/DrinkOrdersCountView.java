@@ -0,0 +1,16 @@
+package test.example.coffeemachineservice.persistent.projection;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+public interface DrinkOrdersCountView {
+
+    UUID getDrinkId();
+
+    String getDrinkName();
+
+    // Начало минуты, к которой относятся заказы; null для подсчёта за всё время
+    LocalDateTime getPeriodStart();
+
+    long getOrdersCount();
+}
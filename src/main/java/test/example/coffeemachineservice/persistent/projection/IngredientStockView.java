@@ -0,0 +1,10 @@
+package test.example.coffeemachineservice.persistent.projection;
+
+import java.util.UUID;
+
+public interface IngredientStockView {
+
+    UUID getIngredientId();
+
+    int getFreeAmount();
+}
@@ -0,0 +1,17 @@
+package test.example.coffeemachineservice.persistent.projection;
+
+import test.example.coffeemachineservice.persistent.enums.OrderStatus;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+public interface OrderExportView {
+
+    UUID getOrderId();
+
+    String getDrinkName();
+
+    OrderStatus getStatus();
+
+    LocalDateTime getCreatedAt();
+}
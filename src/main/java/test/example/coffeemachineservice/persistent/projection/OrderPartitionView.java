@@ -0,0 +1,16 @@
+package test.example.coffeemachineservice.persistent.projection;
+
+import java.time.LocalDateTime;
+
+public interface OrderPartitionView {
+
+    String getPartitionName();
+
+    LocalDateTime getRangeStart();
+
+    LocalDateTime getRangeEnd();
+
+    long getTotalBytes();
+
+    long getEstimatedRows();
+}
@@ -0,0 +1,19 @@
+package test.example.coffeemachineservice.persistent.projection;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+public interface OrderRollupView {
+
+    LocalDateTime getPeriodStart();
+
+    UUID getDrinkId();
+
+    String getDrinkName();
+
+    long getOrdersCount();
+
+    long getCompletedCount();
+
+    long getRefusedCount();
+}
@@ -0,0 +1,10 @@
+package test.example.coffeemachineservice.persistent.projection;
+
+public interface OrderSummaryView {
+
+    long getOrdersCount();
+
+    long getCompletedCount();
+
+    long getRefusedCount();
+}
@@ -0,0 +1,9 @@
+package test.example.coffeemachineservice.persistent.repository;
+
+import java.util.Map;
+import java.util.UUID;
+
+public interface DrinkOrdersCountRepository {
+
+    void addOrdersCounts(Map<UUID, Long> deltas);
+}
@@ -0,0 +1,25 @@
+package test.example.coffeemachineservice.persistent.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+@RequiredArgsConstructor
+public class DrinkOrdersCountRepositoryImpl implements DrinkOrdersCountRepository {
+
+    private static final String ADD_ORDERS_COUNT_SQL = "UPDATE drinks SET orders_count = orders_count + ? WHERE drink_id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    // Дельты отправляются одним JDBC-пакетом; прибавление на стороне БД не теряет параллельные обновления
+    @Override
+    public void addOrdersCounts(Map<UUID, Long> deltas) {
+        List<Object[]> batchArgs = deltas.entrySet().stream()
+                .map(delta -> new Object[]{delta.getValue(), delta.getKey()})
+                .toList();
+        jdbcTemplate.batchUpdate(ADD_ORDERS_COUNT_SQL, batchArgs);
+    }
+}
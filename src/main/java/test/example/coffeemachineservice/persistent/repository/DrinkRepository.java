@@ -1,16 +1,34 @@
 package test.example.coffeemachineservice.persistent.repository;
 
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import test.example.coffeemachineservice.persistent.entity.Drink;
+import test.example.coffeemachineservice.persistent.projection.DrinkIngredientStockView;
 
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
-public interface DrinkRepository extends JpaRepository<Drink, UUID> {
+public interface DrinkRepository extends JpaRepository<Drink, UUID>, DrinkOrdersCountRepository {
 
     Optional<Drink> findByDrinkName(String drinkName);
 
+    // Напиток, рецепт и ингредиенты рецепта одним запросом для пути приготовления
+    @EntityGraph(attributePaths = {"recipe", "recipe.recipeIngredients", "recipe.recipeIngredients.ingredient"})
+    Optional<Drink> findWithCompositionByDrinkName(String drinkName);
+
     @Query("SELECT d FROM Drink d WHERE d.ordersCount > 0 ORDER BY d.ordersCount DESC LIMIT 1")
     Optional<Drink> findMostPopularDrink();
-}
\ No newline at end of file
+
+    // Все напитки с расходом и свободным остатком каждого ингредиента — исходные данные индекса порций
+    @Query(value = """
+            SELECT d.drink_id AS drinkId, d.drink_name AS drinkName, d.recipe_id AS recipeId,
+                   ri.ingredient_id AS ingredientId, ri.quantity_on_recipe AS quantityOnRecipe,
+                   i.amount_available - i.amount_reserved AS freeAmount
+            FROM drinks d
+                     JOIN recipe_ingredients ri ON ri.recipe_id = d.recipe_id
+                     JOIN ingredients i ON i.ingredient_id = ri.ingredient_id
+            """, nativeQuery = true)
+    List<DrinkIngredientStockView> findDrinkIngredientStock();
+}
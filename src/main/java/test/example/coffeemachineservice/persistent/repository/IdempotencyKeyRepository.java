@@ -0,0 +1,67 @@
+package test.example.coffeemachineservice.persistent.repository;
+
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+import test.example.coffeemachineservice.persistent.entity.IdempotencyKey;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+public interface IdempotencyKeyRepository extends JpaRepository<IdempotencyKey, String> {
+
+    @Query("SELECT k FROM IdempotencyKey k WHERE k.idempotencyKey = :idempotencyKey AND k.expiresAt > :now")
+    Optional<IdempotencyKey> findActive(@Param("idempotencyKey") String idempotencyKey, @Param("now") LocalDateTime now);
+
+    // Занимает ключ до выполнения запроса: первый занявший выигрывает, остальные экземпляры сервиса получают
+    // пустой список. Просроченную, но ещё не удалённую строку ключа можно занять заново.
+    // Без пространства запроса Hibernate очистил бы весь кэш второго уровня
+    @Transactional
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "idempotency_keys"))
+    @Query(value = """
+            INSERT INTO idempotency_keys (idempotency_key, fingerprint, response, created_at, expires_at)
+            VALUES (:idempotencyKey, :fingerprint, NULL, :createdAt, :expiresAt)
+            ON CONFLICT (idempotency_key) DO UPDATE
+            SET fingerprint = EXCLUDED.fingerprint,
+                response    = NULL,
+                created_at  = EXCLUDED.created_at,
+                expires_at  = EXCLUDED.expires_at
+            WHERE idempotency_keys.expires_at <= EXCLUDED.created_at
+            RETURNING idempotency_key
+            """, nativeQuery = true)
+    List<String> claim(@Param("idempotencyKey") String idempotencyKey,
+                       @Param("fingerprint") String fingerprint,
+                       @Param("createdAt") LocalDateTime createdAt,
+                       @Param("expiresAt") LocalDateTime expiresAt);
+
+    @Transactional
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "idempotency_keys"))
+    @Query(value = """
+            UPDATE idempotency_keys
+            SET response = :response, expires_at = :expiresAt
+            WHERE idempotency_key = :idempotencyKey AND response IS NULL
+            """, nativeQuery = true)
+    int complete(@Param("idempotencyKey") String idempotencyKey,
+                 @Param("response") String response,
+                 @Param("expiresAt") LocalDateTime expiresAt);
+
+    // Неудачный запрос освобождает ключ, чтобы клиент мог повторить его
+    @Transactional
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "idempotency_keys"))
+    @Query(value = "DELETE FROM idempotency_keys WHERE idempotency_key = :idempotencyKey AND response IS NULL",
+            nativeQuery = true)
+    int releaseClaim(@Param("idempotencyKey") String idempotencyKey);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM IdempotencyKey k WHERE k.expiresAt <= :now")
+    int deleteExpired(@Param("now") LocalDateTime now);
+}
@@ -1,12 +1,139 @@
 package test.example.coffeemachineservice.persistent.repository;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 import test.example.coffeemachineservice.persistent.entity.Ingredient;
+import test.example.coffeemachineservice.persistent.projection.IngredientStockView;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
 public interface IngredientRepository extends JpaRepository<Ingredient, UUID> {
 
+    // Резервы меняются запросами в обход сущности, поэтому список читается из базы, а кэш второго уровня
+    // обновляется прочитанным: иначе amountReserved отстаёт от базы на TTL региона
+    @Override
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHE_MODE, value = "REFRESH"))
+    List<Ingredient> findAll();
+
     Optional<Ingredient> findByIngredientName(String ingredientName);
+
+    List<Ingredient> findAllByIngredientNameIn(Collection<String> ingredientNames);
+
+    // Резерв всех ингредиентов рецепта под заказ одним запросом: либо все, либо ничего.
+    // Возвращает ингредиенты, которых не хватило; гонку с параллельным резервом ловит CHECK (amount_reserved <= amount_available)
+    @Transactional
+    @Query(value = """
+            WITH required AS (SELECT ri.ingredient_id, ri.quantity_on_recipe
+                              FROM recipe_ingredients ri
+                              WHERE ri.recipe_id = :recipeId),
+                 shortage AS (SELECT i.ingredient_name
+                              FROM ingredients i
+                                       JOIN required r ON r.ingredient_id = i.ingredient_id
+                              WHERE i.amount_available - i.amount_reserved < r.quantity_on_recipe),
+                 held AS (
+                     UPDATE ingredients i
+                         SET amount_reserved = i.amount_reserved + r.quantity_on_recipe
+                         FROM required r
+                         WHERE i.ingredient_id = r.ingredient_id
+                             AND NOT EXISTS (SELECT 1 FROM shortage)
+                         RETURNING i.ingredient_id, r.quantity_on_recipe),
+                 recorded AS (
+                     INSERT INTO ingredient_reservations (order_id, ingredient_id, quantity, expires_at)
+                         SELECT :orderId, h.ingredient_id, h.quantity_on_recipe, :expiresAt
+                         FROM held h
+                         RETURNING ingredient_id)
+            SELECT s.ingredient_name
+            FROM shortage s
+            ORDER BY s.ingredient_name
+            """, nativeQuery = true)
+    List<String> reserveRecipeIngredients(@Param("orderId") UUID orderId,
+                                          @Param("recipeId") UUID recipeId,
+                                          @Param("expiresAt") LocalDateTime expiresAt);
+
+    // Резерв становится списанием: остаток и резерв уменьшаются на одну и ту же величину, версия растёт,
+    // чтобы параллельное пополнение через сущность получило конфликт, а не затёрло списание.
+    // Возвращает заказы, резерв которых действительно списан: у остальных он истёк или уже снят.
+    // Запрос не изменяющий с точки зрения JPA, поэтому регион ингредиентов в кэше второго уровня вытесняет вызывающий
+    @Transactional
+    @Query(value = """
+            WITH committed AS (DELETE FROM ingredient_reservations
+                               WHERE order_id IN (:orderIds)
+                               RETURNING order_id, ingredient_id, quantity),
+                 totals AS (SELECT c.ingredient_id, sum(c.quantity) AS quantity
+                            FROM committed c
+                            GROUP BY c.ingredient_id),
+                 debited AS (
+                     UPDATE ingredients i
+                         SET amount_available = i.amount_available - t.quantity,
+                             amount_reserved = i.amount_reserved - t.quantity,
+                             version = i.version + 1
+                         FROM totals t
+                         WHERE i.ingredient_id = t.ingredient_id
+                         RETURNING i.ingredient_id)
+            SELECT DISTINCT c.order_id
+            FROM committed c
+            """, nativeQuery = true)
+    List<UUID> commitReservations(@Param("orderIds") Collection<UUID> orderIds);
+
+    // Возвращает новый свободный остаток затронутых ингредиентов
+    @Transactional
+    @Query(value = """
+            WITH released AS (DELETE FROM ingredient_reservations
+                              WHERE order_id IN (:orderIds)
+                              RETURNING ingredient_id, quantity),
+                 totals AS (SELECT r.ingredient_id, sum(r.quantity) AS quantity
+                            FROM released r
+                            GROUP BY r.ingredient_id)
+            UPDATE ingredients i
+            SET amount_reserved = i.amount_reserved - t.quantity
+            FROM totals t
+            WHERE i.ingredient_id = t.ingredient_id
+            RETURNING i.ingredient_id AS ingredientId, i.amount_available - i.amount_reserved AS freeAmount
+            """, nativeQuery = true)
+    List<IngredientStockView> releaseReservations(@Param("orderIds") Collection<UUID> orderIds);
+
+    // Снимает просроченные резервы и возвращает заказы, которым они принадлежали
+    @Transactional
+    @Query(value = """
+            WITH expired AS (DELETE FROM ingredient_reservations
+                             WHERE expires_at <= :now
+                             RETURNING order_id, ingredient_id, quantity),
+                 totals AS (SELECT e.ingredient_id, sum(e.quantity) AS quantity
+                            FROM expired e
+                            GROUP BY e.ingredient_id),
+                 released AS (
+                     UPDATE ingredients i
+                         SET amount_reserved = i.amount_reserved - t.quantity
+                         FROM totals t
+                         WHERE i.ingredient_id = t.ingredient_id
+                         RETURNING i.ingredient_id)
+            SELECT DISTINCT e.order_id
+            FROM expired e
+            """, nativeQuery = true)
+    List<UUID> releaseExpiredReservations(@Param("now") LocalDateTime now);
+
+    @Query(value = """
+            SELECT i.ingredient_name
+            FROM ingredients i
+                     JOIN recipe_ingredients ri ON ri.ingredient_id = i.ingredient_id
+            WHERE ri.recipe_id = :recipeId
+              AND i.amount_available - i.amount_reserved < ri.quantity_on_recipe
+            ORDER BY i.ingredient_name
+            """, nativeQuery = true)
+    List<String> findMissingRecipeIngredients(@Param("recipeId") UUID recipeId);
+
+    @Query(value = """
+            SELECT i.ingredient_id AS ingredientId, i.amount_available - i.amount_reserved AS freeAmount
+            FROM ingredients i
+            """, nativeQuery = true)
+    List<IngredientStockView> findFreeStock();
 }
@@ -0,0 +1,24 @@
+package test.example.coffeemachineservice.persistent.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import test.example.coffeemachineservice.persistent.entity.OrderArchive;
+import test.example.coffeemachineservice.persistent.enums.OrderArchiveStatus;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface OrderArchiveRepository extends JpaRepository<OrderArchive, String> {
+
+    List<OrderArchive> findByStatusOrderByRangeStart(OrderArchiveStatus status);
+
+    @Query("""
+            SELECT a FROM OrderArchive a
+            WHERE a.status = :status AND a.rangeStart <= :end AND a.rangeEnd > :start
+            ORDER BY a.rangeStart
+            """)
+    List<OrderArchive> findOverlapping(@Param("start") LocalDateTime start,
+                                       @Param("end") LocalDateTime end,
+                                       @Param("status") OrderArchiveStatus status);
+}
@@ -0,0 +1,22 @@
+package test.example.coffeemachineservice.persistent.repository;
+
+import test.example.coffeemachineservice.dto.response.OrderResponseDto;
+
+import java.time.LocalDateTime;
+import java.util.function.Consumer;
+
+public interface OrderPartitionRepository {
+
+    void createPartition(String partitionName, LocalDateTime rangeStart, LocalDateTime rangeEnd);
+
+    void detachPartition(String partitionName);
+
+    void dropPartition(String partitionName);
+
+    void detachPartitionForArchive(String partitionName);
+
+    // Курсор открывается только внутри транзакции, иначе драйвер читает таблицу в память целиком
+    void readDetachedOrders(String partitionName, Consumer<OrderResponseDto> consumer);
+
+    void completeArchive(String partitionName, String fileName, long ordersCount);
+}
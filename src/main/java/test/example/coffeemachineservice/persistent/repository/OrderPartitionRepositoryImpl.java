@@ -0,0 +1,84 @@
+package test.example.coffeemachineservice.persistent.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import test.example.coffeemachineservice.dto.response.OrderResponseDto;
+import test.example.coffeemachineservice.persistent.enums.OrderStatus;
+
+import java.sql.PreparedStatement;
+import java.time.LocalDateTime;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
+
+import static test.example.coffeemachineservice.constant.ApplicationConstant.ORDER_EXPORT_FETCH_ROWS;
+
+// DDL партиций выполняют процедуры БД: имя партиции подставляется в текст команды с экранированием
+@RequiredArgsConstructor
+public class OrderPartitionRepositoryImpl implements OrderPartitionRepository {
+
+    private static final String CREATE_PARTITION_SQL = "CALL create_order_partition(?, ?, ?)";
+
+    private static final String DETACH_PARTITION_SQL = "CALL detach_order_partition(?)";
+
+    private static final String DROP_PARTITION_SQL = "CALL drop_order_partition(?)";
+
+    private static final String DETACH_PARTITION_FOR_ARCHIVE_SQL = "CALL detach_order_partition_for_archive(?)";
+
+    private static final String COMPLETE_ARCHIVE_SQL = "CALL complete_order_archive(?, ?, ?)";
+
+    private static final String READ_DETACHED_ORDERS_SQL = """
+            SELECT o.order_id, d.drink_name, o.status, o.created_at
+            FROM "%s" o
+                     JOIN drinks d ON d.drink_id = o.drink_id
+            ORDER BY o.created_at, o.order_id
+            """;
+
+    // Имя таблицы подставляется в текст запроса, поэтому допускаются только имена партиций заказов
+    private static final Pattern PARTITION_NAME = Pattern.compile("orders_\\d{4}(_\\d{2}){0,2}");
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void createPartition(String partitionName, LocalDateTime rangeStart, LocalDateTime rangeEnd) {
+        jdbcTemplate.update(CREATE_PARTITION_SQL, partitionName, rangeStart, rangeEnd);
+    }
+
+    @Override
+    public void detachPartition(String partitionName) {
+        jdbcTemplate.update(DETACH_PARTITION_SQL, partitionName);
+    }
+
+    @Override
+    public void dropPartition(String partitionName) {
+        jdbcTemplate.update(DROP_PARTITION_SQL, partitionName);
+    }
+
+    @Override
+    public void detachPartitionForArchive(String partitionName) {
+        jdbcTemplate.update(DETACH_PARTITION_FOR_ARCHIVE_SQL, partitionName);
+    }
+
+    @Override
+    public void readDetachedOrders(String partitionName, Consumer<OrderResponseDto> consumer) {
+        if (!PARTITION_NAME.matcher(partitionName).matches()) {
+            throw new IllegalArgumentException("Недопустимое имя партиции заказов: " + partitionName);
+        }
+        String sql = READ_DETACHED_ORDERS_SQL.formatted(partitionName);
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(sql);
+            statement.setFetchSize(ORDER_EXPORT_FETCH_ROWS);
+            return statement;
+        }, (RowCallbackHandler) resultSet -> consumer.accept(OrderResponseDto.builder()
+                .orderId(resultSet.getObject("order_id").toString())
+                .drinkName(resultSet.getString("drink_name"))
+                .status(OrderStatus.fromCode(resultSet.getShort("status")).getStatusName())
+                .createdAt(resultSet.getObject("created_at", LocalDateTime.class))
+                .build()));
+    }
+
+    @Override
+    public void completeArchive(String partitionName, String fileName, long ordersCount) {
+        jdbcTemplate.update(COMPLETE_ARCHIVE_SQL, partitionName, fileName, ordersCount);
+    }
+}
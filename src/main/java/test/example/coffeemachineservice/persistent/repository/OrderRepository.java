@@ -1,16 +1,315 @@
 package test.example.coffeemachineservice.persistent.repository;
 
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+import test.example.coffeemachineservice.dto.response.OrderResponseDto;
 import test.example.coffeemachineservice.persistent.entity.Order;
+import test.example.coffeemachineservice.persistent.enums.OrderStatus;
+import test.example.coffeemachineservice.persistent.projection.CompletedOrderView;
+import test.example.coffeemachineservice.persistent.projection.DrinkOrdersCountView;
+import test.example.coffeemachineservice.persistent.projection.OrderExportView;
+import test.example.coffeemachineservice.persistent.projection.OrderPartitionView;
+import test.example.coffeemachineservice.persistent.projection.OrderRollupView;
+import test.example.coffeemachineservice.persistent.projection.OrderSummaryView;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
-import java.util.Set;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
-public interface OrderRepository extends JpaRepository<Order, UUID> {
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
+import static test.example.coffeemachineservice.constant.ApplicationConstant.ORDER_EXPORT_FETCH_SIZE;
 
-    boolean existsByStatusIn(Set<String> statuses);
+public interface OrderRepository extends JpaRepository<Order, UUID>, OrderPartitionRepository {
 
-    List<Order> findByCreatedAtBetween(LocalDateTime start, LocalDateTime end);
-}
\ No newline at end of file
+    // Страницы статистики читаются сразу в DTO: без сущностей напитка и рецепта и без контекста персистентности.
+    // Следующая страница начинается строго после ключа (created_at, order_id) последнего заказа предыдущей
+    @Query("""
+            SELECT new test.example.coffeemachineservice.dto.response.OrderResponseDto(
+                       CAST(o.orderId AS String), d.drinkName, o.status, o.createdAt)
+            FROM Order o
+                     JOIN o.drink d
+            ORDER BY o.createdAt, o.orderId
+            """)
+    List<OrderResponseDto> findOrderPage(Limit limit);
+
+    @Query("""
+            SELECT new test.example.coffeemachineservice.dto.response.OrderResponseDto(
+                       CAST(o.orderId AS String), d.drinkName, o.status, o.createdAt)
+            FROM Order o
+                     JOIN o.drink d
+            WHERE (o.createdAt, o.orderId) > (:afterCreatedAt, :afterOrderId)
+            ORDER BY o.createdAt, o.orderId
+            """)
+    List<OrderResponseDto> findOrderPageAfter(@Param("afterCreatedAt") LocalDateTime afterCreatedAt,
+                                              @Param("afterOrderId") UUID afterOrderId,
+                                              Limit limit);
+
+    @Query("""
+            SELECT new test.example.coffeemachineservice.dto.response.OrderResponseDto(
+                       CAST(o.orderId AS String), d.drinkName, o.status, o.createdAt)
+            FROM Order o
+                     JOIN o.drink d
+            WHERE o.createdAt BETWEEN :start AND :end
+            ORDER BY o.createdAt, o.orderId
+            """)
+    List<OrderResponseDto> findOrderPageByCreatedAtBetween(@Param("start") LocalDateTime start,
+                                                           @Param("end") LocalDateTime end,
+                                                           Limit limit);
+
+    @Query("""
+            SELECT new test.example.coffeemachineservice.dto.response.OrderResponseDto(
+                       CAST(o.orderId AS String), d.drinkName, o.status, o.createdAt)
+            FROM Order o
+                     JOIN o.drink d
+            WHERE o.createdAt BETWEEN :start AND :end
+              AND (o.createdAt, o.orderId) > (:afterCreatedAt, :afterOrderId)
+            ORDER BY o.createdAt, o.orderId
+            """)
+    List<OrderResponseDto> findOrderPageByCreatedAtBetweenAfter(@Param("start") LocalDateTime start,
+                                                                @Param("end") LocalDateTime end,
+                                                                @Param("afterCreatedAt") LocalDateTime afterCreatedAt,
+                                                                @Param("afterOrderId") UUID afterOrderId,
+                                                                Limit limit);
+
+    // Курсор PostgreSQL открывается только внутри транзакции; без fetch size драйвер читает весь результат сразу
+    @QueryHints({
+            @QueryHint(name = HINT_FETCH_SIZE, value = ORDER_EXPORT_FETCH_SIZE),
+            @QueryHint(name = HINT_READ_ONLY, value = "true")
+    })
+    @Query("""
+            SELECT o.orderId AS orderId, d.drinkName AS drinkName, o.status AS status, o.createdAt AS createdAt
+            FROM Order o
+                     JOIN o.drink d
+            WHERE o.createdAt BETWEEN :start AND :end
+            ORDER BY o.createdAt, o.orderId
+            """)
+    Stream<OrderExportView> streamByCreatedAtBetween(@Param("start") LocalDateTime start,
+                                                     @Param("end") LocalDateTime end);
+
+    // Диапазон created_at берётся из идентификатора (OrderIds.createdAtRange): из партиций остаётся одна
+    @Query("""
+            SELECT o FROM Order o
+            WHERE o.orderId = :orderId AND o.createdAt >= :createdFrom AND o.createdAt < :createdTo
+            """)
+    Optional<Order> findByIdWithinCreatedAt(@Param("orderId") UUID orderId,
+                                            @Param("createdFrom") LocalDateTime createdFrom,
+                                            @Param("createdTo") LocalDateTime createdTo);
+
+    @Transactional
+    @Modifying
+    @Query("""
+            UPDATE Order o SET o.status = :status
+            WHERE o.orderId = :orderId AND o.createdAt >= :createdFrom AND o.createdAt < :createdTo
+            """)
+    int updateStatusWithinCreatedAt(@Param("orderId") UUID orderId,
+                                    @Param("createdFrom") LocalDateTime createdFrom,
+                                    @Param("createdTo") LocalDateTime createdTo,
+                                    @Param("status") OrderStatus status);
+
+    @Transactional
+    @Modifying
+    @Query("""
+            DELETE FROM Order o
+            WHERE o.orderId = :orderId AND o.createdAt >= :createdFrom AND o.createdAt < :createdTo
+            """)
+    int deleteByIdWithinCreatedAt(@Param("orderId") UUID orderId,
+                                  @Param("createdFrom") LocalDateTime createdFrom,
+                                  @Param("createdTo") LocalDateTime createdTo);
+
+    long countByStatus(OrderStatus status);
+
+    @Query("SELECT o.orderId FROM Order o WHERE o.status = :status ORDER BY o.createdAt")
+    List<UUID> findOrderIdsByStatus(@Param("status") OrderStatus status);
+
+    // Запускает только заказы, ещё ожидающие приготовления: отменённый параллельно заказ в работу не попадёт.
+    // Диапазон created_at пакета (OrderIds.createdAtRange) оставляет только его партиции
+    @Transactional
+    @Query(value = """
+            UPDATE orders
+            SET status = :status,
+                ready_at = :readyAt
+            WHERE order_id IN (:orderIds)
+              AND created_at >= :createdFrom
+              AND created_at < :createdTo
+              AND status = :currentStatus
+            RETURNING order_id
+            """, nativeQuery = true)
+    List<UUID> updateStatusAndReadyAt(@Param("orderIds") Collection<UUID> orderIds,
+                                      @Param("createdFrom") LocalDateTime createdFrom,
+                                      @Param("createdTo") LocalDateTime createdTo,
+                                      @Param("currentStatus") short currentStatus,
+                                      @Param("status") short status,
+                                      @Param("readyAt") LocalDateTime readyAt);
+
+    // Возвращает только заказы, статус которых действительно сменился: остальные уже ушли из текущего статуса
+    @Transactional
+    @Query(value = """
+            UPDATE orders
+            SET status = :status
+            WHERE order_id IN (:orderIds)
+              AND created_at >= :createdFrom
+              AND created_at < :createdTo
+              AND status = :currentStatus
+            RETURNING order_id
+            """, nativeQuery = true)
+    List<UUID> updateStatus(@Param("orderIds") Collection<UUID> orderIds,
+                            @Param("createdFrom") LocalDateTime createdFrom,
+                            @Param("createdTo") LocalDateTime createdTo,
+                            @Param("currentStatus") short currentStatus,
+                            @Param("status") short status);
+
+    @Transactional
+    @Query(value = """
+            WITH completed AS (
+                UPDATE orders
+                    SET status = :completedStatus
+                    WHERE status = :progressStatus
+                        AND ready_at <= :now
+                    RETURNING order_id, drink_id, ready_at)
+            SELECT c.order_id AS orderId, c.drink_id AS drinkId, d.drink_name AS drinkName, c.ready_at AS readyAt
+            FROM completed c
+                     JOIN drinks d ON d.drink_id = c.drink_id
+            """, nativeQuery = true)
+    List<CompletedOrderView> completeReadyOrders(@Param("progressStatus") short progressStatus,
+                                                 @Param("completedStatus") short completedStatus,
+                                                 @Param("now") LocalDateTime now);
+
+    // Итог за всё время читается из дневных сводок, а не из всех партиций orders; ещё не свёрнутые дельты
+    // добавляются в том же запросе, поэтому снимок согласован со свёрткой
+    @Query(value = """
+            SELECT c.drink_id AS drinkId, d.drink_name AS drinkName, NULL AS periodStart,
+                   CAST(sum(c.orders_count) AS BIGINT) AS ordersCount
+            FROM (SELECT r.drink_id, r.orders_count
+                  FROM order_rollup_daily r
+                  WHERE r.status = :status
+                  UNION ALL
+                  SELECT dl.drink_id, dl.delta
+                  FROM order_rollup_deltas dl
+                  WHERE dl.status = :status) c
+                     JOIN drinks d ON d.drink_id = c.drink_id
+            GROUP BY c.drink_id, d.drink_name
+            HAVING sum(c.orders_count) > 0
+            """, nativeQuery = true)
+    List<DrinkOrdersCountView> countOrdersByDrink(@Param("status") short status);
+
+    // Готовность заказа совпадает с его завершением, поэтому окно считается по ready_at.
+    // Граница по created_at оставляет только партиции окна и идёт по индексу (created_at, order_id)
+    @Query(value = """
+            SELECT o.drink_id AS drinkId, d.drink_name AS drinkName,
+                   date_trunc('minute', o.ready_at) AS periodStart, count(*) AS ordersCount
+            FROM orders o
+                     JOIN drinks d ON d.drink_id = o.drink_id
+            WHERE o.status = :status
+              AND o.created_at >= :createdSince
+              AND o.ready_at >= :since
+            GROUP BY o.drink_id, d.drink_name, date_trunc('minute', o.ready_at)
+            """, nativeQuery = true)
+    List<DrinkOrdersCountView> countOrdersByDrinkPerMinute(@Param("status") short status,
+                                                           @Param("createdSince") LocalDateTime createdSince,
+                                                           @Param("since") LocalDateTime since);
+
+    // Порция дельт забирается с SKIP LOCKED, поэтому несколько экземпляров сворачивают их без ожидания друг друга.
+    // Изменяющие CTE выполняются независимо от того, читает ли их основной запрос
+    @Transactional
+    @Query(value = """
+            WITH folded AS (
+                DELETE FROM order_rollup_deltas
+                    WHERE delta_id IN (SELECT delta_id
+                                       FROM order_rollup_deltas
+                                       ORDER BY delta_id
+                                       LIMIT :batchSize FOR UPDATE SKIP LOCKED)
+                    RETURNING created_at, drink_id, status, delta),
+                 hourly AS (
+                     INSERT INTO order_rollup_hourly AS r (bucket_start, drink_id, status, orders_count)
+                         SELECT date_trunc('hour', created_at), drink_id, status, sum(delta)
+                         FROM folded
+                         GROUP BY date_trunc('hour', created_at), drink_id, status
+                         ON CONFLICT (bucket_start, drink_id, status)
+                             DO UPDATE SET orders_count = r.orders_count + EXCLUDED.orders_count),
+                 daily AS (
+                     INSERT INTO order_rollup_daily AS r (bucket_date, drink_id, status, orders_count)
+                         SELECT CAST(created_at AS DATE), drink_id, status, sum(delta)
+                         FROM folded
+                         GROUP BY CAST(created_at AS DATE), drink_id, status
+                         ON CONFLICT (bucket_date, drink_id, status)
+                             DO UPDATE SET orders_count = r.orders_count + EXCLUDED.orders_count)
+            SELECT count(*)
+            FROM folded
+            """, nativeQuery = true)
+    long foldRollupDeltas(@Param("batchSize") int batchSize);
+
+    @Query(value = """
+            SELECT CAST(r.bucket_date AS TIMESTAMP) AS periodStart, r.drink_id AS drinkId, d.drink_name AS drinkName,
+                   CAST(sum(r.orders_count) AS BIGINT) AS ordersCount,
+                   CAST(coalesce(sum(r.orders_count) FILTER (WHERE r.status = :completedStatus), 0) AS BIGINT)
+                       AS completedCount,
+                   CAST(coalesce(sum(r.orders_count) FILTER (WHERE r.status = :refusedStatus), 0) AS BIGINT)
+                       AS refusedCount
+            FROM order_rollup_daily r
+                     JOIN drinks d ON d.drink_id = r.drink_id
+            WHERE r.bucket_date BETWEEN :startDate AND :endDate
+            GROUP BY r.bucket_date, r.drink_id, d.drink_name
+            HAVING sum(r.orders_count) > 0
+            ORDER BY r.bucket_date, d.drink_name
+            """, nativeQuery = true)
+    List<OrderRollupView> findDailyRollups(@Param("startDate") LocalDate startDate,
+                                           @Param("endDate") LocalDate endDate,
+                                           @Param("completedStatus") short completedStatus,
+                                           @Param("refusedStatus") short refusedStatus);
+
+    @Query(value = """
+            SELECT r.bucket_start AS periodStart, r.drink_id AS drinkId, d.drink_name AS drinkName,
+                   CAST(sum(r.orders_count) AS BIGINT) AS ordersCount,
+                   CAST(coalesce(sum(r.orders_count) FILTER (WHERE r.status = :completedStatus), 0) AS BIGINT)
+                       AS completedCount,
+                   CAST(coalesce(sum(r.orders_count) FILTER (WHERE r.status = :refusedStatus), 0) AS BIGINT)
+                       AS refusedCount
+            FROM order_rollup_hourly r
+                     JOIN drinks d ON d.drink_id = r.drink_id
+            WHERE r.bucket_start >= :start
+              AND r.bucket_start < :end
+            GROUP BY r.bucket_start, r.drink_id, d.drink_name
+            HAVING sum(r.orders_count) > 0
+            ORDER BY r.bucket_start, d.drink_name
+            """, nativeQuery = true)
+    List<OrderRollupView> findHourlyRollups(@Param("start") LocalDateTime start,
+                                            @Param("end") LocalDateTime end,
+                                            @Param("completedStatus") short completedStatus,
+                                            @Param("refusedStatus") short refusedStatus);
+
+    @Query(value = """
+            SELECT CAST(coalesce(sum(orders_count), 0) AS BIGINT) AS ordersCount,
+                   CAST(coalesce(sum(orders_count) FILTER (WHERE status = :completedStatus), 0) AS BIGINT)
+                       AS completedCount,
+                   CAST(coalesce(sum(orders_count) FILTER (WHERE status = :refusedStatus), 0) AS BIGINT)
+                       AS refusedCount
+            FROM order_rollup_daily
+            WHERE bucket_date BETWEEN :startDate AND :endDate
+            """, nativeQuery = true)
+    OrderSummaryView summarizeRollups(@Param("startDate") LocalDate startDate,
+                                      @Param("endDate") LocalDate endDate,
+                                      @Param("completedStatus") short completedStatus,
+                                      @Param("refusedStatus") short refusedStatus);
+
+    @Query(value = """
+            SELECT partition_name AS partitionName,
+                   range_start    AS rangeStart,
+                   range_end      AS rangeEnd,
+                   total_bytes    AS totalBytes,
+                   estimated_rows AS estimatedRows
+            FROM order_partitions
+            ORDER BY range_start NULLS FIRST
+            """, nativeQuery = true)
+    List<OrderPartitionView> findPartitions();
+}
@@ -0,0 +1,19 @@
+package test.example.coffeemachineservice.popularity;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.time.Duration;
+
+@Getter
+@RequiredArgsConstructor
+public enum PopularityWindow {
+
+    HOUR(Duration.ofHours(1), Duration.ofMinutes(1)),
+    DAY(Duration.ofDays(1), Duration.ofMinutes(15)),
+    WEEK(Duration.ofDays(7), Duration.ofHours(1));
+
+    private final Duration length;
+
+    private final Duration bucket;
+}
@@ -0,0 +1,70 @@
+package test.example.coffeemachineservice.popularity;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Top-K за скользящее окно: окно разбито на кольцо корзин фиксированной длины, итоговые
+ * счётчики окна ведёт {@link SpaceSavingCounter}. При сдвиге окна содержимое устаревших корзин
+ * вычитается из итогов, поэтому чтение стоит O(K) и не зависит от числа корзин.
+ * Класс не потокобезопасен.
+ */
+public class RollingTopK<K> {
+
+    private final long bucketMillis;
+
+    private final Map<K, Long>[] buckets;
+
+    private final SpaceSavingCounter<K> totals;
+
+    private long currentBucket = Long.MIN_VALUE;
+
+    @SuppressWarnings("unchecked")
+    public RollingTopK(Duration window, Duration bucket, int capacity) {
+        this.bucketMillis = bucket.toMillis();
+        this.buckets = new Map[(int) (window.toMillis() / bucketMillis)];
+        for (int i = 0; i < buckets.length; i++) {
+            buckets[i] = new HashMap<>();
+        }
+        this.totals = new SpaceSavingCounter<>(capacity);
+    }
+
+    public void add(K key, long count, Instant at) {
+        long bucket = at.toEpochMilli() / bucketMillis;
+        advance(bucket);
+        if (bucket <= currentBucket - buckets.length) {
+            return;
+        }
+        buckets[slot(bucket)].merge(key, count, Long::sum);
+        totals.add(key, count);
+    }
+
+    public List<Map.Entry<K, Long>> top(int limit, Instant now) {
+        advance(now.toEpochMilli() / bucketMillis);
+        return totals.top(limit);
+    }
+
+    private void advance(long bucket) {
+        if (currentBucket == Long.MIN_VALUE) {
+            currentBucket = bucket;
+            return;
+        }
+        if (bucket <= currentBucket) {
+            return;
+        }
+        long lastExpired = Math.min(bucket, currentBucket + buckets.length);
+        for (long expired = currentBucket + 1; expired <= lastExpired; expired++) {
+            Map<K, Long> expiredBucket = buckets[slot(expired)];
+            expiredBucket.forEach(totals::subtract);
+            expiredBucket.clear();
+        }
+        currentBucket = bucket;
+    }
+
+    private int slot(long bucket) {
+        return (int) Math.floorMod(bucket, (long) buckets.length);
+    }
+}
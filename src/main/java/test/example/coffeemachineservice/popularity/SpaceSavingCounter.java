@@ -0,0 +1,96 @@
+package test.example.coffeemachineservice.popularity;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Space-Saving: хранит не больше {@code capacity} счётчиков. Новый ключ при заполненной структуре
+ * вытесняет ключ с минимальным счётчиком и наследует его значение, поэтому оценка частоты
+ * может быть завышена не больше чем на унаследованную ошибку. Класс не потокобезопасен.
+ */
+public class SpaceSavingCounter<K> {
+
+    private final int capacity;
+
+    private final Map<K, Counter> counters;
+
+    public SpaceSavingCounter(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity должен быть больше 0");
+        }
+        this.capacity = capacity;
+        this.counters = new HashMap<>(capacity * 2);
+    }
+
+    public void add(K key, long count) {
+        Counter counter = counters.get(key);
+        if (counter != null) {
+            counter.count += count;
+            return;
+        }
+        if (counters.size() < capacity) {
+            counters.put(key, new Counter(count, 0));
+            return;
+        }
+        K minKey = findMinKey();
+        Counter evicted = counters.remove(minKey);
+        counters.put(key, new Counter(evicted.count + count, evicted.count));
+    }
+
+    // Для скользящих окон: вычитает устаревшие события; счётчик, дошедший до нуля, освобождает место
+    public void subtract(K key, long count) {
+        Counter counter = counters.get(key);
+        if (counter == null) {
+            return;
+        }
+        counter.count -= count;
+        if (counter.count <= 0) {
+            counters.remove(key);
+            return;
+        }
+        counter.error = Math.min(counter.error, counter.count);
+    }
+
+    public long estimate(K key) {
+        Counter counter = counters.get(key);
+        return counter == null ? 0 : counter.count;
+    }
+
+    public List<Map.Entry<K, Long>> top(int limit) {
+        return counters.entrySet().stream()
+                .sorted(Comparator.comparingLong((Map.Entry<K, Counter> entry) -> entry.getValue().count).reversed())
+                .limit(limit)
+                .map(entry -> Map.entry(entry.getKey(), entry.getValue().count))
+                .toList();
+    }
+
+    public int size() {
+        return counters.size();
+    }
+
+    private K findMinKey() {
+        K minKey = null;
+        long minCount = Long.MAX_VALUE;
+        for (Map.Entry<K, Counter> entry : counters.entrySet()) {
+            if (entry.getValue().count < minCount) {
+                minCount = entry.getValue().count;
+                minKey = entry.getKey();
+            }
+        }
+        return minKey;
+    }
+
+    private static final class Counter {
+
+        private long count;
+
+        private long error;
+
+        private Counter(long count, long error) {
+            this.count = count;
+            this.error = error;
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package test.example.coffeemachineservice.scheduler;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import test.example.coffeemachineservice.service.IdempotencyService;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class IdempotencyKeyPurger {
+
+    private final IdempotencyService idempotencyService;
+
+    @Scheduled(fixedDelayString = "${coffee-machine.idempotency.purge-interval:PT10M}",
+            initialDelayString = "${coffee-machine.idempotency.purge-interval:PT10M}")
+    public void purgeExpiredKeys() {
+        try {
+            idempotencyService.purgeExpired();
+        } catch (RuntimeException exception) {
+            log.error("Ошибка удаления просроченных ключей идемпотентности: {}", exception.getMessage());
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package test.example.coffeemachineservice.scheduler;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import test.example.coffeemachineservice.persistent.projection.CompletedOrderView;
+import test.example.coffeemachineservice.service.OrderService;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Slf4j
+@Component
+public class OrderCompletionSweeper {
+
+    private final OrderService orderService;
+
+    private final Counter completedOrders;
+
+    private final Timer sweepDuration;
+
+    private final Timer completionLag;
+
+    public OrderCompletionSweeper(OrderService orderService, MeterRegistry meterRegistry) {
+        this.orderService = orderService;
+        this.completedOrders = Counter.builder("coffee.order.completion.completed")
+                .description("Заказы, переведённые в статус 'Выполнено' фоновой задачей")
+                .register(meterRegistry);
+        this.sweepDuration = Timer.builder("coffee.order.completion.sweep")
+                .description("Длительность одного прохода завершения готовых заказов")
+                .register(meterRegistry);
+        // Растёт вместе с интервалом прохода и временем самого прохода: заказ готов, а клиент ещё видит 'Готовится'
+        this.completionLag = Timer.builder("coffee.order.completion.lag")
+                .description("Задержка фактического завершения заказа относительно запланированного")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void recoverOverdueOrders() {
+        orderService.restoreBrewingQueue();
+        int recovered = sweep();
+        log.info("Восстановление после запуска: завершено просроченных заказов {}", recovered);
+    }
+
+    @Scheduled(fixedDelayString = "${coffee-machine.order-completion.sweep-interval:PT5S}",
+            initialDelayString = "${coffee-machine.order-completion.sweep-interval:PT5S}")
+    public void sweepReadyOrders() {
+        try {
+            sweep();
+        } catch (RuntimeException exception) {
+            log.error("Ошибка завершения готовых заказов: {}", exception.getMessage());
+        }
+    }
+
+    private int sweep() {
+        List<CompletedOrderView> completed = sweepDuration.record(orderService::completeReadyOrders);
+        LocalDateTime completedAt = LocalDateTime.now();
+        completed.forEach(order -> completionLag.record(Duration.between(order.getReadyAt(), completedAt)));
+        completedOrders.increment(completed.size());
+        return completed.size();
+    }
+}
@@ -0,0 +1,53 @@
+package test.example.coffeemachineservice.scheduler;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import test.example.coffeemachineservice.service.OrderCounterService;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class OrderCountFlusher implements SmartLifecycle {
+
+    // Останавливается после веб-сервера и пулов задач (у них фаза выше), поэтому последний сброс видит все заказы
+    private static final int SHUTDOWN_PHASE = 0;
+
+    private final OrderCounterService orderCounterService;
+
+    private volatile boolean running;
+
+    @Scheduled(fixedDelayString = "${coffee-machine.order-counters.flush-interval:PT1S}",
+            initialDelayString = "${coffee-machine.order-counters.flush-interval:PT1S}")
+    public void flushOrderCounts() {
+        try {
+            orderCounterService.flush();
+        } catch (RuntimeException exception) {
+            log.error("Ошибка сброса счётчиков заказов: {}", exception.getMessage());
+        }
+    }
+
+    @Override
+    public void start() {
+        running = true;
+    }
+
+    @Override
+    public void stop() {
+        int flushed = orderCounterService.flush();
+        log.info("Счётчики заказов сброшены при остановке, напитков {}", flushed);
+        running = false;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public int getPhase() {
+        return SHUTDOWN_PHASE;
+    }
+}
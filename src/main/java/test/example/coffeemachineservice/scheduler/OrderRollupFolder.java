@@ -0,0 +1,25 @@
+package test.example.coffeemachineservice.scheduler;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import test.example.coffeemachineservice.service.OrderRollupService;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class OrderRollupFolder {
+
+    private final OrderRollupService orderRollupService;
+
+    @Scheduled(fixedDelayString = "${coffee-machine.rollups.fold-interval:PT10S}",
+            initialDelayString = "${coffee-machine.rollups.fold-interval:PT10S}")
+    public void foldDeltas() {
+        try {
+            orderRollupService.foldDeltas();
+        } catch (RuntimeException exception) {
+            log.error("Ошибка свёртки сводок заказов: {}", exception.getMessage());
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package test.example.coffeemachineservice.scheduler;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import test.example.coffeemachineservice.service.PartitionMaintenanceService;
+
+// Первый проход сразу после старта: партиции готовятся в фоне и не задерживают запуск приложения
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class PartitionMaintainer {
+
+    private final PartitionMaintenanceService partitionMaintenanceService;
+
+    @Scheduled(fixedDelayString = "${coffee-machine.partitions.maintenance-interval:PT1H}", initialDelay = 0)
+    public void maintainPartitions() {
+        try {
+            partitionMaintenanceService.maintainPartitions();
+        } catch (RuntimeException exception) {
+            log.error("Ошибка обслуживания партиций заказов: {}", exception.getMessage());
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package test.example.coffeemachineservice.scheduler;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import test.example.coffeemachineservice.service.IngredientReservationService;
+import test.example.coffeemachineservice.service.OrderService;
+
+import java.util.List;
+import java.util.UUID;
+
+@Slf4j
+@Component
+public class ReservationExpirySweeper {
+
+    private final IngredientReservationService ingredientReservationService;
+
+    private final OrderService orderService;
+
+    private final Counter expiredOrders;
+
+    public ReservationExpirySweeper(IngredientReservationService ingredientReservationService,
+                                    OrderService orderService, MeterRegistry meterRegistry) {
+        this.ingredientReservationService = ingredientReservationService;
+        this.orderService = orderService;
+        this.expiredOrders = Counter.builder("coffee.ingredient.reservations.expired")
+                .description("Заказы, отменённые из-за истечения резерва ингредиентов")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${coffee-machine.reservations.sweep-interval:PT30S}",
+            initialDelayString = "${coffee-machine.reservations.sweep-interval:PT30S}")
+    public void releaseExpiredReservations() {
+        try {
+            List<UUID> expiredOrderIds = ingredientReservationService.releaseExpiredReservations();
+            int refused = orderService.refuseOrders(expiredOrderIds);
+            expiredOrders.increment(refused);
+        } catch (RuntimeException exception) {
+            log.error("Ошибка снятия просроченных резервов: {}", exception.getMessage());
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package test.example.coffeemachineservice.scheduler;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import test.example.coffeemachineservice.service.DrinkAvailabilityService;
+
+// Индекс порций ведётся по изменениям этого экземпляра; периодическое перестроение подтягивает
+// изменения остатков, сделанные в обход него (другие экземпляры, ручные правки в БД)
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ServingsIndexResync {
+
+    private final DrinkAvailabilityService drinkAvailabilityService;
+
+    @Scheduled(fixedDelayString = "${coffee-machine.availability.resync-interval:PT5M}",
+            initialDelayString = "${coffee-machine.availability.resync-interval:PT5M}")
+    public void resync() {
+        try {
+            drinkAvailabilityService.reload();
+        } catch (RuntimeException exception) {
+            log.error("Ошибка перестроения индекса доступных порций: {}", exception.getMessage());
+        }
+    }
+}
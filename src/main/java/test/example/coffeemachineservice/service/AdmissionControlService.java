@@ -0,0 +1,10 @@
+package test.example.coffeemachineservice.service;
+
+import java.util.function.Supplier;
+
+public interface AdmissionControlService {
+
+    <T> T admit(Supplier<T> action);
+
+    <T> T admit(int weight, Supplier<T> action);
+}
@@ -0,0 +1,21 @@
+package test.example.coffeemachineservice.service;
+
+import java.util.List;
+import java.util.UUID;
+
+public interface BrewingQueueService {
+
+    int enqueue(UUID orderId);
+
+    List<UUID> releaseSlots(int count);
+
+    boolean remove(UUID orderId);
+
+    int getPosition(UUID orderId);
+
+    boolean isFull();
+
+    int getFreeCapacity();
+
+    List<UUID> restore(int brewingCount, List<UUID> waitingOrderIds);
+}
@@ -0,0 +1,22 @@
+package test.example.coffeemachineservice.service;
+
+import test.example.coffeemachineservice.dto.response.AvailableDrinkResponseDto;
+import test.example.coffeemachineservice.persistent.projection.IngredientStockView;
+
+import java.util.List;
+import java.util.UUID;
+
+public interface DrinkAvailabilityService {
+
+    void reload();
+
+    void invalidate();
+
+    void recordReservation(UUID recipeId);
+
+    void recordRestock(UUID ingredientId, int addedQuantity);
+
+    void recordFreeStock(List<IngredientStockView> freeStock);
+
+    List<AvailableDrinkResponseDto> getAvailableDrinks();
+}
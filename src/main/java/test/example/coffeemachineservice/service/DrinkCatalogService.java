@@ -0,0 +1,8 @@
+package test.example.coffeemachineservice.service;
+
+import test.example.coffeemachineservice.dto.catalog.DrinkCompositionDto;
+
+public interface DrinkCatalogService {
+
+    DrinkCompositionDto getDrinkComposition(String drinkName);
+}
@@ -0,0 +1,18 @@
+package test.example.coffeemachineservice.service;
+
+import test.example.coffeemachineservice.dto.response.PopularDrinkResponseDto;
+import test.example.coffeemachineservice.persistent.projection.CompletedOrderView;
+import test.example.coffeemachineservice.popularity.PopularityWindow;
+
+import java.util.List;
+
+public interface DrinkPopularityService {
+
+    void restore();
+
+    void recordCompletedOrders(List<CompletedOrderView> completedOrders);
+
+    List<PopularDrinkResponseDto> getTopDrinks(int limit);
+
+    List<PopularDrinkResponseDto> getTopDrinks(PopularityWindow window, int limit);
+}
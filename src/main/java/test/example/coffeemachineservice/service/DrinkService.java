@@ -2,7 +2,10 @@ package test.example.coffeemachineservice.service;
 
 import test.example.coffeemachineservice.dto.request.AddNewDrinkRequestDto;
 import test.example.coffeemachineservice.dto.request.MakeDrinkRequestDto;
+import test.example.coffeemachineservice.dto.request.MakeDrinksBatchRequestDto;
 import test.example.coffeemachineservice.dto.response.DrinkResponseDto;
+import test.example.coffeemachineservice.dto.response.MakeDrinkResultDto;
+import test.example.coffeemachineservice.dto.response.OrderResponseDto;
 
 import java.util.List;
 
@@ -12,7 +15,11 @@ public interface DrinkService {
 
     List<DrinkResponseDto> getAllDrinks();
 
-    String makeDrink(MakeDrinkRequestDto requestDto);
+    String makeDrink(MakeDrinkRequestDto requestDto, String idempotencyKey);
+
+    OrderResponseDto makeDrinkAsync(MakeDrinkRequestDto requestDto, String idempotencyKey);
+
+    List<MakeDrinkResultDto> makeDrinks(MakeDrinksBatchRequestDto requestDto);
 
     DrinkResponseDto getPopularDrink();
 
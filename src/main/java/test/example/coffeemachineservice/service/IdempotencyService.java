@@ -0,0 +1,10 @@
+package test.example.coffeemachineservice.service;
+
+import java.util.function.Supplier;
+
+public interface IdempotencyService {
+
+    <T> T execute(String idempotencyKey, String operation, String fingerprint, Class<T> resultType, Supplier<T> action);
+
+    int purgeExpired();
+}
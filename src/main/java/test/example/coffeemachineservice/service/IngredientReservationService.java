@@ -0,0 +1,19 @@
+package test.example.coffeemachineservice.service;
+
+import test.example.coffeemachineservice.dto.catalog.DrinkCompositionDto;
+
+import java.util.List;
+import java.util.UUID;
+
+public interface IngredientReservationService {
+
+    List<String> reserveRecipeIngredients(UUID orderId, UUID recipeId);
+
+    List<List<String>> reserveBatchIngredients(List<UUID> orderIds, List<DrinkCompositionDto> compositions);
+
+    List<UUID> commitReservations(List<UUID> orderIds);
+
+    void releaseReservations(List<UUID> orderIds);
+
+    List<UUID> releaseExpiredReservations();
+}
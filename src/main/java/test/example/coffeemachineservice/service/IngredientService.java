@@ -3,7 +3,6 @@ package test.example.coffeemachineservice.service;
 import test.example.coffeemachineservice.dto.request.AddNewIngredientRequestDto;
 import test.example.coffeemachineservice.dto.request.UpdateIngredientRequestDto;
 import test.example.coffeemachineservice.dto.response.IngredientResponseDto;
-import test.example.coffeemachineservice.persistent.entity.RecipeIngredient;
 
 import java.util.List;
 
@@ -13,10 +12,6 @@ public interface IngredientService {
 
     List<IngredientResponseDto> getAllIngredients();
 
-    void reduceIngredientQuantities(List<RecipeIngredient> recipeIngredients);
-
-    boolean checkAmountIngredients(List<RecipeIngredient> recipeIngredients);
-
     IngredientResponseDto updateAmountAvailableIngredient(UpdateIngredientRequestDto requestDto);
 
     String deleteIngredient(String ingredientId);
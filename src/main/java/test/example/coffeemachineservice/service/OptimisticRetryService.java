@@ -0,0 +1,8 @@
+package test.example.coffeemachineservice.service;
+
+import java.util.function.Supplier;
+
+public interface OptimisticRetryService {
+
+    <T> T execute(String operation, Supplier<T> action);
+}
@@ -0,0 +1,17 @@
+package test.example.coffeemachineservice.service;
+
+import test.example.coffeemachineservice.dto.request.PeriodRequestDto;
+import test.example.coffeemachineservice.export.OrderExportFormat;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+public interface OrderArchiveService {
+
+    void archivePartition(String partitionName) throws IOException;
+
+    int archiveDetachedPartitions();
+
+    long exportArchivedOrders(PeriodRequestDto requestDto, OrderExportFormat format, OutputStream outputStream)
+            throws IOException;
+}
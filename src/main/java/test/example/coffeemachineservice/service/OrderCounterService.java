@@ -0,0 +1,10 @@
+package test.example.coffeemachineservice.service;
+
+import java.util.UUID;
+
+public interface OrderCounterService {
+
+    void increment(UUID drinkId, int count);
+
+    int flush();
+}
@@ -0,0 +1,13 @@
+package test.example.coffeemachineservice.service;
+
+import test.example.coffeemachineservice.dto.request.PeriodRequestDto;
+import test.example.coffeemachineservice.export.OrderExportFormat;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+public interface OrderExportService {
+
+    long exportOrdersForPeriod(PeriodRequestDto requestDto, OrderExportFormat format, OutputStream outputStream)
+            throws IOException;
+}
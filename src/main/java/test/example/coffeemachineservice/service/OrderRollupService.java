@@ -0,0 +1,18 @@
+package test.example.coffeemachineservice.service;
+
+import test.example.coffeemachineservice.dto.request.PeriodRequestDto;
+import test.example.coffeemachineservice.dto.response.OrderCountResponseDto;
+import test.example.coffeemachineservice.dto.response.OrderSummaryResponseDto;
+
+import java.util.List;
+
+public interface OrderRollupService {
+
+    long foldDeltas();
+
+    List<OrderCountResponseDto> getDailyCounts(PeriodRequestDto requestDto);
+
+    List<OrderCountResponseDto> getHourlyCountsForToday();
+
+    OrderSummaryResponseDto getSummary(PeriodRequestDto requestDto);
+}
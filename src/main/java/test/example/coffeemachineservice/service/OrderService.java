@@ -1,29 +1,43 @@
 package test.example.coffeemachineservice.service;
 
 import test.example.coffeemachineservice.dto.request.PeriodRequestDto;
+import test.example.coffeemachineservice.dto.response.OrderPageResponseDto;
 import test.example.coffeemachineservice.dto.response.OrderResponseDto;
 import test.example.coffeemachineservice.persistent.entity.Drink;
 import test.example.coffeemachineservice.persistent.enums.OrderStatus;
+import test.example.coffeemachineservice.persistent.projection.CompletedOrderView;
 
-import java.time.Duration;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 public interface OrderService {
 
-    UUID createOrder(Drink drink, String status);
+    UUID createOrder(Drink drink, OrderStatus status);
 
-    void updateOrderStatus(UUID orderId, String status);
+    List<UUID> createOrders(List<Drink> drinks, OrderStatus status);
 
-    void updateOrderStatusAfterDelay(UUID orderId, OrderStatus newStatus, Duration delay);
+    void updateOrderStatus(UUID orderId, OrderStatus status);
 
-    List<OrderResponseDto> getAllOrders();
+    int refuseOrders(List<UUID> orderIds);
 
-    List<OrderResponseDto> getOrdersForToday();
+    OrderResponseDto getOrder(String orderId);
 
-    List<OrderResponseDto> getOrdersForCurrentWeek();
+    int enqueueOrder(UUID orderId);
 
-    List<OrderResponseDto> getOrdersForPeriod(PeriodRequestDto requestDto);
+    Map<UUID, Integer> enqueueOrders(List<UUID> orderIds);
+
+    List<CompletedOrderView> completeReadyOrders();
+
+    void restoreBrewingQueue();
+
+    OrderPageResponseDto getAllOrders(String pageToken, int size);
+
+    OrderPageResponseDto getOrdersForToday(String pageToken, int size);
+
+    OrderPageResponseDto getOrdersForCurrentWeek(String pageToken, int size);
+
+    OrderPageResponseDto getOrdersForPeriod(PeriodRequestDto requestDto, String pageToken, int size);
 
     String deleteOrder(String orderId);
 }
\ No newline at end of file
@@ -0,0 +1,11 @@
+package test.example.coffeemachineservice.service;
+
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import test.example.coffeemachineservice.event.OrderStatusChangedEvent;
+
+public interface OrderStatusStreamService {
+
+    SseEmitter subscribe(String orderId);
+
+    void onOrderStatusChanged(OrderStatusChangedEvent event);
+}
@@ -0,0 +1,6 @@
+package test.example.coffeemachineservice.service;
+
+public interface PartitionMaintenanceService {
+
+    void maintainPartitions();
+}
@@ -0,0 +1,172 @@
+package test.example.coffeemachineservice.service.impl;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import test.example.coffeemachineservice.configuration.CoffeeMachineProperties;
+import test.example.coffeemachineservice.exception.OverloadException;
+import test.example.coffeemachineservice.service.AdmissionControlService;
+import test.example.coffeemachineservice.service.BrewingQueueService;
+
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import static test.example.coffeemachineservice.constant.ApplicationConstant.MINUTES_MAKE_DRINK;
+import static test.example.coffeemachineservice.constant.ApplicationConstant.SERVICE_OVERLOADED_MESSAGE;
+
+// Отказывает сразу, пока запрос не занял поток и соединение: ожидание в пуле Hikari до таймаута
+// растягивает хвост задержек для всех запросов, а не только для лишних
+@Slf4j
+@Service
+public class AdmissionControlServiceImpl implements AdmissionControlService {
+
+    private static final String HIKARI_PENDING_METER = "hikaricp.connections.pending";
+
+    private static final String HIKARI_ACQUIRE_METER = "hikaricp.connections.acquire";
+
+    private final BrewingQueueService brewingQueueService;
+
+    private final MeterRegistry meterRegistry;
+
+    private final Semaphore inFlight;
+
+    private final int maxInFlight;
+
+    private final int maxPendingConnections;
+
+    private final double maxPoolWaitMillis;
+
+    private final long sampleIntervalNanos;
+
+    private final Duration retryAfter;
+
+    private final Duration brewingRetryAfter;
+
+    private final Counter admittedRequests;
+
+    private final Counter shedByQueue;
+
+    private final Counter shedByPool;
+
+    private final Counter shedByConcurrency;
+
+    private long lastSampleNanos;
+
+    private long lastAcquireCount;
+
+    private double lastAcquireMillis;
+
+    private double recentPoolWaitMillis;
+
+    public AdmissionControlServiceImpl(BrewingQueueService brewingQueueService, CoffeeMachineProperties properties,
+                                       MeterRegistry meterRegistry) {
+        CoffeeMachineProperties.Admission admission = properties.getAdmission();
+        this.brewingQueueService = brewingQueueService;
+        this.meterRegistry = meterRegistry;
+        this.maxInFlight = admission.getMaxInFlight();
+        this.inFlight = new Semaphore(maxInFlight);
+        this.maxPendingConnections = admission.getMaxPendingConnections();
+        this.maxPoolWaitMillis = admission.getMaxPoolWait().toMillis();
+        this.sampleIntervalNanos = admission.getPoolWaitSampleInterval().toNanos();
+        this.retryAfter = admission.getRetryAfter();
+        // Место в очереди освобождается не раньше, чем один из слотов закончит напиток
+        this.brewingRetryAfter = Duration.ofMinutes(MINUTES_MAKE_DRINK).dividedBy(properties.getBrewing().getSlots());
+        this.lastSampleNanos = System.nanoTime() - sampleIntervalNanos;
+        this.admittedRequests = admissionCounter("admitted", "none");
+        this.shedByQueue = admissionCounter("shed", "brewing_queue");
+        this.shedByPool = admissionCounter("shed", "connection_pool");
+        this.shedByConcurrency = admissionCounter("shed", "in_flight");
+        Gauge.builder("coffee.admission.in_flight", inFlight, permits -> maxInFlight - permits.availablePermits())
+                .description("Запросы на приготовление, выполняемые в данный момент")
+                .register(meterRegistry);
+        Gauge.builder("coffee.admission.pool_wait", this, AdmissionControlServiceImpl::getRecentPoolWaitMillis)
+                .description("Среднее ожидание соединения из пула за последний интервал, мс")
+                .baseUnit("milliseconds")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public <T> T admit(Supplier<T> action) {
+        return admit(1, action);
+    }
+
+    // Пакет весит столько, сколько в нём напитков: ему нужно столько же мест в очереди и разрешений
+    // на одновременное выполнение. Разрешений берётся не больше лимита, иначе большой пакет не прошёл бы никогда
+    @Override
+    public <T> T admit(int weight, Supplier<T> action) {
+        int freeCapacity = brewingQueueService.getFreeCapacity();
+        if (freeCapacity < weight) {
+            String reason = freeCapacity == 0
+                    ? "очередь приготовления заполнена"
+                    : "в очереди приготовления свободно " + freeCapacity + " мест из " + weight;
+            throw shed(shedByQueue, reason, brewingRetryAfter.multipliedBy(weight - freeCapacity));
+        }
+        double pendingConnections = getPendingConnections();
+        if (pendingConnections > maxPendingConnections) {
+            throw shed(shedByPool, "соединения ждут " + (long) pendingConnections + " потоков", retryAfter);
+        }
+        double poolWaitMillis = samplePoolWaitMillis();
+        if (poolWaitMillis > maxPoolWaitMillis) {
+            throw shed(shedByPool, "ожидание соединения " + (long) poolWaitMillis + " мс", retryAfter);
+        }
+        int permits = Math.min(weight, maxInFlight);
+        if (!inFlight.tryAcquire(permits)) {
+            throw shed(shedByConcurrency, "свободно " + inFlight.availablePermits() + " из " + maxInFlight
+                    + " разрешений, нужно " + permits, retryAfter);
+        }
+        admittedRequests.increment();
+        try {
+            return action.get();
+        } finally {
+            inFlight.release(permits);
+        }
+    }
+
+    private OverloadException shed(Counter counter, String reason, Duration retryAfter) {
+        counter.increment();
+        log.warn("Запрос на приготовление отклонён: {}, повтор через {} с", reason, retryAfter.toSeconds());
+        return new OverloadException(SERVICE_OVERLOADED_MESSAGE, retryAfter);
+    }
+
+    private double getPendingConnections() {
+        Gauge pending = meterRegistry.find(HIKARI_PENDING_METER).gauge();
+        return pending == null ? 0 : pending.value();
+    }
+
+    // Среднее время получения соединения по приросту таймера Hikari за интервал, а не за всё время работы
+    private synchronized double samplePoolWaitMillis() {
+        long now = System.nanoTime();
+        if (now - lastSampleNanos < sampleIntervalNanos) {
+            return recentPoolWaitMillis;
+        }
+        Timer acquire = meterRegistry.find(HIKARI_ACQUIRE_METER).timer();
+        if (acquire == null) {
+            return 0;
+        }
+        long count = acquire.count();
+        double totalMillis = acquire.totalTime(TimeUnit.MILLISECONDS);
+        long acquired = count - lastAcquireCount;
+        recentPoolWaitMillis = acquired > 0 ? (totalMillis - lastAcquireMillis) / acquired : 0;
+        lastAcquireCount = count;
+        lastAcquireMillis = totalMillis;
+        lastSampleNanos = now;
+        return recentPoolWaitMillis;
+    }
+
+    private synchronized double getRecentPoolWaitMillis() {
+        return recentPoolWaitMillis;
+    }
+
+    private Counter admissionCounter(String outcome, String reason) {
+        return Counter.builder("coffee.admission.requests")
+                .description("Запросы на приготовление, принятые и отклонённые контролем нагрузки")
+                .tag("outcome", outcome)
+                .tag("reason", reason)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,115 @@
+package test.example.coffeemachineservice.service.impl;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import test.example.coffeemachineservice.configuration.CoffeeMachineProperties;
+import test.example.coffeemachineservice.exception.OrderException;
+import test.example.coffeemachineservice.service.BrewingQueueService;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.UUID;
+
+import static test.example.coffeemachineservice.constant.ApplicationConstant.BREWING_QUEUE_FULL_MESSAGE;
+
+@Slf4j
+@Service
+public class BrewingQueueServiceImpl implements BrewingQueueService {
+
+    private final int slots;
+
+    private final int queueCapacity;
+
+    private final Deque<UUID> waitingOrders = new ArrayDeque<>();
+
+    private int busySlots;
+
+    public BrewingQueueServiceImpl(CoffeeMachineProperties properties, MeterRegistry meterRegistry) {
+        this.slots = properties.getBrewing().getSlots();
+        this.queueCapacity = properties.getBrewing().getQueueCapacity();
+        Gauge.builder("coffee.brewing.slots.busy", this, BrewingQueueServiceImpl::getBusySlots)
+                .description("Занятые слоты приготовления")
+                .register(meterRegistry);
+        Gauge.builder("coffee.brewing.queue.size", this, BrewingQueueServiceImpl::getQueueSize)
+                .description("Заказы, ожидающие свободного слота приготовления")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public synchronized int enqueue(UUID orderId) {
+        if (busySlots < slots && waitingOrders.isEmpty()) {
+            busySlots++;
+            log.info("Заказ {} занял слот приготовления, занято {}/{}", orderId, busySlots, slots);
+            return 0;
+        }
+        if (waitingOrders.size() >= queueCapacity) {
+            throw new OrderException(BREWING_QUEUE_FULL_MESSAGE);
+        }
+        waitingOrders.addLast(orderId);
+        log.info("Заказ {} поставлен в очередь, позиция {}", orderId, waitingOrders.size());
+        return waitingOrders.size();
+    }
+
+    @Override
+    public synchronized List<UUID> releaseSlots(int count) {
+        busySlots = Math.max(0, busySlots - count);
+        return promoteWaitingOrders();
+    }
+
+    @Override
+    public synchronized boolean remove(UUID orderId) {
+        return waitingOrders.remove(orderId);
+    }
+
+    @Override
+    public synchronized int getPosition(UUID orderId) {
+        int position = 1;
+        for (UUID waitingOrderId : waitingOrders) {
+            if (waitingOrderId.equals(orderId)) {
+                return position;
+            }
+            position++;
+        }
+        return -1;
+    }
+
+    @Override
+    public synchronized boolean isFull() {
+        return busySlots >= slots && waitingOrders.size() >= queueCapacity;
+    }
+
+    @Override
+    public synchronized int getFreeCapacity() {
+        return Math.max(0, slots - busySlots) + Math.max(0, queueCapacity - waitingOrders.size());
+    }
+
+    @Override
+    public synchronized List<UUID> restore(int brewingCount, List<UUID> waitingOrderIds) {
+        busySlots = brewingCount;
+        waitingOrders.clear();
+        waitingOrders.addAll(waitingOrderIds);
+        log.info("Очередь приготовления восстановлена: готовится {}, ожидает {}", busySlots, waitingOrders.size());
+        return promoteWaitingOrders();
+    }
+
+    public synchronized int getBusySlots() {
+        return busySlots;
+    }
+
+    public synchronized int getQueueSize() {
+        return waitingOrders.size();
+    }
+
+    private List<UUID> promoteWaitingOrders() {
+        List<UUID> promotedOrders = new ArrayList<>();
+        while (busySlots < slots && !waitingOrders.isEmpty()) {
+            busySlots++;
+            promotedOrders.add(waitingOrders.pollFirst());
+        }
+        return promotedOrders;
+    }
+}
@@ -0,0 +1,138 @@
+package test.example.coffeemachineservice.service.impl;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import test.example.coffeemachineservice.availability.ServingsIndex;
+import test.example.coffeemachineservice.dto.response.AvailableDrinkResponseDto;
+import test.example.coffeemachineservice.persistent.projection.DrinkIngredientStockView;
+import test.example.coffeemachineservice.persistent.projection.IngredientStockView;
+import test.example.coffeemachineservice.persistent.repository.DrinkRepository;
+import test.example.coffeemachineservice.service.DrinkAvailabilityService;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+// Индекс строится из БД при старте и после изменения каталога, дальше его двигают резервы, снятия резервов
+// и пополнения. Изменения внутри транзакции применяются только после её фиксации
+@Slf4j
+@Service
+public class DrinkAvailabilityServiceImpl implements DrinkAvailabilityService {
+
+    private final DrinkRepository drinkRepository;
+
+    private ServingsIndex<UUID, UUID, UUID> index = new ServingsIndex<>();
+
+    private Map<UUID, String> drinkNames = new HashMap<>();
+
+    private boolean stale = true;
+
+    private List<AvailableDrinkResponseDto> snapshot;
+
+    public DrinkAvailabilityServiceImpl(DrinkRepository drinkRepository) {
+        this.drinkRepository = drinkRepository;
+    }
+
+    @Override
+    @PostConstruct
+    public synchronized void reload() {
+        List<DrinkIngredientStockView> rows = drinkRepository.findDrinkIngredientStock();
+        ServingsIndex<UUID, UUID, UUID> reloaded = new ServingsIndex<>();
+        Map<UUID, String> names = new HashMap<>();
+        Map<UUID, UUID> recipes = new HashMap<>();
+        Map<UUID, Map<UUID, Integer>> quantities = new LinkedHashMap<>();
+        Map<UUID, Integer> freeStock = new HashMap<>();
+        rows.forEach(row -> {
+            names.put(row.getDrinkId(), row.getDrinkName());
+            recipes.put(row.getDrinkId(), row.getRecipeId());
+            quantities.computeIfAbsent(row.getDrinkId(), key -> new HashMap<>())
+                    .put(row.getIngredientId(), row.getQuantityOnRecipe());
+            freeStock.put(row.getIngredientId(), row.getFreeAmount());
+        });
+        freeStock.forEach(reloaded::setFreeStock);
+        quantities.forEach((drinkId, recipeQuantities) ->
+                reloaded.addDrink(drinkId, recipes.get(drinkId), recipeQuantities));
+        index = reloaded;
+        drinkNames = names;
+        stale = false;
+        snapshot = null;
+        log.info("Индекс доступных порций построен, напитков: {}", reloaded.size());
+    }
+
+    // Состав меню изменился: индекс перестраивается при следующем обращении
+    @Override
+    public void invalidate() {
+        afterCommit(() -> {
+            synchronized (this) {
+                stale = true;
+                snapshot = null;
+            }
+        });
+    }
+
+    @Override
+    public void recordReservation(UUID recipeId) {
+        afterCommit(() -> update(() -> index.reserveRecipe(recipeId)));
+    }
+
+    @Override
+    public void recordRestock(UUID ingredientId, int addedQuantity) {
+        afterCommit(() -> update(() -> index.addFreeStock(ingredientId, addedQuantity)));
+    }
+
+    @Override
+    public void recordFreeStock(List<IngredientStockView> freeStock) {
+        if (freeStock.isEmpty()) {
+            return;
+        }
+        afterCommit(() -> update(() ->
+                freeStock.forEach(stock -> index.setFreeStock(stock.getIngredientId(), stock.getFreeAmount()))));
+    }
+
+    @Override
+    public synchronized List<AvailableDrinkResponseDto> getAvailableDrinks() {
+        if (stale) {
+            reload();
+        }
+        if (snapshot == null) {
+            snapshot = index.available().stream()
+                    .map(entry -> AvailableDrinkResponseDto.builder()
+                            .drinkId(entry.getKey().toString())
+                            .drinkName(drinkNames.get(entry.getKey()))
+                            .servings(entry.getValue())
+                            .build())
+                    .sorted(Comparator.comparing(AvailableDrinkResponseDto::getDrinkName))
+                    .collect(Collectors.toUnmodifiableList());
+        }
+        return snapshot;
+    }
+
+    // Пока индекс устарел, изменения пропускаются: перестроение всё равно прочитает актуальные остатки
+    private synchronized void update(Runnable change) {
+        if (stale) {
+            return;
+        }
+        change.run();
+        snapshot = null;
+    }
+
+    private void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
@@ -0,0 +1,38 @@
+package test.example.coffeemachineservice.service.impl;
+
+import jakarta.transaction.Transactional;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.stereotype.Service;
+import test.example.coffeemachineservice.dto.catalog.DrinkCompositionDto;
+import test.example.coffeemachineservice.exception.DrinkException;
+import test.example.coffeemachineservice.mapper.DrinkMapper;
+import test.example.coffeemachineservice.persistent.entity.Drink;
+import test.example.coffeemachineservice.persistent.repository.DrinkRepository;
+import test.example.coffeemachineservice.service.DrinkCatalogService;
+
+import static org.springframework.http.HttpStatus.NOT_FOUND;
+import static test.example.coffeemachineservice.constant.ApplicationConstant.DRINK_CATALOG_CACHE;
+import static test.example.coffeemachineservice.constant.ApplicationConstant.DRINK_NOT_FOUND_MESSAGE;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class DrinkCatalogServiceImpl implements DrinkCatalogService {
+
+    private final DrinkRepository drinkRepository;
+
+    private final DrinkMapper drinkMapper;
+
+    // Вызывается только при промахе кэша; отсутствующие напитки не кэшируются
+    @Override
+    @Transactional
+    @Cacheable(cacheNames = DRINK_CATALOG_CACHE, key = "#drinkName")
+    public DrinkCompositionDto getDrinkComposition(String drinkName) {
+        log.info("Загрузка состава напитка '{}' в каталог", drinkName);
+        Drink foundDrink = drinkRepository.findWithCompositionByDrinkName(drinkName)
+                .orElseThrow(() -> new DrinkException(NOT_FOUND, DRINK_NOT_FOUND_MESSAGE));
+        return drinkMapper.mapToDrinkCompositionDto(foundDrink);
+    }
+}
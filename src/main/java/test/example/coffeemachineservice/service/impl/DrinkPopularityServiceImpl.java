@@ -0,0 +1,106 @@
+package test.example.coffeemachineservice.service.impl;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import test.example.coffeemachineservice.configuration.CoffeeMachineProperties;
+import test.example.coffeemachineservice.dto.response.PopularDrinkResponseDto;
+import test.example.coffeemachineservice.persistent.projection.CompletedOrderView;
+import test.example.coffeemachineservice.persistent.projection.DrinkOrdersCountView;
+import test.example.coffeemachineservice.persistent.repository.OrderRepository;
+import test.example.coffeemachineservice.popularity.PopularityWindow;
+import test.example.coffeemachineservice.popularity.RollingTopK;
+import test.example.coffeemachineservice.popularity.SpaceSavingCounter;
+import test.example.coffeemachineservice.service.DrinkPopularityService;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static test.example.coffeemachineservice.constant.ApplicationConstant.MINUTES_MAKE_DRINK;
+import static test.example.coffeemachineservice.persistent.enums.OrderStatus.COMPLETED;
+
+// Рейтинг живёт в памяти: БД читается только при старте, дальше его двигают завершённые заказы
+@Slf4j
+@Service
+public class DrinkPopularityServiceImpl implements DrinkPopularityService {
+
+    private final OrderRepository orderRepository;
+
+    private final SpaceSavingCounter<UUID> overall;
+
+    private final Map<PopularityWindow, RollingTopK<UUID>> windows = new EnumMap<>(PopularityWindow.class);
+
+    private final Map<UUID, String> drinkNames = new HashMap<>();
+
+    private final Duration maxOrderLifetime;
+
+    public DrinkPopularityServiceImpl(OrderRepository orderRepository, CoffeeMachineProperties properties) {
+        this.orderRepository = orderRepository;
+        // Заказ без резерва отменяется, поэтому от создания до готовности проходит не больше TTL резерва и варки
+        this.maxOrderLifetime = properties.getReservations().getTtl().plusMinutes(MINUTES_MAKE_DRINK);
+        int capacity = properties.getPopularity().getCapacity();
+        this.overall = new SpaceSavingCounter<>(capacity);
+        for (PopularityWindow window : PopularityWindow.values()) {
+            windows.put(window, new RollingTopK<>(window.getLength(), window.getBucket(), capacity));
+        }
+    }
+
+    // Выполняется до первого прохода OrderCompletionSweeper, поэтому восстановленные заказы не учитываются дважды
+    @Override
+    @PostConstruct
+    public synchronized void restore() {
+        log.info("Восстановление рейтинга популярности напитков");
+        orderRepository.countOrdersByDrink(COMPLETED.getCode())
+                .forEach(count -> {
+                    drinkNames.put(count.getDrinkId(), count.getDrinkName());
+                    overall.add(count.getDrinkId(), count.getOrdersCount());
+                });
+        LocalDateTime since = LocalDateTime.now().minus(PopularityWindow.WEEK.getLength());
+        List<DrinkOrdersCountView> minuteCounts = orderRepository.countOrdersByDrinkPerMinute(
+                COMPLETED.getCode(), since.minus(maxOrderLifetime), since);
+        minuteCounts.forEach(count -> {
+            Instant periodStart = count.getPeriodStart().atZone(ZoneId.systemDefault()).toInstant();
+            windows.values().forEach(window -> window.add(count.getDrinkId(), count.getOrdersCount(), periodStart));
+        });
+        log.info("Рейтинг популярности восстановлен, напитков: {}", drinkNames.size());
+    }
+
+    @Override
+    public synchronized void recordCompletedOrders(List<CompletedOrderView> completedOrders) {
+        Instant now = Instant.now();
+        completedOrders.forEach(order -> {
+            drinkNames.put(order.getDrinkId(), order.getDrinkName());
+            overall.add(order.getDrinkId(), 1);
+            windows.values().forEach(window -> window.add(order.getDrinkId(), 1, now));
+        });
+    }
+
+    @Override
+    public synchronized List<PopularDrinkResponseDto> getTopDrinks(int limit) {
+        log.info("Получение топ-{} напитков за всё время", limit);
+        return mapToResponse(overall.top(limit));
+    }
+
+    @Override
+    public synchronized List<PopularDrinkResponseDto> getTopDrinks(PopularityWindow window, int limit) {
+        log.info("Получение топ-{} напитков за окно {}", limit, window);
+        return mapToResponse(windows.get(window).top(limit, Instant.now()));
+    }
+
+    private List<PopularDrinkResponseDto> mapToResponse(List<Map.Entry<UUID, Long>> ranking) {
+        return ranking.stream()
+                .map(entry -> PopularDrinkResponseDto.builder()
+                        .drinkId(entry.getKey().toString())
+                        .drinkName(drinkNames.get(entry.getKey()))
+                        .ordersCount(entry.getValue())
+                        .build())
+                .toList();
+    }
+}
@@ -2,42 +2,62 @@ package test.example.coffeemachineservice.service.impl;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import test.example.coffeemachineservice.dto.catalog.DrinkCompositionDto;
 import test.example.coffeemachineservice.dto.request.AddNewDrinkRequestDto;
 import test.example.coffeemachineservice.dto.request.MakeDrinkRequestDto;
+import test.example.coffeemachineservice.dto.request.MakeDrinksBatchRequestDto;
 import test.example.coffeemachineservice.dto.response.DrinkResponseDto;
+import test.example.coffeemachineservice.dto.response.MakeDrinkResultDto;
+import test.example.coffeemachineservice.dto.response.OrderResponseDto;
 import test.example.coffeemachineservice.exception.DrinkException;
+import test.example.coffeemachineservice.exception.IngredientException;
+import test.example.coffeemachineservice.exception.OrderException;
 import test.example.coffeemachineservice.exception.RecipeException;
 import test.example.coffeemachineservice.mapper.DrinkMapper;
 import test.example.coffeemachineservice.persistent.entity.Drink;
 import test.example.coffeemachineservice.persistent.entity.Recipe;
-import test.example.coffeemachineservice.persistent.entity.RecipeIngredient;
 import test.example.coffeemachineservice.persistent.repository.DrinkRepository;
 import test.example.coffeemachineservice.persistent.repository.RecipeRepository;
+import test.example.coffeemachineservice.service.AdmissionControlService;
+import test.example.coffeemachineservice.service.BrewingQueueService;
+import test.example.coffeemachineservice.service.DrinkAvailabilityService;
+import test.example.coffeemachineservice.service.DrinkCatalogService;
 import test.example.coffeemachineservice.service.DrinkService;
-import test.example.coffeemachineservice.service.IngredientService;
+import test.example.coffeemachineservice.service.IdempotencyService;
+import test.example.coffeemachineservice.service.IngredientReservationService;
+import test.example.coffeemachineservice.service.OrderCounterService;
 import test.example.coffeemachineservice.service.OrderService;
 
-import java.time.Duration;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
+import static org.springframework.http.HttpStatus.CONFLICT;
 import static org.springframework.http.HttpStatus.NOT_FOUND;
+import static org.springframework.http.HttpStatus.SERVICE_UNAVAILABLE;
+import static test.example.coffeemachineservice.constant.ApplicationConstant.BREWING_QUEUE_FULL_MESSAGE;
 import static test.example.coffeemachineservice.constant.ApplicationConstant.DRINKS_NOT_FOUND_MESSAGE;
+import static test.example.coffeemachineservice.constant.ApplicationConstant.DRINK_CATALOG_CACHE;
 import static test.example.coffeemachineservice.constant.ApplicationConstant.DRINK_ALREADY_EXISTS_MESSAGE;
 import static test.example.coffeemachineservice.constant.ApplicationConstant.DRINK_DELETED_MESSAGE;
 import static test.example.coffeemachineservice.constant.ApplicationConstant.DRINK_ID_NOT_FOUND_MESSAGE;
 import static test.example.coffeemachineservice.constant.ApplicationConstant.DRINK_NOT_FOUND_MESSAGE;
-import static test.example.coffeemachineservice.constant.ApplicationConstant.MINUTES_MAKE_DRINK;
-import static test.example.coffeemachineservice.constant.ApplicationConstant.NOT_ENOUGH_INGREDIENTS_MESSAGE;
+import static test.example.coffeemachineservice.constant.ApplicationConstant.INGREDIENTS_CONCURRENT_UPDATE_MESSAGE;
+import static test.example.coffeemachineservice.constant.ApplicationConstant.MISSING_INGREDIENTS_MESSAGE;
 import static test.example.coffeemachineservice.constant.ApplicationConstant.NOT_POSSIBLE_DELETE_DRINKS_MESSAGE;
+import static test.example.coffeemachineservice.constant.ApplicationConstant.ORDER_PIPELINE_BUSY_MESSAGE;
+import static test.example.coffeemachineservice.constant.ApplicationConstant.ORDER_QUEUED_MESSAGE;
 import static test.example.coffeemachineservice.constant.ApplicationConstant.POPULAR_DRINK_NOT_FOUND_MESSAGE;
 import static test.example.coffeemachineservice.constant.ApplicationConstant.RECIPE_NOT_FOUND_MESSAGE;
 import static test.example.coffeemachineservice.constant.ApplicationConstant.WAIT_UNTIL_READY_MESSAGE;
-import static test.example.coffeemachineservice.persistent.enums.OrderStatus.COMPLETED;
 import static test.example.coffeemachineservice.persistent.enums.OrderStatus.CREATED;
-import static test.example.coffeemachineservice.persistent.enums.OrderStatus.PROGRESS;
 import static test.example.coffeemachineservice.persistent.enums.OrderStatus.REFUSED;
 
 @Service
@@ -53,9 +73,32 @@ public class DrinkServiceImpl implements DrinkService {
 
     private final OrderService orderService;
 
-    private final IngredientService ingredientService;
+    private final IngredientReservationService ingredientReservationService;
+
+    private final DrinkCatalogService drinkCatalogService;
+
+    private final OrderCounterService orderCounterService;
+
+    private final BrewingQueueService brewingQueueService;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final TaskExecutor orderPipelineExecutor;
+
+    private final IdempotencyService idempotencyService;
+
+    private final AdmissionControlService admissionControlService;
+
+    private final DrinkAvailabilityService drinkAvailabilityService;
+
+    private static final int BATCH_RESERVE_ATTEMPTS = 3;
+
+    private static final String MAKE_DRINK_OPERATION = "makeDrink";
+
+    private static final String MAKE_DRINK_ASYNC_OPERATION = "makeDrinkAsync";
 
     @Override
+    @CacheEvict(cacheNames = DRINK_CATALOG_CACHE, allEntries = true)
     public void addDrink(AddNewDrinkRequestDto requestDto) {
         log.info("Добавление нового напитка: {}", requestDto.getDrinkName());
         if (drinkRepository.findByDrinkName(requestDto.getDrinkName()).isPresent()) {
@@ -66,12 +109,14 @@ public class DrinkServiceImpl implements DrinkService {
                 .orElseThrow(() -> new RecipeException(NOT_FOUND, RECIPE_NOT_FOUND_MESSAGE));
         newDrink.setRecipe(foundRecipe);
         drinkRepository.save(newDrink);
+        drinkAvailabilityService.invalidate();
         log.info("Напиток '{}' успешно добавлен", requestDto.getDrinkName());
     }
 
     @Override
     public List<DrinkResponseDto> getAllDrinks() {
         log.info("Запрос всех напитков");
+        orderCounterService.flush();
         List<Drink> foundDrinks = drinkRepository.findAll();
         if (foundDrinks.isEmpty()) {
             throw new DrinkException(DRINKS_NOT_FOUND_MESSAGE);
@@ -82,32 +127,210 @@ public class DrinkServiceImpl implements DrinkService {
                 .toList();
     }
 
+    // Повтор с тем же Idempotency-Key возвращает исходный ответ, не создавая заказ и не трогая остатки.
+    // Контроль нагрузки проходит только новый заказ: повтор приходит как раз при перегрузке и не должен получать 429.
+    // При перегрузке новый запрос отклоняется с 429 до обращения к базе, а ключ остаётся свободным для повтора
     @Override
-    public String makeDrink(MakeDrinkRequestDto requestDto) {
+    public String makeDrink(MakeDrinkRequestDto requestDto, String idempotencyKey) {
+        if (idempotencyKey == null) {
+            return admissionControlService.admit(() -> placeDrinkOrder(requestDto));
+        }
+        return idempotencyService.execute(idempotencyKey, MAKE_DRINK_OPERATION, requestDto.getDrinkName(),
+                String.class, () -> admissionControlService.admit(() -> placeDrinkOrder(requestDto)));
+    }
+
+    @Override
+    public OrderResponseDto makeDrinkAsync(MakeDrinkRequestDto requestDto, String idempotencyKey) {
+        if (idempotencyKey == null) {
+            return admissionControlService.admit(() -> placeDrinkOrderAsync(requestDto));
+        }
+        return idempotencyService.execute(idempotencyKey, MAKE_DRINK_ASYNC_OPERATION, requestDto.getDrinkName(),
+                OrderResponseDto.class, () -> admissionControlService.admit(() -> placeDrinkOrderAsync(requestDto)));
+    }
+
+    private String placeDrinkOrder(MakeDrinkRequestDto requestDto) {
         log.info("Приготовление напитка: {}", requestDto.getDrinkName());
-        Drink foundDrink = drinkRepository.findByDrinkName(requestDto.getDrinkName())
-                .orElseThrow(() -> new DrinkException(NOT_FOUND, DRINK_NOT_FOUND_MESSAGE));
-        List<RecipeIngredient> recipeIngredients = foundDrink.getRecipe().getRecipeIngredients();
-        UUID orderId = orderService.createOrder(foundDrink, CREATED.getStatusName());
+        DrinkCompositionDto composition = drinkCatalogService.getDrinkComposition(requestDto.getDrinkName());
+        Drink drinkReference = drinkRepository.getReferenceById(composition.getDrinkId());
+        UUID orderId = orderService.createOrder(drinkReference, CREATED);
         log.info("Создан заказ {} для напитка '{}'", orderId, requestDto.getDrinkName());
-        if (!ingredientService.checkAmountIngredients(recipeIngredients)) {
-            log.error("Недостаточно ингредиентов для напитка '{}'", requestDto.getDrinkName());
-            orderService.updateOrderStatus(orderId, REFUSED.getStatusName());
-            throw new DrinkException(NOT_ENOUGH_INGREDIENTS_MESSAGE);
+        int queuePosition = brewOrder(composition, orderId);
+        return queuePosition == 0 ? WAIT_UNTIL_READY_MESSAGE : String.format(ORDER_QUEUED_MESSAGE, queuePosition);
+    }
+
+    private OrderResponseDto placeDrinkOrderAsync(MakeDrinkRequestDto requestDto) {
+        log.info("Асинхронное приготовление напитка: {}", requestDto.getDrinkName());
+        DrinkCompositionDto composition = drinkCatalogService.getDrinkComposition(requestDto.getDrinkName());
+        Drink drinkReference = drinkRepository.getReferenceById(composition.getDrinkId());
+        UUID orderId = orderService.createOrder(drinkReference, CREATED);
+        try {
+            orderPipelineExecutor.execute(() -> brewOrderAsync(composition, orderId));
+        } catch (TaskRejectedException exception) {
+            log.error("Заказ {} отклонён: очередь обработки заполнена", orderId);
+            orderService.updateOrderStatus(orderId, REFUSED);
+            throw new OrderException(SERVICE_UNAVAILABLE, ORDER_PIPELINE_BUSY_MESSAGE);
+        }
+        log.info("Заказ {} на напиток '{}' принят в асинхронную обработку", orderId, requestDto.getDrinkName());
+        return OrderResponseDto.builder()
+                .orderId(orderId.toString())
+                .drinkName(composition.getDrinkName())
+                .status(CREATED.getStatusName())
+                .build();
+    }
+
+    private void brewOrderAsync(DrinkCompositionDto composition, UUID orderId) {
+        try {
+            brewOrder(composition, orderId);
+        } catch (DrinkException | OrderException exception) {
+            log.info("Асинхронный заказ {} отменён: {}", orderId, exception.getMessage());
+        } catch (RuntimeException exception) {
+            log.error("Ошибка обработки асинхронного заказа {}: {}", orderId, exception.getMessage(), exception);
+            // Отклоняется только ещё не начатый заказ: начавший готовиться завершится и освободит слот сам
+            orderService.refuseOrders(List.of(orderId));
         }
-        ingredientService.reduceIngredientQuantities(recipeIngredients);
-        log.info("Ингредиенты для '{}' уменьшены, напиток в процессе приготовления", requestDto.getDrinkName());
-        orderService.updateOrderStatus(orderId, PROGRESS.getStatusName());
-        orderService.updateOrderStatusAfterDelay(orderId, COMPLETED, Duration.ofMinutes(MINUTES_MAKE_DRINK));
-        foundDrink.incrementOrdersCount();
-        drinkRepository.save(foundDrink);
-        log.info("Напиток '{}' готов, заказ {} завершен", requestDto.getDrinkName(), orderId);
-        return WAIT_UNTIL_READY_MESSAGE;
+    }
+
+    // Резерв ингредиентов, постановка в очередь и учёт заказа; при отказе заказ переводится в статус REFUSED,
+    // что снимает его резерв
+    private int brewOrder(DrinkCompositionDto composition, UUID orderId) {
+        List<String> missingIngredients =
+                ingredientReservationService.reserveRecipeIngredients(orderId, composition.getRecipeId());
+        if (!missingIngredients.isEmpty()) {
+            log.error("Недостаточно ингредиентов для напитка '{}': {}", composition.getDrinkName(), missingIngredients);
+            orderService.updateOrderStatus(orderId, REFUSED);
+            throw new DrinkException(String.format(MISSING_INGREDIENTS_MESSAGE, String.join(", ", missingIngredients)));
+        }
+        int queuePosition;
+        try {
+            queuePosition = orderService.enqueueOrder(orderId);
+        } catch (OrderException exception) {
+            log.error("Заказ {} не поставлен в очередь: {}", orderId, exception.getMessage());
+            orderService.updateOrderStatus(orderId, REFUSED);
+            throw exception;
+        }
+        orderCounterService.increment(composition.getDrinkId(), 1);
+        log.info("Заказ {} на напиток '{}' принят, позиция в очереди {}", orderId, composition.getDrinkName(), queuePosition);
+        return queuePosition;
+    }
+
+    // Пакет проходит контроль нагрузки с весом по числу напитков: при нехватке мест в очереди
+    // или разрешений он отклоняется с 429 целиком, до чтения каталога и обращения к базе
+    @Override
+    public List<MakeDrinkResultDto> makeDrinks(MakeDrinksBatchRequestDto requestDto) {
+        List<MakeDrinkRequestDto> requestedDrinks = requestDto.getDrinks();
+        return admissionControlService.admit(requestedDrinks.size(), () -> placeDrinkBatch(requestedDrinks));
+    }
+
+    private List<MakeDrinkResultDto> placeDrinkBatch(List<MakeDrinkRequestDto> requestedDrinks) {
+        log.info("Пакетное приготовление {} напитков", requestedDrinks.size());
+        MakeDrinkResultDto[] results = new MakeDrinkResultDto[requestedDrinks.size()];
+        List<Integer> candidateIndexes = new ArrayList<>();
+        List<DrinkCompositionDto> candidates = new ArrayList<>();
+        int freeCapacity = brewingQueueService.getFreeCapacity();
+        for (int index = 0; index < requestedDrinks.size(); index++) {
+            String drinkName = requestedDrinks.get(index).getDrinkName();
+            try {
+                DrinkCompositionDto composition = drinkCatalogService.getDrinkComposition(drinkName);
+                if (candidates.size() >= freeCapacity) {
+                    results[index] = refusedResult(drinkName, null, BREWING_QUEUE_FULL_MESSAGE);
+                    continue;
+                }
+                candidateIndexes.add(index);
+                candidates.add(composition);
+            } catch (DrinkException exception) {
+                results[index] = refusedResult(drinkName, null, exception.getMessage());
+            }
+        }
+        if (!candidates.isEmpty()) {
+            List<Integer> acceptedIndexes = new ArrayList<>();
+            List<UUID> acceptedOrderIds = placeBatchOrdersWithRetry(candidateIndexes, candidates, results, acceptedIndexes);
+            enqueueBatchOrders(acceptedIndexes, acceptedOrderIds, candidates, candidateIndexes, results);
+        }
+        return List.of(results);
+    }
+
+    // Параллельный резерв того же остатка откатывает транзакцию пакета целиком, поэтому пакет повторяется
+    private List<UUID> placeBatchOrdersWithRetry(List<Integer> candidateIndexes, List<DrinkCompositionDto> candidates,
+                                                 MakeDrinkResultDto[] results, List<Integer> acceptedIndexes) {
+        for (int attempt = 1; attempt <= BATCH_RESERVE_ATTEMPTS; attempt++) {
+            acceptedIndexes.clear();
+            candidateIndexes.forEach(index -> results[index] = null);
+            try {
+                return transactionTemplate.execute(status ->
+                        placeBatchOrders(candidateIndexes, candidates, results, acceptedIndexes));
+            } catch (DataIntegrityViolationException exception) {
+                log.warn("Свободный остаток ингредиентов изменён параллельным заказом, повтор пакета, попытка {}", attempt);
+            }
+        }
+        throw new IngredientException(CONFLICT, INGREDIENTS_CONCURRENT_UPDATE_MESSAGE);
+    }
+
+    // Вставка заказов пакета и резерв ингредиентов под них выполняются в одной транзакции
+    private List<UUID> placeBatchOrders(List<Integer> candidateIndexes, List<DrinkCompositionDto> candidates,
+                                        MakeDrinkResultDto[] results, List<Integer> acceptedIndexes) {
+        List<Drink> drinkReferences = candidates.stream()
+                .map(composition -> drinkRepository.getReferenceById(composition.getDrinkId()))
+                .toList();
+        List<UUID> orderIds = orderService.createOrders(drinkReferences, CREATED);
+        List<List<String>> missingIngredients = ingredientReservationService.reserveBatchIngredients(orderIds, candidates);
+        List<UUID> acceptedOrderIds = new ArrayList<>();
+        List<UUID> refusedOrderIds = new ArrayList<>();
+        for (int candidate = 0; candidate < candidates.size(); candidate++) {
+            UUID orderId = orderIds.get(candidate);
+            List<String> missing = missingIngredients.get(candidate);
+            if (missing.isEmpty()) {
+                acceptedIndexes.add(candidate);
+                acceptedOrderIds.add(orderId);
+                continue;
+            }
+            refusedOrderIds.add(orderId);
+            results[candidateIndexes.get(candidate)] = refusedResult(candidates.get(candidate).getDrinkName(), orderId,
+                    String.format(MISSING_INGREDIENTS_MESSAGE, String.join(", ", missing)));
+        }
+        orderService.refuseOrders(refusedOrderIds);
+        return acceptedOrderIds;
+    }
+
+    private void enqueueBatchOrders(List<Integer> acceptedIndexes, List<UUID> acceptedOrderIds,
+                                    List<DrinkCompositionDto> candidates, List<Integer> candidateIndexes,
+                                    MakeDrinkResultDto[] results) {
+        Map<UUID, Integer> queuePositions = orderService.enqueueOrders(acceptedOrderIds);
+        int acceptedCount = 0;
+        for (int accepted = 0; accepted < acceptedIndexes.size(); accepted++) {
+            DrinkCompositionDto composition = candidates.get(acceptedIndexes.get(accepted));
+            UUID orderId = acceptedOrderIds.get(accepted);
+            int resultIndex = candidateIndexes.get(acceptedIndexes.get(accepted));
+            Integer queuePosition = queuePositions.get(orderId);
+            if (queuePosition == null) {
+                orderService.updateOrderStatus(orderId, REFUSED);
+                results[resultIndex] = refusedResult(composition.getDrinkName(), orderId, BREWING_QUEUE_FULL_MESSAGE);
+                continue;
+            }
+            orderCounterService.increment(composition.getDrinkId(), 1);
+            acceptedCount++;
+            results[resultIndex] = MakeDrinkResultDto.builder()
+                    .drinkName(composition.getDrinkName())
+                    .orderId(orderId.toString())
+                    .accepted(true)
+                    .message(queuePosition == 0 ? WAIT_UNTIL_READY_MESSAGE : String.format(ORDER_QUEUED_MESSAGE, queuePosition))
+                    .build();
+        }
+        log.info("Пакет обработан: принято {} из {} напитков", acceptedCount, results.length);
+    }
+
+    private MakeDrinkResultDto refusedResult(String drinkName, UUID orderId, String message) {
+        return MakeDrinkResultDto.builder()
+                .drinkName(drinkName)
+                .orderId(orderId == null ? null : orderId.toString())
+                .accepted(false)
+                .message(message)
+                .build();
     }
 
     @Override
     public DrinkResponseDto getPopularDrink() {
         log.info("Запрос самого популярного напитка");
+        orderCounterService.flush();
         Drink popularDrink = drinkRepository.findMostPopularDrink()
                 .orElseThrow(() -> new DrinkException(NOT_FOUND, POPULAR_DRINK_NOT_FOUND_MESSAGE));
         log.info("Самый популярный напиток: {}", popularDrink.getDrinkName());
@@ -115,12 +338,14 @@ public class DrinkServiceImpl implements DrinkService {
     }
 
     @Override
+    @CacheEvict(cacheNames = DRINK_CATALOG_CACHE, allEntries = true)
     public String deleteDrink(String drinkId) {
         log.info("Удаление напитка с ID: {}", drinkId);
         Drink foundDrink = drinkRepository.findById(UUID.fromString(drinkId))
                 .orElseThrow(() -> new DrinkException(DRINK_ID_NOT_FOUND_MESSAGE));
         try {
             drinkRepository.delete(foundDrink);
+            drinkAvailabilityService.invalidate();
             log.info("Напиток с ID {} удален", drinkId);
             return DRINK_DELETED_MESSAGE;
         } catch (DataIntegrityViolationException exception) {
@@ -0,0 +1,191 @@
+package test.example.coffeemachineservice.service.impl;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import test.example.coffeemachineservice.configuration.CoffeeMachineProperties;
+import test.example.coffeemachineservice.exception.OrderException;
+import test.example.coffeemachineservice.persistent.entity.IdempotencyKey;
+import test.example.coffeemachineservice.persistent.repository.IdempotencyKeyRepository;
+import test.example.coffeemachineservice.service.IdempotencyService;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Supplier;
+
+import static org.springframework.http.HttpStatus.CONFLICT;
+import static org.springframework.http.HttpStatus.UNPROCESSABLE_ENTITY;
+import static test.example.coffeemachineservice.constant.ApplicationConstant.IDEMPOTENCY_KEY_IN_PROGRESS_MESSAGE;
+import static test.example.coffeemachineservice.constant.ApplicationConstant.IDEMPOTENCY_KEY_REUSED_MESSAGE;
+
+// Первый запрос с ключом выполняет действие, повторы получают его результат; параллельный повтор ждёт первый запрос.
+// В долговременном режиме ключ занимается в таблице до выполнения действия: параллельный повтор на другом экземпляре
+// сервиса получает 409, пока первый запрос не запишет ответ. Неудачный результат не запоминается, чтобы клиент мог
+// повторить запрос
+@Slf4j
+@Service
+public class IdempotencyServiceImpl implements IdempotencyService {
+
+    private final IdempotencyKeyRepository idempotencyKeyRepository;
+
+    private final ObjectMapper objectMapper;
+
+    private final Cache<String, CompletableFuture<StoredResult>> results;
+
+    private final Duration ttl;
+
+    private final Duration claimTimeout;
+
+    private final boolean durable;
+
+    private final Counter replayedRequests;
+
+    public IdempotencyServiceImpl(IdempotencyKeyRepository idempotencyKeyRepository, ObjectMapper objectMapper,
+                                  CoffeeMachineProperties properties, MeterRegistry meterRegistry) {
+        CoffeeMachineProperties.Idempotency idempotency = properties.getIdempotency();
+        this.idempotencyKeyRepository = idempotencyKeyRepository;
+        this.objectMapper = objectMapper;
+        this.ttl = idempotency.getTtl();
+        this.claimTimeout = idempotency.getClaimTimeout();
+        this.durable = idempotency.isDurable();
+        this.results = Caffeine.newBuilder()
+                .maximumSize(idempotency.getMaximumSize())
+                .expireAfterWrite(ttl)
+                .build();
+        this.replayedRequests = Counter.builder("coffee.idempotency.replayed")
+                .description("Повторные запросы, получившие сохранённый ответ")
+                .register(meterRegistry);
+        Gauge.builder("coffee.idempotency.keys", results, Cache::estimatedSize)
+                .description("Ключи идемпотентности в памяти")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public <T> T execute(String idempotencyKey, String operation, String fingerprint, Class<T> resultType,
+                         Supplier<T> action) {
+        String storeKey = operation + ":" + idempotencyKey;
+        CompletableFuture<StoredResult> pending = new CompletableFuture<>();
+        CompletableFuture<StoredResult> existing = results.asMap().putIfAbsent(storeKey, pending);
+        if (existing != null) {
+            return replay(storeKey, awaitResult(existing), fingerprint, resultType);
+        }
+        try {
+            if (durable && !claimDurable(storeKey, fingerprint)) {
+                StoredResult durableResult = findDurable(storeKey, fingerprint, resultType);
+                pending.complete(durableResult);
+                return replay(storeKey, durableResult, fingerprint, resultType);
+            }
+            T result = runClaimed(storeKey, action);
+            StoredResult storedResult = new StoredResult(fingerprint, result);
+            if (durable) {
+                saveDurable(storeKey, storedResult);
+            }
+            pending.complete(storedResult);
+            return result;
+        } catch (RuntimeException exception) {
+            results.asMap().remove(storeKey, pending);
+            pending.completeExceptionally(exception);
+            throw exception;
+        }
+    }
+
+    @Override
+    public int purgeExpired() {
+        if (!durable) {
+            return 0;
+        }
+        int purged = idempotencyKeyRepository.deleteExpired(LocalDateTime.now());
+        log.debug("Удалено просроченных ключей идемпотентности: {}", purged);
+        return purged;
+    }
+
+    private <T> T replay(String storeKey, StoredResult storedResult, String fingerprint, Class<T> resultType) {
+        if (!storedResult.fingerprint().equals(fingerprint)) {
+            log.warn("Ключ идемпотентности {} повторно использован для другого запроса", storeKey);
+            throw new OrderException(UNPROCESSABLE_ENTITY, IDEMPOTENCY_KEY_REUSED_MESSAGE);
+        }
+        replayedRequests.increment();
+        log.info("Повторный запрос с ключом {}: возвращён сохранённый ответ", storeKey);
+        return resultType.cast(storedResult.result());
+    }
+
+    private StoredResult awaitResult(CompletableFuture<StoredResult> result) {
+        try {
+            return result.join();
+        } catch (CompletionException exception) {
+            if (exception.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw exception;
+        }
+    }
+
+    private boolean claimDurable(String storeKey, String fingerprint) {
+        LocalDateTime now = LocalDateTime.now();
+        return !idempotencyKeyRepository.claim(storeKey, fingerprint, now, now.plus(claimTimeout)).isEmpty();
+    }
+
+    private <T> T runClaimed(String storeKey, Supplier<T> action) {
+        try {
+            return action.get();
+        } catch (RuntimeException exception) {
+            if (durable) {
+                releaseDurable(storeKey);
+            }
+            throw exception;
+        }
+    }
+
+    // Ключ занят другим экземпляром сервиса: ответ либо уже записан, либо запрос ещё выполняется.
+    // Если занявший запрос успел завершиться неудачей и освободить ключ, клиенту тоже стоит повторить запрос
+    private <T> StoredResult findDurable(String storeKey, String fingerprint, Class<T> resultType) {
+        IdempotencyKey key = idempotencyKeyRepository.findActive(storeKey, LocalDateTime.now()).orElse(null);
+        if (key != null && key.getResponse() != null) {
+            return new StoredResult(key.getFingerprint(), readResponse(key, resultType));
+        }
+        if (key != null && !key.getFingerprint().equals(fingerprint)) {
+            // Ключ занят другим напитком: повтор отклоняется с 422, не дожидаясь ответа
+            return new StoredResult(key.getFingerprint(), null);
+        }
+        log.info("Запрос с ключом {} ещё выполняется на другом экземпляре сервиса", storeKey);
+        throw new OrderException(CONFLICT, IDEMPOTENCY_KEY_IN_PROGRESS_MESSAGE);
+    }
+
+    private void releaseDurable(String storeKey) {
+        try {
+            idempotencyKeyRepository.releaseClaim(storeKey);
+        } catch (RuntimeException exception) {
+            // Ключ освободится сам по истечении срока занятия
+            log.error("Не удалось освободить ключ идемпотентности {}: {}", storeKey, exception.getMessage());
+        }
+    }
+
+    private void saveDurable(String storeKey, StoredResult storedResult) {
+        try {
+            idempotencyKeyRepository.complete(storeKey, objectMapper.writeValueAsString(storedResult.result()),
+                    LocalDateTime.now().plus(ttl));
+        } catch (JsonProcessingException | RuntimeException exception) {
+            // Ответ уже получен клиентом; без долговременной записи остаётся защита в памяти
+            log.error("Не удалось сохранить ключ идемпотентности {}: {}", storeKey, exception.getMessage());
+        }
+    }
+
+    private <T> T readResponse(IdempotencyKey key, Class<T> resultType) {
+        try {
+            return objectMapper.readValue(key.getResponse(), resultType);
+        } catch (JsonProcessingException exception) {
+            throw new IllegalStateException("Повреждён сохранённый ответ для ключа " + key.getIdempotencyKey(), exception);
+        }
+    }
+
+    private record StoredResult(String fingerprint, Object result) {
+    }
+}
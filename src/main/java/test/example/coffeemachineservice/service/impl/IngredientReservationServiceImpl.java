@@ -0,0 +1,152 @@
+package test.example.coffeemachineservice.service.impl;
+
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import test.example.coffeemachineservice.configuration.CoffeeMachineProperties;
+import test.example.coffeemachineservice.dto.catalog.DrinkCompositionDto;
+import test.example.coffeemachineservice.exception.IngredientException;
+import test.example.coffeemachineservice.persistent.entity.Ingredient;
+import test.example.coffeemachineservice.persistent.projection.IngredientStockView;
+import test.example.coffeemachineservice.persistent.repository.IngredientRepository;
+import test.example.coffeemachineservice.service.DrinkAvailabilityService;
+import test.example.coffeemachineservice.service.IngredientReservationService;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.springframework.http.HttpStatus.CONFLICT;
+import static test.example.coffeemachineservice.constant.ApplicationConstant.INGREDIENTS_CONCURRENT_UPDATE_MESSAGE;
+
+// Проверка остатков — чтение amount_available - amount_reserved в том же запросе, что и резерв, без блокировок строк
+@Slf4j
+@Service
+public class IngredientReservationServiceImpl implements IngredientReservationService {
+
+    private static final int RESERVE_ATTEMPTS = 3;
+
+    private final IngredientRepository ingredientRepository;
+
+    private final DrinkAvailabilityService drinkAvailabilityService;
+
+    private final EntityManagerFactory entityManagerFactory;
+
+    private final Duration reservationTtl;
+
+    public IngredientReservationServiceImpl(IngredientRepository ingredientRepository,
+                                            DrinkAvailabilityService drinkAvailabilityService,
+                                            EntityManagerFactory entityManagerFactory,
+                                            CoffeeMachineProperties properties) {
+        this.ingredientRepository = ingredientRepository;
+        this.drinkAvailabilityService = drinkAvailabilityService;
+        this.entityManagerFactory = entityManagerFactory;
+        this.reservationTtl = properties.getReservations().getTtl();
+    }
+
+    @Override
+    public List<String> reserveRecipeIngredients(UUID orderId, UUID recipeId) {
+        log.info("Резервирование ингредиентов по рецепту {} для заказа {}", recipeId, orderId);
+        for (int attempt = 1; attempt <= RESERVE_ATTEMPTS; attempt++) {
+            try {
+                return logReserveResult(orderId, recipeId,
+                        ingredientRepository.reserveRecipeIngredients(orderId, recipeId, expiresAt()));
+            } catch (DataIntegrityViolationException exception) {
+                log.warn("Свободный остаток по рецепту {} изменён параллельным заказом, попытка {}", recipeId, attempt);
+                List<String> missingIngredients = ingredientRepository.findMissingRecipeIngredients(recipeId);
+                if (!missingIngredients.isEmpty()) {
+                    return logReserveResult(orderId, recipeId, missingIngredients);
+                }
+            }
+        }
+        throw new IngredientException(CONFLICT, INGREDIENTS_CONCURRENT_UPDATE_MESSAGE);
+    }
+
+    // Выполняется в транзакции вызывающего: гонка откатывает весь пакет, повтор — на стороне вызывающего
+    @Override
+    public List<List<String>> reserveBatchIngredients(List<UUID> orderIds, List<DrinkCompositionDto> compositions) {
+        log.info("Пакетное резервирование ингредиентов для {} заказов", orderIds.size());
+        LocalDateTime expiresAt = expiresAt();
+        List<List<String>> missingIngredients = new ArrayList<>(orderIds.size());
+        for (int index = 0; index < orderIds.size(); index++) {
+            UUID orderId = orderIds.get(index);
+            UUID recipeId = compositions.get(index).getRecipeId();
+            missingIngredients.add(logReserveResult(orderId, recipeId,
+                    ingredientRepository.reserveRecipeIngredients(orderId, recipeId, expiresAt)));
+        }
+        return missingIngredients;
+    }
+
+    @Override
+    public List<UUID> commitReservations(List<UUID> orderIds) {
+        if (orderIds.isEmpty()) {
+            return List.of();
+        }
+        List<UUID> committedOrderIds = ingredientRepository.commitReservations(orderIds);
+        if (!committedOrderIds.isEmpty()) {
+            log.info("Резервы заказов {} списаны", committedOrderIds);
+            evictCachedIngredients();
+        }
+        if (committedOrderIds.size() < orderIds.size()) {
+            log.warn("Резервы части заказов не найдены: списано {} из {}", committedOrderIds.size(), orderIds.size());
+        }
+        return committedOrderIds;
+    }
+
+    @Override
+    public void releaseReservations(List<UUID> orderIds) {
+        if (orderIds.isEmpty()) {
+            return;
+        }
+        List<IngredientStockView> released = ingredientRepository.releaseReservations(orderIds);
+        if (!released.isEmpty()) {
+            log.info("Резервы заказов {} сняты, ингредиентов: {}", orderIds, released.size());
+            drinkAvailabilityService.recordFreeStock(released);
+        }
+    }
+
+    @Override
+    public List<UUID> releaseExpiredReservations() {
+        List<UUID> expiredOrderIds = ingredientRepository.releaseExpiredReservations(LocalDateTime.now());
+        if (!expiredOrderIds.isEmpty()) {
+            log.warn("Сняты просроченные резервы заказов {}", expiredOrderIds);
+            drinkAvailabilityService.recordFreeStock(ingredientRepository.findFreeStock());
+        }
+        return expiredOrderIds;
+    }
+
+    // Списание меняет остаток и версию в обход сущности: кэш второго уровня сбрасывается после фиксации,
+    // иначе пополнение прочитает устаревшую версию и будет получать конфликт до истечения TTL региона
+    private void evictCachedIngredients() {
+        Runnable evict = () -> entityManagerFactory.getCache().evict(Ingredient.class);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            evict.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                evict.run();
+            }
+        });
+    }
+
+    private LocalDateTime expiresAt() {
+        return LocalDateTime.now().plus(reservationTtl);
+    }
+
+    private List<String> logReserveResult(UUID orderId, UUID recipeId, List<String> missingIngredients) {
+        if (missingIngredients.isEmpty()) {
+            log.info("Ингредиенты для заказа {} зарезервированы", orderId);
+            drinkAvailabilityService.recordReservation(recipeId);
+        } else {
+            log.info("Не хватает ингредиентов для заказа {}: {}", orderId, missingIngredients);
+        }
+        return missingIngredients;
+    }
+}
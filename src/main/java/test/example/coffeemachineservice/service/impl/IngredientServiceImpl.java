@@ -3,6 +3,7 @@ package test.example.coffeemachineservice.service.impl;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
 import test.example.coffeemachineservice.dto.request.AddNewIngredientRequestDto;
 import test.example.coffeemachineservice.dto.request.UpdateIngredientRequestDto;
@@ -10,14 +11,17 @@ import test.example.coffeemachineservice.dto.response.IngredientResponseDto;
 import test.example.coffeemachineservice.exception.IngredientException;
 import test.example.coffeemachineservice.mapper.IngredientMapper;
 import test.example.coffeemachineservice.persistent.entity.Ingredient;
-import test.example.coffeemachineservice.persistent.entity.RecipeIngredient;
 import test.example.coffeemachineservice.persistent.repository.IngredientRepository;
+import test.example.coffeemachineservice.service.DrinkAvailabilityService;
 import test.example.coffeemachineservice.service.IngredientService;
+import test.example.coffeemachineservice.service.OptimisticRetryService;
 
 import java.util.List;
 import java.util.UUID;
 
+import static org.springframework.http.HttpStatus.CONFLICT;
 import static org.springframework.http.HttpStatus.NOT_FOUND;
+import static test.example.coffeemachineservice.constant.ApplicationConstant.INGREDIENTS_CONCURRENT_UPDATE_MESSAGE;
 import static test.example.coffeemachineservice.constant.ApplicationConstant.INGREDIENTS_NOT_FOUND_MESSAGE;
 import static test.example.coffeemachineservice.constant.ApplicationConstant.INGREDIENT_ALREADY_EXISTS_MESSAGE;
 import static test.example.coffeemachineservice.constant.ApplicationConstant.INGREDIENT_DELETED_MESSAGE;
@@ -34,6 +38,12 @@ public class IngredientServiceImpl implements IngredientService {
 
     private final IngredientMapper ingredientMapper;
 
+    private final DrinkAvailabilityService drinkAvailabilityService;
+
+    private final OptimisticRetryService optimisticRetryService;
+
+    private static final String RESTOCK_OPERATION = "restock";
+
     @Override
     public void addIngredient(AddNewIngredientRequestDto requestDto) {
         log.info("Добавление нового ингредиента: {}", requestDto.getIngredientName());
@@ -58,38 +68,16 @@ public class IngredientServiceImpl implements IngredientService {
                 .toList();
     }
 
-    @Override
-    public void reduceIngredientQuantities(List<RecipeIngredient> recipeIngredients) {
-        log.info("Уменьшение количества ингредиентов по рецепту");
-        for (RecipeIngredient recipeIngredient : recipeIngredients) {
-            Ingredient ingredient = recipeIngredient.getIngredient();
-            ingredient.setAmountAvailable(ingredient.getAmountAvailable() - recipeIngredient.getQuantityOnRecipe());
-            ingredientRepository.save(ingredient);
-            log.info("Ингредиент '{}' уменьшен на {}", ingredient.getIngredientName(), recipeIngredient.getQuantityOnRecipe());
-        }
-    }
-
-    @Override
-    public boolean checkAmountIngredients(List<RecipeIngredient> recipeIngredients) {
-        log.info("Проверка наличия достаточного количества ингредиентов");
-        boolean result = recipeIngredients.stream()
-                .allMatch(recipeIngredient -> {
-                    Ingredient ingredient = recipeIngredient.getIngredient();
-                    int requiredQuantity = recipeIngredient.getQuantityOnRecipe();
-                    int availableQuantity = ingredient.getAmountAvailable();
-                    return availableQuantity - requiredQuantity >= 0;
-                });
-        log.info("Результат проверки: {}", result);
-        return result;
-    }
-
     @Override
     public IngredientResponseDto updateAmountAvailableIngredient(UpdateIngredientRequestDto requestDto) {
         log.info("Обновление количества ингредиента: {}", requestDto.getIngredientName());
-        Ingredient foundIngredient = ingredientRepository.findByIngredientName(requestDto.getIngredientName())
-                .orElseThrow(() -> new IngredientException(NOT_FOUND, INGREDIENT_NOT_FOUND_MESSAGE));
-        foundIngredient.setAmountAvailable(foundIngredient.getAmountAvailable() + requestDto.getAddingQuantity());
-        ingredientRepository.save(foundIngredient);
+        Ingredient foundIngredient;
+        try {
+            foundIngredient = optimisticRetryService.execute(RESTOCK_OPERATION, () -> restock(requestDto));
+        } catch (OptimisticLockingFailureException exception) {
+            throw new IngredientException(CONFLICT, INGREDIENTS_CONCURRENT_UPDATE_MESSAGE);
+        }
+        drinkAvailabilityService.recordRestock(foundIngredient.getIngredientId(), requestDto.getAddingQuantity());
         log.info("Количество ингредиента '{}' увеличено на {}", requestDto.getIngredientName(), requestDto.getAddingQuantity());
         return ingredientMapper.mapToIngredientResponseDto(foundIngredient);
     }
@@ -108,4 +96,13 @@ public class IngredientServiceImpl implements IngredientService {
             return NOT_POSSIBLE_DELETE_INGREDIENT_MESSAGE;
         }
     }
-}
\ No newline at end of file
+
+    // Остаток перечитывается на каждой попытке: сохранение со старой версией отклоняется, а не затирает списание
+    private Ingredient restock(UpdateIngredientRequestDto requestDto) {
+        Ingredient foundIngredient = ingredientRepository.findByIngredientName(requestDto.getIngredientName())
+                .orElseThrow(() -> new IngredientException(NOT_FOUND, INGREDIENT_NOT_FOUND_MESSAGE));
+        foundIngredient.setAmountAvailable(foundIngredient.getAmountAvailable() + requestDto.getAddingQuantity());
+        ingredientRepository.save(foundIngredient);
+        return foundIngredient;
+    }
+}
@@ -0,0 +1,77 @@
+package test.example.coffeemachineservice.service.impl;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Service;
+import test.example.coffeemachineservice.configuration.CoffeeMachineProperties;
+import test.example.coffeemachineservice.service.OptimisticRetryService;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+// При конфликте версий действие повторяется целиком: заново читает сущность и применяет изменение.
+// Пауза случайна в пределах растущего окна, чтобы столкнувшиеся запросы не повторялись одновременно
+@Slf4j
+@Service
+public class OptimisticRetryServiceImpl implements OptimisticRetryService {
+
+    private final MeterRegistry meterRegistry;
+
+    private final int maxAttempts;
+
+    private final long initialBackoffNanos;
+
+    private final long maxBackoffNanos;
+
+    public OptimisticRetryServiceImpl(CoffeeMachineProperties properties, MeterRegistry meterRegistry) {
+        CoffeeMachineProperties.OptimisticRetry optimisticRetry = properties.getOptimisticRetry();
+        this.meterRegistry = meterRegistry;
+        this.maxAttempts = Math.max(1, optimisticRetry.getMaxAttempts());
+        this.initialBackoffNanos = optimisticRetry.getInitialBackoff().toNanos();
+        this.maxBackoffNanos = optimisticRetry.getMaxBackoff().toNanos();
+    }
+
+    @Override
+    public <T> T execute(String operation, Supplier<T> action) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                T result = action.get();
+                attemptCounter(operation, "applied").increment();
+                return result;
+            } catch (OptimisticLockingFailureException exception) {
+                if (attempt >= maxAttempts) {
+                    attemptCounter(operation, "exhausted").increment();
+                    log.warn("Конфликт версий в операции {} не разрешён за {} попыток", operation, maxAttempts);
+                    throw exception;
+                }
+                attemptCounter(operation, "conflict").increment();
+                log.info("Конфликт версий в операции {}, попытка {} из {}", operation, attempt, maxAttempts);
+                pause(attempt, exception);
+            }
+        }
+    }
+
+    private void pause(int attempt, OptimisticLockingFailureException conflict) {
+        long window = Math.min(maxBackoffNanos, initialBackoffNanos << Math.min(attempt - 1, 20));
+        if (window <= 0) {
+            return;
+        }
+        try {
+            TimeUnit.NANOSECONDS.sleep(ThreadLocalRandom.current().nextLong(window + 1));
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            throw conflict;
+        }
+    }
+
+    private Counter attemptCounter(String operation, String outcome) {
+        return Counter.builder("coffee.optimistic.attempts")
+                .description("Попытки изменений с оптимистичной блокировкой: применённые, конфликтные и исчерпанные")
+                .tag("operation", operation)
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+}
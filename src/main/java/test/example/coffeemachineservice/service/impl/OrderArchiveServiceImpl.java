@@ -0,0 +1,164 @@
+package test.example.coffeemachineservice.service.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import test.example.coffeemachineservice.configuration.CoffeeMachineProperties;
+import test.example.coffeemachineservice.dto.request.PeriodRequestDto;
+import test.example.coffeemachineservice.dto.response.OrderResponseDto;
+import test.example.coffeemachineservice.export.OrderCsvReader;
+import test.example.coffeemachineservice.export.OrderExportFormat;
+import test.example.coffeemachineservice.export.OrderExportWriter;
+import test.example.coffeemachineservice.persistent.entity.OrderArchive;
+import test.example.coffeemachineservice.persistent.enums.OrderArchiveStatus;
+import test.example.coffeemachineservice.persistent.repository.OrderArchiveRepository;
+import test.example.coffeemachineservice.persistent.repository.OrderRepository;
+import test.example.coffeemachineservice.service.OrderArchiveService;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+// Истёкшая партиция отсоединяется, выгружается в сжатый CSV в каталоге архивов и удаляется.
+// Файл сначала пишется во временный и переименовывается, поэтому в каталоге не бывает недописанных архивов
+@Slf4j
+@Service
+public class OrderArchiveServiceImpl implements OrderArchiveService {
+
+    private static final String ARCHIVE_FILE_EXTENSION = ".csv.gz";
+
+    private static final String TEMPORARY_FILE_EXTENSION = ".tmp";
+
+    private final OrderRepository orderRepository;
+
+    private final OrderArchiveRepository orderArchiveRepository;
+
+    private final TransactionTemplate readOnlyTransaction;
+
+    private final ObjectWriter orderWriter;
+
+    private final Path archiveDirectory;
+
+    private final Counter archivedOrders;
+
+    public OrderArchiveServiceImpl(OrderRepository orderRepository, OrderArchiveRepository orderArchiveRepository,
+                                   PlatformTransactionManager transactionManager, ObjectMapper objectMapper,
+                                   CoffeeMachineProperties properties, MeterRegistry meterRegistry) {
+        this.orderRepository = orderRepository;
+        this.orderArchiveRepository = orderArchiveRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.orderWriter = objectMapper.writerFor(OrderResponseDto.class);
+        this.archiveDirectory = Path.of(properties.getPartitions().getArchiveDirectory());
+        this.archivedOrders = Counter.builder("coffee.orders.archived")
+                .description("Заказы, выгруженные из истёкших партиций в архивы")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void archivePartition(String partitionName) throws IOException {
+        orderRepository.detachPartitionForArchive(partitionName);
+        OrderArchive archive = orderArchiveRepository.findById(partitionName)
+                .orElseThrow(() -> new IllegalStateException("Партиция " + partitionName + " не попала в каталог архивов"));
+        writeArchive(archive);
+    }
+
+    // Дописывает архивы партиций, отсоединённых до сбоя или перезапуска
+    @Override
+    public int archiveDetachedPartitions() {
+        int archived = 0;
+        for (OrderArchive archive : orderArchiveRepository.findByStatusOrderByRangeStart(OrderArchiveStatus.DETACHED)) {
+            try {
+                writeArchive(archive);
+                archived++;
+            } catch (IOException | RuntimeException exception) {
+                log.error("Не удалось архивировать отсоединённую партицию {}: {}", archive.getPartitionName(),
+                        exception.getMessage());
+            }
+        }
+        return archived;
+    }
+
+    @Override
+    public long exportArchivedOrders(PeriodRequestDto requestDto, OrderExportFormat format, OutputStream outputStream)
+            throws IOException {
+        LocalDateTime start = requestDto.getStartDate().atStartOfDay();
+        LocalDateTime end = requestDto.getEndDate().atTime(23, 59, 59);
+        List<OrderArchive> archives = orderArchiveRepository.findOverlapping(start, end, OrderArchiveStatus.ARCHIVED);
+        log.info("Выгрузка архивных заказов за период {} - {}, формат {}, архивов: {}", start, end, format,
+                archives.size());
+        OrderExportWriter writer = new OrderExportWriter(
+                new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8)), format, orderWriter);
+        writer.writeHeader();
+        long exported = 0;
+        for (OrderArchive archive : archives) {
+            try (Reader reader = new InputStreamReader(
+                    new GZIPInputStream(Files.newInputStream(archiveDirectory.resolve(archive.getFileName()))),
+                    StandardCharsets.UTF_8)) {
+                OrderCsvReader orders = new OrderCsvReader(reader);
+                OrderResponseDto order;
+                while ((order = orders.next()) != null) {
+                    if (!order.getCreatedAt().isBefore(start) && !order.getCreatedAt().isAfter(end)) {
+                        writer.write(order);
+                        exported++;
+                    }
+                }
+            }
+        }
+        writer.flush();
+        log.info("Выгружено архивных заказов: {}, формат {}", exported, format);
+        return exported;
+    }
+
+    private void writeArchive(OrderArchive archive) throws IOException {
+        String partitionName = archive.getPartitionName();
+        String fileName = partitionName + ARCHIVE_FILE_EXTENSION;
+        Files.createDirectories(archiveDirectory);
+        Path temporaryFile = archiveDirectory.resolve(fileName + TEMPORARY_FILE_EXTENSION);
+        AtomicLong ordersCount = new AtomicLong();
+        try (Writer fileWriter = new BufferedWriter(new OutputStreamWriter(
+                new GZIPOutputStream(Files.newOutputStream(temporaryFile)), StandardCharsets.UTF_8))) {
+            OrderExportWriter writer = new OrderExportWriter(fileWriter, OrderExportFormat.CSV, orderWriter);
+            writer.writeHeader();
+            readOnlyTransaction.executeWithoutResult(status ->
+                    orderRepository.readDetachedOrders(partitionName, order -> {
+                        try {
+                            writer.write(order);
+                        } catch (IOException exception) {
+                            throw new UncheckedIOException(exception);
+                        }
+                        ordersCount.incrementAndGet();
+                    }));
+        } catch (UncheckedIOException exception) {
+            Files.deleteIfExists(temporaryFile);
+            throw exception.getCause();
+        } catch (IOException | RuntimeException exception) {
+            Files.deleteIfExists(temporaryFile);
+            throw exception;
+        }
+        Files.move(temporaryFile, archiveDirectory.resolve(fileName), StandardCopyOption.REPLACE_EXISTING,
+                StandardCopyOption.ATOMIC_MOVE);
+        orderRepository.completeArchive(partitionName, fileName, ordersCount.get());
+        archivedOrders.increment(ordersCount.get());
+        log.info("Партиция {} выгружена в архив {}, заказов: {}", partitionName, fileName, ordersCount.get());
+    }
+}
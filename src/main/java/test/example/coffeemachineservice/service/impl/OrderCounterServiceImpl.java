@@ -0,0 +1,74 @@
+package test.example.coffeemachineservice.service.impl;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import test.example.coffeemachineservice.persistent.repository.DrinkRepository;
+import test.example.coffeemachineservice.service.OrderCounterService;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+@Slf4j
+@Service
+public class OrderCounterServiceImpl implements OrderCounterService {
+
+    private final DrinkRepository drinkRepository;
+
+    private final Map<UUID, LongAdder> pendingCounts = new ConcurrentHashMap<>();
+
+    private final Counter flushedOrders;
+
+    public OrderCounterServiceImpl(DrinkRepository drinkRepository, MeterRegistry meterRegistry) {
+        this.drinkRepository = drinkRepository;
+        this.flushedOrders = Counter.builder("coffee.drink.orders.flushed")
+                .description("Заказы, учтённые в drinks.orders_count")
+                .register(meterRegistry);
+        Gauge.builder("coffee.drink.orders.pending", this, OrderCounterServiceImpl::getPendingCount)
+                .description("Заказы, ещё не сброшенные в drinks.orders_count")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void increment(UUID drinkId, int count) {
+        pendingCounts.computeIfAbsent(drinkId, id -> new LongAdder()).add(count);
+    }
+
+    // Снятые дельты возвращаются в счётчики, если запись в БД не удалась
+    @Override
+    public synchronized int flush() {
+        Map<UUID, Long> deltas = new HashMap<>();
+        pendingCounts.forEach((drinkId, adder) -> {
+            long delta = adder.sumThenReset();
+            if (delta != 0) {
+                deltas.put(drinkId, delta);
+            }
+        });
+        if (deltas.isEmpty()) {
+            return 0;
+        }
+        try {
+            drinkRepository.addOrdersCounts(deltas);
+        } catch (RuntimeException exception) {
+            deltas.forEach((drinkId, delta) -> pendingCounts.computeIfAbsent(drinkId, id -> new LongAdder()).add(delta));
+            throw exception;
+        }
+        long flushed = deltas.values().stream()
+                .mapToLong(Long::longValue)
+                .sum();
+        flushedOrders.increment(flushed);
+        log.debug("Счётчики заказов обновлены для {} напитков, заказов {}", deltas.size(), flushed);
+        return deltas.size();
+    }
+
+    public long getPendingCount() {
+        return pendingCounts.values().stream()
+                .mapToLong(LongAdder::sum)
+                .sum();
+    }
+}
@@ -0,0 +1,68 @@
+package test.example.coffeemachineservice.service.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import test.example.coffeemachineservice.dto.request.PeriodRequestDto;
+import test.example.coffeemachineservice.dto.response.OrderResponseDto;
+import test.example.coffeemachineservice.export.OrderExportFormat;
+import test.example.coffeemachineservice.export.OrderExportWriter;
+import test.example.coffeemachineservice.persistent.projection.OrderExportView;
+import test.example.coffeemachineservice.persistent.repository.OrderRepository;
+import test.example.coffeemachineservice.service.OrderExportService;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+// Строки читаются курсором порциями по ORDER_EXPORT_FETCH_SIZE и сразу пишутся в ответ:
+// проекции не попадают в контекст персистентности, поэтому память не растёт с размером периода
+@Slf4j
+@Service
+public class OrderExportServiceImpl implements OrderExportService {
+
+    private final OrderRepository orderRepository;
+
+    private final ObjectWriter orderWriter;
+
+    public OrderExportServiceImpl(OrderRepository orderRepository, ObjectMapper objectMapper) {
+        this.orderRepository = orderRepository;
+        this.orderWriter = objectMapper.writerFor(OrderResponseDto.class);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public long exportOrdersForPeriod(PeriodRequestDto requestDto, OrderExportFormat format, OutputStream outputStream)
+            throws IOException {
+        LocalDateTime start = requestDto.getStartDate().atStartOfDay();
+        LocalDateTime end = requestDto.getEndDate().atTime(23, 59, 59);
+        log.info("Выгрузка заказов за период {} - {}, формат {}", start, end, format);
+        OrderExportWriter writer = new OrderExportWriter(
+                new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8)), format, orderWriter);
+        long exported = 0;
+        try (Stream<OrderExportView> orders = orderRepository.streamByCreatedAtBetween(start, end)) {
+            writer.writeHeader();
+            Iterator<OrderExportView> iterator = orders.iterator();
+            while (iterator.hasNext()) {
+                OrderExportView order = iterator.next();
+                writer.write(OrderResponseDto.builder()
+                        .orderId(order.getOrderId().toString())
+                        .drinkName(order.getDrinkName())
+                        .status(order.getStatus().getStatusName())
+                        .createdAt(order.getCreatedAt())
+                        .build());
+                exported++;
+            }
+        }
+        writer.flush();
+        log.info("Выгружено заказов: {}, формат {}", exported, format);
+        return exported;
+    }
+}
@@ -0,0 +1,105 @@
+package test.example.coffeemachineservice.service.impl;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import test.example.coffeemachineservice.configuration.CoffeeMachineProperties;
+import test.example.coffeemachineservice.dto.request.PeriodRequestDto;
+import test.example.coffeemachineservice.dto.response.OrderCountResponseDto;
+import test.example.coffeemachineservice.dto.response.OrderSummaryResponseDto;
+import test.example.coffeemachineservice.persistent.projection.OrderRollupView;
+import test.example.coffeemachineservice.persistent.projection.OrderSummaryView;
+import test.example.coffeemachineservice.persistent.repository.OrderRepository;
+import test.example.coffeemachineservice.service.OrderRollupService;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static test.example.coffeemachineservice.persistent.enums.OrderStatus.COMPLETED;
+import static test.example.coffeemachineservice.persistent.enums.OrderStatus.REFUSED;
+
+// Сводки по часам и дням ведутся триггерами orders через таблицу дельт и отстают от заказов на интервал свёртки
+@Slf4j
+@Service
+public class OrderRollupServiceImpl implements OrderRollupService {
+
+    private final OrderRepository orderRepository;
+
+    private final int batchSize;
+
+    private final Counter foldedDeltas;
+
+    public OrderRollupServiceImpl(OrderRepository orderRepository, CoffeeMachineProperties properties,
+                                  MeterRegistry meterRegistry) {
+        this.orderRepository = orderRepository;
+        this.batchSize = properties.getRollups().getBatchSize();
+        this.foldedDeltas = Counter.builder("coffee.order.rollup.folded")
+                .description("Изменения заказов, свёрнутые в сводки")
+                .register(meterRegistry);
+    }
+
+    // Порции сворачиваются, пока очередь дельт не опустеет, например после простоя
+    @Override
+    public long foldDeltas() {
+        long total = 0;
+        long folded;
+        do {
+            folded = orderRepository.foldRollupDeltas(batchSize);
+            total += folded;
+            foldedDeltas.increment(folded);
+        } while (folded == batchSize);
+        if (total > 0) {
+            log.debug("В сводки заказов свёрнуто изменений: {}", total);
+        }
+        return total;
+    }
+
+    @Override
+    public List<OrderCountResponseDto> getDailyCounts(PeriodRequestDto requestDto) {
+        log.info("Получение числа заказов по дням за период {} - {}", requestDto.getStartDate(), requestDto.getEndDate());
+        return orderRepository.findDailyRollups(requestDto.getStartDate(), requestDto.getEndDate(),
+                        COMPLETED.getCode(), REFUSED.getCode()).stream()
+                .map(this::mapToOrderCountResponseDto)
+                .toList();
+    }
+
+    @Override
+    public List<OrderCountResponseDto> getHourlyCountsForToday() {
+        LocalDateTime start = LocalDate.now().atStartOfDay();
+        log.info("Получение числа заказов по часам с {}", start);
+        return orderRepository.findHourlyRollups(start, start.plusDays(1),
+                        COMPLETED.getCode(), REFUSED.getCode()).stream()
+                .map(this::mapToOrderCountResponseDto)
+                .toList();
+    }
+
+    @Override
+    public OrderSummaryResponseDto getSummary(PeriodRequestDto requestDto) {
+        log.info("Получение сводки по заказам за период {} - {}", requestDto.getStartDate(), requestDto.getEndDate());
+        OrderSummaryView summary = orderRepository.summarizeRollups(requestDto.getStartDate(), requestDto.getEndDate(),
+                COMPLETED.getCode(), REFUSED.getCode());
+        return OrderSummaryResponseDto.builder()
+                .startDate(requestDto.getStartDate())
+                .endDate(requestDto.getEndDate())
+                .ordersCount(summary.getOrdersCount())
+                .completedCount(summary.getCompletedCount())
+                .refusedCount(summary.getRefusedCount())
+                .refusalRate(summary.getOrdersCount() == 0
+                        ? 0
+                        : (double) summary.getRefusedCount() / summary.getOrdersCount())
+                .build();
+    }
+
+    private OrderCountResponseDto mapToOrderCountResponseDto(OrderRollupView rollup) {
+        return OrderCountResponseDto.builder()
+                .periodStart(rollup.getPeriodStart())
+                .drinkId(rollup.getDrinkId().toString())
+                .drinkName(rollup.getDrinkName())
+                .ordersCount(rollup.getOrdersCount())
+                .completedCount(rollup.getCompletedCount())
+                .refusedCount(rollup.getRefusedCount())
+                .build();
+    }
+}
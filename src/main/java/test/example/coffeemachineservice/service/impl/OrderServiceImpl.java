@@ -2,34 +2,48 @@ package test.example.coffeemachineservice.service.impl;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import test.example.coffeemachineservice.dto.request.PeriodRequestDto;
+import test.example.coffeemachineservice.dto.response.OrderPageResponseDto;
 import test.example.coffeemachineservice.dto.response.OrderResponseDto;
+import test.example.coffeemachineservice.event.OrderStatusChangedEvent;
 import test.example.coffeemachineservice.exception.OrderException;
 import test.example.coffeemachineservice.mapper.OrderMapper;
+import test.example.coffeemachineservice.pagination.OrderPageToken;
 import test.example.coffeemachineservice.persistent.entity.Drink;
 import test.example.coffeemachineservice.persistent.entity.Order;
 import test.example.coffeemachineservice.persistent.enums.OrderStatus;
+import test.example.coffeemachineservice.persistent.generator.OrderIds;
+import test.example.coffeemachineservice.persistent.generator.OrderIds.CreatedAtRange;
+import test.example.coffeemachineservice.persistent.projection.CompletedOrderView;
 import test.example.coffeemachineservice.persistent.repository.OrderRepository;
+import test.example.coffeemachineservice.service.BrewingQueueService;
+import test.example.coffeemachineservice.service.DrinkPopularityService;
+import test.example.coffeemachineservice.service.IngredientReservationService;
 import test.example.coffeemachineservice.service.OrderService;
 
 import java.time.DayOfWeek;
-import java.time.Duration;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.Set;
+import java.util.Map;
 import java.util.UUID;
-import java.util.concurrent.Executors;
-import java.util.concurrent.TimeUnit;
 
 import static org.springframework.http.HttpStatus.NOT_FOUND;
-import static test.example.coffeemachineservice.constant.ApplicationConstant.CAN_ONLY_ONE_ACTIVE_ORDER_MESSAGE;
+import static test.example.coffeemachineservice.constant.ApplicationConstant.BREWING_QUEUE_FULL_MESSAGE;
+import static test.example.coffeemachineservice.constant.ApplicationConstant.MINUTES_MAKE_DRINK;
 import static test.example.coffeemachineservice.constant.ApplicationConstant.ORDERS_NOT_FOUND_MESSAGE;
 import static test.example.coffeemachineservice.constant.ApplicationConstant.ORDER_DELETED_MESSAGE;
 import static test.example.coffeemachineservice.constant.ApplicationConstant.ORDER_NOT_FOUND_MESSAGE;
+import static test.example.coffeemachineservice.persistent.enums.OrderStatus.COMPLETED;
 import static test.example.coffeemachineservice.persistent.enums.OrderStatus.CREATED;
 import static test.example.coffeemachineservice.persistent.enums.OrderStatus.PROGRESS;
+import static test.example.coffeemachineservice.persistent.enums.OrderStatus.REFUSED;
 
 @Service
 @RequiredArgsConstructor
@@ -39,110 +53,279 @@ public class OrderServiceImpl implements OrderService {
     private final OrderRepository orderRepository;
 
     private final OrderMapper orderMapper;
+
+    private final BrewingQueueService brewingQueueService;
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final DrinkPopularityService drinkPopularityService;
+
+    private final IngredientReservationService ingredientReservationService;
+
     private static final String MESSAGE_LOG_FOR_ORDER_SEARCH_PERIOD = "Получение заказов за период {} - {}";
 
     @Override
-    public UUID createOrder(Drink drink, String status) {
-        log.info("Создание заказа с напитком {} и статусом '{}'", drink, status);
-        boolean hasActiveOrder = orderRepository.existsByStatusIn(Set.of(CREATED.getStatusName(), PROGRESS.getStatusName()));
-        if (hasActiveOrder) {
-            throw new OrderException(CAN_ONLY_ONE_ACTIVE_ORDER_MESSAGE);
+    public UUID createOrder(Drink drink, OrderStatus status) {
+        log.info("Создание заказа с напитком {} и статусом '{}'", drink.getDrinkId(), status);
+        if (brewingQueueService.isFull()) {
+            throw new OrderException(BREWING_QUEUE_FULL_MESSAGE);
         }
         Order newOrder = Order.builder()
                 .drink(drink)
                 .status(status)
-                .createdAt(LocalDateTime.now())
+                .createdAt(newCreatedAt())
                 .build();
         Order savedOrder = orderRepository.save(newOrder);
+        publishStatusChanged(List.of(savedOrder.getOrderId()), status);
         log.info("Заказ {} успешно создан", savedOrder.getOrderId());
         return savedOrder.getOrderId();
     }
 
     @Override
-    public void updateOrderStatus(UUID orderId, String status) {
+    public List<UUID> createOrders(List<Drink> drinks, OrderStatus status) {
+        if (drinks.isEmpty()) {
+            return List.of();
+        }
+        log.info("Создание {} заказов со статусом '{}'", drinks.size(), status);
+        LocalDateTime createdAt = newCreatedAt();
+        List<Order> newOrders = drinks.stream()
+                .map(drink -> Order.builder()
+                        .drink(drink)
+                        .status(status)
+                        .createdAt(createdAt)
+                        .build())
+                .toList();
+        List<UUID> orderIds = orderRepository.saveAll(newOrders).stream()
+                .map(Order::getOrderId)
+                .toList();
+        publishStatusChanged(orderIds, status);
+        return orderIds;
+    }
+
+    @Override
+    public void updateOrderStatus(UUID orderId, OrderStatus status) {
         log.info("Обновление статуса заказа {} на '{}'", orderId, status);
-        Order foundOrder = orderRepository.findById(orderId)
-                .orElseThrow(() -> new OrderException(ORDER_NOT_FOUND_MESSAGE));
-        if (PROGRESS.getStatusName().equals(status) &&
-                orderRepository.existsByStatusIn(Set.of(PROGRESS.getStatusName()))) {
-            throw new OrderException(CAN_ONLY_ONE_ACTIVE_ORDER_MESSAGE);
+        CreatedAtRange createdAt = OrderIds.createdAtRange(orderId);
+        if (orderRepository.updateStatusWithinCreatedAt(orderId, createdAt.from(), createdAt.to(), status) == 0) {
+            throw new OrderException(ORDER_NOT_FOUND_MESSAGE);
         }
-        foundOrder.setStatus(status);
-        orderRepository.save(foundOrder);
+        if (status == REFUSED) {
+            ingredientReservationService.releaseReservations(List.of(orderId));
+        }
+        publishStatusChanged(List.of(orderId), status);
         log.info("Статус заказа {} обновлён на '{}'", orderId, status);
     }
 
+    // Отменяет только ещё не начатые заказы: снимает их резервы и убирает из очереди приготовления.
+    // Заказы, успевшие начать готовиться или уже отменённые, не трогаются и событий не получают
+    @Override
+    public int refuseOrders(List<UUID> orderIds) {
+        if (orderIds.isEmpty()) {
+            return 0;
+        }
+        log.info("Отказ по заказам {}", orderIds);
+        CreatedAtRange createdAt = OrderIds.createdAtRange(orderIds);
+        List<UUID> refusedOrderIds = orderRepository.updateStatus(orderIds, createdAt.from(), createdAt.to(),
+                CREATED.getCode(), REFUSED.getCode());
+        ingredientReservationService.releaseReservations(refusedOrderIds);
+        refusedOrderIds.forEach(brewingQueueService::remove);
+        publishStatusChanged(refusedOrderIds, REFUSED);
+        return refusedOrderIds.size();
+    }
+
     @Override
-    public void updateOrderStatusAfterDelay(UUID orderId, OrderStatus newStatus, Duration delay) {
-        log.info("Запуск обновления статуса заказа {} до '{}' через {} секунд", orderId, newStatus.getStatusName(), delay.toSeconds());
-        Executors.newSingleThreadScheduledExecutor().schedule(() -> {
+    public OrderResponseDto getOrder(String orderId) {
+        log.info("Получение заказа с ID {}", orderId);
+        Order foundOrder = findOrder(UUID.fromString(orderId));
+        return orderMapper.mapToOrderResponseDto(foundOrder);
+    }
+
+    @Override
+    public int enqueueOrder(UUID orderId) {
+        log.info("Постановка заказа {} в очередь приготовления", orderId);
+        int queuePosition = brewingQueueService.enqueue(orderId);
+        if (queuePosition == 0) {
             try {
-                updateOrderStatus(orderId, newStatus.getStatusName());
-            } catch (OrderException e) {
-                log.error("Ошибка обновления статуса заказа {}: {}", orderId, e.getMessage());
+                startBrewing(List.of(orderId));
+            } catch (RuntimeException exception) {
+                // Заказ занял слот, но не начал готовиться: слот отдаётся следующему, иначе он занят до перезапуска.
+                // Начавший готовиться заказ держит слот до завершения
+                if (refuseOrders(List.of(orderId)) > 0) {
+                    startBrewing(brewingQueueService.releaseSlots(1));
+                }
+                throw exception;
             }
-        }, delay.toSeconds(), TimeUnit.SECONDS);
+        }
+        return queuePosition;
     }
 
     @Override
-    public List<OrderResponseDto> getAllOrders() {
-        log.info("Получение всех заказов");
-        List<Order> foundOrders = orderRepository.findAll();
-        if (foundOrders.isEmpty()) {
-            throw new OrderException(ORDERS_NOT_FOUND_MESSAGE);
+    public Map<UUID, Integer> enqueueOrders(List<UUID> orderIds) {
+        log.info("Постановка {} заказов в очередь приготовления", orderIds.size());
+        Map<UUID, Integer> queuePositions = new LinkedHashMap<>();
+        List<UUID> startedOrderIds = new ArrayList<>();
+        for (UUID orderId : orderIds) {
+            try {
+                int queuePosition = brewingQueueService.enqueue(orderId);
+                queuePositions.put(orderId, queuePosition);
+                if (queuePosition == 0) {
+                    startedOrderIds.add(orderId);
+                }
+            } catch (OrderException exception) {
+                log.warn("Заказ {} не поставлен в очередь: {}", orderId, exception.getMessage());
+            }
         }
-        return foundOrders.stream()
-                .map(orderMapper::mapToOrderResponseDto)
+        startBrewing(startedOrderIds);
+        return queuePositions;
+    }
+
+    @Override
+    public List<CompletedOrderView> completeReadyOrders() {
+        List<CompletedOrderView> completedOrders = orderRepository.completeReadyOrders(
+                PROGRESS.getCode(), COMPLETED.getCode(), LocalDateTime.now());
+        List<UUID> completedOrderIds = completedOrders.stream()
+                .map(CompletedOrderView::getOrderId)
                 .toList();
+        if (!completedOrderIds.isEmpty()) {
+            log.info("Завершено заказов: {} {}", completedOrderIds.size(), completedOrderIds);
+            publishStatusChanged(completedOrderIds, COMPLETED);
+            drinkPopularityService.recordCompletedOrders(completedOrders);
+            startBrewing(brewingQueueService.releaseSlots(completedOrderIds.size()));
+        }
+        return completedOrders;
+    }
+
+    @Override
+    public void restoreBrewingQueue() {
+        log.info("Восстановление очереди приготовления");
+        int brewingCount = (int) orderRepository.countByStatus(PROGRESS);
+        List<UUID> waitingOrderIds = orderRepository.findOrderIdsByStatus(CREATED);
+        startBrewing(brewingQueueService.restore(brewingCount, waitingOrderIds));
     }
 
     @Override
-    public List<OrderResponseDto> getOrdersForToday() {
+    public OrderPageResponseDto getAllOrders(String pageToken, int size) {
+        log.info("Получение заказов, размер страницы {}", size);
+        OrderPageToken after = OrderPageToken.decode(pageToken);
+        // Читается на заказ больше страницы: по нему видно, есть ли следующая
+        Limit limit = Limit.of(size + 1);
+        List<OrderResponseDto> foundOrders = after == null
+                ? orderRepository.findOrderPage(limit)
+                : orderRepository.findOrderPageAfter(after.createdAt(), after.orderId(), limit);
+        return mapToPage(foundOrders, after, size);
+    }
+
+    @Override
+    public OrderPageResponseDto getOrdersForToday(String pageToken, int size) {
         LocalDateTime start = LocalDate.now().atStartOfDay();
         LocalDateTime end = LocalDateTime.now();
         log.info(MESSAGE_LOG_FOR_ORDER_SEARCH_PERIOD, start, end);
-        return findOrders(start, end).stream()
-                .map(orderMapper::mapToOrderResponseDto)
-                .toList();
+        return findOrders(start, end, pageToken, size);
     }
 
     @Override
-    public List<OrderResponseDto> getOrdersForCurrentWeek() {
+    public OrderPageResponseDto getOrdersForCurrentWeek(String pageToken, int size) {
         LocalDateTime start = LocalDate.now().with(DayOfWeek.MONDAY).atStartOfDay();
         LocalDateTime end = LocalDateTime.now();
         log.info(MESSAGE_LOG_FOR_ORDER_SEARCH_PERIOD, start, end);
-        return findOrders(start, end).stream()
-                .map(orderMapper::mapToOrderResponseDto)
-                .toList();
+        return findOrders(start, end, pageToken, size);
     }
 
     @Override
-    public List<OrderResponseDto> getOrdersForPeriod(PeriodRequestDto requestDto) {
+    public OrderPageResponseDto getOrdersForPeriod(PeriodRequestDto requestDto, String pageToken, int size) {
         LocalDateTime start = requestDto.getStartDate().atStartOfDay();
         LocalDateTime end = requestDto.getEndDate().atTime(23, 59, 59);
         log.info(MESSAGE_LOG_FOR_ORDER_SEARCH_PERIOD, start, end);
-        return findOrders(start, end).stream()
-                .map(orderMapper::mapToOrderResponseDto)
-                .toList();
+        return findOrders(start, end, pageToken, size);
     }
 
     @Override
     public String deleteOrder(String orderId) {
         log.info("Удаление заказа с ID {}", orderId);
-        Order foundOrder = orderRepository.findById(UUID.fromString(orderId))
-                .orElseThrow(() -> new OrderException(NOT_FOUND, ORDER_NOT_FOUND_MESSAGE));
-        orderRepository.delete(foundOrder);
+        Order foundOrder = findOrder(UUID.fromString(orderId));
+        CreatedAtRange createdAt = OrderIds.createdAtRange(foundOrder.getOrderId());
+        orderRepository.deleteByIdWithinCreatedAt(foundOrder.getOrderId(), createdAt.from(), createdAt.to());
+        if (foundOrder.getStatus() == PROGRESS) {
+            startBrewing(brewingQueueService.releaseSlots(1));
+        } else if (foundOrder.getStatus() == CREATED) {
+            brewingQueueService.remove(foundOrder.getOrderId());
+            ingredientReservationService.releaseReservations(List.of(foundOrder.getOrderId()));
+        }
         log.info("Заказ с ID {} успешно удален", orderId);
         return ORDER_DELETED_MESSAGE;
     }
 
-    private List<Order> findOrders(LocalDateTime start, LocalDateTime end) {
-        log.info("Поиск заказов за период {} - {}", start, end);
-        List<Order> foundOrders = orderRepository.findByCreatedAtBetween(start, end);
-        if (foundOrders.isEmpty()) {
+    // Идентификатор хранит миллисекунды created_at, а PostgreSQL округляет до микросекунд: без усечения
+    // метка вида .999_999_999 сохранилась бы в следующей миллисекунде, вне диапазона, выведенного из идентификатора
+    private static LocalDateTime newCreatedAt() {
+        return LocalDateTime.now().truncatedTo(ChronoUnit.MILLIS);
+    }
+
+    // created_at восстанавливается из идентификатора, поэтому читается одна партиция, а не все
+    private Order findOrder(UUID orderId) {
+        CreatedAtRange createdAt = OrderIds.createdAtRange(orderId);
+        return orderRepository.findByIdWithinCreatedAt(orderId, createdAt.from(), createdAt.to())
+                .orElseThrow(() -> new OrderException(NOT_FOUND, ORDER_NOT_FOUND_MESSAGE));
+    }
+
+    // В работу идут только заказы со списанным резервом и всё ещё в статусе CREATED. Остальные отклоняются,
+    // а занятые ими слоты отдаются следующим в очереди
+    private void startBrewing(List<UUID> orderIds) {
+        if (orderIds.isEmpty()) {
+            return;
+        }
+        List<UUID> committedOrderIds = ingredientReservationService.commitReservations(orderIds);
+        LocalDateTime readyAt = LocalDateTime.now().plusMinutes(MINUTES_MAKE_DRINK);
+        List<UUID> startedOrderIds = committedOrderIds.isEmpty()
+                ? List.of()
+                : startOrders(committedOrderIds, readyAt);
+        if (!startedOrderIds.isEmpty()) {
+            publishStatusChanged(startedOrderIds, PROGRESS);
+            log.info("Заказы {} готовятся, будут готовы в {}", startedOrderIds, readyAt);
+        }
+        if (startedOrderIds.size() == orderIds.size()) {
+            return;
+        }
+        List<UUID> notStartedOrderIds = orderIds.stream()
+                .filter(orderId -> !startedOrderIds.contains(orderId))
+                .toList();
+        log.warn("Заказы {} не запущены: резерв не найден или заказ уже не ожидает", notStartedOrderIds);
+        refuseOrders(notStartedOrderIds);
+        startBrewing(brewingQueueService.releaseSlots(notStartedOrderIds.size()));
+    }
+
+    private List<UUID> startOrders(List<UUID> orderIds, LocalDateTime readyAt) {
+        CreatedAtRange createdAt = OrderIds.createdAtRange(orderIds);
+        return orderRepository.updateStatusAndReadyAt(orderIds, createdAt.from(), createdAt.to(),
+                CREATED.getCode(), PROGRESS.getCode(), readyAt);
+    }
+
+    private void publishStatusChanged(List<UUID> orderIds, OrderStatus status) {
+        orderIds.forEach(orderId -> eventPublisher.publishEvent(new OrderStatusChangedEvent(orderId, status)));
+    }
+
+    private OrderPageResponseDto findOrders(LocalDateTime start, LocalDateTime end, String pageToken, int size) {
+        log.info("Поиск заказов за период {} - {}, размер страницы {}", start, end, size);
+        OrderPageToken after = OrderPageToken.decode(pageToken);
+        Limit limit = Limit.of(size + 1);
+        List<OrderResponseDto> foundOrders = after == null
+                ? orderRepository.findOrderPageByCreatedAtBetween(start, end, limit)
+                : orderRepository.findOrderPageByCreatedAtBetweenAfter(start, end, after.createdAt(), after.orderId(),
+                limit);
+        return mapToPage(foundOrders, after, size);
+    }
+
+    // Пустая первая страница — заказов нет; пустая следующая возможна, если заказы удалили между запросами
+    private OrderPageResponseDto mapToPage(List<OrderResponseDto> foundOrders, OrderPageToken after, int size) {
+        if (foundOrders.isEmpty() && after == null) {
             throw new OrderException(ORDERS_NOT_FOUND_MESSAGE);
         }
-        log.info("Заказы за период {} - {} успешно найдены. Всего: {}", start, end, foundOrders.size());
-        return foundOrders;
+        boolean hasNext = foundOrders.size() > size;
+        List<OrderResponseDto> orders = hasNext ? foundOrders.subList(0, size) : foundOrders;
+        log.info("Найдено заказов на странице: {}, есть следующая: {}", orders.size(), hasNext);
+        return OrderPageResponseDto.builder()
+                .orders(orders)
+                .nextPageToken(hasNext ? OrderPageToken.of(orders.get(orders.size() - 1)).encode() : null)
+                .build();
     }
-}
\ No newline at end of file
+}
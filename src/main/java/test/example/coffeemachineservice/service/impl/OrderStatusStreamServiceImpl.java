@@ -0,0 +1,111 @@
+package test.example.coffeemachineservice.service.impl;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import test.example.coffeemachineservice.configuration.CoffeeMachineProperties;
+import test.example.coffeemachineservice.dto.response.OrderResponseDto;
+import test.example.coffeemachineservice.dto.response.OrderStatusEventDto;
+import test.example.coffeemachineservice.event.OrderStatusChangedEvent;
+import test.example.coffeemachineservice.service.OrderService;
+import test.example.coffeemachineservice.service.OrderStatusStreamService;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static test.example.coffeemachineservice.persistent.enums.OrderStatus.COMPLETED;
+import static test.example.coffeemachineservice.persistent.enums.OrderStatus.REFUSED;
+
+@Slf4j
+@Service
+public class OrderStatusStreamServiceImpl implements OrderStatusStreamService {
+
+    private static final String STATUS_EVENT_NAME = "status";
+
+    private static final Set<String> FINAL_STATUSES = Set.of(COMPLETED.getStatusName(), REFUSED.getStatusName());
+
+    private final OrderService orderService;
+
+    private final long timeoutMillis;
+
+    private final Map<UUID, List<SseEmitter>> subscribers = new ConcurrentHashMap<>();
+
+    public OrderStatusStreamServiceImpl(OrderService orderService, CoffeeMachineProperties properties,
+                                        MeterRegistry meterRegistry) {
+        this.orderService = orderService;
+        this.timeoutMillis = properties.getOrderEvents().getTimeout().toMillis();
+        Gauge.builder("coffee.order.events.subscribers", this, OrderStatusStreamServiceImpl::getSubscriberCount)
+                .description("Открытые SSE-подписки на статусы заказов")
+                .register(meterRegistry);
+    }
+
+    // Подписка регистрируется до чтения текущего статуса, чтобы не потерять переход между ними
+    @Override
+    public SseEmitter subscribe(String orderId) {
+        UUID orderUuid = UUID.fromString(orderId);
+        SseEmitter emitter = new SseEmitter(timeoutMillis);
+        subscribers.computeIfAbsent(orderUuid, id -> new CopyOnWriteArrayList<>()).add(emitter);
+        emitter.onCompletion(() -> unsubscribe(orderUuid, emitter));
+        emitter.onTimeout(() -> unsubscribe(orderUuid, emitter));
+        emitter.onError(exception -> unsubscribe(orderUuid, emitter));
+        OrderResponseDto currentOrder;
+        try {
+            currentOrder = orderService.getOrder(orderId);
+        } catch (RuntimeException exception) {
+            unsubscribe(orderUuid, emitter);
+            throw exception;
+        }
+        log.info("Подписка на статусы заказа {}, текущий статус '{}'", orderId, currentOrder.getStatus());
+        send(orderUuid, emitter, currentOrder.getStatus());
+        return emitter;
+    }
+
+    @Override
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onOrderStatusChanged(OrderStatusChangedEvent event) {
+        List<SseEmitter> emitters = subscribers.get(event.getOrderId());
+        if (emitters == null) {
+            return;
+        }
+        emitters.forEach(emitter -> send(event.getOrderId(), emitter, event.getStatus().getStatusName()));
+    }
+
+    public int getSubscriberCount() {
+        return subscribers.values().stream()
+                .mapToInt(List::size)
+                .sum();
+    }
+
+    private void send(UUID orderId, SseEmitter emitter, String status) {
+        try {
+            emitter.send(SseEmitter.event()
+                    .name(STATUS_EVENT_NAME)
+                    .data(OrderStatusEventDto.builder()
+                            .orderId(orderId.toString())
+                            .status(status)
+                            .build()));
+            if (FINAL_STATUSES.contains(status)) {
+                unsubscribe(orderId, emitter);
+                emitter.complete();
+            }
+        } catch (IOException | IllegalStateException exception) {
+            log.debug("Подписчик заказа {} отключился: {}", orderId, exception.getMessage());
+            unsubscribe(orderId, emitter);
+        }
+    }
+
+    private void unsubscribe(UUID orderId, SseEmitter emitter) {
+        subscribers.computeIfPresent(orderId, (id, emitters) -> {
+            emitters.remove(emitter);
+            return emitters.isEmpty() ? null : emitters;
+        });
+    }
+}
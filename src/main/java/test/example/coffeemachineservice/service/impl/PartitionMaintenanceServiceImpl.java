@@ -0,0 +1,164 @@
+package test.example.coffeemachineservice.service.impl;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.MultiGauge;
+import io.micrometer.core.instrument.Tags;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import test.example.coffeemachineservice.configuration.CoffeeMachineProperties;
+import test.example.coffeemachineservice.partition.PartitionGranularity;
+import test.example.coffeemachineservice.partition.PartitionRetentionPolicy;
+import test.example.coffeemachineservice.persistent.projection.OrderPartitionView;
+import test.example.coffeemachineservice.persistent.repository.OrderRepository;
+import test.example.coffeemachineservice.service.OrderArchiveService;
+import test.example.coffeemachineservice.service.PartitionMaintenanceService;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.Period;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Партиции orders создаются заранее на несколько диапазонов вперёд, чтобы заказы не копились в партиции
+// по умолчанию. Партиции, весь диапазон которых старше срока хранения, отсоединяются, удаляются или архивируются
+@Slf4j
+@Service
+public class PartitionMaintenanceServiceImpl implements PartitionMaintenanceService {
+
+    private final OrderRepository orderRepository;
+
+    private final OrderArchiveService orderArchiveService;
+
+    private final PartitionGranularity granularity;
+
+    private final int partitionsAhead;
+
+    private final Period retention;
+
+    private final PartitionRetentionPolicy retentionPolicy;
+
+    private final Counter createdPartitions;
+
+    private final Counter expiredPartitions;
+
+    private final Counter failedPartitions;
+
+    private final AtomicInteger partitionCount = new AtomicInteger();
+
+    private final MultiGauge partitionSizes;
+
+    private final MultiGauge partitionRows;
+
+    public PartitionMaintenanceServiceImpl(OrderRepository orderRepository, OrderArchiveService orderArchiveService,
+                                           CoffeeMachineProperties properties, MeterRegistry meterRegistry) {
+        CoffeeMachineProperties.Partitions partitions = properties.getPartitions();
+        this.orderRepository = orderRepository;
+        this.orderArchiveService = orderArchiveService;
+        this.granularity = partitions.getGranularity();
+        this.partitionsAhead = partitions.getAhead();
+        this.retention = partitions.getRetention();
+        this.retentionPolicy = partitions.getRetentionPolicy();
+        this.createdPartitions = Counter.builder("coffee.orders.partitions.created")
+                .description("Партиции заказов, созданные обслуживанием")
+                .register(meterRegistry);
+        this.expiredPartitions = Counter.builder("coffee.orders.partitions.expired")
+                .description("Партиции заказов, убранные по сроку хранения")
+                .tag("policy", retentionPolicy.name().toLowerCase())
+                .register(meterRegistry);
+        // Пока партиция не создана, заказы её диапазона копятся в партиции по умолчанию
+        this.failedPartitions = Counter.builder("coffee.orders.partitions.failed")
+                .description("Неудачные попытки создать партицию заказов")
+                .register(meterRegistry);
+        Gauge.builder("coffee.orders.partitions", partitionCount, AtomicInteger::get)
+                .description("Партиции таблицы заказов, включая партицию по умолчанию")
+                .register(meterRegistry);
+        this.partitionSizes = MultiGauge.builder("coffee.orders.partition.size")
+                .description("Размер партиции заказов вместе с индексами")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        this.partitionRows = MultiGauge.builder("coffee.orders.partition.rows")
+                .description("Оценка числа заказов в партиции по последнему ANALYZE")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void maintainPartitions() {
+        LocalDate today = LocalDate.now();
+        orderArchiveService.archiveDetachedPartitions();
+        List<OrderPartitionView> partitions = orderRepository.findPartitions();
+        int changed = createMissingPartitions(partitions, today) + expirePartitions(partitions, today);
+        recordMetrics(changed > 0 ? orderRepository.findPartitions() : partitions);
+    }
+
+    // Диапазон, который хотя бы частично покрыт существующей партицией, пропускается: так переход на более
+    // мелкую нарезку начинается после окончания ранее созданных партиций
+    private int createMissingPartitions(List<OrderPartitionView> partitions, LocalDate today) {
+        int created = 0;
+        LocalDate rangeStart = granularity.rangeStart(today);
+        for (int i = 0; i <= partitionsAhead; i++) {
+            LocalDate rangeEnd = granularity.nextRangeStart(rangeStart);
+            if (!isCovered(partitions, rangeStart.atStartOfDay(), rangeEnd.atStartOfDay())) {
+                String partitionName = granularity.partitionName(rangeStart);
+                try {
+                    orderRepository.createPartition(partitionName, rangeStart.atStartOfDay(), rangeEnd.atStartOfDay());
+                    createdPartitions.increment();
+                    created++;
+                    log.info("Создана партиция заказов {} на {} - {}", partitionName, rangeStart, rangeEnd);
+                } catch (DataAccessException exception) {
+                    failedPartitions.increment();
+                    log.error("Не удалось создать партицию заказов {}: {}", partitionName, exception.getMessage());
+                }
+            }
+            rangeStart = rangeEnd;
+        }
+        return created;
+    }
+
+    private int expirePartitions(List<OrderPartitionView> partitions, LocalDate today) {
+        int expired = 0;
+        LocalDateTime retainedSince = today.minus(retention).atStartOfDay();
+        for (OrderPartitionView partition : partitions) {
+            if (partition.getRangeEnd() == null || partition.getRangeEnd().isAfter(retainedSince)) {
+                continue;
+            }
+            try {
+                switch (retentionPolicy) {
+                    case DETACH -> orderRepository.detachPartition(partition.getPartitionName());
+                    case DROP -> orderRepository.dropPartition(partition.getPartitionName());
+                    case ARCHIVE -> orderArchiveService.archivePartition(partition.getPartitionName());
+                }
+                expiredPartitions.increment();
+                expired++;
+                log.info("Партиция заказов {} истекла по сроку хранения, политика {}", partition.getPartitionName(),
+                        retentionPolicy);
+            } catch (IOException | RuntimeException exception) {
+                log.error("Не удалось убрать истёкшую партицию заказов {}: {}", partition.getPartitionName(),
+                        exception.getMessage());
+            }
+        }
+        return expired;
+    }
+
+    private boolean isCovered(List<OrderPartitionView> partitions, LocalDateTime rangeStart, LocalDateTime rangeEnd) {
+        return partitions.stream()
+                .filter(partition -> partition.getRangeStart() != null && partition.getRangeEnd() != null)
+                .anyMatch(partition -> partition.getRangeStart().isBefore(rangeEnd)
+                        && rangeStart.isBefore(partition.getRangeEnd()));
+    }
+
+    private void recordMetrics(List<OrderPartitionView> partitions) {
+        partitionCount.set(partitions.size());
+        partitionSizes.register(partitions.stream()
+                .map(partition -> MultiGauge.Row.of(Tags.of("partition", partition.getPartitionName()),
+                        partition.getTotalBytes()))
+                .toList(), true);
+        partitionRows.register(partitions.stream()
+                .map(partition -> MultiGauge.Row.of(Tags.of("partition", partition.getPartitionName()),
+                        partition.getEstimatedRows()))
+                .toList(), true);
+    }
+}
@@ -3,9 +3,11 @@ package test.example.coffeemachineservice.service.impl;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 import test.example.coffeemachineservice.dto.request.AddNewRecipeRequestDto;
+import test.example.coffeemachineservice.dto.request.RecipeIngredientDto;
 import test.example.coffeemachineservice.dto.response.RecipeResponseDto;
 import test.example.coffeemachineservice.exception.RecipeException;
 import test.example.coffeemachineservice.mapper.RecipeMapper;
@@ -13,14 +15,17 @@ import test.example.coffeemachineservice.persistent.entity.Ingredient;
 import test.example.coffeemachineservice.persistent.entity.Recipe;
 import test.example.coffeemachineservice.persistent.entity.RecipeIngredient;
 import test.example.coffeemachineservice.persistent.repository.IngredientRepository;
-import test.example.coffeemachineservice.persistent.repository.RecipeIngredientRepository;
 import test.example.coffeemachineservice.persistent.repository.RecipeRepository;
 import test.example.coffeemachineservice.service.RecipeService;
 
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 import static org.springframework.http.HttpStatus.NOT_FOUND;
+import static test.example.coffeemachineservice.constant.ApplicationConstant.DRINK_CATALOG_CACHE;
 import static test.example.coffeemachineservice.constant.ApplicationConstant.INGREDIENT_NOT_FOUND_MESSAGE;
 import static test.example.coffeemachineservice.constant.ApplicationConstant.NOT_POSSIBLE_DELETE_RECIPE_MESSAGE;
 import static test.example.coffeemachineservice.constant.ApplicationConstant.RECIPES_NOT_FOUND_MESSAGE;
@@ -35,8 +40,6 @@ public class RecipeServiceImpl implements RecipeService {
 
     private final RecipeRepository recipeRepository;
 
-    private final RecipeIngredientRepository recipeIngredientRepository;
-
     private final IngredientRepository ingredientRepository;
 
     private final RecipeMapper recipeMapper;
@@ -56,27 +59,37 @@ public class RecipeServiceImpl implements RecipeService {
 
     @Override
     @Transactional
+    @CacheEvict(cacheNames = DRINK_CATALOG_CACHE, allEntries = true)
     public void addRecipe(AddNewRecipeRequestDto requestDto) {
         log.info("Добавление нового рецепта: {}", requestDto.getRecipeName());
         if (recipeRepository.findByRecipeName(requestDto.getRecipeName()).isPresent()) {
             throw new RecipeException(RECIPE_ALREADY_EXISTS_MESSAGE);
         }
         Recipe newRecipe = recipeMapper.mapToRecipe(requestDto);
+        Map<String, Ingredient> ingredients = ingredientRepository.findAllByIngredientNameIn(
+                        requestDto.getRecipeIngredients().stream()
+                                .map(RecipeIngredientDto::getIngredientName)
+                                .toList())
+                .stream()
+                .collect(Collectors.toMap(Ingredient::getIngredientName, Function.identity()));
         List<RecipeIngredient> recipeIngredients = requestDto.getRecipeIngredients().stream()
                 .map(dto -> {
-                    Ingredient ingredient = ingredientRepository.findByIngredientName(dto.getIngredientName())
-                            .orElseThrow(() -> new RecipeException(NOT_FOUND, INGREDIENT_NOT_FOUND_MESSAGE));
+                    Ingredient ingredient = ingredients.get(dto.getIngredientName());
+                    if (ingredient == null) {
+                        throw new RecipeException(NOT_FOUND, INGREDIENT_NOT_FOUND_MESSAGE);
+                    }
                     return recipeMapper.mapToRecipeIngredient(dto, newRecipe, ingredient);
                 })
                 .toList();
 
+        // Ингредиенты рецепта сохраняются каскадом одним пакетом вставок вместе с рецептом
         newRecipe.setRecipeIngredients(recipeIngredients);
         recipeRepository.save(newRecipe);
-        recipeIngredientRepository.saveAll(recipeIngredients);
         log.info("Рецепт '{}' успешно добавлен", newRecipe.getRecipeName());
     }
 
     @Override
+    @CacheEvict(cacheNames = DRINK_CATALOG_CACHE, allEntries = true)
     public String deleteRecipe(String recipeId) {
         log.info("Удаление рецепта с ID {}", recipeId);
         Recipe foundRecipe = recipeRepository.findById(UUID.fromString(recipeId))
@@ -0,0 +1,4 @@
+-- Версия строки для оптимистичной блокировки: пополнение через сущность и списание резервов запросом
+-- меняют amount_available, и ни одно из изменений не должно затереть другое
+ALTER TABLE ingredients
+    ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
@@ -0,0 +1,6 @@
+-- Заказы, начатые до появления ready_at, остались без времени готовности: сборщик их не завершает,
+-- а при старте они занимают слоты приготовления. Готовность считается от создания, как у новых заказов
+UPDATE orders
+SET ready_at = created_at + INTERVAL '2 minutes'
+WHERE status = 3
+  AND ready_at IS NULL;
@@ -0,0 +1,4 @@
+-- Ключ занимается до выполнения запроса: строка без ответа означает, что запрос с этим ключом ещё выполняется.
+-- Срок такой строки короткий, чтобы ключ упавшего экземпляра сервиса освободился без ожидания полного TTL
+ALTER TABLE idempotency_keys
+    ALTER COLUMN response DROP NOT NULL;
@@ -0,0 +1,19 @@
+-- Партицию нельзя создать, если в партиции по умолчанию уже есть заказы её диапазона: например, после простоя
+-- обслуживания. Такие заказы переносятся в новую таблицу, и она присоединяется как партиция в той же транзакции.
+-- Перенос держит блокировку orders_default, поэтому партиции по-прежнему стоит создавать заранее
+CREATE OR REPLACE PROCEDURE create_order_partition(partition_name TEXT, range_start TIMESTAMP, range_end TIMESTAMP)
+    LANGUAGE plpgsql
+AS
+$$
+BEGIN
+    IF to_regclass(quote_ident(partition_name)) IS NOT NULL THEN
+        RETURN;
+    END IF;
+    EXECUTE format('CREATE TABLE %I (LIKE orders INCLUDING DEFAULTS INCLUDING CONSTRAINTS)', partition_name);
+    EXECUTE format('WITH moved AS (DELETE FROM orders_default WHERE created_at >= %L AND created_at < %L RETURNING *) '
+                       || 'INSERT INTO %I SELECT * FROM moved',
+                   range_start, range_end, partition_name);
+    EXECUTE format('ALTER TABLE orders ATTACH PARTITION %I FOR VALUES FROM (%L) TO (%L)',
+                   partition_name, range_start, range_end);
+END;
+$$;
@@ -0,0 +1,6 @@
+-- Время готовности заказа: по нему фоновая задача переводит заказы в статус "Выполнено"
+ALTER TABLE orders
+    ADD COLUMN ready_at TIMESTAMP;
+
+-- Индекс по готовящимся заказам для периодического завершения
+CREATE INDEX idx_orders_in_progress_ready_at ON orders (ready_at) WHERE status = 'В процессе';
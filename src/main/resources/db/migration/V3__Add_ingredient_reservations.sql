@@ -0,0 +1,17 @@
+-- Зарезервированный под принятые заказы остаток; свободно для новых заказов amount_available - amount_reserved
+ALTER TABLE ingredients
+    ADD COLUMN amount_reserved INT NOT NULL DEFAULT 0 CHECK (amount_reserved >= 0),
+    ADD CONSTRAINT ingredients_reserved_within_available CHECK (amount_reserved <= amount_available);
+
+-- Резервы ингредиентов под заказы: списываются при переходе заказа в "В процессе",
+-- снимаются при отказе или по истечении срока
+CREATE TABLE ingredient_reservations
+(
+    order_id      UUID      NOT NULL,
+    ingredient_id UUID      NOT NULL REFERENCES ingredients (ingredient_id) ON DELETE RESTRICT,
+    quantity      INT       NOT NULL CHECK (quantity > 0),
+    expires_at    TIMESTAMP NOT NULL,
+    PRIMARY KEY (order_id, ingredient_id)
+);
+
+CREATE INDEX idx_ingredient_reservations_expires_at ON ingredient_reservations (expires_at);
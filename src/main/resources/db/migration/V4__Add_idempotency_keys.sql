@@ -0,0 +1,11 @@
+-- Результаты запросов с заголовком Idempotency-Key: повтор запроса возвращает сохранённый ответ
+CREATE TABLE idempotency_keys
+(
+    idempotency_key VARCHAR(150) PRIMARY KEY,
+    fingerprint     VARCHAR(255) NOT NULL,
+    response        TEXT         NOT NULL,
+    created_at      TIMESTAMP    NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    expires_at      TIMESTAMP    NOT NULL
+);
+
+CREATE INDEX idx_idempotency_keys_expires_at ON idempotency_keys (expires_at);
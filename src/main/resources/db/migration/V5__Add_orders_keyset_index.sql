@@ -0,0 +1,3 @@
+-- Постраничная выдача заказов идёт по ключу (created_at, order_id); первичный ключ (order_id, created_at)
+-- для такого порядка не подходит
+CREATE INDEX idx_orders_created_at_order_id ON orders (created_at, order_id);
@@ -0,0 +1,78 @@
+-- Число заказов по часу и дню создания, напитку и статусу; статистика читает эти строки вместо orders
+CREATE TABLE order_rollup_hourly
+(
+    bucket_start TIMESTAMP   NOT NULL,
+    drink_id     UUID        NOT NULL,
+    status       VARCHAR(20) NOT NULL,
+    orders_count BIGINT      NOT NULL,
+    PRIMARY KEY (bucket_start, drink_id, status)
+);
+
+CREATE TABLE order_rollup_daily
+(
+    bucket_date  DATE        NOT NULL,
+    drink_id     UUID        NOT NULL,
+    status       VARCHAR(20) NOT NULL,
+    orders_count BIGINT      NOT NULL,
+    PRIMARY KEY (bucket_date, drink_id, status)
+);
+
+-- Изменения заказов копятся вставками, без блокировок строк сводок в транзакциях заказов;
+-- фоновая задача сворачивает их в сводки и удаляет
+CREATE TABLE order_rollup_deltas
+(
+    delta_id   BIGSERIAL PRIMARY KEY,
+    created_at TIMESTAMP   NOT NULL,
+    drink_id   UUID        NOT NULL,
+    status     VARCHAR(20) NOT NULL,
+    delta      SMALLINT    NOT NULL
+);
+
+CREATE OR REPLACE FUNCTION record_order_rollup_delta()
+    RETURNS TRIGGER
+    LANGUAGE plpgsql
+AS
+$$
+BEGIN
+    IF TG_OP IN ('UPDATE', 'DELETE') THEN
+        INSERT INTO order_rollup_deltas (created_at, drink_id, status, delta)
+        VALUES (OLD.created_at, OLD.drink_id, OLD.status, -1);
+    END IF;
+    IF TG_OP IN ('INSERT', 'UPDATE') THEN
+        INSERT INTO order_rollup_deltas (created_at, drink_id, status, delta)
+        VALUES (NEW.created_at, NEW.drink_id, NEW.status, 1);
+    END IF;
+    RETURN NULL;
+END;
+$$;
+
+-- Триггеры секционированной таблицы наследуются всеми её партициями, в том числе будущими
+CREATE TRIGGER orders_rollup_insert
+    AFTER INSERT
+    ON orders
+    FOR EACH ROW
+EXECUTE FUNCTION record_order_rollup_delta();
+
+CREATE TRIGGER orders_rollup_update
+    AFTER UPDATE OF status, drink_id
+    ON orders
+    FOR EACH ROW
+    WHEN (OLD.status IS DISTINCT FROM NEW.status OR OLD.drink_id IS DISTINCT FROM NEW.drink_id)
+EXECUTE FUNCTION record_order_rollup_delta();
+
+CREATE TRIGGER orders_rollup_delete
+    AFTER DELETE
+    ON orders
+    FOR EACH ROW
+EXECUTE FUNCTION record_order_rollup_delta();
+
+-- Начальное заполнение по уже существующим заказам
+INSERT INTO order_rollup_hourly (bucket_start, drink_id, status, orders_count)
+SELECT date_trunc('hour', created_at), drink_id, status, count(*)
+FROM orders
+GROUP BY date_trunc('hour', created_at), drink_id, status;
+
+INSERT INTO order_rollup_daily (bucket_date, drink_id, status, orders_count)
+SELECT created_at::DATE, drink_id, status, count(*)
+FROM orders
+GROUP BY created_at::DATE, drink_id, status;
@@ -0,0 +1,53 @@
+-- Статус заказа хранится кодом OrderStatus вместо названия: 1 "Создана", 2 "Отменена", 3 "В процессе",
+-- 4 "Выполнено". Названия остаются только в ответах API
+
+-- Триггер и индекс ссылаются на столбец status и мешают сменить его тип, пересоздаются ниже
+DROP TRIGGER orders_rollup_update ON orders;
+DROP INDEX idx_orders_in_progress_ready_at;
+
+ALTER TABLE orders
+    ALTER COLUMN status TYPE SMALLINT USING CASE status
+                                                WHEN 'Создана' THEN 1
+                                                WHEN 'Отменена' THEN 2
+                                                WHEN 'В процессе' THEN 3
+                                                WHEN 'Выполнено' THEN 4
+        END,
+    ADD CONSTRAINT orders_status_code CHECK (status BETWEEN 1 AND 4);
+
+ALTER TABLE order_rollup_hourly
+    ALTER COLUMN status TYPE SMALLINT USING CASE status
+                                                WHEN 'Создана' THEN 1
+                                                WHEN 'Отменена' THEN 2
+                                                WHEN 'В процессе' THEN 3
+                                                WHEN 'Выполнено' THEN 4
+        END;
+
+ALTER TABLE order_rollup_daily
+    ALTER COLUMN status TYPE SMALLINT USING CASE status
+                                               WHEN 'Создана' THEN 1
+                                               WHEN 'Отменена' THEN 2
+                                               WHEN 'В процессе' THEN 3
+                                               WHEN 'Выполнено' THEN 4
+        END;
+
+ALTER TABLE order_rollup_deltas
+    ALTER COLUMN status TYPE SMALLINT USING CASE status
+                                                WHEN 'Создана' THEN 1
+                                                WHEN 'Отменена' THEN 2
+                                                WHEN 'В процессе' THEN 3
+                                                WHEN 'Выполнено' THEN 4
+        END;
+
+CREATE TRIGGER orders_rollup_update
+    AFTER UPDATE OF status, drink_id
+    ON orders
+    FOR EACH ROW
+    WHEN (OLD.status IS DISTINCT FROM NEW.status OR OLD.drink_id IS DISTINCT FROM NEW.drink_id)
+EXECUTE FUNCTION record_order_rollup_delta();
+
+-- Индекс по готовящимся заказам для периодического завершения
+CREATE INDEX idx_orders_in_progress_ready_at ON orders (ready_at) WHERE status = 3;
+
+-- Активные заказы ("Создана", "В процессе") — малая доля таблицы: подсчёт и восстановление очереди при старте
+-- читают только этот индекс во всех партициях
+CREATE INDEX idx_orders_active ON orders (status, created_at) INCLUDE (order_id) WHERE status IN (1, 3);
@@ -0,0 +1,63 @@
+-- Партиции orders с границами диапазона и размером; у партиции по умолчанию границ нет.
+-- reltuples — оценка после последнего ANALYZE, до него -1
+CREATE VIEW order_partitions AS
+SELECT c.relname::TEXT                                                                      AS partition_name,
+       substring(pg_get_expr(c.relpartbound, c.oid) FROM 'FROM \(''([^'']+)''\)')::TIMESTAMP AS range_start,
+       substring(pg_get_expr(c.relpartbound, c.oid) FROM 'TO \(''([^'']+)''\)')::TIMESTAMP   AS range_end,
+       pg_total_relation_size(c.oid)                                                        AS total_bytes,
+       greatest(c.reltuples, 0)::BIGINT                                                     AS estimated_rows
+FROM pg_inherits i
+         JOIN pg_class c ON c.oid = i.inhrelid
+WHERE i.inhparent = 'orders'::regclass;
+
+-- Партиции создаются и удаляются фоновым обслуживанием приложения с настраиваемой нарезкой
+CREATE OR REPLACE PROCEDURE create_order_partition(partition_name TEXT, range_start TIMESTAMP, range_end TIMESTAMP)
+    LANGUAGE plpgsql
+AS
+$$
+BEGIN
+    EXECUTE format('CREATE TABLE IF NOT EXISTS %I PARTITION OF orders FOR VALUES FROM (%L) TO (%L)',
+                   partition_name, range_start, range_end);
+END;
+$$;
+
+-- Отсоединённая партиция остаётся отдельной таблицей с данными
+CREATE OR REPLACE PROCEDURE detach_order_partition(partition_name TEXT)
+    LANGUAGE plpgsql
+AS
+$$
+BEGIN
+    EXECUTE format('ALTER TABLE orders DETACH PARTITION %I', partition_name);
+END;
+$$;
+
+CREATE OR REPLACE PROCEDURE drop_order_partition(partition_name TEXT)
+    LANGUAGE plpgsql
+AS
+$$
+BEGIN
+    EXECUTE format('DROP TABLE %I', partition_name);
+END;
+$$;
+
+DROP PROCEDURE prepare_partition_years(INT);
+DROP PROCEDURE cleanup_old_partitions();
+
+-- Пустые партиции будущих лет, созданные prepare_partition_years, пересекаются с более мелкими
+-- и не дали бы их создать. Партиция текущего года остаётся до своего окончания
+DO
+$$
+    DECLARE
+        future_partition TEXT;
+        has_rows         BOOLEAN;
+    BEGIN
+        FOR future_partition IN
+            SELECT partition_name FROM order_partitions WHERE range_start > CURRENT_DATE
+            LOOP
+                EXECUTE format('SELECT EXISTS (SELECT 1 FROM %I)', future_partition) INTO has_rows;
+                IF NOT has_rows THEN
+                    EXECUTE format('DROP TABLE %I', future_partition);
+                END IF;
+            END LOOP;
+    END;
+$$;
@@ -0,0 +1,43 @@
+-- Каталог архивов заказов: партиция отсоединяется, выгружается в сжатый файл и только после этого удаляется
+CREATE TABLE order_archives
+(
+    partition_name VARCHAR(63) PRIMARY KEY,
+    range_start    TIMESTAMP   NOT NULL,
+    range_end      TIMESTAMP   NOT NULL,
+    status         VARCHAR(10) NOT NULL,
+    file_name      VARCHAR(255),
+    orders_count   BIGINT,
+    detached_at    TIMESTAMP   NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    archived_at    TIMESTAMP
+);
+
+CREATE INDEX idx_order_archives_range ON order_archives (range_start, range_end);
+
+-- Запись в каталог и отсоединение в одной транзакции: отсоединённая партиция не потеряется при сбое выгрузки
+CREATE OR REPLACE PROCEDURE detach_order_partition_for_archive(target_partition TEXT)
+    LANGUAGE plpgsql
+AS
+$$
+BEGIN
+    INSERT INTO order_archives (partition_name, range_start, range_end, status)
+    SELECT partition_name, range_start, range_end, 'DETACHED'
+    FROM order_partitions
+    WHERE partition_name = target_partition;
+    EXECUTE format('ALTER TABLE orders DETACH PARTITION %I', target_partition);
+END;
+$$;
+
+CREATE OR REPLACE PROCEDURE complete_order_archive(target_partition TEXT, archive_file TEXT, archived_orders BIGINT)
+    LANGUAGE plpgsql
+AS
+$$
+BEGIN
+    UPDATE order_archives
+    SET status       = 'ARCHIVED',
+        file_name    = archive_file,
+        orders_count = archived_orders,
+        archived_at  = CURRENT_TIMESTAMP
+    WHERE partition_name = target_partition;
+    EXECUTE format('DROP TABLE IF EXISTS %I', target_partition);
+END;
+$$;
@@ -0,0 +1,70 @@
+package test.example.coffeemachineservice.availability;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ServingsIndexTest {
+
+    @Test
+    void givenRecipeIngredients_whenAddDrink_thenServingsAreLimitedByScarcestIngredient() {
+        ServingsIndex<String, String, String> index = new ServingsIndex<>();
+        index.setFreeStock("Кофе", 70);
+        index.setFreeStock("Молоко", 500);
+
+        index.addDrink("Латте", "Рецепт латте", Map.of("Кофе", 7, "Молоко", 150));
+
+        assertEquals(3, index.getServings("Латте"));
+    }
+
+    @Test
+    void givenSharedIngredient_whenReserveRecipe_thenRecomputesEveryDrinkUsingIt() {
+        ServingsIndex<String, String, String> index = new ServingsIndex<>();
+        index.setFreeStock("Кофе", 21);
+        index.setFreeStock("Молоко", 1000);
+        index.addDrink("Эспрессо", "Рецепт эспрессо", Map.of("Кофе", 7));
+        index.addDrink("Латте", "Рецепт латте", Map.of("Кофе", 7, "Молоко", 150));
+
+        index.reserveRecipe("Рецепт эспрессо");
+
+        assertEquals(2, index.getServings("Эспрессо"));
+        assertEquals(2, index.getServings("Латте"));
+    }
+
+    @Test
+    void givenRestock_whenAddFreeStock_thenServingsGrow() {
+        ServingsIndex<String, String, String> index = new ServingsIndex<>();
+        index.setFreeStock("Кофе", 6);
+        index.addDrink("Эспрессо", "Рецепт эспрессо", Map.of("Кофе", 7));
+
+        index.addFreeStock("Кофе", 8);
+
+        assertEquals(2, index.getServings("Эспрессо"));
+    }
+
+    @Test
+    void givenDrinkWithoutStock_whenAvailable_thenExcludesIt() {
+        ServingsIndex<String, String, String> index = new ServingsIndex<>();
+        index.setFreeStock("Кофе", 7);
+        index.addDrink("Эспрессо", "Рецепт эспрессо", Map.of("Кофе", 7));
+        index.addDrink("Латте", "Рецепт латте", Map.of("Кофе", 7, "Молоко", 150));
+
+        List<Map.Entry<String, Integer>> available = index.available();
+
+        assertEquals(List.of(Map.entry("Эспрессо", 1)), available);
+        assertEquals(0, index.getServings("Латте"));
+    }
+
+    @Test
+    void givenUnknownRecipe_whenReserveRecipe_thenIgnoresIt() {
+        ServingsIndex<String, String, String> index = new ServingsIndex<>();
+
+        index.reserveRecipe("Неизвестный рецепт");
+
+        assertTrue(index.available().isEmpty());
+    }
+}
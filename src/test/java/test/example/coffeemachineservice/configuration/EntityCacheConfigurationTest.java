@@ -0,0 +1,93 @@
+package test.example.coffeemachineservice.configuration;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import javax.cache.Cache;
+import javax.cache.CacheManager;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static test.example.coffeemachineservice.constant.ApplicationConstant.DRINK_CACHE_REGION;
+import static test.example.coffeemachineservice.constant.ApplicationConstant.INGREDIENT_CACHE_REGION;
+import static test.example.coffeemachineservice.constant.ApplicationConstant.RECIPE_CACHE_REGION;
+import static test.example.coffeemachineservice.constant.ApplicationConstant.RECIPE_INGREDIENTS_CACHE_REGION;
+import static test.example.coffeemachineservice.constant.ApplicationConstant.RECIPE_INGREDIENT_CACHE_REGION;
+
+class EntityCacheConfigurationTest {
+
+    private final EntityCacheConfiguration configuration = new EntityCacheConfiguration();
+
+    private CoffeeMachineProperties properties;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private CacheManager cacheManager;
+
+    @BeforeEach
+    void setUp() {
+        properties = new CoffeeMachineProperties();
+        meterRegistry = new SimpleMeterRegistry();
+        cacheManager = configuration.entityCacheManager(properties, meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        cacheManager.close();
+    }
+
+    @Test
+    void givenProperties_whenEntityCacheManager_thenCreatesEveryRegion() {
+        for (String region : new String[]{RECIPE_CACHE_REGION, RECIPE_INGREDIENTS_CACHE_REGION,
+                RECIPE_INGREDIENT_CACHE_REGION, DRINK_CACHE_REGION, INGREDIENT_CACHE_REGION}) {
+            assertNotNull(cacheManager.getCache(region), region);
+        }
+    }
+
+    @Test
+    void givenHitsAndMisses_whenReadHitRatio_thenReturnsShareOfHits() {
+        Cache<Object, Object> drinks = cacheManager.getCache(DRINK_CACHE_REGION);
+        drinks.put("espresso", "Эспрессо");
+
+        drinks.get("espresso");
+        drinks.get("espresso");
+        drinks.get("espresso");
+        assertNull(drinks.get("latte"));
+
+        assertEquals(0.75, meterRegistry.get("coffee.entity.cache.hit.ratio")
+                .tag("cache", DRINK_CACHE_REGION).gauge().value());
+    }
+
+    @Test
+    void givenNoReads_whenReadHitRatio_thenZero() {
+        assertEquals(0.0, meterRegistry.get("coffee.entity.cache.hit.ratio")
+                .tag("cache", INGREDIENT_CACHE_REGION).gauge().value());
+    }
+
+    @Test
+    void givenCacheEnabled_whenCustomizeHibernate_thenPassesCacheManager() {
+        Map<String, Object> hibernateProperties = new HashMap<>();
+
+        configuration.entityCacheCustomizer(properties, cacheManager).customize(hibernateProperties);
+
+        assertEquals(true, hibernateProperties.get("hibernate.cache.use_second_level_cache"));
+        assertEquals("jcache", hibernateProperties.get("hibernate.cache.region.factory_class"));
+        assertEquals(cacheManager, hibernateProperties.get("hibernate.javax.cache.cache_manager"));
+    }
+
+    @Test
+    void givenCacheDisabled_whenCustomizeHibernate_thenTurnsSecondLevelCacheOff() {
+        properties.getEntityCache().setEnabled(false);
+        Map<String, Object> hibernateProperties = new HashMap<>();
+
+        configuration.entityCacheCustomizer(properties, cacheManager).customize(hibernateProperties);
+
+        assertEquals(false, hibernateProperties.get("hibernate.cache.use_second_level_cache"));
+        assertNull(hibernateProperties.get("hibernate.javax.cache.cache_manager"));
+    }
+}
@@ -0,0 +1,56 @@
+package test.example.coffeemachineservice.configuration;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class OrderExportConfigurationTest {
+
+    private final OrderExportConfiguration configuration = new OrderExportConfiguration();
+
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private ThreadPoolTaskExecutor executor;
+
+    @BeforeEach
+    void setUp() {
+        CoffeeMachineProperties properties = new CoffeeMachineProperties();
+        properties.getExports().setPoolSize(1);
+        properties.getExports().setQueueCapacity(1);
+        meterRegistry = new SimpleMeterRegistry();
+        executor = configuration.orderExportExecutor(properties, meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        executor.shutdown();
+    }
+
+    @Test
+    void givenBusyPoolAndFullQueue_whenExecute_thenRejectsExport() {
+        executor.execute(this::awaitRelease);
+        executor.execute(this::awaitRelease);
+
+        assertThrows(TaskRejectedException.class, () -> executor.execute(this::awaitRelease));
+        assertEquals(1.0, meterRegistry.get("coffee.export.queue.size").gauge().value());
+    }
+
+    private void awaitRelease() {
+        try {
+            release.await();
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -14,31 +14,54 @@ import org.springframework.test.web.servlet.MockMvc;
 import test.example.coffeemachineservice.controller.impl.DrinkControllerImpl;
 import test.example.coffeemachineservice.dto.request.AddNewDrinkRequestDto;
 import test.example.coffeemachineservice.dto.request.MakeDrinkRequestDto;
+import test.example.coffeemachineservice.dto.request.MakeDrinksBatchRequestDto;
+import test.example.coffeemachineservice.dto.response.AvailableDrinkResponseDto;
 import test.example.coffeemachineservice.dto.response.DrinkResponseDto;
+import test.example.coffeemachineservice.dto.response.MakeDrinkResultDto;
+import test.example.coffeemachineservice.dto.response.OrderResponseDto;
 import test.example.coffeemachineservice.exception.DrinkException;
+import test.example.coffeemachineservice.exception.OrderException;
+import test.example.coffeemachineservice.exception.OverloadException;
 import test.example.coffeemachineservice.exception.RecipeException;
+import test.example.coffeemachineservice.service.DrinkAvailabilityService;
 import test.example.coffeemachineservice.service.DrinkService;
 
+import java.time.Duration;
+import java.util.Collections;
 import java.util.List;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.http.HttpStatus.NOT_FOUND;
+import static org.springframework.http.HttpStatus.UNPROCESSABLE_ENTITY;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 import static test.example.coffeemachineservice.constant.ApplicationConstant.DRINKS_NOT_FOUND_MESSAGE;
+import static test.example.coffeemachineservice.constant.ApplicationConstant.IDEMPOTENCY_KEY_HEADER;
+import static test.example.coffeemachineservice.constant.ApplicationConstant.IDEMPOTENCY_KEY_MAX_LENGTH;
+import static test.example.coffeemachineservice.constant.ApplicationConstant.IDEMPOTENCY_KEY_REUSED_MESSAGE;
+import static test.example.coffeemachineservice.constant.ApplicationConstant.IDEMPOTENCY_KEY_TOO_LONG_MESSAGE;
+import static test.example.coffeemachineservice.constant.ApplicationConstant.MAKE_DRINKS_BATCH_MAX_SIZE;
+import static test.example.coffeemachineservice.constant.ApplicationConstant.MAKE_DRINKS_BATCH_TOO_LARGE_MESSAGE;
 import static test.example.coffeemachineservice.constant.ApplicationConstant.NOT_ENOUGH_INGREDIENTS_MESSAGE;
+import static test.example.coffeemachineservice.constant.ApplicationConstant.SERVICE_OVERLOADED_MESSAGE;
+import static test.example.coffeemachineservice.constant.ApplicationConstant.WAIT_UNTIL_READY_MESSAGE;
+import static test.example.coffeemachineservice.data.CoffeeMachineData.COFFEE_RAF_NAME;
+import static test.example.coffeemachineservice.data.CoffeeMachineData.TEST_UUID;
 import static test.example.coffeemachineservice.data.CoffeeMachineData.createAddNewDrinkRequestDto;
 import static test.example.coffeemachineservice.data.CoffeeMachineData.createDrinkResponseDto;
 import static test.example.coffeemachineservice.data.CoffeeMachineData.createListDrinkResponseDto;
 import static test.example.coffeemachineservice.data.CoffeeMachineData.createMakeDrinkRequestDto;
+import static test.example.coffeemachineservice.persistent.enums.OrderStatus.CREATED;
 
 @ExtendWith(SpringExtension.class)
 @WebMvcTest(DrinkControllerImpl.class)
@@ -50,6 +73,9 @@ class DrinkControllerTest {
     @MockitoBean
     private DrinkService drinkService;
 
+    @MockitoBean
+    private DrinkAvailabilityService drinkAvailabilityService;
+
     @Autowired
     private ObjectMapper objectMapper;
 
@@ -146,6 +172,20 @@ class DrinkControllerTest {
         verify(drinkService, expectedStatus == 400 ? never() : times(1)).deleteDrink(drinkId);
     }
 
+    @Test
+    void givenStockForSomeDrinks_whenGetAvailableDrinks_thenReturnsServingsPerDrink() throws Exception {
+        List<AvailableDrinkResponseDto> availableDrinks = List.of(
+                AvailableDrinkResponseDto.builder().drinkId(TEST_UUID).drinkName(COFFEE_RAF_NAME).servings(4).build()
+        );
+        when(drinkAvailabilityService.getAvailableDrinks()).thenReturn(availableDrinks);
+
+        mockMvc.perform(get(baseUrl + "/available"))
+                .andExpect(status().isOk())
+                .andExpect(content().json(objectMapper.writeValueAsString(availableDrinks)));
+
+        verify(drinkAvailabilityService, times(1)).getAvailableDrinks();
+    }
+
     @ParameterizedTest
     @CsvSource({
             "'Раф', 200, 'Напиток готовится, подождите 2 минуты...'",
@@ -160,10 +200,10 @@ class DrinkControllerTest {
 
         switch (expectedStatus) {
             case 200:
-                when(drinkService.makeDrink(any())).thenReturn(content);
+                when(drinkService.makeDrink(any(), any())).thenReturn(content);
                 break;
             case 404:
-                doThrow(new DrinkException(NOT_FOUND, content)).when(drinkService).makeDrink(any());
+                doThrow(new DrinkException(NOT_FOUND, content)).when(drinkService).makeDrink(any(), any());
                 break;
         }
 
@@ -173,14 +213,14 @@ class DrinkControllerTest {
                 .andExpect(status().is(expectedStatus))
                 .andExpect(content().string(content));
 
-        verify(drinkService, expectedStatus == 400 ? never() : times(1)).makeDrink(any());
+        verify(drinkService, expectedStatus == 400 ? never() : times(1)).makeDrink(any(), any());
     }
 
     @Test
     void givenNotEnoughIngredients_whenMakeDrink_thenBadRequest() throws Exception {
         MakeDrinkRequestDto requestDto = createMakeDrinkRequestDto();
 
-        doThrow(new DrinkException(NOT_ENOUGH_INGREDIENTS_MESSAGE)).when(drinkService).makeDrink(any());
+        doThrow(new DrinkException(NOT_ENOUGH_INGREDIENTS_MESSAGE)).when(drinkService).makeDrink(any(), any());
 
         mockMvc.perform(post(baseUrl + "/makeCoffee")
                         .contentType(MediaType.APPLICATION_JSON)
@@ -188,6 +228,111 @@ class DrinkControllerTest {
                 .andExpect(status().isBadRequest())
                 .andExpect(content().string(NOT_ENOUGH_INGREDIENTS_MESSAGE));
 
-        verify(drinkService, times(1)).makeDrink(any());
+        verify(drinkService, times(1)).makeDrink(any(), any());
+    }
+
+    @Test
+    void givenIdempotencyKey_whenMakeDrink_thenPassesKeyToService() throws Exception {
+        when(drinkService.makeDrink(any(), eq("order-42"))).thenReturn(WAIT_UNTIL_READY_MESSAGE);
+
+        mockMvc.perform(post(baseUrl + "/makeCoffee")
+                        .header(IDEMPOTENCY_KEY_HEADER, "order-42")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(createMakeDrinkRequestDto())))
+                .andExpect(status().isOk())
+                .andExpect(content().string(WAIT_UNTIL_READY_MESSAGE));
+
+        verify(drinkService, times(1)).makeDrink(any(), eq("order-42"));
+    }
+
+    @Test
+    void givenTooLongIdempotencyKey_whenMakeDrink_thenBadRequest() throws Exception {
+        mockMvc.perform(post(baseUrl + "/makeCoffee")
+                        .header(IDEMPOTENCY_KEY_HEADER, "k".repeat(IDEMPOTENCY_KEY_MAX_LENGTH + 1))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(createMakeDrinkRequestDto())))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().string(IDEMPOTENCY_KEY_TOO_LONG_MESSAGE));
+
+        verify(drinkService, never()).makeDrink(any(), any());
+    }
+
+    @Test
+    void givenReusedIdempotencyKey_whenMakeDrink_thenUnprocessableEntity() throws Exception {
+        doThrow(new OrderException(UNPROCESSABLE_ENTITY, IDEMPOTENCY_KEY_REUSED_MESSAGE))
+                .when(drinkService).makeDrink(any(), eq("order-42"));
+
+        mockMvc.perform(post(baseUrl + "/makeCoffee")
+                        .header(IDEMPOTENCY_KEY_HEADER, "order-42")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(createMakeDrinkRequestDto())))
+                .andExpect(status().isUnprocessableEntity())
+                .andExpect(content().string(IDEMPOTENCY_KEY_REUSED_MESSAGE));
+    }
+
+    @Test
+    void givenOverloadedService_whenMakeDrink_thenTooManyRequestsWithRetryAfter() throws Exception {
+        doThrow(new OverloadException(SERVICE_OVERLOADED_MESSAGE, Duration.ofSeconds(3)))
+                .when(drinkService).makeDrink(any(), any());
+
+        mockMvc.perform(post(baseUrl + "/makeCoffee")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(createMakeDrinkRequestDto())))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().string("Retry-After", "3"))
+                .andExpect(content().string(SERVICE_OVERLOADED_MESSAGE));
+    }
+
+    @Test
+    void givenValidRequest_whenMakeDrinkAsync_thenAcceptedWithOrderLocation() throws Exception {
+        OrderResponseDto acceptedOrder = OrderResponseDto.builder()
+                .orderId(TEST_UUID)
+                .drinkName(COFFEE_RAF_NAME)
+                .status(CREATED.getStatusName())
+                .build();
+
+        when(drinkService.makeDrinkAsync(any(), any())).thenReturn(acceptedOrder);
+
+        mockMvc.perform(post(baseUrl + "/makeCoffee/async")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(createMakeDrinkRequestDto())))
+                .andExpect(status().isAccepted())
+                .andExpect(header().string("Location", "/api/v1/coffee/order/" + TEST_UUID))
+                .andExpect(content().json(objectMapper.writeValueAsString(acceptedOrder)));
+    }
+
+    @Test
+    void givenBatchRequest_whenMakeDrinks_thenReturnsResultPerDrink() throws Exception {
+        MakeDrinksBatchRequestDto requestDto = MakeDrinksBatchRequestDto.builder()
+                .drinks(List.of(createMakeDrinkRequestDto(), createMakeDrinkRequestDto()))
+                .build();
+        List<MakeDrinkResultDto> results = List.of(
+                MakeDrinkResultDto.builder().drinkName(COFFEE_RAF_NAME).accepted(true).message(WAIT_UNTIL_READY_MESSAGE).build(),
+                MakeDrinkResultDto.builder().drinkName(COFFEE_RAF_NAME).accepted(false).message(NOT_ENOUGH_INGREDIENTS_MESSAGE).build()
+        );
+
+        when(drinkService.makeDrinks(any())).thenReturn(results);
+
+        mockMvc.perform(post(baseUrl + "/makeCoffee/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(requestDto)))
+                .andExpect(status().isOk())
+                .andExpect(content().json(objectMapper.writeValueAsString(results)));
+
+        verify(drinkService, times(1)).makeDrinks(any());
+    }
+
+    @Test
+    void givenTooLargeBatch_whenMakeDrinks_thenBadRequest() throws Exception {
+        List<MakeDrinkRequestDto> drinks = Collections.nCopies(MAKE_DRINKS_BATCH_MAX_SIZE + 1, createMakeDrinkRequestDto());
+        MakeDrinksBatchRequestDto requestDto = MakeDrinksBatchRequestDto.builder().drinks(drinks).build();
+
+        mockMvc.perform(post(baseUrl + "/makeCoffee/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(requestDto)))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().string(MAKE_DRINKS_BATCH_TOO_LARGE_MESSAGE));
+
+        verify(drinkService, never()).makeDrinks(any());
     }
 }
\ No newline at end of file
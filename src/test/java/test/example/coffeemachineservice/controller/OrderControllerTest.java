@@ -0,0 +1,87 @@
+package test.example.coffeemachineservice.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import test.example.coffeemachineservice.controller.impl.OrderControllerImpl;
+import test.example.coffeemachineservice.dto.response.OrderResponseDto;
+import test.example.coffeemachineservice.exception.OrderException;
+import test.example.coffeemachineservice.service.OrderService;
+import test.example.coffeemachineservice.service.OrderStatusStreamService;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.http.HttpStatus.NOT_FOUND;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+import static test.example.coffeemachineservice.constant.ApplicationConstant.INCORRECT_UUID_FORMAT_MESSAGE;
+import static test.example.coffeemachineservice.constant.ApplicationConstant.ORDER_NOT_FOUND_MESSAGE;
+import static test.example.coffeemachineservice.data.CoffeeMachineData.TEST_UUID;
+import static test.example.coffeemachineservice.data.CoffeeMachineData.createOrderResponseDto;
+
+@ExtendWith(SpringExtension.class)
+@WebMvcTest(OrderControllerImpl.class)
+class OrderControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockitoBean
+    private OrderService orderService;
+
+    @MockitoBean
+    private OrderStatusStreamService orderStatusStreamService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final String baseUrl = "/api/v1/coffee/order";
+
+    @Test
+    void givenExistingOrder_whenGetOrder_thenReturnsOrder() throws Exception {
+        OrderResponseDto responseDto = createOrderResponseDto();
+
+        when(orderService.getOrder(TEST_UUID)).thenReturn(responseDto);
+
+        mockMvc.perform(get(baseUrl + "/" + TEST_UUID))
+                .andExpect(status().isOk())
+                .andExpect(content().json(objectMapper.writeValueAsString(responseDto)));
+    }
+
+    @Test
+    void givenNonExistingOrder_whenGetOrder_thenReturnsNotFound() throws Exception {
+        when(orderService.getOrder(TEST_UUID)).thenThrow(new OrderException(NOT_FOUND, ORDER_NOT_FOUND_MESSAGE));
+
+        mockMvc.perform(get(baseUrl + "/" + TEST_UUID))
+                .andExpect(status().isNotFound())
+                .andExpect(content().string(ORDER_NOT_FOUND_MESSAGE));
+    }
+
+    @Test
+    void givenInvalidOrderId_whenGetOrder_thenReturnsBadRequest() throws Exception {
+        mockMvc.perform(get(baseUrl + "/not-a-uuid"))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().string(INCORRECT_UUID_FORMAT_MESSAGE));
+
+        verify(orderService, never()).getOrder(any());
+    }
+
+    @Test
+    void givenExistingOrder_whenStreamOrderStatus_thenStartsEventStream() throws Exception {
+        when(orderStatusStreamService.subscribe(TEST_UUID)).thenReturn(new SseEmitter());
+
+        mockMvc.perform(get(baseUrl + "/" + TEST_UUID + "/events").accept(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(request().asyncStarted());
+    }
+}
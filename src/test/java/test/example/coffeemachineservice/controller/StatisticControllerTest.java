@@ -5,39 +5,67 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import test.example.coffeemachineservice.controller.impl.StatisticControllerImpl;
 import test.example.coffeemachineservice.dto.request.PeriodRequestDto;
 import test.example.coffeemachineservice.dto.response.DrinkResponseDto;
-import test.example.coffeemachineservice.dto.response.OrderResponseDto;
+import test.example.coffeemachineservice.dto.response.OrderCountResponseDto;
+import test.example.coffeemachineservice.dto.response.OrderPageResponseDto;
+import test.example.coffeemachineservice.dto.response.OrderSummaryResponseDto;
+import test.example.coffeemachineservice.dto.response.PopularDrinkResponseDto;
 import test.example.coffeemachineservice.exception.DrinkException;
 import test.example.coffeemachineservice.exception.OrderException;
+import test.example.coffeemachineservice.service.DrinkPopularityService;
 import test.example.coffeemachineservice.service.DrinkService;
+import test.example.coffeemachineservice.service.OrderArchiveService;
+import test.example.coffeemachineservice.service.OrderExportService;
+import test.example.coffeemachineservice.service.OrderRollupService;
 import test.example.coffeemachineservice.service.OrderService;
 
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.hamcrest.Matchers.containsString;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 import static org.springframework.http.HttpStatus.NOT_FOUND;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 import static test.example.coffeemachineservice.constant.ApplicationConstant.INCOMING_PARAMETER_MISSING_MESSAGE;
 import static test.example.coffeemachineservice.constant.ApplicationConstant.ORDERS_NOT_FOUND_MESSAGE;
+import static test.example.coffeemachineservice.constant.ApplicationConstant.ORDER_PAGE_MAX_SIZE;
+import static test.example.coffeemachineservice.constant.ApplicationConstant.ORDER_PAGE_SIZE_MESSAGE;
 import static test.example.coffeemachineservice.constant.ApplicationConstant.POPULAR_DRINK_NOT_FOUND_MESSAGE;
+import static test.example.coffeemachineservice.constant.ApplicationConstant.TOP_DRINKS_LIMIT_MESSAGE;
+import static test.example.coffeemachineservice.data.CoffeeMachineData.COFFEE_RAF_NAME;
+import static test.example.coffeemachineservice.data.CoffeeMachineData.TEST_UUID;
 import static test.example.coffeemachineservice.data.CoffeeMachineData.createDrinkResponseDto;
 import static test.example.coffeemachineservice.data.CoffeeMachineData.createListOrderResponseDto;
+import static test.example.coffeemachineservice.data.CoffeeMachineData.createOrderPageResponseDto;
 import static test.example.coffeemachineservice.data.CoffeeMachineData.createOrderResponseDto;
 import static test.example.coffeemachineservice.data.CoffeeMachineData.createPeriodRequestDto;
+import static test.example.coffeemachineservice.data.CoffeeMachineData.createPopularDrinkResponseDto;
+import static test.example.coffeemachineservice.export.OrderExportFormat.CSV;
+import static test.example.coffeemachineservice.export.OrderExportFormat.NDJSON;
+import static test.example.coffeemachineservice.popularity.PopularityWindow.HOUR;
 
 @ExtendWith(SpringExtension.class)
 @WebMvcTest(StatisticControllerImpl.class)
@@ -52,6 +80,18 @@ class StatisticControllerTest {
     @MockitoBean
     private OrderService orderService;
 
+    @MockitoBean
+    private DrinkPopularityService drinkPopularityService;
+
+    @MockitoBean
+    private OrderExportService orderExportService;
+
+    @MockitoBean
+    private OrderRollupService orderRollupService;
+
+    @MockitoBean
+    private OrderArchiveService orderArchiveService;
+
     @Autowired
     private ObjectMapper objectMapper;
 
@@ -69,6 +109,39 @@ class StatisticControllerTest {
         verify(drinkService, times(1)).getPopularDrink();
     }
 
+    @Test
+    void givenNoLimit_whenGetTopDrinks_thenReturnsDefaultSizeRanking() throws Exception {
+        List<PopularDrinkResponseDto> responseDto = List.of(createPopularDrinkResponseDto());
+        when(drinkPopularityService.getTopDrinks(10)).thenReturn(responseDto);
+
+        mockMvc.perform(get(baseUrl + "/drink/top"))
+                .andExpect(status().isOk())
+                .andExpect(content().json(objectMapper.writeValueAsString(responseDto)));
+
+        verify(drinkPopularityService, times(1)).getTopDrinks(10);
+    }
+
+    @Test
+    void givenLimit_whenGetTopDrinksForLastHour_thenReturnsWindowRanking() throws Exception {
+        List<PopularDrinkResponseDto> responseDto = List.of(createPopularDrinkResponseDto());
+        when(drinkPopularityService.getTopDrinks(HOUR, 3)).thenReturn(responseDto);
+
+        mockMvc.perform(get(baseUrl + "/drink/top/hour").param("limit", "3"))
+                .andExpect(status().isOk())
+                .andExpect(content().json(objectMapper.writeValueAsString(responseDto)));
+
+        verify(drinkPopularityService, times(1)).getTopDrinks(HOUR, 3);
+    }
+
+    @Test
+    void givenLimitAboveMaximum_whenGetTopDrinksForLastWeek_thenReturnBadRequest() throws Exception {
+        mockMvc.perform(get(baseUrl + "/drink/top/week").param("limit", "1000"))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().string(TOP_DRINKS_LIMIT_MESSAGE));
+
+        verify(drinkPopularityService, never()).getTopDrinks(any(), anyInt());
+    }
+
     @Test
     void givenNonExistingPopularDrink_whenGetPopularDrink_thenReturnNotFound() throws Exception {
         doThrow(new DrinkException(NOT_FOUND, POPULAR_DRINK_NOT_FOUND_MESSAGE)).when(drinkService).getPopularDrink();
@@ -82,85 +155,110 @@ class StatisticControllerTest {
 
     @Test
     void testGetAllOrders_thenReturnResponseDto() throws Exception {
-        List<OrderResponseDto> responseDto = createListOrderResponseDto(createOrderResponseDto());
+        OrderPageResponseDto responseDto = createOrderPageResponseDto(createListOrderResponseDto(createOrderResponseDto()));
 
-        when(orderService.getAllOrders()).thenReturn(responseDto);
+        when(orderService.getAllOrders(null, 100)).thenReturn(responseDto);
 
         mockMvc.perform(get(baseUrl + "/order/all"))
                 .andExpect(status().isOk())
                 .andExpect(content().json(objectMapper.writeValueAsString(responseDto)));
 
-        verify(orderService, times(1)).getAllOrders();
+        verify(orderService, times(1)).getAllOrders(null, 100);
     }
 
     @Test
     void givenNonExistingOrder_whenGetAllOrders_thenReturnNotFound() throws Exception {
         doThrow(new OrderException(NOT_FOUND, ORDERS_NOT_FOUND_MESSAGE))
-                .when(orderService).getAllOrders();
+                .when(orderService).getAllOrders(any(), anyInt());
 
         mockMvc.perform(get(baseUrl + "/order/all"))
                 .andExpect(status().isNotFound())
                 .andExpect(content().string(ORDERS_NOT_FOUND_MESSAGE));
 
-        verify(orderService, times(1)).getAllOrders();
+        verify(orderService, times(1)).getAllOrders(null, 100);
+    }
+
+    @Test
+    void givenPageTokenAndSize_whenGetAllOrders_thenPassesThemToService() throws Exception {
+        OrderPageResponseDto responseDto = createOrderPageResponseDto(createListOrderResponseDto(createOrderResponseDto()));
+
+        when(orderService.getAllOrders("token", 20)).thenReturn(responseDto);
+
+        mockMvc.perform(get(baseUrl + "/order/all")
+                        .param("pageToken", "token")
+                        .param("size", "20"))
+                .andExpect(status().isOk())
+                .andExpect(content().json(objectMapper.writeValueAsString(responseDto)));
+
+        verify(orderService, times(1)).getAllOrders("token", 20);
+    }
+
+    @Test
+    void givenSizeAboveMaximum_whenGetAllOrders_thenReturnBadRequest() throws Exception {
+        mockMvc.perform(get(baseUrl + "/order/all")
+                        .param("size", String.valueOf(ORDER_PAGE_MAX_SIZE + 1)))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().string(ORDER_PAGE_SIZE_MESSAGE));
+
+        verify(orderService, never()).getAllOrders(any(), anyInt());
     }
 
     @Test
     void testGetOrdersForToday_thenReturnResponseDto() throws Exception {
-        List<OrderResponseDto> responseDto = createListOrderResponseDto(createOrderResponseDto());
+        OrderPageResponseDto responseDto = createOrderPageResponseDto(createListOrderResponseDto(createOrderResponseDto()));
 
-        when(orderService.getOrdersForToday()).thenReturn(responseDto);
+        when(orderService.getOrdersForToday(null, 100)).thenReturn(responseDto);
 
         mockMvc.perform(get(baseUrl + "/order/today"))
                 .andExpect(status().isOk())
                 .andExpect(content().json(objectMapper.writeValueAsString(responseDto)));
 
-        verify(orderService, times(1)).getOrdersForToday();
+        verify(orderService, times(1)).getOrdersForToday(null, 100);
     }
 
     @Test
     void givenNonExistingOrder_whenGetOrdersForToday_thenReturnNotFound() throws Exception {
         doThrow(new OrderException(NOT_FOUND, ORDERS_NOT_FOUND_MESSAGE))
-                .when(orderService).getOrdersForToday();
+                .when(orderService).getOrdersForToday(any(), anyInt());
 
         mockMvc.perform(get(baseUrl + "/order/today"))
                 .andExpect(status().isNotFound())
                 .andExpect(content().string(ORDERS_NOT_FOUND_MESSAGE));
 
-        verify(orderService, times(1)).getOrdersForToday();
+        verify(orderService, times(1)).getOrdersForToday(null, 100);
     }
 
     @Test
     void testGetOrdersForCurrentWeek_thenReturnResponseDto() throws Exception {
-        List<OrderResponseDto> responseDto = createListOrderResponseDto(createOrderResponseDto());
+        OrderPageResponseDto responseDto = createOrderPageResponseDto(createListOrderResponseDto(createOrderResponseDto()));
 
-        when(orderService.getOrdersForCurrentWeek()).thenReturn(responseDto);
+        when(orderService.getOrdersForCurrentWeek(null, 100)).thenReturn(responseDto);
 
         mockMvc.perform(get(baseUrl + "/order/week"))
                 .andExpect(status().isOk())
                 .andExpect(content().json(objectMapper.writeValueAsString(responseDto)));
 
-        verify(orderService, times(1)).getOrdersForCurrentWeek();
+        verify(orderService, times(1)).getOrdersForCurrentWeek(null, 100);
     }
 
     @Test
     void givenNonExistingOrder_whenGetOrdersForCurrentWeek_thenReturnNotFound() throws Exception {
         doThrow(new OrderException(NOT_FOUND, ORDERS_NOT_FOUND_MESSAGE))
-                .when(orderService).getOrdersForCurrentWeek();
+                .when(orderService).getOrdersForCurrentWeek(any(), anyInt());
 
         mockMvc.perform(get(baseUrl + "/order/week"))
                 .andExpect(status().isNotFound())
                 .andExpect(content().string(ORDERS_NOT_FOUND_MESSAGE));
 
-        verify(orderService, times(1)).getOrdersForCurrentWeek();
+        verify(orderService, times(1)).getOrdersForCurrentWeek(null, 100);
     }
 
     @Test
     void testGetOrdersForPeriod_thenReturnResponseDto() throws Exception {
         PeriodRequestDto requestDto = createPeriodRequestDto();
-        List<OrderResponseDto> responseDto = createListOrderResponseDto(createOrderResponseDto());
+        OrderPageResponseDto responseDto = createOrderPageResponseDto(createListOrderResponseDto(createOrderResponseDto()));
 
-        when(orderService.getOrdersForPeriod(any(PeriodRequestDto.class))).thenReturn(responseDto);
+        when(orderService.getOrdersForPeriod(any(PeriodRequestDto.class), any(), anyInt())).thenReturn(responseDto);
 
         mockMvc.perform(post(baseUrl + "/order/period")
                         .contentType(MediaType.APPLICATION_JSON)
@@ -168,7 +266,7 @@ class StatisticControllerTest {
                 .andExpect(status().isOk())
                 .andExpect(content().json(objectMapper.writeValueAsString(responseDto)));
 
-        verify(orderService, times(1)).getOrdersForPeriod(any(PeriodRequestDto.class));
+        verify(orderService, times(1)).getOrdersForPeriod(any(PeriodRequestDto.class), any(), anyInt());
     }
 
     @Test
@@ -176,7 +274,7 @@ class StatisticControllerTest {
         PeriodRequestDto requestDto = createPeriodRequestDto();
 
         doThrow(new OrderException(INCOMING_PARAMETER_MISSING_MESSAGE))
-                .when(orderService).getOrdersForPeriod(any());
+                .when(orderService).getOrdersForPeriod(any(), any(), anyInt());
 
         mockMvc.perform(post(baseUrl + "/order/period")
                         .contentType(MediaType.APPLICATION_JSON)
@@ -184,7 +282,7 @@ class StatisticControllerTest {
                 .andExpect(status().isBadRequest())
                 .andExpect(content().string(INCOMING_PARAMETER_MISSING_MESSAGE));
 
-        verify(orderService, never()).getOrdersForPeriod(requestDto);
+        verify(orderService, never()).getOrdersForPeriod(requestDto, null, 100);
     }
 
     @Test
@@ -192,7 +290,7 @@ class StatisticControllerTest {
         PeriodRequestDto requestDto = createPeriodRequestDto();
 
         doThrow(new OrderException(NOT_FOUND, ORDERS_NOT_FOUND_MESSAGE))
-                .when(orderService).getOrdersForPeriod(any());
+                .when(orderService).getOrdersForPeriod(any(), any(), anyInt());
 
         mockMvc.perform(post(baseUrl + "/order/period")
                         .contentType(MediaType.APPLICATION_JSON)
@@ -200,6 +298,131 @@ class StatisticControllerTest {
                 .andExpect(status().isNotFound())
                 .andExpect(content().string(ORDERS_NOT_FOUND_MESSAGE));
 
-        verify(orderService, never()).getOrdersForPeriod(requestDto);
+        verify(orderService, never()).getOrdersForPeriod(requestDto, null, 100);
+    }
+
+    @Test
+    void givenCsvFormat_whenExportOrdersForPeriod_thenStreamsAttachment() throws Exception {
+        PeriodRequestDto requestDto = createPeriodRequestDto();
+        String csv = "order_id,drink_name,status,created_at\n";
+
+        when(orderExportService.exportOrdersForPeriod(any(PeriodRequestDto.class), eq(CSV), any()))
+                .thenAnswer(invocation -> {
+                    invocation.<OutputStream>getArgument(2).write(csv.getBytes(StandardCharsets.UTF_8));
+                    return 0L;
+                });
+
+        MvcResult result = mockMvc.perform(post(baseUrl + "/order/period/export")
+                        .param("format", "CSV")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(requestDto)))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_TYPE, "text/csv"))
+                .andExpect(header().string(HttpHeaders.CONTENT_DISPOSITION, containsString(".csv")))
+                .andExpect(content().string(csv));
+    }
+
+    @Test
+    void givenMissingPeriod_whenExportOrdersForPeriod_thenReturnBadRequest() throws Exception {
+        mockMvc.perform(post(baseUrl + "/order/period/export")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(PeriodRequestDto.builder().build())))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().string(INCOMING_PARAMETER_MISSING_MESSAGE));
+
+        verifyNoInteractions(orderExportService);
+    }
+
+    @Test
+    void givenPeriod_whenExportArchivedOrdersForPeriod_thenStreamsNdjsonAttachment() throws Exception {
+        PeriodRequestDto requestDto = createPeriodRequestDto();
+        String ndjson = "{\"orderId\":\"" + TEST_UUID + "\"}\n";
+
+        when(orderArchiveService.exportArchivedOrders(any(PeriodRequestDto.class), eq(NDJSON), any()))
+                .thenAnswer(invocation -> {
+                    invocation.<OutputStream>getArgument(2).write(ndjson.getBytes(StandardCharsets.UTF_8));
+                    return 1L;
+                });
+
+        MvcResult result = mockMvc.perform(post(baseUrl + "/order/archive/export")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(requestDto)))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_TYPE, "application/x-ndjson"))
+                .andExpect(header().string(HttpHeaders.CONTENT_DISPOSITION, containsString("orders_archive_")))
+                .andExpect(content().string(ndjson));
+        verifyNoInteractions(orderExportService);
+    }
+
+    @Test
+    void givenPeriod_whenGetOrderSummary_thenReturnResponseDto() throws Exception {
+        PeriodRequestDto requestDto = createPeriodRequestDto();
+        OrderSummaryResponseDto responseDto = OrderSummaryResponseDto.builder()
+                .startDate(requestDto.getStartDate())
+                .endDate(requestDto.getEndDate())
+                .ordersCount(20)
+                .completedCount(18)
+                .refusedCount(1)
+                .refusalRate(0.05)
+                .build();
+
+        when(orderRollupService.getSummary(any(PeriodRequestDto.class))).thenReturn(responseDto);
+
+        mockMvc.perform(post(baseUrl + "/order/summary")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(requestDto)))
+                .andExpect(status().isOk())
+                .andExpect(content().json(objectMapper.writeValueAsString(responseDto)));
+    }
+
+    @Test
+    void givenPeriod_whenGetDailyOrderCounts_thenReturnResponseDto() throws Exception {
+        PeriodRequestDto requestDto = createPeriodRequestDto();
+        List<OrderCountResponseDto> responseDto = List.of(OrderCountResponseDto.builder()
+                .periodStart(requestDto.getStartDate().atStartOfDay())
+                .drinkName(COFFEE_RAF_NAME)
+                .ordersCount(5)
+                .build());
+
+        when(orderRollupService.getDailyCounts(any(PeriodRequestDto.class))).thenReturn(responseDto);
+
+        mockMvc.perform(post(baseUrl + "/order/count/daily")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(requestDto)))
+                .andExpect(status().isOk())
+                .andExpect(content().json(objectMapper.writeValueAsString(responseDto)));
+    }
+
+    @Test
+    void givenMissingPeriod_whenGetDailyOrderCounts_thenReturnBadRequest() throws Exception {
+        mockMvc.perform(post(baseUrl + "/order/count/daily")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(PeriodRequestDto.builder().build())))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().string(INCOMING_PARAMETER_MISSING_MESSAGE));
+
+        verifyNoInteractions(orderRollupService);
+    }
+
+    @Test
+    void testGetHourlyOrderCountsForToday_thenReturnResponseDto() throws Exception {
+        List<OrderCountResponseDto> responseDto = List.of(OrderCountResponseDto.builder()
+                .drinkName(COFFEE_RAF_NAME)
+                .ordersCount(3)
+                .build());
+
+        when(orderRollupService.getHourlyCountsForToday()).thenReturn(responseDto);
+
+        mockMvc.perform(get(baseUrl + "/order/count/today/hourly"))
+                .andExpect(status().isOk())
+                .andExpect(content().json(objectMapper.writeValueAsString(responseDto)));
     }
-}
\ No newline at end of file
+}
@@ -9,13 +9,25 @@ import test.example.coffeemachineservice.dto.request.RecipeIngredientDto;
 import test.example.coffeemachineservice.dto.request.UpdateIngredientRequestDto;
 import test.example.coffeemachineservice.dto.response.DrinkResponseDto;
 import test.example.coffeemachineservice.dto.response.IngredientResponseDto;
+import test.example.coffeemachineservice.dto.response.OrderPageResponseDto;
 import test.example.coffeemachineservice.dto.response.OrderResponseDto;
+import test.example.coffeemachineservice.dto.response.PopularDrinkResponseDto;
 import test.example.coffeemachineservice.dto.response.RecipeResponseDto;
+import test.example.coffeemachineservice.persistent.enums.OrderStatus;
+import test.example.coffeemachineservice.persistent.projection.CompletedOrderView;
+import test.example.coffeemachineservice.persistent.projection.DrinkIngredientStockView;
+import test.example.coffeemachineservice.persistent.projection.DrinkOrdersCountView;
+import test.example.coffeemachineservice.persistent.projection.IngredientStockView;
+import test.example.coffeemachineservice.persistent.projection.OrderExportView;
+import test.example.coffeemachineservice.persistent.projection.OrderPartitionView;
+import test.example.coffeemachineservice.persistent.projection.OrderRollupView;
+import test.example.coffeemachineservice.persistent.projection.OrderSummaryView;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.UUID;
 
 import static test.example.coffeemachineservice.persistent.enums.OrderStatus.COMPLETED;
 
@@ -29,6 +41,10 @@ public class CoffeeMachineData {
 
     public static final String COFFEE_MILK_NAME = "Молоко";
 
+    public static final String COFFEE_LATTE_NAME = "Латте";
+
+    public static final String COFFEE_ESPRESSO_NAME = "Эспрессо";
+
     public static final String TEST_INGREDIENT_UNIT = "мл";
 
     public static RecipeIngredientDto createRecipeIngredientDto() {
@@ -137,10 +153,238 @@ public class CoffeeMachineData {
         return listOrderResponseDto;
     }
 
+    public static OrderPageResponseDto createOrderPageResponseDto(List<OrderResponseDto> orders) {
+        return OrderPageResponseDto.builder()
+                .orders(orders)
+                .nextPageToken("MjAyNS0wMi0wMVQxMDoxNX4xMjM")
+                .build();
+    }
+
     public static PeriodRequestDto createPeriodRequestDto() {
         return PeriodRequestDto.builder()
                 .startDate(LocalDate.of(2025, 1, 1))
                 .endDate(LocalDate.of(2025, 4, 1))
                 .build();
     }
-}
\ No newline at end of file
+
+    public static PopularDrinkResponseDto createPopularDrinkResponseDto() {
+        return PopularDrinkResponseDto.builder()
+                .drinkId(TEST_UUID)
+                .drinkName(COFFEE_RAF_NAME)
+                .ordersCount(5)
+                .build();
+    }
+
+    public static CompletedOrderView createCompletedOrderView(UUID orderId, UUID drinkId, String drinkName) {
+        return createCompletedOrderView(orderId, drinkId, drinkName, LocalDateTime.now());
+    }
+
+    public static CompletedOrderView createCompletedOrderView(UUID orderId, UUID drinkId, String drinkName,
+                                                              LocalDateTime readyAt) {
+        return new CompletedOrderView() {
+            @Override
+            public UUID getOrderId() {
+                return orderId;
+            }
+
+            @Override
+            public UUID getDrinkId() {
+                return drinkId;
+            }
+
+            @Override
+            public String getDrinkName() {
+                return drinkName;
+            }
+
+            @Override
+            public LocalDateTime getReadyAt() {
+                return readyAt;
+            }
+        };
+    }
+
+    public static DrinkOrdersCountView createDrinkOrdersCountView(UUID drinkId, String drinkName,
+                                                                  LocalDateTime periodStart, long ordersCount) {
+        return new DrinkOrdersCountView() {
+            @Override
+            public UUID getDrinkId() {
+                return drinkId;
+            }
+
+            @Override
+            public String getDrinkName() {
+                return drinkName;
+            }
+
+            @Override
+            public LocalDateTime getPeriodStart() {
+                return periodStart;
+            }
+
+            @Override
+            public long getOrdersCount() {
+                return ordersCount;
+            }
+        };
+    }
+
+    public static OrderExportView createOrderExportView(UUID orderId, String drinkName, OrderStatus status,
+                                                        LocalDateTime createdAt) {
+        return new OrderExportView() {
+            @Override
+            public UUID getOrderId() {
+                return orderId;
+            }
+
+            @Override
+            public String getDrinkName() {
+                return drinkName;
+            }
+
+            @Override
+            public OrderStatus getStatus() {
+                return status;
+            }
+
+            @Override
+            public LocalDateTime getCreatedAt() {
+                return createdAt;
+            }
+        };
+    }
+
+    public static OrderRollupView createOrderRollupView(LocalDateTime periodStart, UUID drinkId, String drinkName,
+                                                        long ordersCount, long completedCount, long refusedCount) {
+        return new OrderRollupView() {
+            @Override
+            public LocalDateTime getPeriodStart() {
+                return periodStart;
+            }
+
+            @Override
+            public UUID getDrinkId() {
+                return drinkId;
+            }
+
+            @Override
+            public String getDrinkName() {
+                return drinkName;
+            }
+
+            @Override
+            public long getOrdersCount() {
+                return ordersCount;
+            }
+
+            @Override
+            public long getCompletedCount() {
+                return completedCount;
+            }
+
+            @Override
+            public long getRefusedCount() {
+                return refusedCount;
+            }
+        };
+    }
+
+    public static OrderSummaryView createOrderSummaryView(long ordersCount, long completedCount, long refusedCount) {
+        return new OrderSummaryView() {
+            @Override
+            public long getOrdersCount() {
+                return ordersCount;
+            }
+
+            @Override
+            public long getCompletedCount() {
+                return completedCount;
+            }
+
+            @Override
+            public long getRefusedCount() {
+                return refusedCount;
+            }
+        };
+    }
+
+    public static IngredientStockView createIngredientStockView(UUID ingredientId, int freeAmount) {
+        return new IngredientStockView() {
+            @Override
+            public UUID getIngredientId() {
+                return ingredientId;
+            }
+
+            @Override
+            public int getFreeAmount() {
+                return freeAmount;
+            }
+        };
+    }
+
+    public static DrinkIngredientStockView createDrinkIngredientStockView(UUID drinkId, String drinkName, UUID recipeId,
+                                                                          UUID ingredientId, int quantityOnRecipe,
+                                                                          int freeAmount) {
+        return new DrinkIngredientStockView() {
+            @Override
+            public UUID getDrinkId() {
+                return drinkId;
+            }
+
+            @Override
+            public String getDrinkName() {
+                return drinkName;
+            }
+
+            @Override
+            public UUID getRecipeId() {
+                return recipeId;
+            }
+
+            @Override
+            public UUID getIngredientId() {
+                return ingredientId;
+            }
+
+            @Override
+            public int getQuantityOnRecipe() {
+                return quantityOnRecipe;
+            }
+
+            @Override
+            public int getFreeAmount() {
+                return freeAmount;
+            }
+        };
+    }
+
+    public static OrderPartitionView createOrderPartitionView(String partitionName, LocalDateTime rangeStart,
+                                                              LocalDateTime rangeEnd, long totalBytes) {
+        return new OrderPartitionView() {
+            @Override
+            public String getPartitionName() {
+                return partitionName;
+            }
+
+            @Override
+            public LocalDateTime getRangeStart() {
+                return rangeStart;
+            }
+
+            @Override
+            public LocalDateTime getRangeEnd() {
+                return rangeEnd;
+            }
+
+            @Override
+            public long getTotalBytes() {
+                return totalBytes;
+            }
+
+            @Override
+            public long getEstimatedRows() {
+                return 0;
+            }
+        };
+    }
+}
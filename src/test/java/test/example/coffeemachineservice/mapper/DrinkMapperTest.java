@@ -3,16 +3,21 @@ package test.example.coffeemachineservice.mapper;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import test.example.coffeemachineservice.dto.catalog.DrinkCompositionDto;
 import test.example.coffeemachineservice.dto.request.AddNewDrinkRequestDto;
 import test.example.coffeemachineservice.dto.response.DrinkResponseDto;
 import test.example.coffeemachineservice.persistent.entity.Drink;
+import test.example.coffeemachineservice.persistent.entity.Ingredient;
 import test.example.coffeemachineservice.persistent.entity.Recipe;
+import test.example.coffeemachineservice.persistent.entity.RecipeIngredient;
 
+import java.util.List;
 import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static test.example.coffeemachineservice.data.CoffeeMachineData.COFFEE_MILK_NAME;
 import static test.example.coffeemachineservice.data.CoffeeMachineData.COFFEE_RAF_NAME;
 
 @SpringBootTest
@@ -40,6 +45,37 @@ class DrinkMapperTest {
         assertEquals(drink.getRecipe().getRecipeId(), UUID.fromString(responseDto.getRecipe().getRecipeId()));
     }
 
+    @Test
+    void givenDrinkWithRecipeIngredients_whenMapToDrinkCompositionDto_thenSuccess() {
+        Ingredient ingredient = Ingredient.builder()
+                .ingredientId(UUID.randomUUID())
+                .ingredientName(COFFEE_MILK_NAME)
+                .build();
+        Recipe recipe = Recipe.builder()
+                .recipeId(UUID.randomUUID())
+                .recipeName(COFFEE_RAF_NAME)
+                .build();
+        recipe.setRecipeIngredients(List.of(RecipeIngredient.builder()
+                .recipe(recipe)
+                .ingredient(ingredient)
+                .quantityOnRecipe(7)
+                .build()));
+        Drink drink = Drink.builder()
+                .drinkId(UUID.randomUUID())
+                .drinkName(COFFEE_RAF_NAME)
+                .recipe(recipe)
+                .build();
+
+        DrinkCompositionDto composition = drinkMapper.mapToDrinkCompositionDto(drink);
+
+        assertEquals(drink.getDrinkId(), composition.getDrinkId());
+        assertEquals(recipe.getRecipeId(), composition.getRecipeId());
+        assertEquals(1, composition.getIngredients().size());
+        assertEquals(ingredient.getIngredientId(), composition.getIngredients().get(0).getIngredientId());
+        assertEquals(COFFEE_MILK_NAME, composition.getIngredients().get(0).getIngredientName());
+        assertEquals(7, composition.getIngredients().get(0).getQuantityOnRecipe());
+    }
+
     @Test
     void givenNullDrinkEntity_whenMapToDrinkResponseDto_thenReturnsNull() {
         Drink drink = null;
@@ -26,7 +26,8 @@ class IngredientMapperTest {
         Ingredient ingredient = Ingredient.builder()
                 .ingredientId(UUID.randomUUID())
                 .ingredientName(COFFEE_MILK_NAME)
-                .amountAvailable(0)
+                .amountAvailable(100)
+                .amountReserved(30)
                 .unit(TEST_INGREDIENT_UNIT)
                 .build();
 
@@ -37,6 +38,7 @@ class IngredientMapperTest {
         assertEquals(ingredient.getIngredientId(), UUID.fromString(responseDto.getIngredientId()));
         assertEquals(ingredient.getIngredientName(), responseDto.getIngredientName());
         assertEquals(ingredient.getAmountAvailable(), responseDto.getAmountAvailable());
+        assertEquals(ingredient.getAmountReserved(), responseDto.getAmountReserved());
         assertEquals(ingredient.getUnit(), responseDto.getUnit());
     }
 
@@ -29,7 +29,7 @@ class OrderMapperTest {
                 .drink(Drink.builder()
                         .drinkName(COFFEE_RAF_NAME)
                         .build())
-                .status(COMPLETED.getStatusName())
+                .status(COMPLETED)
                 .createdAt(LocalDateTime.now())
                 .build();
 
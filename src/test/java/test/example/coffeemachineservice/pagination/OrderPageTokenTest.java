@@ -0,0 +1,46 @@
+package test.example.coffeemachineservice.pagination;
+
+import org.junit.jupiter.api.Test;
+import test.example.coffeemachineservice.dto.response.OrderResponseDto;
+import test.example.coffeemachineservice.exception.OrderException;
+
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static test.example.coffeemachineservice.data.CoffeeMachineData.TEST_UUID;
+
+class OrderPageTokenTest {
+
+    @Test
+    void givenLastOrderOfPage_whenEncodeAndDecode_thenReturnsItsKey() {
+        OrderResponseDto lastOrder = OrderResponseDto.builder()
+                .orderId(TEST_UUID)
+                .createdAt(LocalDateTime.of(2025, 2, 1, 10, 15, 30, 123_000_000))
+                .build();
+
+        OrderPageToken token = OrderPageToken.decode(OrderPageToken.of(lastOrder).encode());
+
+        assertEquals(lastOrder.getCreatedAt(), token.createdAt());
+        assertEquals(UUID.fromString(TEST_UUID), token.orderId());
+    }
+
+    @Test
+    void givenNoToken_whenDecode_thenReturnsFirstPage() {
+        assertNull(OrderPageToken.decode(null));
+        assertNull(OrderPageToken.decode(" "));
+    }
+
+    @Test
+    void givenIncorrectToken_whenDecode_thenThrowsOrderException() {
+        String withoutOrderId = Base64.getUrlEncoder().encodeToString("2025-02-01T10:15".getBytes());
+        String withIncorrectDate = Base64.getUrlEncoder().encodeToString(("вчера~" + TEST_UUID).getBytes());
+
+        assertThrows(OrderException.class, () -> OrderPageToken.decode("%%%"));
+        assertThrows(OrderException.class, () -> OrderPageToken.decode(withoutOrderId));
+        assertThrows(OrderException.class, () -> OrderPageToken.decode(withIncorrectDate));
+    }
+}
@@ -0,0 +1,33 @@
+package test.example.coffeemachineservice.partition;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class PartitionGranularityTest {
+
+    private static final LocalDate DATE = LocalDate.of(2025, 2, 14);
+
+    @Test
+    void givenDate_whenRangeStart_thenReturnsStartOfItsRange() {
+        assertEquals(DATE, PartitionGranularity.DAY.rangeStart(DATE));
+        assertEquals(LocalDate.of(2025, 2, 1), PartitionGranularity.MONTH.rangeStart(DATE));
+        assertEquals(LocalDate.of(2025, 1, 1), PartitionGranularity.YEAR.rangeStart(DATE));
+    }
+
+    @Test
+    void givenRangeStart_whenNextRangeStart_thenReturnsStartOfFollowingRange() {
+        assertEquals(LocalDate.of(2025, 3, 1), PartitionGranularity.DAY.nextRangeStart(LocalDate.of(2025, 2, 28)));
+        assertEquals(LocalDate.of(2026, 1, 1), PartitionGranularity.MONTH.nextRangeStart(LocalDate.of(2025, 12, 1)));
+        assertEquals(LocalDate.of(2026, 1, 1), PartitionGranularity.YEAR.nextRangeStart(LocalDate.of(2025, 1, 1)));
+    }
+
+    @Test
+    void givenRangeStart_whenPartitionName_thenNameContainsRangeStart() {
+        assertEquals("orders_2025_02_14", PartitionGranularity.DAY.partitionName(DATE));
+        assertEquals("orders_2025_02", PartitionGranularity.MONTH.partitionName(LocalDate.of(2025, 2, 1)));
+        assertEquals("orders_2025", PartitionGranularity.YEAR.partitionName(LocalDate.of(2025, 1, 1)));
+    }
+}
@@ -0,0 +1,31 @@
+package test.example.coffeemachineservice.persistent.converter;
+
+import org.junit.jupiter.api.Test;
+import test.example.coffeemachineservice.persistent.enums.OrderStatus;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class OrderStatusConverterTest {
+
+    private final OrderStatusConverter converter = new OrderStatusConverter();
+
+    @Test
+    void givenEveryStatus_whenConvertToCodeAndBack_thenReturnsSameStatus() {
+        for (OrderStatus status : OrderStatus.values()) {
+            assertEquals(status, converter.convertToEntityAttribute(converter.convertToDatabaseColumn(status)));
+        }
+    }
+
+    @Test
+    void givenNull_whenConvert_thenReturnsNull() {
+        assertNull(converter.convertToDatabaseColumn(null));
+        assertNull(converter.convertToEntityAttribute(null));
+    }
+
+    @Test
+    void givenUnknownCode_whenConvertToEntityAttribute_thenThrowsIllegalArgumentException() {
+        assertThrows(IllegalArgumentException.class, () -> converter.convertToEntityAttribute((short) 9));
+    }
+}
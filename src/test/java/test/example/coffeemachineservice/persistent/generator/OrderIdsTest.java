@@ -0,0 +1,92 @@
+package test.example.coffeemachineservice.persistent.generator;
+
+import org.junit.jupiter.api.Test;
+import test.example.coffeemachineservice.persistent.generator.OrderIds.CreatedAtRange;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static test.example.coffeemachineservice.data.CoffeeMachineData.TEST_UUID;
+
+class OrderIdsTest {
+
+    private static final LocalDateTime CREATED_AT = LocalDateTime.of(2025, 2, 1, 10, 15, 30, 123_456_789);
+
+    @Test
+    void givenCreatedAt_whenNewOrderId_thenReturnsVersion7Uuid() {
+        UUID orderId = OrderIds.newOrderId(CREATED_AT);
+
+        assertEquals(7, orderId.version());
+        assertEquals(2, orderId.variant());
+        assertNotEquals(orderId, OrderIds.newOrderId(CREATED_AT));
+    }
+
+    @Test
+    void givenOrderId_whenCreatedAtRange_thenRangeIsMillisecondOfCreatedAt() {
+        CreatedAtRange range = OrderIds.createdAtRange(OrderIds.newOrderId(CREATED_AT));
+
+        assertEquals(LocalDateTime.of(2025, 2, 1, 10, 15, 30, 123_000_000), range.from());
+        assertEquals(LocalDateTime.of(2025, 2, 1, 10, 15, 30, 124_000_000), range.to());
+        assertTrue(!CREATED_AT.isBefore(range.from()) && CREATED_AT.isBefore(range.to()));
+    }
+
+    // PostgreSQL хранит микросекунды и округляет: .999_999_999 без усечения ушло бы в следующую секунду
+    @Test
+    void givenCreatedAtAtEndOfMillisecond_whenTruncatedToMillis_thenStoredValueStaysInRange() {
+        LocalDateTime createdAt = LocalDateTime.of(2025, 2, 1, 10, 15, 30, 999_999_999);
+        LocalDateTime truncated = createdAt.truncatedTo(ChronoUnit.MILLIS);
+
+        CreatedAtRange untruncatedRange = OrderIds.createdAtRange(OrderIds.newOrderId(createdAt));
+        CreatedAtRange range = OrderIds.createdAtRange(OrderIds.newOrderId(truncated));
+
+        assertFalse(roundToMicros(createdAt).isBefore(untruncatedRange.to()));
+        assertEquals(truncated, roundToMicros(truncated));
+        assertEquals(truncated, range.from());
+        assertTrue(roundToMicros(truncated).isBefore(range.to()));
+    }
+
+    @Test
+    void givenLaterCreatedAt_whenNewOrderId_thenSortsAfterEarlierId() {
+        UUID earlier = OrderIds.newOrderId(CREATED_AT);
+        UUID later = OrderIds.newOrderId(CREATED_AT.plusSeconds(1));
+
+        assertTrue(Long.compareUnsigned(earlier.getMostSignificantBits(), later.getMostSignificantBits()) < 0);
+    }
+
+    @Test
+    void givenBatchOfOrderIds_whenCreatedAtRange_thenCoversEarliestAndLatestMillisecond() {
+        UUID earliest = OrderIds.newOrderId(CREATED_AT);
+        UUID latest = OrderIds.newOrderId(CREATED_AT.plusMinutes(2));
+
+        CreatedAtRange range = OrderIds.createdAtRange(List.of(latest, earliest));
+
+        assertEquals(OrderIds.createdAtRange(earliest).from(), range.from());
+        assertEquals(OrderIds.createdAtRange(latest).to(), range.to());
+    }
+
+    @Test
+    void givenBatchWithRandomUuid_whenCreatedAtRange_thenCoversAllOrders() {
+        CreatedAtRange range = OrderIds.createdAtRange(List.of(OrderIds.newOrderId(CREATED_AT),
+                UUID.fromString(TEST_UUID)));
+
+        assertEquals(OrderIds.createdAtRange(UUID.fromString(TEST_UUID)), range);
+    }
+
+    @Test
+    void givenRandomUuid_whenCreatedAtRange_thenCoversAllOrders() {
+        CreatedAtRange range = OrderIds.createdAtRange(UUID.fromString(TEST_UUID));
+
+        assertTrue(range.from().isBefore(CREATED_AT));
+        assertTrue(range.to().isAfter(LocalDateTime.now().plusYears(100)));
+    }
+
+    private static LocalDateTime roundToMicros(LocalDateTime value) {
+        return value.plusNanos(500).truncatedTo(ChronoUnit.MICROS);
+    }
+}
@@ -0,0 +1,55 @@
+package test.example.coffeemachineservice.popularity;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RollingTopKTest {
+
+    private final Instant start = Instant.parse("2025-03-01T10:00:00Z");
+
+    private final RollingTopK<String> rollingTopK = new RollingTopK<>(Duration.ofHours(1), Duration.ofMinutes(1), 10);
+
+    @Test
+    void givenEventsInsideWindow_whenTop_thenSumsAllBuckets() {
+        rollingTopK.add("Раф", 1, start);
+        rollingTopK.add("Раф", 2, start.plus(Duration.ofMinutes(30)));
+        rollingTopK.add("Латте", 1, start.plus(Duration.ofMinutes(40)));
+
+        List<Map.Entry<String, Long>> top = rollingTopK.top(10, start.plus(Duration.ofMinutes(59)));
+
+        assertEquals(List.of(Map.entry("Раф", 3L), Map.entry("Латте", 1L)), top);
+    }
+
+    @Test
+    void givenWindowMovedPastBucket_whenTop_thenExpiresOldEvents() {
+        rollingTopK.add("Раф", 5, start);
+        rollingTopK.add("Латте", 1, start.plus(Duration.ofMinutes(30)));
+
+        List<Map.Entry<String, Long>> top = rollingTopK.top(10, start.plus(Duration.ofMinutes(60)));
+
+        assertEquals(List.of(Map.entry("Латте", 1L)), top);
+    }
+
+    @Test
+    void givenIdleLongerThanWindow_whenTop_thenReturnsEmptyRanking() {
+        rollingTopK.add("Раф", 5, start);
+
+        assertTrue(rollingTopK.top(10, start.plus(Duration.ofDays(3))).isEmpty());
+    }
+
+    @Test
+    void givenEventOlderThanWindow_whenAdd_thenIgnoresIt() {
+        rollingTopK.add("Латте", 1, start);
+
+        rollingTopK.add("Раф", 1, start.minus(Duration.ofHours(2)));
+
+        assertEquals(List.of(Map.entry("Латте", 1L)), rollingTopK.top(10, start));
+    }
+}
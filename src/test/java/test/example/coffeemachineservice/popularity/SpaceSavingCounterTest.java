@@ -0,0 +1,50 @@
+package test.example.coffeemachineservice.popularity;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class SpaceSavingCounterTest {
+
+    @Test
+    void givenCountsWithinCapacity_whenTop_thenReturnsExactCountsInDescendingOrder() {
+        SpaceSavingCounter<String> counter = new SpaceSavingCounter<>(3);
+        counter.add("Раф", 2);
+        counter.add("Латте", 5);
+        counter.add("Раф", 1);
+
+        List<Map.Entry<String, Long>> top = counter.top(2);
+
+        assertEquals(List.of(Map.entry("Латте", 5L), Map.entry("Раф", 3L)), top);
+    }
+
+    @Test
+    void givenFullCounter_whenAddNewKey_thenEvictsMinimumAndInheritsItsCount() {
+        SpaceSavingCounter<String> counter = new SpaceSavingCounter<>(2);
+        counter.add("Латте", 5);
+        counter.add("Раф", 2);
+
+        counter.add("Капучино", 1);
+
+        assertEquals(2, counter.size());
+        assertEquals(0, counter.estimate("Раф"));
+        assertEquals(3, counter.estimate("Капучино"));
+        assertEquals(5, counter.estimate("Латте"));
+    }
+
+    @Test
+    void givenCounterDroppedToZero_whenSubtract_thenFreesSlot() {
+        SpaceSavingCounter<String> counter = new SpaceSavingCounter<>(2);
+        counter.add("Латте", 2);
+        counter.add("Раф", 4);
+
+        counter.subtract("Латте", 2);
+        counter.subtract("Раф", 1);
+
+        assertEquals(1, counter.size());
+        assertEquals(3, counter.estimate("Раф"));
+    }
+}
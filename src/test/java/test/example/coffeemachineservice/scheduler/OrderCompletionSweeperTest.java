@@ -0,0 +1,98 @@
+package test.example.coffeemachineservice.scheduler;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import test.example.coffeemachineservice.persistent.projection.CompletedOrderView;
+import test.example.coffeemachineservice.service.OrderService;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static test.example.coffeemachineservice.data.CoffeeMachineData.COFFEE_RAF_NAME;
+import static test.example.coffeemachineservice.data.CoffeeMachineData.createCompletedOrderView;
+
+@ExtendWith(MockitoExtension.class)
+class OrderCompletionSweeperTest {
+
+    @Mock
+    private OrderService orderService;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private OrderCompletionSweeper orderCompletionSweeper;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        orderCompletionSweeper = new OrderCompletionSweeper(orderService, meterRegistry);
+    }
+
+    @Test
+    void givenOverdueOrdersAfterRestart_whenRecoverOverdueOrders_thenCompletesThem() {
+        when(orderService.completeReadyOrders()).thenReturn(completedOrders(3));
+
+        orderCompletionSweeper.recoverOverdueOrders();
+
+        InOrder inOrder = inOrder(orderService);
+        inOrder.verify(orderService).restoreBrewingQueue();
+        inOrder.verify(orderService).completeReadyOrders();
+        assertEquals(3, meterRegistry.get("coffee.order.completion.completed").counter().count());
+    }
+
+    @Test
+    void givenReadyOrders_whenSweepReadyOrders_thenCountsCompletedOrders() {
+        when(orderService.completeReadyOrders()).thenReturn(completedOrders(2)).thenReturn(List.of());
+
+        orderCompletionSweeper.sweepReadyOrders();
+        orderCompletionSweeper.sweepReadyOrders();
+
+        verify(orderService, times(2)).completeReadyOrders();
+        assertEquals(2, meterRegistry.get("coffee.order.completion.completed").counter().count());
+        assertEquals(2, meterRegistry.get("coffee.order.completion.sweep").timer().count());
+    }
+
+    @Test
+    void givenDatabaseError_whenSweepReadyOrders_thenNextSweepStillRuns() {
+        when(orderService.completeReadyOrders()).thenThrow(new IllegalStateException("connection refused"))
+                .thenReturn(completedOrders(1));
+
+        orderCompletionSweeper.sweepReadyOrders();
+        orderCompletionSweeper.sweepReadyOrders();
+
+        assertEquals(1, meterRegistry.get("coffee.order.completion.completed").counter().count());
+    }
+
+    @Test
+    void givenOverdueOrder_whenSweepReadyOrders_thenRecordsCompletionLag() {
+        CompletedOrderView overdueOrder = createCompletedOrderView(UUID.randomUUID(), UUID.randomUUID(),
+                COFFEE_RAF_NAME, LocalDateTime.now().minusSeconds(30));
+        when(orderService.completeReadyOrders()).thenReturn(List.of(overdueOrder));
+
+        orderCompletionSweeper.sweepReadyOrders();
+
+        Timer completionLag = meterRegistry.get("coffee.order.completion.lag").timer();
+        assertEquals(1, completionLag.count());
+        assertTrue(completionLag.max(TimeUnit.SECONDS) >= 30);
+    }
+
+    private static List<CompletedOrderView> completedOrders(int count) {
+        return IntStream.range(0, count)
+                .mapToObj(index -> createCompletedOrderView(UUID.randomUUID(), UUID.randomUUID(), COFFEE_RAF_NAME))
+                .toList();
+    }
+}
@@ -0,0 +1,43 @@
+package test.example.coffeemachineservice.scheduler;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.QueryTimeoutException;
+import test.example.coffeemachineservice.service.OrderCounterService;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class OrderCountFlusherTest {
+
+    @Mock
+    private OrderCounterService orderCounterService;
+
+    @InjectMocks
+    private OrderCountFlusher orderCountFlusher;
+
+    @Test
+    void givenDatabaseFailure_whenFlushOrderCounts_thenKeepsSchedulerAlive() {
+        when(orderCounterService.flush()).thenThrow(new QueryTimeoutException("timeout"));
+
+        assertDoesNotThrow(() -> orderCountFlusher.flushOrderCounts());
+    }
+
+    @Test
+    void givenRunningFlusher_whenStop_thenFlushesPendingCounts() {
+        orderCountFlusher.start();
+        assertTrue(orderCountFlusher.isRunning());
+
+        orderCountFlusher.stop();
+
+        verify(orderCounterService).flush();
+        assertFalse(orderCountFlusher.isRunning());
+    }
+}
@@ -0,0 +1,59 @@
+package test.example.coffeemachineservice.scheduler;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.QueryTimeoutException;
+import test.example.coffeemachineservice.service.IngredientReservationService;
+import test.example.coffeemachineservice.service.OrderService;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ReservationExpirySweeperTest {
+
+    @Mock
+    private IngredientReservationService ingredientReservationService;
+
+    @Mock
+    private OrderService orderService;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private ReservationExpirySweeper reservationExpirySweeper;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        reservationExpirySweeper = new ReservationExpirySweeper(ingredientReservationService, orderService, meterRegistry);
+    }
+
+    @Test
+    void givenExpiredReservations_whenReleaseExpiredReservations_thenRefusesTheirOrders() {
+        List<UUID> expiredOrderIds = List.of(UUID.randomUUID(), UUID.randomUUID());
+
+        when(ingredientReservationService.releaseExpiredReservations()).thenReturn(expiredOrderIds);
+        when(orderService.refuseOrders(expiredOrderIds)).thenReturn(2);
+
+        reservationExpirySweeper.releaseExpiredReservations();
+
+        assertEquals(2, meterRegistry.get("coffee.ingredient.reservations.expired").counter().count());
+    }
+
+    @Test
+    void givenDatabaseFailure_whenReleaseExpiredReservations_thenKeepsSchedulerAlive() {
+        when(ingredientReservationService.releaseExpiredReservations()).thenThrow(new QueryTimeoutException("timeout"));
+
+        assertDoesNotThrow(() -> reservationExpirySweeper.releaseExpiredReservations());
+        verifyNoInteractions(orderService);
+    }
+}
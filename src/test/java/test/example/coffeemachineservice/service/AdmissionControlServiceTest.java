@@ -0,0 +1,151 @@
+package test.example.coffeemachineservice.service;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import test.example.coffeemachineservice.configuration.CoffeeMachineProperties;
+import test.example.coffeemachineservice.exception.OverloadException;
+import test.example.coffeemachineservice.service.impl.AdmissionControlServiceImpl;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.when;
+import static org.springframework.http.HttpStatus.TOO_MANY_REQUESTS;
+
+@ExtendWith(MockitoExtension.class)
+class AdmissionControlServiceTest {
+
+    @Mock
+    private BrewingQueueService brewingQueueService;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private CoffeeMachineProperties properties;
+
+    private AdmissionControlServiceImpl admissionControlService;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        properties = new CoffeeMachineProperties();
+        properties.getAdmission().setPoolWaitSampleInterval(Duration.ZERO);
+        admissionControlService = new AdmissionControlServiceImpl(brewingQueueService, properties, meterRegistry);
+        lenient().when(brewingQueueService.getFreeCapacity()).thenReturn(10);
+    }
+
+    @Test
+    void givenIdleService_whenAdmit_thenRunsActionAndCountsAdmission() {
+        String result = admissionControlService.admit(() -> "готово");
+
+        assertEquals("готово", result);
+        assertEquals(1.0, requests("admitted", "none"));
+        assertEquals(0.0, meterRegistry.get("coffee.admission.in_flight").gauge().value());
+    }
+
+    @Test
+    void givenFullBrewingQueue_whenAdmit_thenShedsWithRetryAfterOfOneBrew() {
+        AtomicInteger calls = new AtomicInteger();
+        when(brewingQueueService.getFreeCapacity()).thenReturn(0);
+
+        OverloadException exception = assertThrows(OverloadException.class,
+                () -> admissionControlService.admit(calls::incrementAndGet));
+
+        assertEquals(TOO_MANY_REQUESTS, exception.getStatus());
+        assertEquals(Duration.ofMinutes(2), exception.getRetryAfter());
+        assertEquals(0, calls.get());
+        assertEquals(1.0, requests("shed", "brewing_queue"));
+    }
+
+    @Test
+    void givenBatchLargerThanFreeQueue_whenAdmit_thenShedsUntilMissingPlacesFree() {
+        AtomicInteger calls = new AtomicInteger();
+        when(brewingQueueService.getFreeCapacity()).thenReturn(2);
+
+        OverloadException exception = assertThrows(OverloadException.class,
+                () -> admissionControlService.admit(5, calls::incrementAndGet));
+
+        assertEquals(Duration.ofMinutes(6), exception.getRetryAfter());
+        assertEquals(0, calls.get());
+        assertEquals(1.0, requests("shed", "brewing_queue"));
+    }
+
+    @Test
+    void givenBatchWithinFreeQueue_whenAdmit_thenHoldsPermitsPerDrink() {
+        properties.getAdmission().setMaxInFlight(4);
+        AdmissionControlServiceImpl service =
+                new AdmissionControlServiceImpl(brewingQueueService, properties, new SimpleMeterRegistry());
+
+        assertThrows(OverloadException.class, () -> service.admit(3, () -> service.admit(2, () -> 1)));
+        assertEquals(1, service.admit(3, () -> service.admit(1, () -> 1)));
+    }
+
+    @Test
+    void givenBatchLargerThanInFlightLimit_whenAdmit_thenNeedsWholeLimit() {
+        properties.getAdmission().setMaxInFlight(2);
+        AdmissionControlServiceImpl service =
+                new AdmissionControlServiceImpl(brewingQueueService, properties, new SimpleMeterRegistry());
+
+        assertEquals(1, service.admit(5, () -> 1));
+        assertThrows(OverloadException.class, () -> service.admit(() -> service.admit(5, () -> 1)));
+    }
+
+    @Test
+    void givenThreadsWaitingForConnections_whenAdmit_thenShedsByPool() {
+        Gauge.builder("hikaricp.connections.pending", () -> 5).register(meterRegistry);
+
+        OverloadException exception = assertThrows(OverloadException.class, () -> admissionControlService.admit(() -> 1));
+
+        assertEquals(Duration.ofSeconds(1), exception.getRetryAfter());
+        assertEquals(1.0, requests("shed", "connection_pool"));
+    }
+
+    @Test
+    void givenSlowConnectionAcquisition_whenAdmit_thenShedsByPool() {
+        Timer acquire = Timer.builder("hikaricp.connections.acquire").register(meterRegistry);
+        acquire.record(Duration.ofMillis(500));
+
+        assertThrows(OverloadException.class, () -> admissionControlService.admit(() -> 1));
+        assertEquals(1.0, requests("shed", "connection_pool"));
+    }
+
+    @Test
+    void givenPoolRecoveredAfterSlowAcquisition_whenAdmit_thenAdmitsAgain() {
+        Timer acquire = Timer.builder("hikaricp.connections.acquire").register(meterRegistry);
+        acquire.record(Duration.ofMillis(500));
+        assertThrows(OverloadException.class, () -> admissionControlService.admit(() -> 1));
+
+        acquire.record(Duration.ofMillis(1));
+
+        assertEquals(1, admissionControlService.admit(() -> 1));
+    }
+
+    @Test
+    void givenMaxInFlightRequests_whenAdmit_thenShedsByConcurrency() {
+        properties.getAdmission().setMaxInFlight(1);
+        AdmissionControlServiceImpl singleSlotService =
+                new AdmissionControlServiceImpl(brewingQueueService, properties, new SimpleMeterRegistry());
+
+        OverloadException exception = assertThrows(OverloadException.class, () ->
+                singleSlotService.admit(() -> singleSlotService.admit(() -> 1)));
+
+        assertEquals(TOO_MANY_REQUESTS, exception.getStatus());
+        assertEquals(1, singleSlotService.admit(() -> 1));
+    }
+
+    private double requests(String outcome, String reason) {
+        return meterRegistry.get("coffee.admission.requests")
+                .tag("outcome", outcome)
+                .tag("reason", reason)
+                .counter()
+                .count();
+    }
+}
@@ -0,0 +1,107 @@
+package test.example.coffeemachineservice.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import test.example.coffeemachineservice.configuration.CoffeeMachineProperties;
+import test.example.coffeemachineservice.exception.OrderException;
+import test.example.coffeemachineservice.service.impl.BrewingQueueServiceImpl;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BrewingQueueServiceTest {
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private BrewingQueueServiceImpl brewingQueueService;
+
+    @BeforeEach
+    void setUp() {
+        CoffeeMachineProperties properties = new CoffeeMachineProperties();
+        properties.getBrewing().setSlots(2);
+        properties.getBrewing().setQueueCapacity(2);
+        meterRegistry = new SimpleMeterRegistry();
+        brewingQueueService = new BrewingQueueServiceImpl(properties, meterRegistry);
+    }
+
+    @Test
+    void givenFreeSlots_whenEnqueue_thenOrdersStartBrewingImmediately() {
+        assertEquals(0, brewingQueueService.enqueue(UUID.randomUUID()));
+        assertEquals(0, brewingQueueService.enqueue(UUID.randomUUID()));
+        assertEquals(2, meterRegistry.get("coffee.brewing.slots.busy").gauge().value());
+    }
+
+    @Test
+    void givenBusySlots_whenEnqueue_thenReturnsFifoPositions() {
+        UUID firstWaiting = UUID.randomUUID();
+        UUID secondWaiting = UUID.randomUUID();
+        brewingQueueService.enqueue(UUID.randomUUID());
+        brewingQueueService.enqueue(UUID.randomUUID());
+
+        assertEquals(1, brewingQueueService.enqueue(firstWaiting));
+        assertEquals(2, brewingQueueService.enqueue(secondWaiting));
+        assertEquals(2, brewingQueueService.getPosition(secondWaiting));
+        assertTrue(brewingQueueService.isFull());
+        assertThrows(OrderException.class, () -> brewingQueueService.enqueue(UUID.randomUUID()));
+    }
+
+    @Test
+    void givenWaitingOrders_whenReleaseSlots_thenPromotesInFifoOrder() {
+        UUID firstWaiting = UUID.randomUUID();
+        UUID secondWaiting = UUID.randomUUID();
+        brewingQueueService.enqueue(UUID.randomUUID());
+        brewingQueueService.enqueue(UUID.randomUUID());
+        brewingQueueService.enqueue(firstWaiting);
+        brewingQueueService.enqueue(secondWaiting);
+
+        List<UUID> promoted = brewingQueueService.releaseSlots(1);
+
+        assertEquals(List.of(firstWaiting), promoted);
+        assertEquals(1, brewingQueueService.getPosition(secondWaiting));
+        assertEquals(-1, brewingQueueService.getPosition(firstWaiting));
+        assertFalse(brewingQueueService.isFull());
+    }
+
+    @Test
+    void givenWaitingOrder_whenRemove_thenNextOrdersMoveUp() {
+        UUID firstWaiting = UUID.randomUUID();
+        UUID secondWaiting = UUID.randomUUID();
+        brewingQueueService.enqueue(UUID.randomUUID());
+        brewingQueueService.enqueue(UUID.randomUUID());
+        brewingQueueService.enqueue(firstWaiting);
+        brewingQueueService.enqueue(secondWaiting);
+
+        assertTrue(brewingQueueService.remove(firstWaiting));
+        assertEquals(1, brewingQueueService.getPosition(secondWaiting));
+        assertEquals(1, meterRegistry.get("coffee.brewing.queue.size").gauge().value());
+    }
+
+    @Test
+    void givenBusySlotsAndWaitingOrders_whenGetFreeCapacity_thenCountsSlotsAndQueue() {
+        assertEquals(4, brewingQueueService.getFreeCapacity());
+
+        brewingQueueService.enqueue(UUID.randomUUID());
+        brewingQueueService.enqueue(UUID.randomUUID());
+        brewingQueueService.enqueue(UUID.randomUUID());
+
+        assertEquals(1, brewingQueueService.getFreeCapacity());
+    }
+
+    @Test
+    void givenStateFromDatabase_whenRestore_thenFillsFreeSlotsFromQueue() {
+        UUID firstWaiting = UUID.randomUUID();
+        UUID secondWaiting = UUID.randomUUID();
+
+        List<UUID> promoted = brewingQueueService.restore(1, List.of(firstWaiting, secondWaiting));
+
+        assertEquals(List.of(firstWaiting), promoted);
+        assertEquals(1, brewingQueueService.getPosition(secondWaiting));
+        assertEquals(2, brewingQueueService.getBusySlots());
+    }
+}
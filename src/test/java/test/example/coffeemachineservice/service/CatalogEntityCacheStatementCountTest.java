@@ -0,0 +1,56 @@
+package test.example.coffeemachineservice.service;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Повторное чтение каталога берёт рецепты, их составы и ингредиенты из кэша второго уровня
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class CatalogEntityCacheStatementCountTest {
+
+    @Autowired
+    private RecipeService recipeService;
+
+    @Autowired
+    private DrinkService drinkService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        entityManagerFactory.getCache().evictAll();
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    void givenWarmEntityCache_whenGetAllRecipes_thenSkipsCompositionLoads() {
+        long cold = countStatements(() -> recipeService.getAllRecipes());
+        long warm = countStatements(() -> recipeService.getAllRecipes());
+
+        assertTrue(warm < cold, "холодный кэш " + cold + ", тёплый " + warm);
+        assertTrue(statistics.getSecondLevelCacheHitCount() > 0);
+    }
+
+    @Test
+    void givenWarmEntityCache_whenGetAllDrinks_thenSkipsRecipeLoads() {
+        long cold = countStatements(() -> drinkService.getAllDrinks());
+        long warm = countStatements(() -> drinkService.getAllDrinks());
+
+        assertTrue(warm < cold, "холодный кэш " + cold + ", тёплый " + warm);
+    }
+
+    private long countStatements(Runnable reads) {
+        statistics.clear();
+        reads.run();
+        return statistics.getPrepareStatementCount();
+    }
+}
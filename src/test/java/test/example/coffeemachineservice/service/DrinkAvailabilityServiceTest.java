@@ -0,0 +1,115 @@
+package test.example.coffeemachineservice.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import test.example.coffeemachineservice.dto.response.AvailableDrinkResponseDto;
+import test.example.coffeemachineservice.persistent.repository.DrinkRepository;
+import test.example.coffeemachineservice.service.impl.DrinkAvailabilityServiceImpl;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static test.example.coffeemachineservice.data.CoffeeMachineData.COFFEE_ESPRESSO_NAME;
+import static test.example.coffeemachineservice.data.CoffeeMachineData.COFFEE_LATTE_NAME;
+import static test.example.coffeemachineservice.data.CoffeeMachineData.createDrinkIngredientStockView;
+import static test.example.coffeemachineservice.data.CoffeeMachineData.createIngredientStockView;
+
+@ExtendWith(MockitoExtension.class)
+class DrinkAvailabilityServiceTest {
+
+    @Mock
+    private DrinkRepository drinkRepository;
+
+    private DrinkAvailabilityServiceImpl drinkAvailabilityService;
+
+    private final UUID espressoId = UUID.randomUUID();
+
+    private final UUID latteId = UUID.randomUUID();
+
+    private final UUID espressoRecipeId = UUID.randomUUID();
+
+    private final UUID latteRecipeId = UUID.randomUUID();
+
+    private final UUID coffeeId = UUID.randomUUID();
+
+    private final UUID milkId = UUID.randomUUID();
+
+    @BeforeEach
+    void setUp() {
+        when(drinkRepository.findDrinkIngredientStock()).thenReturn(List.of(
+                createDrinkIngredientStockView(espressoId, COFFEE_ESPRESSO_NAME, espressoRecipeId, coffeeId, 7, 70),
+                createDrinkIngredientStockView(latteId, COFFEE_LATTE_NAME, latteRecipeId, coffeeId, 7, 70),
+                createDrinkIngredientStockView(latteId, COFFEE_LATTE_NAME, latteRecipeId, milkId, 150, 300)
+        ));
+        drinkAvailabilityService = new DrinkAvailabilityServiceImpl(drinkRepository);
+        drinkAvailabilityService.reload();
+    }
+
+    @Test
+    void givenLoadedIndex_whenGetAvailableDrinks_thenReturnsServingsSortedByName() {
+        List<AvailableDrinkResponseDto> result = drinkAvailabilityService.getAvailableDrinks();
+
+        assertEquals(List.of(COFFEE_LATTE_NAME, COFFEE_ESPRESSO_NAME),
+                result.stream().map(AvailableDrinkResponseDto::getDrinkName).toList());
+        assertEquals(2, result.get(0).getServings());
+        assertEquals(10, result.get(1).getServings());
+    }
+
+    @Test
+    void givenUnchangedStock_whenGetAvailableDrinksAgain_thenReturnsSameSnapshot() {
+        List<AvailableDrinkResponseDto> first = drinkAvailabilityService.getAvailableDrinks();
+
+        assertSame(first, drinkAvailabilityService.getAvailableDrinks());
+        verify(drinkRepository, times(1)).findDrinkIngredientStock();
+    }
+
+    @Test
+    void givenReservation_whenGetAvailableDrinks_thenServingsDropWithoutReadingDatabase() {
+        drinkAvailabilityService.recordReservation(latteRecipeId);
+
+        List<AvailableDrinkResponseDto> result = drinkAvailabilityService.getAvailableDrinks();
+
+        assertEquals(1, result.get(0).getServings());
+        assertEquals(9, result.get(1).getServings());
+        verify(drinkRepository, times(1)).findDrinkIngredientStock();
+    }
+
+    @Test
+    void givenRestockAndReleasedStock_whenGetAvailableDrinks_thenServingsGrow() {
+        drinkAvailabilityService.recordRestock(milkId, 150);
+        drinkAvailabilityService.recordFreeStock(List.of(createIngredientStockView(coffeeId, 700)));
+
+        List<AvailableDrinkResponseDto> result = drinkAvailabilityService.getAvailableDrinks();
+
+        assertEquals(3, result.get(0).getServings());
+        assertEquals(100, result.get(1).getServings());
+    }
+
+    @Test
+    void givenExhaustedIngredient_whenGetAvailableDrinks_thenHidesDrink() {
+        drinkAvailabilityService.recordFreeStock(List.of(createIngredientStockView(milkId, 100)));
+
+        List<AvailableDrinkResponseDto> result = drinkAvailabilityService.getAvailableDrinks();
+
+        assertEquals(List.of(COFFEE_ESPRESSO_NAME), result.stream().map(AvailableDrinkResponseDto::getDrinkName).toList());
+    }
+
+    @Test
+    void givenCatalogChange_whenGetAvailableDrinks_thenRebuildsIndexOnce() {
+        drinkAvailabilityService.invalidate();
+        when(drinkRepository.findDrinkIngredientStock()).thenReturn(List.of());
+
+        assertTrue(drinkAvailabilityService.getAvailableDrinks().isEmpty());
+        assertTrue(drinkAvailabilityService.getAvailableDrinks().isEmpty());
+        verify(drinkRepository, times(2)).findDrinkIngredientStock();
+    }
+}
@@ -0,0 +1,61 @@
+package test.example.coffeemachineservice.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import test.example.coffeemachineservice.dto.catalog.DrinkCompositionDto;
+import test.example.coffeemachineservice.exception.DrinkException;
+import test.example.coffeemachineservice.mapper.DrinkMapper;
+import test.example.coffeemachineservice.persistent.entity.Drink;
+import test.example.coffeemachineservice.persistent.repository.DrinkRepository;
+import test.example.coffeemachineservice.service.impl.DrinkCatalogServiceImpl;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+import static org.springframework.http.HttpStatus.NOT_FOUND;
+import static test.example.coffeemachineservice.data.CoffeeMachineData.COFFEE_RAF_NAME;
+
+@ExtendWith(MockitoExtension.class)
+class DrinkCatalogServiceTest {
+
+    @Mock
+    private DrinkRepository drinkRepository;
+
+    @Mock
+    private DrinkMapper drinkMapper;
+
+    @InjectMocks
+    private DrinkCatalogServiceImpl drinkCatalogService;
+
+    @Test
+    void givenExistingDrink_whenGetDrinkComposition_thenReturnsComposition() {
+        Drink drink = Drink.builder().drinkName(COFFEE_RAF_NAME).build();
+        DrinkCompositionDto expectedComposition = DrinkCompositionDto.builder().drinkName(COFFEE_RAF_NAME).build();
+
+        when(drinkRepository.findWithCompositionByDrinkName(COFFEE_RAF_NAME)).thenReturn(Optional.of(drink));
+        when(drinkMapper.mapToDrinkCompositionDto(drink)).thenReturn(expectedComposition);
+
+        DrinkCompositionDto result = drinkCatalogService.getDrinkComposition(COFFEE_RAF_NAME);
+
+        assertEquals(expectedComposition, result);
+        verify(drinkRepository).findWithCompositionByDrinkName(COFFEE_RAF_NAME);
+    }
+
+    @Test
+    void givenNonExistingDrink_whenGetDrinkComposition_thenReturnsNotFound() {
+        when(drinkRepository.findWithCompositionByDrinkName(COFFEE_RAF_NAME)).thenReturn(Optional.empty());
+
+        DrinkException exception = assertThrows(DrinkException.class,
+                () -> drinkCatalogService.getDrinkComposition(COFFEE_RAF_NAME));
+
+        assertEquals(NOT_FOUND, exception.getStatus());
+        verifyNoInteractions(drinkMapper);
+    }
+}
@@ -0,0 +1,108 @@
+package test.example.coffeemachineservice.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import test.example.coffeemachineservice.configuration.CoffeeMachineProperties;
+import test.example.coffeemachineservice.dto.response.PopularDrinkResponseDto;
+import test.example.coffeemachineservice.persistent.repository.OrderRepository;
+import test.example.coffeemachineservice.service.impl.DrinkPopularityServiceImpl;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+import static test.example.coffeemachineservice.constant.ApplicationConstant.MINUTES_MAKE_DRINK;
+import static test.example.coffeemachineservice.data.CoffeeMachineData.COFFEE_LATTE_NAME;
+import static test.example.coffeemachineservice.data.CoffeeMachineData.COFFEE_RAF_NAME;
+import static test.example.coffeemachineservice.data.CoffeeMachineData.createCompletedOrderView;
+import static test.example.coffeemachineservice.data.CoffeeMachineData.createDrinkOrdersCountView;
+import static test.example.coffeemachineservice.persistent.enums.OrderStatus.COMPLETED;
+import static test.example.coffeemachineservice.popularity.PopularityWindow.DAY;
+import static test.example.coffeemachineservice.popularity.PopularityWindow.HOUR;
+import static test.example.coffeemachineservice.popularity.PopularityWindow.WEEK;
+
+@ExtendWith(MockitoExtension.class)
+class DrinkPopularityServiceTest {
+
+    @Mock
+    private OrderRepository orderRepository;
+
+    private DrinkPopularityServiceImpl drinkPopularityService;
+
+    private final UUID rafId = UUID.randomUUID();
+
+    private final UUID latteId = UUID.randomUUID();
+
+    @BeforeEach
+    void setUp() {
+        drinkPopularityService = new DrinkPopularityServiceImpl(orderRepository, new CoffeeMachineProperties());
+    }
+
+    @Test
+    void givenCompletedOrders_whenGetTopDrinks_thenRanksWithoutDatabase() {
+        drinkPopularityService.recordCompletedOrders(List.of(
+                createCompletedOrderView(UUID.randomUUID(), rafId, COFFEE_RAF_NAME),
+                createCompletedOrderView(UUID.randomUUID(), latteId, COFFEE_LATTE_NAME),
+                createCompletedOrderView(UUID.randomUUID(), latteId, COFFEE_LATTE_NAME)));
+
+        List<PopularDrinkResponseDto> overall = drinkPopularityService.getTopDrinks(10);
+        List<PopularDrinkResponseDto> lastHour = drinkPopularityService.getTopDrinks(HOUR, 1);
+
+        assertEquals(List.of(COFFEE_LATTE_NAME, COFFEE_RAF_NAME),
+                overall.stream().map(PopularDrinkResponseDto::getDrinkName).toList());
+        assertEquals(2, overall.get(0).getOrdersCount());
+        assertEquals(1, lastHour.size());
+        assertEquals(latteId.toString(), lastHour.get(0).getDrinkId());
+        verifyNoInteractions(orderRepository);
+    }
+
+    @Test
+    void givenCompletedOrdersInDatabase_whenRestore_thenSeedsOverallAndWindows() {
+        when(orderRepository.countOrdersByDrink(COMPLETED.getCode())).thenReturn(List.of(
+                createDrinkOrdersCountView(rafId, COFFEE_RAF_NAME, null, 40),
+                createDrinkOrdersCountView(latteId, COFFEE_LATTE_NAME, null, 7)));
+        when(orderRepository.countOrdersByDrinkPerMinute(eq(COMPLETED.getCode()), any(LocalDateTime.class),
+                any(LocalDateTime.class)))
+                .thenReturn(List.of(
+                        createDrinkOrdersCountView(latteId, COFFEE_LATTE_NAME, LocalDateTime.now().minusMinutes(10), 2),
+                        createDrinkOrdersCountView(rafId, COFFEE_RAF_NAME, LocalDateTime.now().minusHours(5), 3)));
+
+        drinkPopularityService.restore();
+
+        assertEquals(40, drinkPopularityService.getTopDrinks(1).get(0).getOrdersCount());
+        List<PopularDrinkResponseDto> lastHour = drinkPopularityService.getTopDrinks(HOUR, 10);
+        assertEquals(1, lastHour.size());
+        assertEquals(COFFEE_LATTE_NAME, lastHour.get(0).getDrinkName());
+        assertEquals(COFFEE_RAF_NAME, drinkPopularityService.getTopDrinks(DAY, 10).get(0).getDrinkName());
+        assertEquals(2, drinkPopularityService.getTopDrinks(WEEK, 10).size());
+    }
+
+    @Test
+    void givenRestore_whenCountWindowOrders_thenBoundsCreatedAtByOrderLifetime() {
+        ArgumentCaptor<LocalDateTime> createdSince = ArgumentCaptor.forClass(LocalDateTime.class);
+        ArgumentCaptor<LocalDateTime> since = ArgumentCaptor.forClass(LocalDateTime.class);
+
+        drinkPopularityService.restore();
+
+        verify(orderRepository).countOrdersByDrinkPerMinute(eq(COMPLETED.getCode()), createdSince.capture(),
+                since.capture());
+        assertEquals(since.getValue().minusHours(1).minusMinutes(MINUTES_MAKE_DRINK), createdSince.getValue());
+    }
+
+    @Test
+    void givenNoCompletedOrders_whenGetTopDrinks_thenReturnsEmptyRanking() {
+        assertTrue(drinkPopularityService.getTopDrinks(10).isEmpty());
+        assertTrue(drinkPopularityService.getTopDrinks(WEEK, 10).isEmpty());
+    }
+}
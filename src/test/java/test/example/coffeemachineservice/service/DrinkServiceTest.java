@@ -1,52 +1,87 @@
 package test.example.coffeemachineservice.service;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+import test.example.coffeemachineservice.configuration.CoffeeMachineProperties;
+import test.example.coffeemachineservice.dto.catalog.DrinkCompositionDto;
 import test.example.coffeemachineservice.dto.request.AddNewDrinkRequestDto;
 import test.example.coffeemachineservice.dto.request.MakeDrinkRequestDto;
+import test.example.coffeemachineservice.dto.request.MakeDrinksBatchRequestDto;
 import test.example.coffeemachineservice.dto.response.DrinkResponseDto;
+import test.example.coffeemachineservice.dto.response.MakeDrinkResultDto;
+import test.example.coffeemachineservice.dto.response.OrderResponseDto;
 import test.example.coffeemachineservice.exception.DrinkException;
+import test.example.coffeemachineservice.exception.IngredientException;
+import test.example.coffeemachineservice.exception.OrderException;
+import test.example.coffeemachineservice.exception.OverloadException;
 import test.example.coffeemachineservice.exception.RecipeException;
 import test.example.coffeemachineservice.mapper.DrinkMapper;
 import test.example.coffeemachineservice.persistent.entity.Drink;
 import test.example.coffeemachineservice.persistent.entity.Recipe;
 import test.example.coffeemachineservice.persistent.repository.DrinkRepository;
+import test.example.coffeemachineservice.persistent.repository.IdempotencyKeyRepository;
 import test.example.coffeemachineservice.persistent.repository.RecipeRepository;
+import test.example.coffeemachineservice.service.impl.AdmissionControlServiceImpl;
 import test.example.coffeemachineservice.service.impl.DrinkServiceImpl;
+import test.example.coffeemachineservice.service.impl.IdempotencyServiceImpl;
 
 import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.function.Supplier;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.when;
+import static org.springframework.http.HttpStatus.CONFLICT;
+import static org.springframework.http.HttpStatus.NOT_FOUND;
+import static org.springframework.http.HttpStatus.SERVICE_UNAVAILABLE;
+import static test.example.coffeemachineservice.constant.ApplicationConstant.BREWING_QUEUE_FULL_MESSAGE;
 import static test.example.coffeemachineservice.constant.ApplicationConstant.DRINK_DELETED_MESSAGE;
+import static test.example.coffeemachineservice.constant.ApplicationConstant.DRINK_NOT_FOUND_MESSAGE;
+import static test.example.coffeemachineservice.constant.ApplicationConstant.MISSING_INGREDIENTS_MESSAGE;
 import static test.example.coffeemachineservice.constant.ApplicationConstant.NOT_POSSIBLE_DELETE_DRINKS_MESSAGE;
+import static test.example.coffeemachineservice.constant.ApplicationConstant.ORDER_QUEUED_MESSAGE;
+import static test.example.coffeemachineservice.constant.ApplicationConstant.SERVICE_OVERLOADED_MESSAGE;
 import static test.example.coffeemachineservice.constant.ApplicationConstant.WAIT_UNTIL_READY_MESSAGE;
+import static test.example.coffeemachineservice.data.CoffeeMachineData.COFFEE_LATTE_NAME;
+import static test.example.coffeemachineservice.data.CoffeeMachineData.COFFEE_MILK_NAME;
 import static test.example.coffeemachineservice.data.CoffeeMachineData.COFFEE_RAF_NAME;
 import static test.example.coffeemachineservice.data.CoffeeMachineData.TEST_UUID;
 import static test.example.coffeemachineservice.data.CoffeeMachineData.createAddNewDrinkRequestDto;
-import static test.example.coffeemachineservice.persistent.enums.OrderStatus.COMPLETED;
 import static test.example.coffeemachineservice.persistent.enums.OrderStatus.CREATED;
-import static test.example.coffeemachineservice.persistent.enums.OrderStatus.PROGRESS;
 import static test.example.coffeemachineservice.persistent.enums.OrderStatus.REFUSED;
 
 @ExtendWith(MockitoExtension.class)
@@ -61,16 +96,55 @@ class DrinkServiceTest {
     private DrinkMapper drinkMapper;
 
     @Mock
-    private IngredientService ingredientService;
+    private IngredientReservationService ingredientReservationService;
 
     @Mock
     private OrderService orderService;
 
+    @Mock
+    private DrinkCatalogService drinkCatalogService;
+
+    @Mock
+    private BrewingQueueService brewingQueueService;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @Mock
+    private TaskExecutor orderPipelineExecutor;
+
+    @Mock
+    private OrderCounterService orderCounterService;
+
+    @Mock
+    private IdempotencyService idempotencyService;
+
+    @Mock
+    private AdmissionControlService admissionControlService;
+
+    @Mock
+    private DrinkAvailabilityService drinkAvailabilityService;
+
     @InjectMocks
     private DrinkServiceImpl drinkService;
 
     private final UUID orderId = UUID.randomUUID();
 
+    @BeforeEach
+    void setUp() {
+        lenient().when(admissionControlService.admit(any()))
+                .thenAnswer(invocation -> invocation.<Supplier<?>>getArgument(0).get());
+        lenient().when(admissionControlService.admit(anyInt(), any()))
+                .thenAnswer(invocation -> invocation.<Supplier<?>>getArgument(1).get());
+    }
+
+    private final DrinkCompositionDto composition = DrinkCompositionDto.builder()
+            .drinkId(UUID.randomUUID())
+            .drinkName(COFFEE_RAF_NAME)
+            .recipeId(UUID.randomUUID())
+            .ingredients(new ArrayList<>())
+            .build();
+
     @Test
     void givenValidAddNewDrinkRequestDto_whenAddDrink_thenReturnsSuccess() {
         AddNewDrinkRequestDto requestDto = createAddNewDrinkRequestDto();
@@ -86,6 +160,7 @@ class DrinkServiceTest {
         verify(drinkRepository).save(drink);
         verify(drinkRepository).findByDrinkName(COFFEE_RAF_NAME);
         verify(recipeRepository).findByRecipeName(COFFEE_RAF_NAME);
+        verify(drinkAvailabilityService).invalidate();
     }
 
     @Test
@@ -143,26 +218,51 @@ class DrinkServiceTest {
     void givenValidDrinkRequest_whenMakeDrink_thenReturnsSuccess() {
         MakeDrinkRequestDto requestDto = MakeDrinkRequestDto.builder().build();
         requestDto.setDrinkName(COFFEE_RAF_NAME);
+        Drink drinkReference = Drink.builder().drinkId(composition.getDrinkId()).build();
 
-        Drink drink = Drink.builder().build();
-        Recipe recipe = Recipe.builder().build();
-        recipe.setRecipeIngredients(new ArrayList<>());
-        drink.setRecipe(recipe);
+        when(drinkCatalogService.getDrinkComposition(COFFEE_RAF_NAME)).thenReturn(composition);
+        when(drinkRepository.getReferenceById(composition.getDrinkId())).thenReturn(drinkReference);
+        when(orderService.createOrder(any(), any())).thenReturn(orderId);
+        when(ingredientReservationService.reserveRecipeIngredients(orderId, composition.getRecipeId())).thenReturn(Collections.emptyList());
 
-        when(drinkRepository.findByDrinkName(COFFEE_RAF_NAME)).thenReturn(Optional.of(drink));
-        when(orderService.createOrder(any(), anyString())).thenReturn(orderId);
-        when(ingredientService.checkAmountIngredients(anyList())).thenReturn(true);
-
-        String result = drinkService.makeDrink(requestDto);
+        String result = drinkService.makeDrink(requestDto, null);
 
         assertEquals(WAIT_UNTIL_READY_MESSAGE, result);
-        verify(drinkRepository).findByDrinkName(COFFEE_RAF_NAME);
-        verify(orderService).createOrder(drink, CREATED.getStatusName());
-        verify(ingredientService).checkAmountIngredients(anyList());
-        verify(ingredientService).reduceIngredientQuantities(anyList());
-        verify(orderService).updateOrderStatus(orderId, PROGRESS.getStatusName());
-        verify(orderService).updateOrderStatusAfterDelay(eq(orderId), eq(COMPLETED), any(Duration.class));
-        verify(drinkRepository).save(drink);
+        verify(drinkCatalogService).getDrinkComposition(COFFEE_RAF_NAME);
+        verify(orderService).createOrder(drinkReference, CREATED);
+        verify(ingredientReservationService).reserveRecipeIngredients(orderId, composition.getRecipeId());
+        verify(orderService).enqueueOrder(orderId);
+        verify(orderCounterService).increment(composition.getDrinkId(), 1);
+        verify(drinkRepository, never()).findByDrinkName(any());
+    }
+
+    @Test
+    void givenBusyBrewingSlots_whenMakeDrink_thenReturnsQueuePosition() {
+        MakeDrinkRequestDto requestDto = MakeDrinkRequestDto.builder().drinkName(COFFEE_RAF_NAME).build();
+
+        when(drinkCatalogService.getDrinkComposition(COFFEE_RAF_NAME)).thenReturn(composition);
+        when(orderService.createOrder(any(), any())).thenReturn(orderId);
+        when(ingredientReservationService.reserveRecipeIngredients(orderId, composition.getRecipeId())).thenReturn(Collections.emptyList());
+        when(orderService.enqueueOrder(orderId)).thenReturn(2);
+
+        String result = drinkService.makeDrink(requestDto, null);
+
+        assertEquals(String.format(ORDER_QUEUED_MESSAGE, 2), result);
+        verify(orderCounterService).increment(composition.getDrinkId(), 1);
+    }
+
+    @Test
+    void givenBrewingQueueFilledConcurrently_whenMakeDrink_thenRefusesOrder() {
+        MakeDrinkRequestDto requestDto = MakeDrinkRequestDto.builder().drinkName(COFFEE_RAF_NAME).build();
+
+        when(drinkCatalogService.getDrinkComposition(COFFEE_RAF_NAME)).thenReturn(composition);
+        when(orderService.createOrder(any(), any())).thenReturn(orderId);
+        when(ingredientReservationService.reserveRecipeIngredients(orderId, composition.getRecipeId())).thenReturn(Collections.emptyList());
+        when(orderService.enqueueOrder(orderId)).thenThrow(new OrderException(BREWING_QUEUE_FULL_MESSAGE));
+
+        assertThrows(OrderException.class, () -> drinkService.makeDrink(requestDto, null));
+        verify(orderService).updateOrderStatus(orderId, REFUSED);
+        verify(orderCounterService, never()).increment(any(), anyInt());
     }
 
     @Test
@@ -170,11 +270,12 @@ class DrinkServiceTest {
         MakeDrinkRequestDto requestDto = MakeDrinkRequestDto.builder().build();
         requestDto.setDrinkName(COFFEE_RAF_NAME);
 
-        when(drinkRepository.findByDrinkName(COFFEE_RAF_NAME)).thenReturn(Optional.empty());
+        when(drinkCatalogService.getDrinkComposition(COFFEE_RAF_NAME))
+                .thenThrow(new DrinkException(NOT_FOUND, DRINK_NOT_FOUND_MESSAGE));
 
-        assertThrows(DrinkException.class, () -> drinkService.makeDrink(requestDto));
-        verify(drinkRepository).findByDrinkName(COFFEE_RAF_NAME);
-        verifyNoInteractions(orderService, ingredientService);
+        assertThrows(DrinkException.class, () -> drinkService.makeDrink(requestDto, null));
+        verify(drinkCatalogService).getDrinkComposition(COFFEE_RAF_NAME);
+        verifyNoInteractions(orderService, ingredientReservationService);
     }
 
     @Test
@@ -182,17 +283,293 @@ class DrinkServiceTest {
         MakeDrinkRequestDto requestDto = MakeDrinkRequestDto.builder().build();
         requestDto.setDrinkName(COFFEE_RAF_NAME);
 
-        Drink drink = Drink.builder().build();
-        Recipe recipe = Recipe.builder().build();
-        recipe.setRecipeIngredients(new ArrayList<>());
-        drink.setRecipe(recipe);
+        when(drinkCatalogService.getDrinkComposition(COFFEE_RAF_NAME)).thenReturn(composition);
+        when(orderService.createOrder(any(), any())).thenReturn(orderId);
+        when(ingredientReservationService.reserveRecipeIngredients(orderId, composition.getRecipeId())).thenReturn(List.of(COFFEE_MILK_NAME));
 
-        when(drinkRepository.findByDrinkName(COFFEE_RAF_NAME)).thenReturn(Optional.of(drink));
-        when(orderService.createOrder(any(), anyString())).thenReturn(orderId);
-        when(ingredientService.checkAmountIngredients(anyList())).thenReturn(false);
+        DrinkException exception = assertThrows(DrinkException.class, () -> drinkService.makeDrink(requestDto, null));
 
-        assertThrows(DrinkException.class, () -> drinkService.makeDrink(requestDto));
-        verify(orderService).updateOrderStatus(orderId, REFUSED.getStatusName());
+        assertEquals(String.format(MISSING_INGREDIENTS_MESSAGE, COFFEE_MILK_NAME), exception.getMessage());
+        verify(orderService).updateOrderStatus(orderId, REFUSED);
+        verify(orderService, never()).enqueueOrder(any());
+    }
+
+    @Test
+    void givenOverloadedService_whenMakeDrink_thenShedsBeforeCreatingOrder() {
+        MakeDrinkRequestDto requestDto = MakeDrinkRequestDto.builder().drinkName(COFFEE_RAF_NAME).build();
+
+        doThrow(new OverloadException(SERVICE_OVERLOADED_MESSAGE, Duration.ofSeconds(1)))
+                .when(admissionControlService).admit(any());
+
+        assertThrows(OverloadException.class, () -> drinkService.makeDrink(requestDto, null));
+        verifyNoInteractions(drinkCatalogService, orderService, ingredientReservationService, idempotencyService);
+    }
+
+    @Test
+    void givenIdempotencyKey_whenMakeDrink_thenDelegatesToIdempotencyService() {
+        MakeDrinkRequestDto requestDto = MakeDrinkRequestDto.builder().drinkName(COFFEE_RAF_NAME).build();
+
+        when(idempotencyService.execute(eq("order-42"), anyString(), eq(COFFEE_RAF_NAME), eq(String.class), any()))
+                .thenReturn(WAIT_UNTIL_READY_MESSAGE);
+
+        String result = drinkService.makeDrink(requestDto, "order-42");
+
+        assertEquals(WAIT_UNTIL_READY_MESSAGE, result);
+        verifyNoInteractions(drinkCatalogService, orderService, ingredientReservationService);
+    }
+
+    @Test
+    void givenSaturatedAdmissionAndReplayedKey_whenMakeDrink_thenReturnsOriginalOrder() {
+        MakeDrinkRequestDto requestDto = MakeDrinkRequestDto.builder().drinkName(COFFEE_RAF_NAME).build();
+        CoffeeMachineProperties properties = new CoffeeMachineProperties();
+        properties.getAdmission().setMaxInFlight(1);
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        AdmissionControlServiceImpl admission =
+                new AdmissionControlServiceImpl(brewingQueueService, properties, meterRegistry);
+        IdempotencyServiceImpl idempotency = new IdempotencyServiceImpl(mock(IdempotencyKeyRepository.class),
+                new ObjectMapper(), properties, meterRegistry);
+        DrinkServiceImpl service = new DrinkServiceImpl(drinkRepository, drinkMapper, recipeRepository, orderService,
+                ingredientReservationService, drinkCatalogService, orderCounterService, brewingQueueService,
+                transactionTemplate, orderPipelineExecutor, idempotency, admission, drinkAvailabilityService);
+
+        when(brewingQueueService.getFreeCapacity()).thenReturn(10);
+        when(drinkCatalogService.getDrinkComposition(COFFEE_RAF_NAME)).thenReturn(composition);
+        when(orderService.createOrder(any(), any())).thenReturn(orderId);
+        when(ingredientReservationService.reserveRecipeIngredients(orderId, composition.getRecipeId())).thenReturn(Collections.emptyList());
+        when(orderService.enqueueOrder(orderId)).thenReturn(2);
+
+        String original = service.makeDrink(requestDto, "order-42");
+        // Единственное место занято другим запросом: новый ключ отклоняется, повтор получает исходный ответ
+        String replayed = admission.admit(() -> {
+            assertThrows(OverloadException.class, () -> service.makeDrink(requestDto, "order-43"));
+            return service.makeDrink(requestDto, "order-42");
+        });
+
+        assertEquals(String.format(ORDER_QUEUED_MESSAGE, 2), original);
+        assertEquals(original, replayed);
+        verify(orderService).createOrder(any(), any());
+        assertEquals(1.0, meterRegistry.get("coffee.idempotency.replayed").counter().count());
+    }
+
+    @Test
+    void givenValidDrinkRequest_whenMakeDrinkAsync_thenReturnsCreatedOrderAndBrewsInBackground() {
+        MakeDrinkRequestDto requestDto = MakeDrinkRequestDto.builder().drinkName(COFFEE_RAF_NAME).build();
+
+        when(drinkCatalogService.getDrinkComposition(COFFEE_RAF_NAME)).thenReturn(composition);
+        when(orderService.createOrder(any(), any())).thenReturn(orderId);
+        when(ingredientReservationService.reserveRecipeIngredients(orderId, composition.getRecipeId())).thenReturn(Collections.emptyList());
+        doAnswer(invocation -> {
+            invocation.<Runnable>getArgument(0).run();
+            return null;
+        }).when(orderPipelineExecutor).execute(any());
+
+        OrderResponseDto result = drinkService.makeDrinkAsync(requestDto, null);
+
+        assertEquals(orderId.toString(), result.getOrderId());
+        assertEquals(CREATED.getStatusName(), result.getStatus());
+        verify(orderService).enqueueOrder(orderId);
+        verify(orderCounterService).increment(composition.getDrinkId(), 1);
+    }
+
+    @Test
+    void givenInsufficientIngredients_whenMakeDrinkAsync_thenRefusesOrderInBackground() {
+        MakeDrinkRequestDto requestDto = MakeDrinkRequestDto.builder().drinkName(COFFEE_RAF_NAME).build();
+
+        when(drinkCatalogService.getDrinkComposition(COFFEE_RAF_NAME)).thenReturn(composition);
+        when(orderService.createOrder(any(), any())).thenReturn(orderId);
+        when(ingredientReservationService.reserveRecipeIngredients(orderId, composition.getRecipeId())).thenReturn(List.of(COFFEE_MILK_NAME));
+        doAnswer(invocation -> {
+            invocation.<Runnable>getArgument(0).run();
+            return null;
+        }).when(orderPipelineExecutor).execute(any());
+
+        OrderResponseDto result = drinkService.makeDrinkAsync(requestDto, null);
+
+        assertEquals(orderId.toString(), result.getOrderId());
+        verify(orderService).updateOrderStatus(orderId, REFUSED);
+        verify(orderService, never()).enqueueOrder(any());
+    }
+
+    @Test
+    void givenUnexpectedFailure_whenMakeDrinkAsync_thenRefusesOnlyNotStartedOrder() {
+        MakeDrinkRequestDto requestDto = MakeDrinkRequestDto.builder().drinkName(COFFEE_RAF_NAME).build();
+
+        when(drinkCatalogService.getDrinkComposition(COFFEE_RAF_NAME)).thenReturn(composition);
+        when(orderService.createOrder(any(), any())).thenReturn(orderId);
+        when(ingredientReservationService.reserveRecipeIngredients(orderId, composition.getRecipeId())).thenReturn(Collections.emptyList());
+        doThrow(new IllegalStateException("счётчик недоступен"))
+                .when(orderCounterService).increment(composition.getDrinkId(), 1);
+        doAnswer(invocation -> {
+            invocation.<Runnable>getArgument(0).run();
+            return null;
+        }).when(orderPipelineExecutor).execute(any());
+
+        drinkService.makeDrinkAsync(requestDto, null);
+
+        verify(orderService).enqueueOrder(orderId);
+        verify(orderService).refuseOrders(List.of(orderId));
+        verify(orderService, never()).updateOrderStatus(any(), any());
+    }
+
+    @Test
+    void givenBusyOrderPipeline_whenMakeDrinkAsync_thenRefusesOrderWithServiceUnavailable() {
+        MakeDrinkRequestDto requestDto = MakeDrinkRequestDto.builder().drinkName(COFFEE_RAF_NAME).build();
+
+        when(drinkCatalogService.getDrinkComposition(COFFEE_RAF_NAME)).thenReturn(composition);
+        when(orderService.createOrder(any(), any())).thenReturn(orderId);
+        doThrow(new TaskRejectedException("queue full")).when(orderPipelineExecutor).execute(any());
+
+        OrderException exception = assertThrows(OrderException.class, () -> drinkService.makeDrinkAsync(requestDto, null));
+
+        assertEquals(SERVICE_UNAVAILABLE, exception.getStatus());
+        verify(orderService).updateOrderStatus(orderId, REFUSED);
+        verifyNoInteractions(ingredientReservationService);
+    }
+
+    @Test
+    void givenMixedBatch_whenMakeDrinks_thenReturnsResultPerDrink() {
+        DrinkCompositionDto latteComposition = DrinkCompositionDto.builder()
+                .drinkId(UUID.randomUUID())
+                .drinkName(COFFEE_LATTE_NAME)
+                .recipeId(UUID.randomUUID())
+                .ingredients(new ArrayList<>())
+                .build();
+        MakeDrinksBatchRequestDto requestDto = MakeDrinksBatchRequestDto.builder()
+                .drinks(List.of(
+                        MakeDrinkRequestDto.builder().drinkName(COFFEE_RAF_NAME).build(),
+                        MakeDrinkRequestDto.builder().drinkName(COFFEE_MILK_NAME).build(),
+                        MakeDrinkRequestDto.builder().drinkName(COFFEE_LATTE_NAME).build()))
+                .build();
+        UUID refusedOrderId = UUID.randomUUID();
+
+        when(brewingQueueService.getFreeCapacity()).thenReturn(10);
+        when(drinkCatalogService.getDrinkComposition(COFFEE_RAF_NAME)).thenReturn(composition);
+        when(drinkCatalogService.getDrinkComposition(COFFEE_MILK_NAME))
+                .thenThrow(new DrinkException(NOT_FOUND, DRINK_NOT_FOUND_MESSAGE));
+        when(drinkCatalogService.getDrinkComposition(COFFEE_LATTE_NAME)).thenReturn(latteComposition);
+        when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        when(orderService.createOrders(any(), eq(CREATED))).thenReturn(List.of(orderId, refusedOrderId));
+        when(ingredientReservationService.reserveBatchIngredients(List.of(orderId, refusedOrderId),
+                List.of(composition, latteComposition)))
+                .thenReturn(List.of(Collections.emptyList(), List.of(COFFEE_MILK_NAME)));
+        when(orderService.enqueueOrders(List.of(orderId))).thenReturn(Map.of(orderId, 0));
+
+        List<MakeDrinkResultDto> results = drinkService.makeDrinks(requestDto);
+
+        assertEquals(3, results.size());
+        assertTrue(results.get(0).isAccepted());
+        assertEquals(orderId.toString(), results.get(0).getOrderId());
+        assertEquals(WAIT_UNTIL_READY_MESSAGE, results.get(0).getMessage());
+        assertFalse(results.get(1).isAccepted());
+        assertEquals(DRINK_NOT_FOUND_MESSAGE, results.get(1).getMessage());
+        assertFalse(results.get(2).isAccepted());
+        assertEquals(refusedOrderId.toString(), results.get(2).getOrderId());
+        assertEquals(String.format(MISSING_INGREDIENTS_MESSAGE, COFFEE_MILK_NAME), results.get(2).getMessage());
+        verify(orderService).refuseOrders(List.of(refusedOrderId));
+        verify(orderCounterService).increment(composition.getDrinkId(), 1);
+        verify(orderCounterService, never()).increment(eq(latteComposition.getDrinkId()), anyInt());
+    }
+
+    @Test
+    void givenOverloadedService_whenMakeDrinks_thenShedsWholeBatchByItsSize() {
+        MakeDrinksBatchRequestDto requestDto = MakeDrinksBatchRequestDto.builder()
+                .drinks(List.of(
+                        MakeDrinkRequestDto.builder().drinkName(COFFEE_RAF_NAME).build(),
+                        MakeDrinkRequestDto.builder().drinkName(COFFEE_RAF_NAME).build(),
+                        MakeDrinkRequestDto.builder().drinkName(COFFEE_LATTE_NAME).build()))
+                .build();
+
+        doThrow(new OverloadException(SERVICE_OVERLOADED_MESSAGE, Duration.ofSeconds(1)))
+                .when(admissionControlService).admit(eq(3), any());
+
+        assertThrows(OverloadException.class, () -> drinkService.makeDrinks(requestDto));
+        verifyNoInteractions(drinkCatalogService, orderService, ingredientReservationService, transactionTemplate);
+    }
+
+    @Test
+    void givenBatchLargerThanFreeCapacity_whenMakeDrinks_thenRefusesOverflowWithoutReservation() {
+        MakeDrinksBatchRequestDto requestDto = MakeDrinksBatchRequestDto.builder()
+                .drinks(List.of(
+                        MakeDrinkRequestDto.builder().drinkName(COFFEE_RAF_NAME).build(),
+                        MakeDrinkRequestDto.builder().drinkName(COFFEE_RAF_NAME).build()))
+                .build();
+
+        when(brewingQueueService.getFreeCapacity()).thenReturn(1);
+        when(drinkCatalogService.getDrinkComposition(COFFEE_RAF_NAME)).thenReturn(composition);
+        when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        when(orderService.createOrders(any(), eq(CREATED))).thenReturn(List.of(orderId));
+        when(ingredientReservationService.reserveBatchIngredients(List.of(orderId), List.of(composition)))
+                .thenReturn(List.of(Collections.emptyList()));
+        when(orderService.enqueueOrders(List.of(orderId))).thenReturn(Map.of(orderId, 3));
+
+        List<MakeDrinkResultDto> results = drinkService.makeDrinks(requestDto);
+
+        assertEquals(String.format(ORDER_QUEUED_MESSAGE, 3), results.get(0).getMessage());
+        assertFalse(results.get(1).isAccepted());
+        assertEquals(BREWING_QUEUE_FULL_MESSAGE, results.get(1).getMessage());
+    }
+
+    @Test
+    void givenQueueFilledAfterCommit_whenMakeDrinks_thenRefusesOrder() {
+        MakeDrinksBatchRequestDto requestDto = MakeDrinksBatchRequestDto.builder()
+                .drinks(List.of(MakeDrinkRequestDto.builder().drinkName(COFFEE_RAF_NAME).build()))
+                .build();
+
+        when(brewingQueueService.getFreeCapacity()).thenReturn(1);
+        when(drinkCatalogService.getDrinkComposition(COFFEE_RAF_NAME)).thenReturn(composition);
+        when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        when(orderService.createOrders(any(), eq(CREATED))).thenReturn(List.of(orderId));
+        when(ingredientReservationService.reserveBatchIngredients(List.of(orderId), List.of(composition)))
+                .thenReturn(List.of(Collections.emptyList()));
+        when(orderService.enqueueOrders(List.of(orderId))).thenReturn(Collections.emptyMap());
+
+        List<MakeDrinkResultDto> results = drinkService.makeDrinks(requestDto);
+
+        assertFalse(results.get(0).isAccepted());
+        assertEquals(BREWING_QUEUE_FULL_MESSAGE, results.get(0).getMessage());
+        verify(orderService).updateOrderStatus(orderId, REFUSED);
+        verify(orderCounterService, never()).increment(any(), anyInt());
+    }
+
+    @Test
+    void givenConcurrentReservation_whenMakeDrinks_thenRetriesWholeBatch() {
+        MakeDrinksBatchRequestDto requestDto = MakeDrinksBatchRequestDto.builder()
+                .drinks(List.of(MakeDrinkRequestDto.builder().drinkName(COFFEE_RAF_NAME).build()))
+                .build();
+
+        when(brewingQueueService.getFreeCapacity()).thenReturn(1);
+        when(drinkCatalogService.getDrinkComposition(COFFEE_RAF_NAME)).thenReturn(composition);
+        when(transactionTemplate.execute(any()))
+                .thenThrow(new DataIntegrityViolationException("amount_reserved"))
+                .thenAnswer(invocation -> invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        when(orderService.createOrders(any(), eq(CREATED))).thenReturn(List.of(orderId));
+        when(ingredientReservationService.reserveBatchIngredients(List.of(orderId), List.of(composition)))
+                .thenReturn(List.of(Collections.emptyList()));
+        when(orderService.enqueueOrders(List.of(orderId))).thenReturn(Map.of(orderId, 0));
+
+        List<MakeDrinkResultDto> results = drinkService.makeDrinks(requestDto);
+
+        assertTrue(results.get(0).isAccepted());
+        verify(transactionTemplate, times(2)).execute(any());
+    }
+
+    @Test
+    void givenPermanentConcurrentReservations_whenMakeDrinks_thenReturnsConflict() {
+        MakeDrinksBatchRequestDto requestDto = MakeDrinksBatchRequestDto.builder()
+                .drinks(List.of(MakeDrinkRequestDto.builder().drinkName(COFFEE_RAF_NAME).build()))
+                .build();
+
+        when(brewingQueueService.getFreeCapacity()).thenReturn(1);
+        when(drinkCatalogService.getDrinkComposition(COFFEE_RAF_NAME)).thenReturn(composition);
+        when(transactionTemplate.execute(any())).thenThrow(new DataIntegrityViolationException("amount_reserved"));
+
+        IngredientException exception = assertThrows(IngredientException.class, () -> drinkService.makeDrinks(requestDto));
+
+        assertEquals(CONFLICT, exception.getStatus());
+        verify(orderService, never()).enqueueOrders(any());
     }
 
     @Test
@@ -206,7 +583,9 @@ class DrinkServiceTest {
         DrinkResponseDto result = drinkService.getPopularDrink();
 
         assertEquals(expectedResponse, result);
-        verify(drinkRepository).findMostPopularDrink();
+        InOrder inOrder = inOrder(orderCounterService, drinkRepository);
+        inOrder.verify(orderCounterService).flush();
+        inOrder.verify(drinkRepository).findMostPopularDrink();
         verify(drinkMapper).mapToDrinkResponseDto(drink);
     }
 
@@ -229,6 +608,7 @@ class DrinkServiceTest {
         assertEquals(DRINK_DELETED_MESSAGE, result);
         verify(drinkRepository).findById(UUID.fromString(TEST_UUID));
         verify(drinkRepository).delete(drink);
+        verify(drinkAvailabilityService).invalidate();
     }
 
     @Test
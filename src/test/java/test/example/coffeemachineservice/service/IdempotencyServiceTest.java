@@ -0,0 +1,279 @@
+package test.example.coffeemachineservice.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import test.example.coffeemachineservice.configuration.CoffeeMachineProperties;
+import test.example.coffeemachineservice.exception.DrinkException;
+import test.example.coffeemachineservice.exception.OrderException;
+import test.example.coffeemachineservice.persistent.entity.IdempotencyKey;
+import test.example.coffeemachineservice.persistent.repository.IdempotencyKeyRepository;
+import test.example.coffeemachineservice.service.impl.IdempotencyServiceImpl;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+import static org.springframework.http.HttpStatus.CONFLICT;
+import static org.springframework.http.HttpStatus.UNPROCESSABLE_ENTITY;
+import static test.example.coffeemachineservice.constant.ApplicationConstant.IDEMPOTENCY_KEY_IN_PROGRESS_MESSAGE;
+import static test.example.coffeemachineservice.constant.ApplicationConstant.NOT_ENOUGH_INGREDIENTS_MESSAGE;
+import static test.example.coffeemachineservice.constant.ApplicationConstant.WAIT_UNTIL_READY_MESSAGE;
+import static test.example.coffeemachineservice.data.CoffeeMachineData.COFFEE_LATTE_NAME;
+import static test.example.coffeemachineservice.data.CoffeeMachineData.COFFEE_RAF_NAME;
+
+@ExtendWith(MockitoExtension.class)
+class IdempotencyServiceTest {
+
+    private static final String KEY = "order-42";
+
+    private static final String OPERATION = "makeDrink";
+
+    @Mock
+    private IdempotencyKeyRepository idempotencyKeyRepository;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private IdempotencyServiceImpl idempotencyService;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        idempotencyService = new IdempotencyServiceImpl(idempotencyKeyRepository, objectMapper,
+                new CoffeeMachineProperties(), meterRegistry);
+    }
+
+    @Test
+    void givenRepeatedKey_whenExecute_thenReplaysFirstResultWithoutRunningAction() {
+        AtomicInteger calls = new AtomicInteger();
+
+        String first = idempotencyService.execute(KEY, OPERATION, COFFEE_RAF_NAME, String.class, () -> {
+            calls.incrementAndGet();
+            return WAIT_UNTIL_READY_MESSAGE;
+        });
+        String second = idempotencyService.execute(KEY, OPERATION, COFFEE_RAF_NAME, String.class, () -> {
+            calls.incrementAndGet();
+            return "второй ответ";
+        });
+
+        assertEquals(WAIT_UNTIL_READY_MESSAGE, first);
+        assertEquals(WAIT_UNTIL_READY_MESSAGE, second);
+        assertEquals(1, calls.get());
+        assertEquals(1.0, meterRegistry.get("coffee.idempotency.replayed").counter().count());
+        verifyNoInteractions(idempotencyKeyRepository);
+    }
+
+    @Test
+    void givenSameKeyForOtherOperation_whenExecute_thenRunsActionAgain() {
+        AtomicInteger calls = new AtomicInteger();
+
+        idempotencyService.execute(KEY, OPERATION, COFFEE_RAF_NAME, String.class, () -> "" + calls.incrementAndGet());
+        String result = idempotencyService.execute(KEY, "makeDrinkAsync", COFFEE_RAF_NAME, String.class,
+                () -> "" + calls.incrementAndGet());
+
+        assertEquals("2", result);
+    }
+
+    @Test
+    void givenKeyReusedForOtherDrink_whenExecute_thenUnprocessableEntity() {
+        idempotencyService.execute(KEY, OPERATION, COFFEE_RAF_NAME, String.class, () -> WAIT_UNTIL_READY_MESSAGE);
+
+        OrderException exception = assertThrows(OrderException.class, () ->
+                idempotencyService.execute(KEY, OPERATION, COFFEE_LATTE_NAME, String.class, () -> WAIT_UNTIL_READY_MESSAGE));
+
+        assertEquals(UNPROCESSABLE_ENTITY, exception.getStatus());
+    }
+
+    @Test
+    void givenFailedAction_whenExecuteAgain_thenRunsActionAgain() {
+        assertThrows(DrinkException.class, () ->
+                idempotencyService.execute(KEY, OPERATION, COFFEE_RAF_NAME, String.class, () -> {
+                    throw new DrinkException(NOT_ENOUGH_INGREDIENTS_MESSAGE);
+                }));
+
+        String result = idempotencyService.execute(KEY, OPERATION, COFFEE_RAF_NAME, String.class,
+                () -> WAIT_UNTIL_READY_MESSAGE);
+
+        assertEquals(WAIT_UNTIL_READY_MESSAGE, result);
+    }
+
+    @Test
+    void givenDurableStoreWithSavedResponse_whenExecute_thenReplaysStoredResponse() throws Exception {
+        IdempotencyServiceImpl durableService = createDurableService();
+        IdempotencyKey storedKey = IdempotencyKey.builder()
+                .idempotencyKey(OPERATION + ":" + KEY)
+                .fingerprint(COFFEE_RAF_NAME)
+                .response(objectMapper.writeValueAsString(WAIT_UNTIL_READY_MESSAGE))
+                .build();
+
+        when(idempotencyKeyRepository.claim(eq(OPERATION + ":" + KEY), eq(COFFEE_RAF_NAME), any(), any()))
+                .thenReturn(List.of());
+        when(idempotencyKeyRepository.findActive(eq(OPERATION + ":" + KEY), any(LocalDateTime.class)))
+                .thenReturn(Optional.of(storedKey));
+
+        String result = durableService.execute(KEY, OPERATION, COFFEE_RAF_NAME, String.class, () -> {
+            throw new IllegalStateException("действие не должно выполняться");
+        });
+
+        assertEquals(WAIT_UNTIL_READY_MESSAGE, result);
+        verify(idempotencyKeyRepository, never()).complete(any(), any(), any());
+    }
+
+    @Test
+    void givenDurableStoreWithoutKey_whenExecute_thenClaimsKeyBeforeActionAndSavesResponse() throws Exception {
+        IdempotencyServiceImpl durableService = createDurableService();
+
+        when(idempotencyKeyRepository.claim(eq(OPERATION + ":" + KEY), eq(COFFEE_RAF_NAME), any(), any()))
+                .thenReturn(List.of(OPERATION + ":" + KEY));
+
+        durableService.execute(KEY, OPERATION, COFFEE_RAF_NAME, String.class, () -> {
+            verify(idempotencyKeyRepository).claim(eq(OPERATION + ":" + KEY), eq(COFFEE_RAF_NAME), any(), any());
+            return WAIT_UNTIL_READY_MESSAGE;
+        });
+
+        verify(idempotencyKeyRepository).complete(eq(OPERATION + ":" + KEY),
+                eq(objectMapper.writeValueAsString(WAIT_UNTIL_READY_MESSAGE)), any(LocalDateTime.class));
+        verify(idempotencyKeyRepository, never()).findActive(any(), any());
+    }
+
+    @Test
+    void givenKeyClaimedByPendingRequest_whenExecute_thenConflict() {
+        IdempotencyServiceImpl durableService = createDurableService();
+        IdempotencyKey pendingKey = IdempotencyKey.builder()
+                .idempotencyKey(OPERATION + ":" + KEY)
+                .fingerprint(COFFEE_RAF_NAME)
+                .build();
+
+        when(idempotencyKeyRepository.claim(eq(OPERATION + ":" + KEY), eq(COFFEE_RAF_NAME), any(), any()))
+                .thenReturn(List.of());
+        when(idempotencyKeyRepository.findActive(eq(OPERATION + ":" + KEY), any(LocalDateTime.class)))
+                .thenReturn(Optional.of(pendingKey));
+
+        OrderException exception = assertThrows(OrderException.class, () ->
+                durableService.execute(KEY, OPERATION, COFFEE_RAF_NAME, String.class, () -> WAIT_UNTIL_READY_MESSAGE));
+
+        assertEquals(CONFLICT, exception.getStatus());
+        assertEquals(IDEMPOTENCY_KEY_IN_PROGRESS_MESSAGE, exception.getMessage());
+    }
+
+    @Test
+    void givenFailedActionInDurableStore_whenExecute_thenReleasesClaim() {
+        IdempotencyServiceImpl durableService = createDurableService();
+
+        when(idempotencyKeyRepository.claim(eq(OPERATION + ":" + KEY), eq(COFFEE_RAF_NAME), any(), any()))
+                .thenReturn(List.of(OPERATION + ":" + KEY));
+
+        assertThrows(DrinkException.class, () ->
+                durableService.execute(KEY, OPERATION, COFFEE_RAF_NAME, String.class, () -> {
+                    throw new DrinkException(NOT_ENOUGH_INGREDIENTS_MESSAGE);
+                }));
+
+        verify(idempotencyKeyRepository).releaseClaim(OPERATION + ":" + KEY);
+        verify(idempotencyKeyRepository, never()).complete(any(), any(), any());
+    }
+
+    @Test
+    void givenTwoInstancesSharingDurableStore_whenExecuteConcurrently_thenOnlyClaimOwnerRunsAction() throws Exception {
+        Map<String, IdempotencyKey> table = new ConcurrentHashMap<>();
+        stubDurableTable(table);
+        IdempotencyServiceImpl first = createDurableService();
+        IdempotencyServiceImpl second = createDurableService();
+        AtomicInteger calls = new AtomicInteger();
+        CountDownLatch actionStarted = new CountDownLatch(1);
+        CountDownLatch finishAction = new CountDownLatch(1);
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<String> owner = executor.submit(() -> first.execute(KEY, OPERATION, COFFEE_RAF_NAME, String.class, () -> {
+                calls.incrementAndGet();
+                actionStarted.countDown();
+                await(finishAction);
+                return WAIT_UNTIL_READY_MESSAGE;
+            }));
+            assertTrue(actionStarted.await(5, TimeUnit.SECONDS));
+
+            OrderException exception = assertThrows(OrderException.class, () ->
+                    second.execute(KEY, OPERATION, COFFEE_RAF_NAME, String.class, () -> "" + calls.incrementAndGet()));
+            finishAction.countDown();
+            String ownerResult = owner.get(5, TimeUnit.SECONDS);
+            String replayed = second.execute(KEY, OPERATION, COFFEE_RAF_NAME, String.class,
+                    () -> "" + calls.incrementAndGet());
+
+            assertEquals(CONFLICT, exception.getStatus());
+            assertEquals(WAIT_UNTIL_READY_MESSAGE, ownerResult);
+            assertEquals(WAIT_UNTIL_READY_MESSAGE, replayed);
+            assertEquals(1, calls.get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void givenInMemoryStore_whenPurgeExpired_thenSkipsDatabase() {
+        assertEquals(0, idempotencyService.purgeExpired());
+        verifyNoInteractions(idempotencyKeyRepository);
+    }
+
+    @Test
+    void givenDurableStore_whenPurgeExpired_thenDeletesExpiredKeys() {
+        IdempotencyServiceImpl durableService = createDurableService();
+
+        when(idempotencyKeyRepository.deleteExpired(any(LocalDateTime.class))).thenReturn(3);
+
+        assertEquals(3, durableService.purgeExpired());
+    }
+
+    // Таблица idempotency_keys, общая для экземпляров сервиса: занятие ключа атомарно, как INSERT ... ON CONFLICT
+    private void stubDurableTable(Map<String, IdempotencyKey> table) {
+        when(idempotencyKeyRepository.claim(any(), any(), any(), any())).thenAnswer(invocation -> {
+            IdempotencyKey claim = IdempotencyKey.builder()
+                    .idempotencyKey(invocation.getArgument(0))
+                    .fingerprint(invocation.getArgument(1))
+                    .build();
+            return table.putIfAbsent(claim.getIdempotencyKey(), claim) == null ? List.of(claim.getIdempotencyKey()) : List.of();
+        });
+        when(idempotencyKeyRepository.findActive(any(), any()))
+                .thenAnswer(invocation -> Optional.ofNullable(table.get(invocation.<String>getArgument(0))));
+        when(idempotencyKeyRepository.complete(any(), any(), any())).thenAnswer(invocation -> {
+            table.get(invocation.<String>getArgument(0)).setResponse(invocation.getArgument(1));
+            return 1;
+        });
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private IdempotencyServiceImpl createDurableService() {
+        CoffeeMachineProperties properties = new CoffeeMachineProperties();
+        properties.getIdempotency().setDurable(true);
+        return new IdempotencyServiceImpl(idempotencyKeyRepository, objectMapper, properties, new SimpleMeterRegistry());
+    }
+}
@@ -0,0 +1,213 @@
+package test.example.coffeemachineservice.service;
+
+import jakarta.persistence.Cache;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import test.example.coffeemachineservice.configuration.CoffeeMachineProperties;
+import test.example.coffeemachineservice.dto.catalog.DrinkCompositionDto;
+import test.example.coffeemachineservice.exception.IngredientException;
+import test.example.coffeemachineservice.persistent.entity.Ingredient;
+import test.example.coffeemachineservice.persistent.projection.IngredientStockView;
+import test.example.coffeemachineservice.persistent.repository.IngredientRepository;
+import test.example.coffeemachineservice.service.impl.IngredientReservationServiceImpl;
+
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+import static org.springframework.http.HttpStatus.CONFLICT;
+import static test.example.coffeemachineservice.data.CoffeeMachineData.COFFEE_MILK_NAME;
+import static test.example.coffeemachineservice.data.CoffeeMachineData.RECIPE_ID;
+import static test.example.coffeemachineservice.data.CoffeeMachineData.createIngredientStockView;
+
+@ExtendWith(MockitoExtension.class)
+class IngredientReservationServiceTest {
+
+    @Mock
+    private IngredientRepository ingredientRepository;
+
+    @Mock
+    private DrinkAvailabilityService drinkAvailabilityService;
+
+    @Mock
+    private EntityManagerFactory entityManagerFactory;
+
+    @Mock
+    private Cache entityCache;
+
+    private IngredientReservationServiceImpl ingredientReservationService;
+
+    private final UUID orderId = UUID.randomUUID();
+
+    private final UUID recipeId = UUID.fromString(RECIPE_ID);
+
+    @BeforeEach
+    void setUp() {
+        ingredientReservationService = new IngredientReservationServiceImpl(ingredientRepository,
+                drinkAvailabilityService, entityManagerFactory, new CoffeeMachineProperties());
+    }
+
+    @Test
+    void givenSufficientFreeStock_whenReserveRecipeIngredients_thenPlacesHoldUntilTtl() {
+        LocalDateTime before = LocalDateTime.now();
+
+        when(ingredientRepository.reserveRecipeIngredients(eq(orderId), eq(recipeId), any(LocalDateTime.class)))
+                .thenReturn(Collections.emptyList());
+
+        List<String> result = ingredientReservationService.reserveRecipeIngredients(orderId, recipeId);
+
+        assertTrue(result.isEmpty());
+        verify(ingredientRepository).reserveRecipeIngredients(eq(orderId), eq(recipeId),
+                argThat(expiresAt -> !expiresAt.isBefore(before.plusHours(1))));
+        verify(drinkAvailabilityService).recordReservation(recipeId);
+        verifyNoMoreInteractions(ingredientRepository);
+    }
+
+    @Test
+    void givenInsufficientFreeStock_whenReserveRecipeIngredients_thenReturnsMissingIngredients() {
+        when(ingredientRepository.reserveRecipeIngredients(eq(orderId), eq(recipeId), any(LocalDateTime.class)))
+                .thenReturn(List.of(COFFEE_MILK_NAME));
+
+        List<String> result = ingredientReservationService.reserveRecipeIngredients(orderId, recipeId);
+
+        assertEquals(List.of(COFFEE_MILK_NAME), result);
+        verifyNoMoreInteractions(ingredientRepository);
+    }
+
+    @Test
+    void givenConcurrentReservationExhaustedStock_whenReserveRecipeIngredients_thenReturnsMissingIngredients() {
+        when(ingredientRepository.reserveRecipeIngredients(eq(orderId), eq(recipeId), any(LocalDateTime.class)))
+                .thenThrow(new DataIntegrityViolationException("amount_reserved"));
+        when(ingredientRepository.findMissingRecipeIngredients(recipeId)).thenReturn(List.of(COFFEE_MILK_NAME));
+
+        List<String> result = ingredientReservationService.reserveRecipeIngredients(orderId, recipeId);
+
+        assertEquals(List.of(COFFEE_MILK_NAME), result);
+        verify(ingredientRepository).findMissingRecipeIngredients(recipeId);
+    }
+
+    @Test
+    void givenConcurrentReservationLeftEnoughStock_whenReserveRecipeIngredients_thenRetries() {
+        when(ingredientRepository.reserveRecipeIngredients(eq(orderId), eq(recipeId), any(LocalDateTime.class)))
+                .thenThrow(new DataIntegrityViolationException("amount_reserved"))
+                .thenReturn(Collections.emptyList());
+        when(ingredientRepository.findMissingRecipeIngredients(recipeId)).thenReturn(Collections.emptyList());
+
+        List<String> result = ingredientReservationService.reserveRecipeIngredients(orderId, recipeId);
+
+        assertTrue(result.isEmpty());
+        verify(ingredientRepository, times(2)).reserveRecipeIngredients(eq(orderId), eq(recipeId), any(LocalDateTime.class));
+    }
+
+    @Test
+    void givenPermanentConcurrentReservations_whenReserveRecipeIngredients_thenReturnsConflict() {
+        when(ingredientRepository.reserveRecipeIngredients(eq(orderId), eq(recipeId), any(LocalDateTime.class)))
+                .thenThrow(new DataIntegrityViolationException("amount_reserved"));
+        when(ingredientRepository.findMissingRecipeIngredients(recipeId)).thenReturn(Collections.emptyList());
+
+        IngredientException exception = assertThrows(IngredientException.class,
+                () -> ingredientReservationService.reserveRecipeIngredients(orderId, recipeId));
+
+        assertEquals(CONFLICT, exception.getStatus());
+        verify(ingredientRepository, times(3)).reserveRecipeIngredients(eq(orderId), eq(recipeId), any(LocalDateTime.class));
+    }
+
+    @Test
+    void givenBatch_whenReserveBatchIngredients_thenReservesEachOrderInRequestOrder() {
+        UUID secondOrderId = UUID.randomUUID();
+        DrinkCompositionDto composition = DrinkCompositionDto.builder()
+                .recipeId(recipeId)
+                .build();
+
+        when(ingredientRepository.reserveRecipeIngredients(eq(orderId), eq(recipeId), any(LocalDateTime.class)))
+                .thenReturn(Collections.emptyList());
+        when(ingredientRepository.reserveRecipeIngredients(eq(secondOrderId), eq(recipeId), any(LocalDateTime.class)))
+                .thenReturn(List.of(COFFEE_MILK_NAME));
+
+        List<List<String>> result = ingredientReservationService.reserveBatchIngredients(
+                List.of(orderId, secondOrderId), List.of(composition, composition));
+
+        assertEquals(List.of(List.of(), List.of(COFFEE_MILK_NAME)), result);
+    }
+
+    @Test
+    void givenStartedOrders_whenCommitReservations_thenDebitsHeldStockAndEvictsCachedIngredients() {
+        when(ingredientRepository.commitReservations(List.of(orderId))).thenReturn(List.of(orderId));
+        when(entityManagerFactory.getCache()).thenReturn(entityCache);
+
+        List<UUID> result = ingredientReservationService.commitReservations(List.of(orderId));
+
+        assertEquals(List.of(orderId), result);
+        verify(entityCache).evict(Ingredient.class);
+    }
+
+    @Test
+    void givenExpiredReservation_whenCommitReservations_thenReturnsOnlyCommittedOrders() {
+        UUID expiredOrderId = UUID.randomUUID();
+
+        when(ingredientRepository.commitReservations(List.of(orderId, expiredOrderId))).thenReturn(List.of(orderId));
+        when(entityManagerFactory.getCache()).thenReturn(entityCache);
+
+        List<UUID> result = ingredientReservationService.commitReservations(List.of(orderId, expiredOrderId));
+
+        assertEquals(List.of(orderId), result);
+    }
+
+    @Test
+    void givenNothingCommitted_whenCommitReservations_thenKeepsEntityCache() {
+        when(ingredientRepository.commitReservations(List.of(orderId))).thenReturn(List.of());
+
+        assertTrue(ingredientReservationService.commitReservations(List.of(orderId)).isEmpty());
+        verifyNoInteractions(entityManagerFactory);
+    }
+
+    @Test
+    void givenRefusedOrders_whenReleaseReservations_thenReturnsHeldStock() {
+        List<IngredientStockView> freeStock = List.of(createIngredientStockView(UUID.randomUUID(), 300));
+
+        when(ingredientRepository.releaseReservations(List.of(orderId))).thenReturn(freeStock);
+
+        ingredientReservationService.releaseReservations(List.of(orderId));
+
+        verify(ingredientRepository).releaseReservations(List.of(orderId));
+        verify(drinkAvailabilityService).recordFreeStock(freeStock);
+    }
+
+    @Test
+    void givenNoOrders_whenCommitOrReleaseReservations_thenSkipsDatabase() {
+        ingredientReservationService.commitReservations(List.of());
+        ingredientReservationService.releaseReservations(List.of());
+
+        verifyNoInteractions(ingredientRepository);
+    }
+
+    @Test
+    void givenExpiredHolds_whenReleaseExpiredReservations_thenReturnsTheirOrders() {
+        when(ingredientRepository.releaseExpiredReservations(any(LocalDateTime.class))).thenReturn(List.of(orderId));
+
+        List<IngredientStockView> freeStock = List.of(createIngredientStockView(UUID.randomUUID(), 300));
+        when(ingredientRepository.findFreeStock()).thenReturn(freeStock);
+
+        List<UUID> result = ingredientReservationService.releaseExpiredReservations();
+
+        assertEquals(List.of(orderId), result);
+        verify(drinkAvailabilityService).recordFreeStock(freeStock);
+    }
+}
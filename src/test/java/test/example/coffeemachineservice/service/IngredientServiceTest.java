@@ -1,31 +1,33 @@
 package test.example.coffeemachineservice.service;
 
-
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import test.example.coffeemachineservice.configuration.CoffeeMachineProperties;
 import test.example.coffeemachineservice.dto.request.AddNewIngredientRequestDto;
 import test.example.coffeemachineservice.dto.request.UpdateIngredientRequestDto;
 import test.example.coffeemachineservice.dto.response.IngredientResponseDto;
 import test.example.coffeemachineservice.exception.IngredientException;
 import test.example.coffeemachineservice.mapper.IngredientMapper;
 import test.example.coffeemachineservice.persistent.entity.Ingredient;
-import test.example.coffeemachineservice.persistent.entity.RecipeIngredient;
 import test.example.coffeemachineservice.persistent.repository.IngredientRepository;
 import test.example.coffeemachineservice.service.impl.IngredientServiceImpl;
+import test.example.coffeemachineservice.service.impl.OptimisticRetryServiceImpl;
 
+import java.time.Duration;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
-import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertThrows;
-import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.never;
@@ -34,6 +36,8 @@ import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.when;
+import static org.springframework.http.HttpStatus.CONFLICT;
+import static test.example.coffeemachineservice.constant.ApplicationConstant.INGREDIENTS_CONCURRENT_UPDATE_MESSAGE;
 import static test.example.coffeemachineservice.constant.ApplicationConstant.INGREDIENT_DELETED_MESSAGE;
 import static test.example.coffeemachineservice.constant.ApplicationConstant.NOT_POSSIBLE_DELETE_INGREDIENT_MESSAGE;
 import static test.example.coffeemachineservice.data.CoffeeMachineData.COFFEE_MILK_NAME;
@@ -50,6 +54,12 @@ class IngredientServiceTest {
     @Mock
     private IngredientMapper ingredientMapper;
 
+    @Mock
+    private DrinkAvailabilityService drinkAvailabilityService;
+
+    @Spy
+    private OptimisticRetryService optimisticRetryService = createOptimisticRetryService();
+
     @InjectMocks
     private IngredientServiceImpl ingredientService;
 
@@ -112,83 +122,69 @@ class IngredientServiceTest {
     }
 
     @Test
-    void givenValidRecipeIngredients_whenReduceIngredientQuantities_thenReturnsSuccess() {
-        Ingredient ingredient1 = Ingredient.builder()
+    void givenValidUpdateRequest_whenUpdateAmountAvailableIngredient_thenReturnsSuccess() {
+        UpdateIngredientRequestDto requestDto = createUpdateIngredientRequestDto();
+        Ingredient ingredient = Ingredient.builder()
+                .ingredientId(UUID.fromString(TEST_UUID))
                 .amountAvailable(100)
                 .build();
-        Ingredient ingredient2 = Ingredient.builder()
-                .amountAvailable(200)
-                .build();
-
-        RecipeIngredient recipeIngredient1 = RecipeIngredient.builder()
-                .ingredient(ingredient1)
-                .quantityOnRecipe(50)
-                .build();
-        RecipeIngredient recipeIngredient2 = RecipeIngredient.builder()
-                .ingredient(ingredient2)
-                .quantityOnRecipe(75)
-                .build();
+        IngredientResponseDto expectedResponse = IngredientResponseDto.builder().build();
 
-        List<RecipeIngredient> recipeIngredients = List.of(recipeIngredient1, recipeIngredient2);
+        when(ingredientRepository.findByIngredientName(COFFEE_MILK_NAME)).thenReturn(Optional.of(ingredient));
+        when(ingredientMapper.mapToIngredientResponseDto(ingredient)).thenReturn(expectedResponse);
 
-        ingredientService.reduceIngredientQuantities(recipeIngredients);
+        IngredientResponseDto result = ingredientService.updateAmountAvailableIngredient(requestDto);
 
-        assertEquals(50, ingredient1.getAmountAvailable());
-        assertEquals(125, ingredient2.getAmountAvailable());
-        verify(ingredientRepository, times(2)).save(any(Ingredient.class));
+        assertEquals(expectedResponse, result);
+        assertEquals(200, ingredient.getAmountAvailable());
+        verify(ingredientRepository).save(ingredient);
+        verify(drinkAvailabilityService).recordRestock(UUID.fromString(TEST_UUID), requestDto.getAddingQuantity());
+        verify(ingredientMapper).mapToIngredientResponseDto(ingredient);
     }
 
     @Test
-    void givenSufficientIngredients_whenCheckAmountIngredients_thenReturnsTrue() {
-        Ingredient ingredient1 = Ingredient.builder()
+    void givenConcurrentConsumption_whenUpdateAmountAvailableIngredient_thenRetriesOnFreshAmount() {
+        UpdateIngredientRequestDto requestDto = createUpdateIngredientRequestDto();
+        Ingredient staleIngredient = Ingredient.builder()
+                .ingredientId(UUID.fromString(TEST_UUID))
                 .amountAvailable(100)
+                .version(1)
                 .build();
-        RecipeIngredient recipeIngredient1 = RecipeIngredient.builder()
-                .ingredient(ingredient1)
-                .quantityOnRecipe(50)
+        Ingredient freshIngredient = Ingredient.builder()
+                .ingredientId(UUID.fromString(TEST_UUID))
+                .amountAvailable(90)
+                .version(2)
                 .build();
 
-        List<RecipeIngredient> recipeIngredients = List.of(recipeIngredient1);
-
-        boolean result = ingredientService.checkAmountIngredients(recipeIngredients);
-
-        assertTrue(result);
-    }
-
-    @Test
-    void givenInsufficientIngredients_whenCheckAmountIngredients_thenReturnsFalse() {
-        Ingredient ingredient1 = Ingredient.builder()
-                .amountAvailable(30)
-                .build();
-        RecipeIngredient recipeIngredient1 = RecipeIngredient.builder()
-                .ingredient(ingredient1)
-                .quantityOnRecipe(50)
-                .build();
-
-        List<RecipeIngredient> recipeIngredients = List.of(recipeIngredient1);
+        when(ingredientRepository.findByIngredientName(COFFEE_MILK_NAME))
+                .thenReturn(Optional.of(staleIngredient), Optional.of(freshIngredient));
+        when(ingredientRepository.save(staleIngredient))
+                .thenThrow(new ObjectOptimisticLockingFailureException(Ingredient.class, TEST_UUID));
 
-        boolean result = ingredientService.checkAmountIngredients(recipeIngredients);
+        ingredientService.updateAmountAvailableIngredient(requestDto);
 
-        assertFalse(result);
+        assertEquals(190, freshIngredient.getAmountAvailable());
+        verify(ingredientRepository).save(freshIngredient);
+        verify(ingredientMapper).mapToIngredientResponseDto(freshIngredient);
+        verify(drinkAvailabilityService).recordRestock(UUID.fromString(TEST_UUID), requestDto.getAddingQuantity());
     }
 
     @Test
-    void givenValidUpdateRequest_whenUpdateAmountAvailableIngredient_thenReturnsSuccess() {
+    void givenPersistentConflict_whenUpdateAmountAvailableIngredient_thenReturnsConflict() {
         UpdateIngredientRequestDto requestDto = createUpdateIngredientRequestDto();
-        Ingredient ingredient = Ingredient.builder()
-                .amountAvailable(100)
-                .build();
-        IngredientResponseDto expectedResponse = IngredientResponseDto.builder().build();
 
-        when(ingredientRepository.findByIngredientName(COFFEE_MILK_NAME)).thenReturn(Optional.of(ingredient));
-        when(ingredientMapper.mapToIngredientResponseDto(ingredient)).thenReturn(expectedResponse);
+        when(ingredientRepository.findByIngredientName(COFFEE_MILK_NAME))
+                .thenAnswer(invocation -> Optional.of(Ingredient.builder().amountAvailable(100).build()));
+        when(ingredientRepository.save(any()))
+                .thenThrow(new ObjectOptimisticLockingFailureException(Ingredient.class, TEST_UUID));
 
-        IngredientResponseDto result = ingredientService.updateAmountAvailableIngredient(requestDto);
+        IngredientException exception = assertThrows(IngredientException.class,
+                () -> ingredientService.updateAmountAvailableIngredient(requestDto));
 
-        assertEquals(expectedResponse, result);
-        assertEquals(200, ingredient.getAmountAvailable());
-        verify(ingredientRepository).save(ingredient);
-        verify(ingredientMapper).mapToIngredientResponseDto(ingredient);
+        assertEquals(CONFLICT, exception.getStatus());
+        assertEquals(INGREDIENTS_CONCURRENT_UPDATE_MESSAGE, exception.getMessage());
+        verify(ingredientRepository, times(3)).save(any());
+        verifyNoInteractions(drinkAvailabilityService);
     }
 
     @Test
@@ -201,6 +197,7 @@ class IngredientServiceTest {
                 () -> ingredientService.updateAmountAvailableIngredient(requestDto));
         verify(ingredientRepository).findByIngredientName(COFFEE_MILK_NAME);
         verifyNoMoreInteractions(ingredientMapper, ingredientRepository);
+        verifyNoInteractions(drinkAvailabilityService);
     }
 
     @Test
@@ -239,4 +236,11 @@ class IngredientServiceTest {
         verify(ingredientRepository).findById(UUID.fromString(TEST_UUID));
         verify(ingredientRepository).delete(foundIngredient);
     }
-}
\ No newline at end of file
+
+    private static OptimisticRetryService createOptimisticRetryService() {
+        CoffeeMachineProperties properties = new CoffeeMachineProperties();
+        properties.getOptimisticRetry().setMaxAttempts(3);
+        properties.getOptimisticRetry().setInitialBackoff(Duration.ZERO);
+        return new OptimisticRetryServiceImpl(properties, new SimpleMeterRegistry());
+    }
+}
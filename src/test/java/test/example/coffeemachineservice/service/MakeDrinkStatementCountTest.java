@@ -0,0 +1,98 @@
+package test.example.coffeemachineservice.service;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.test.context.transaction.AfterTransaction;
+import org.springframework.transaction.annotation.Transactional;
+import test.example.coffeemachineservice.dto.catalog.DrinkCompositionDto;
+import test.example.coffeemachineservice.dto.request.MakeDrinkRequestDto;
+
+import java.util.Objects;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static test.example.coffeemachineservice.constant.ApplicationConstant.DRINK_CATALOG_CACHE;
+import static test.example.coffeemachineservice.data.CoffeeMachineData.COFFEE_ESPRESSO_NAME;
+
+// Страхует горячий путь приготовления от N+1: число SQL-выражений считает статистика Hibernate.
+// Заказ и резервы откатываются вместе с транзакцией теста, очередь в памяти восстанавливается из базы
+@Transactional
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class MakeDrinkStatementCountTest {
+
+    // Состав напитка, вставка заказа, резерв ингредиентов, списание резерва и запуск приготовления
+    private static final long MAKE_DRINK_MAX_STATEMENTS = 5;
+
+    @Autowired
+    private DrinkCatalogService drinkCatalogService;
+
+    @Autowired
+    private DrinkService drinkService;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private OrderCounterService orderCounterService;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        Objects.requireNonNull(cacheManager.getCache(DRINK_CATALOG_CACHE)).clear();
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    // Накопленные счётчики заказов сбрасываются внутри транзакции теста и откатываются вместе с ней
+    @AfterEach
+    void discardOrderCounters() {
+        orderCounterService.flush();
+    }
+
+    @AfterTransaction
+    void restoreBrewingQueue() {
+        orderService.restoreBrewingQueue();
+    }
+
+    @Test
+    void givenColdCatalog_whenGetDrinkComposition_thenLoadsInOneStatement() {
+        DrinkCompositionDto composition = drinkCatalogService.getDrinkComposition(COFFEE_ESPRESSO_NAME);
+
+        assertFalse(composition.getIngredients().isEmpty());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void givenColdCatalog_whenMakeDrink_thenStatementCountStaysBounded() {
+        MakeDrinkRequestDto requestDto = MakeDrinkRequestDto.builder()
+                .drinkName(COFFEE_ESPRESSO_NAME)
+                .build();
+
+        drinkService.makeDrink(requestDto, null);
+        entityManager.flush();
+
+        long statementCount = statistics.getPrepareStatementCount();
+        assertTrue(statementCount <= MAKE_DRINK_MAX_STATEMENTS,
+                "makeDrink выполнил " + statementCount + " SQL-выражений");
+    }
+}
@@ -0,0 +1,94 @@
+package test.example.coffeemachineservice.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.OptimisticLockingFailureException;
+import test.example.coffeemachineservice.configuration.CoffeeMachineProperties;
+import test.example.coffeemachineservice.exception.IngredientException;
+import test.example.coffeemachineservice.service.impl.OptimisticRetryServiceImpl;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static test.example.coffeemachineservice.constant.ApplicationConstant.INGREDIENT_NOT_FOUND_MESSAGE;
+
+class OptimisticRetryServiceTest {
+
+    private static final String OPERATION = "restock";
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private OptimisticRetryServiceImpl optimisticRetryService;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        CoffeeMachineProperties properties = new CoffeeMachineProperties();
+        properties.getOptimisticRetry().setMaxAttempts(3);
+        properties.getOptimisticRetry().setInitialBackoff(Duration.ofMillis(1));
+        properties.getOptimisticRetry().setMaxBackoff(Duration.ofMillis(2));
+        optimisticRetryService = new OptimisticRetryServiceImpl(properties, meterRegistry);
+    }
+
+    @Test
+    void givenNoConflict_whenExecute_thenRunsOnceAndCountsApplied() {
+        AtomicInteger calls = new AtomicInteger();
+
+        int result = optimisticRetryService.execute(OPERATION, calls::incrementAndGet);
+
+        assertEquals(1, result);
+        assertEquals(1.0, attempts("applied"));
+        assertEquals(0.0, attempts("conflict"));
+    }
+
+    @Test
+    void givenConflictThenSuccess_whenExecute_thenRetriesAndCountsConflict() {
+        AtomicInteger calls = new AtomicInteger();
+
+        int result = optimisticRetryService.execute(OPERATION, () -> {
+            if (calls.incrementAndGet() < 3) {
+                throw new OptimisticLockingFailureException("версия изменилась");
+            }
+            return calls.get();
+        });
+
+        assertEquals(3, result);
+        assertEquals(2.0, attempts("conflict"));
+        assertEquals(1.0, attempts("applied"));
+    }
+
+    @Test
+    void givenConflictOnEveryAttempt_whenExecute_thenRethrowsAfterMaxAttempts() {
+        AtomicInteger calls = new AtomicInteger();
+
+        assertThrows(OptimisticLockingFailureException.class, () ->
+                optimisticRetryService.execute(OPERATION, () -> {
+                    calls.incrementAndGet();
+                    throw new OptimisticLockingFailureException("версия изменилась");
+                }));
+
+        assertEquals(3, calls.get());
+        assertEquals(2.0, attempts("conflict"));
+        assertEquals(1.0, attempts("exhausted"));
+    }
+
+    @Test
+    void givenOtherException_whenExecute_thenDoesNotRetry() {
+        AtomicInteger calls = new AtomicInteger();
+
+        assertThrows(IngredientException.class, () ->
+                optimisticRetryService.execute(OPERATION, () -> {
+                    calls.incrementAndGet();
+                    throw new IngredientException(INGREDIENT_NOT_FOUND_MESSAGE);
+                }));
+
+        assertEquals(1, calls.get());
+    }
+
+    private double attempts(String outcome) {
+        return meterRegistry.counter("coffee.optimistic.attempts", "operation", OPERATION, "outcome", outcome).count();
+    }
+}
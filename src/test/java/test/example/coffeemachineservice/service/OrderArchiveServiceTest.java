@@ -0,0 +1,187 @@
+package test.example.coffeemachineservice.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import test.example.coffeemachineservice.configuration.CoffeeMachineProperties;
+import test.example.coffeemachineservice.dto.request.PeriodRequestDto;
+import test.example.coffeemachineservice.dto.response.OrderResponseDto;
+import test.example.coffeemachineservice.persistent.entity.OrderArchive;
+import test.example.coffeemachineservice.persistent.enums.OrderArchiveStatus;
+import test.example.coffeemachineservice.persistent.repository.OrderArchiveRepository;
+import test.example.coffeemachineservice.persistent.repository.OrderRepository;
+import test.example.coffeemachineservice.service.impl.OrderArchiveServiceImpl;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static test.example.coffeemachineservice.data.CoffeeMachineData.COFFEE_RAF_NAME;
+import static test.example.coffeemachineservice.data.CoffeeMachineData.TEST_UUID;
+import static test.example.coffeemachineservice.export.OrderExportFormat.CSV;
+import static test.example.coffeemachineservice.export.OrderExportFormat.NDJSON;
+import static test.example.coffeemachineservice.persistent.enums.OrderStatus.COMPLETED;
+
+@ExtendWith(MockitoExtension.class)
+class OrderArchiveServiceTest {
+
+    private static final String PARTITION_NAME = "orders_2020_01";
+
+    private static final String ARCHIVE_FILE_NAME = PARTITION_NAME + ".csv.gz";
+
+    private static final LocalDateTime CREATED_AT = LocalDateTime.of(2020, 1, 10, 9, 30);
+
+    @Mock
+    private OrderRepository orderRepository;
+
+    @Mock
+    private OrderArchiveRepository orderArchiveRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @TempDir
+    private Path archiveDirectory;
+
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private OrderArchiveServiceImpl orderArchiveService;
+
+    private final OrderArchive archive = OrderArchive.builder()
+            .partitionName(PARTITION_NAME)
+            .rangeStart(LocalDate.of(2020, 1, 1).atStartOfDay())
+            .rangeEnd(LocalDate.of(2020, 2, 1).atStartOfDay())
+            .status(OrderArchiveStatus.DETACHED)
+            .build();
+
+    @BeforeEach
+    void setUp() {
+        CoffeeMachineProperties properties = new CoffeeMachineProperties();
+        properties.getPartitions().setArchiveDirectory(archiveDirectory.toString());
+        orderArchiveService = new OrderArchiveServiceImpl(orderRepository, orderArchiveRepository, transactionManager,
+                objectMapper, properties, meterRegistry);
+    }
+
+    @Test
+    void givenExpiredPartition_whenArchivePartition_thenWritesFileAndDropsPartition() throws Exception {
+        when(orderArchiveRepository.findById(PARTITION_NAME)).thenReturn(Optional.of(archive));
+        answerDetachedOrders(createArchivedOrder(TEST_UUID, CREATED_AT), createArchivedOrder(TEST_UUID, CREATED_AT));
+
+        orderArchiveService.archivePartition(PARTITION_NAME);
+
+        verify(orderRepository).detachPartitionForArchive(PARTITION_NAME);
+        verify(orderRepository).completeArchive(PARTITION_NAME, ARCHIVE_FILE_NAME, 2);
+        assertTrue(Files.exists(archiveDirectory.resolve(ARCHIVE_FILE_NAME)));
+        assertEquals(2.0, meterRegistry.get("coffee.orders.archived").counter().count());
+    }
+
+    @Test
+    void givenFailedRead_whenArchivePartition_thenKeepsPartitionDetachedWithoutFile() {
+        when(orderArchiveRepository.findById(PARTITION_NAME)).thenReturn(Optional.of(archive));
+        doThrow(new IllegalStateException("connection reset"))
+                .when(orderRepository).readDetachedOrders(eq(PARTITION_NAME), any());
+
+        assertThrows(IllegalStateException.class, () -> orderArchiveService.archivePartition(PARTITION_NAME));
+
+        verify(orderRepository, never()).completeArchive(anyString(), anyString(), anyLong());
+        assertFalse(Files.exists(archiveDirectory.resolve(ARCHIVE_FILE_NAME)));
+        assertFalse(Files.exists(archiveDirectory.resolve(ARCHIVE_FILE_NAME + ".tmp")));
+    }
+
+    @Test
+    void givenPartitionLeftDetached_whenArchiveDetachedPartitions_thenCompletesIt() {
+        when(orderArchiveRepository.findByStatusOrderByRangeStart(OrderArchiveStatus.DETACHED))
+                .thenReturn(List.of(archive));
+        answerDetachedOrders(createArchivedOrder(TEST_UUID, CREATED_AT));
+
+        assertEquals(1, orderArchiveService.archiveDetachedPartitions());
+
+        verify(orderRepository).completeArchive(PARTITION_NAME, ARCHIVE_FILE_NAME, 1);
+    }
+
+    @Test
+    void givenArchivedPartition_whenExportArchivedOrders_thenReturnsOnlyOrdersInPeriod() throws Exception {
+        String escapedName = "Раф \"Ваниль, мёд\"";
+        OrderResponseDto inPeriod = createArchivedOrder(TEST_UUID, CREATED_AT);
+        inPeriod.setDrinkName(escapedName);
+        when(orderArchiveRepository.findById(PARTITION_NAME)).thenReturn(Optional.of(archive));
+        answerDetachedOrders(createArchivedOrder("1568b827-4f03-4185-b622-64a5b9f46be3", CREATED_AT.minusDays(5)),
+                inPeriod);
+        orderArchiveService.archivePartition(PARTITION_NAME);
+        PeriodRequestDto requestDto = PeriodRequestDto.builder()
+                .startDate(CREATED_AT.toLocalDate())
+                .endDate(CREATED_AT.toLocalDate())
+                .build();
+        archive.setStatus(OrderArchiveStatus.ARCHIVED);
+        archive.setFileName(ARCHIVE_FILE_NAME);
+        when(orderArchiveRepository.findOverlapping(requestDto.getStartDate().atStartOfDay(),
+                requestDto.getEndDate().atTime(23, 59, 59), OrderArchiveStatus.ARCHIVED)).thenReturn(List.of(archive));
+        ByteArrayOutputStream ndjson = new ByteArrayOutputStream();
+        ByteArrayOutputStream csv = new ByteArrayOutputStream();
+
+        long exported = orderArchiveService.exportArchivedOrders(requestDto, NDJSON, ndjson);
+        orderArchiveService.exportArchivedOrders(requestDto, CSV, csv);
+
+        OrderResponseDto order = objectMapper.readValue(ndjson.toString(StandardCharsets.UTF_8).trim(),
+                OrderResponseDto.class);
+        assertEquals(1, exported);
+        assertEquals(TEST_UUID, order.getOrderId());
+        assertEquals(escapedName, order.getDrinkName());
+        assertEquals(COMPLETED.getStatusName(), order.getStatus());
+        assertEquals(CREATED_AT, order.getCreatedAt());
+        assertEquals("""
+                order_id,drink_name,status,created_at
+                %s,"Раф ""Ваниль, мёд""\",%s,2020-01-10T09:30
+                """.formatted(TEST_UUID, COMPLETED.getStatusName()), csv.toString(StandardCharsets.UTF_8));
+    }
+
+    private void answerDetachedOrders(OrderResponseDto... orders) {
+        doAnswer(invocation -> {
+            Consumer<OrderResponseDto> consumer = invocation.getArgument(1);
+            for (OrderResponseDto order : orders) {
+                consumer.accept(order);
+            }
+            return null;
+        }).when(orderRepository).readDetachedOrders(eq(PARTITION_NAME), any());
+    }
+
+    private OrderResponseDto createArchivedOrder(String orderId, LocalDateTime createdAt) {
+        return OrderResponseDto.builder()
+                .orderId(orderId)
+                .drinkName(COFFEE_RAF_NAME)
+                .status(COMPLETED.getStatusName())
+                .createdAt(createdAt)
+                .build();
+    }
+}
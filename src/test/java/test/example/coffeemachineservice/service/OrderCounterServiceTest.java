@@ -0,0 +1,80 @@
+package test.example.coffeemachineservice.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.QueryTimeoutException;
+import test.example.coffeemachineservice.persistent.repository.DrinkRepository;
+import test.example.coffeemachineservice.service.impl.OrderCounterServiceImpl;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+@ExtendWith(MockitoExtension.class)
+class OrderCounterServiceTest {
+
+    @Mock
+    private DrinkRepository drinkRepository;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private OrderCounterServiceImpl orderCounterService;
+
+    private final UUID espressoId = UUID.randomUUID();
+
+    private final UUID rafId = UUID.randomUUID();
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        orderCounterService = new OrderCounterServiceImpl(drinkRepository, meterRegistry);
+    }
+
+    @Test
+    void givenConcurrentIncrements_whenFlush_thenWritesOneDeltaPerDrink() throws InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        for (int i = 0; i < 1000; i++) {
+            executor.execute(() -> orderCounterService.increment(espressoId, 1));
+        }
+        executor.shutdown();
+        executor.awaitTermination(10, TimeUnit.SECONDS);
+        orderCounterService.increment(rafId, 3);
+
+        int flushedDrinks = orderCounterService.flush();
+
+        assertEquals(2, flushedDrinks);
+        verify(drinkRepository).addOrdersCounts(Map.of(espressoId, 1000L, rafId, 3L));
+        assertEquals(1003, meterRegistry.get("coffee.drink.orders.flushed").counter().count());
+        assertEquals(0, orderCounterService.getPendingCount());
+    }
+
+    @Test
+    void givenNothingPending_whenFlush_thenSkipsDatabase() {
+        assertEquals(0, orderCounterService.flush());
+        verifyNoInteractions(drinkRepository);
+    }
+
+    @Test
+    void givenDatabaseFailure_whenFlush_thenKeepsDeltasForNextFlush() {
+        orderCounterService.increment(espressoId, 2);
+        doThrow(new QueryTimeoutException("timeout")).when(drinkRepository).addOrdersCounts(any());
+
+        assertThrows(QueryTimeoutException.class, () -> orderCounterService.flush());
+
+        assertEquals(2, orderCounterService.getPendingCount());
+        assertEquals(2, meterRegistry.get("coffee.drink.orders.pending").gauge().value());
+    }
+}
@@ -0,0 +1,113 @@
+package test.example.coffeemachineservice.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import test.example.coffeemachineservice.dto.request.PeriodRequestDto;
+import test.example.coffeemachineservice.dto.response.OrderResponseDto;
+import test.example.coffeemachineservice.persistent.repository.OrderRepository;
+import test.example.coffeemachineservice.service.impl.OrderExportServiceImpl;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.when;
+import static test.example.coffeemachineservice.data.CoffeeMachineData.COFFEE_RAF_NAME;
+import static test.example.coffeemachineservice.data.CoffeeMachineData.TEST_UUID;
+import static test.example.coffeemachineservice.data.CoffeeMachineData.createOrderExportView;
+import static test.example.coffeemachineservice.export.OrderExportFormat.CSV;
+import static test.example.coffeemachineservice.export.OrderExportFormat.NDJSON;
+import static test.example.coffeemachineservice.persistent.enums.OrderStatus.COMPLETED;
+
+@ExtendWith(MockitoExtension.class)
+class OrderExportServiceTest {
+
+    private static final LocalDate START_DATE = LocalDate.of(2025, 1, 1);
+
+    private static final LocalDate END_DATE = LocalDate.of(2025, 12, 31);
+
+    private static final LocalDateTime CREATED_AT = LocalDateTime.of(2025, 2, 1, 10, 15);
+
+    @Mock
+    private OrderRepository orderRepository;
+
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+    private OrderExportServiceImpl orderExportService;
+
+    private PeriodRequestDto requestDto;
+
+    @BeforeEach
+    void setUp() {
+        orderExportService = new OrderExportServiceImpl(orderRepository, objectMapper);
+        requestDto = PeriodRequestDto.builder()
+                .startDate(START_DATE)
+                .endDate(END_DATE)
+                .build();
+    }
+
+    @Test
+    void givenOrdersInPeriod_whenExportNdjson_thenWritesOneJsonObjectPerLine() throws Exception {
+        AtomicBoolean closed = new AtomicBoolean();
+        when(orderRepository.streamByCreatedAtBetween(START_DATE.atStartOfDay(), END_DATE.atTime(23, 59, 59)))
+                .thenReturn(Stream.of(
+                        createOrderExportView(UUID.fromString(TEST_UUID), COFFEE_RAF_NAME,
+                                COMPLETED, CREATED_AT),
+                        createOrderExportView(UUID.randomUUID(), COFFEE_RAF_NAME,
+                                COMPLETED, CREATED_AT.plusMinutes(1))
+                ).onClose(() -> closed.set(true)));
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+        long exported = orderExportService.exportOrdersForPeriod(requestDto, NDJSON, outputStream);
+
+        String[] lines = outputStream.toString(StandardCharsets.UTF_8).split("\n");
+        OrderResponseDto first = objectMapper.readValue(lines[0], OrderResponseDto.class);
+        assertEquals(2, exported);
+        assertEquals(2, lines.length);
+        assertEquals(TEST_UUID, first.getOrderId());
+        assertEquals(COFFEE_RAF_NAME, first.getDrinkName());
+        assertEquals(CREATED_AT, first.getCreatedAt());
+        assertTrue(closed.get());
+    }
+
+    @Test
+    void givenOrdersInPeriod_whenExportCsv_thenWritesHeaderAndEscapedRows() throws Exception {
+        when(orderRepository.streamByCreatedAtBetween(START_DATE.atStartOfDay(), END_DATE.atTime(23, 59, 59)))
+                .thenReturn(Stream.of(createOrderExportView(UUID.fromString(TEST_UUID), "Раф \"Ваниль, мёд\"",
+                        COMPLETED, CREATED_AT)));
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+        orderExportService.exportOrdersForPeriod(requestDto, CSV, outputStream);
+
+        assertEquals("""
+                order_id,drink_name,status,created_at
+                %s,"Раф ""Ваниль, мёд""\",%s,2025-02-01T10:15
+                """.formatted(TEST_UUID, COMPLETED.getStatusName()), outputStream.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void givenNoOrdersInPeriod_whenExportCsv_thenWritesOnlyHeader() throws Exception {
+        when(orderRepository.streamByCreatedAtBetween(START_DATE.atStartOfDay(), END_DATE.atTime(23, 59, 59)))
+                .thenReturn(Stream.empty());
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+        long exported = orderExportService.exportOrdersForPeriod(requestDto, CSV, outputStream);
+
+        assertEquals(0, exported);
+        assertEquals("order_id,drink_name,status,created_at\n", outputStream.toString(StandardCharsets.UTF_8));
+    }
+}
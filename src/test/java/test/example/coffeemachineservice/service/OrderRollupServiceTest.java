@@ -0,0 +1,133 @@
+package test.example.coffeemachineservice.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import test.example.coffeemachineservice.configuration.CoffeeMachineProperties;
+import test.example.coffeemachineservice.dto.request.PeriodRequestDto;
+import test.example.coffeemachineservice.dto.response.OrderCountResponseDto;
+import test.example.coffeemachineservice.dto.response.OrderSummaryResponseDto;
+import test.example.coffeemachineservice.persistent.repository.OrderRepository;
+import test.example.coffeemachineservice.service.impl.OrderRollupServiceImpl;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyShort;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static test.example.coffeemachineservice.data.CoffeeMachineData.COFFEE_RAF_NAME;
+import static test.example.coffeemachineservice.data.CoffeeMachineData.TEST_UUID;
+import static test.example.coffeemachineservice.data.CoffeeMachineData.createOrderRollupView;
+import static test.example.coffeemachineservice.data.CoffeeMachineData.createOrderSummaryView;
+import static test.example.coffeemachineservice.persistent.enums.OrderStatus.COMPLETED;
+import static test.example.coffeemachineservice.persistent.enums.OrderStatus.REFUSED;
+
+@ExtendWith(MockitoExtension.class)
+class OrderRollupServiceTest {
+
+    private static final int BATCH_SIZE = 100;
+
+    private static final LocalDate START_DATE = LocalDate.of(2025, 1, 1);
+
+    private static final LocalDate END_DATE = LocalDate.of(2025, 1, 31);
+
+    @Mock
+    private OrderRepository orderRepository;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private OrderRollupServiceImpl orderRollupService;
+
+    private final PeriodRequestDto requestDto = PeriodRequestDto.builder()
+            .startDate(START_DATE)
+            .endDate(END_DATE)
+            .build();
+
+    @BeforeEach
+    void setUp() {
+        CoffeeMachineProperties properties = new CoffeeMachineProperties();
+        properties.getRollups().setBatchSize(BATCH_SIZE);
+        meterRegistry = new SimpleMeterRegistry();
+        orderRollupService = new OrderRollupServiceImpl(orderRepository, properties, meterRegistry);
+    }
+
+    @Test
+    void givenBacklogLargerThanBatch_whenFoldDeltas_thenFoldsUntilBacklogIsEmpty() {
+        when(orderRepository.foldRollupDeltas(BATCH_SIZE)).thenReturn((long) BATCH_SIZE, (long) BATCH_SIZE, 7L);
+
+        long folded = orderRollupService.foldDeltas();
+
+        assertEquals(2L * BATCH_SIZE + 7, folded);
+        assertEquals(2.0 * BATCH_SIZE + 7, meterRegistry.get("coffee.order.rollup.folded").counter().count());
+        verify(orderRepository, times(3)).foldRollupDeltas(BATCH_SIZE);
+    }
+
+    @Test
+    void givenNoDeltas_whenFoldDeltas_thenFoldsOnce() {
+        when(orderRepository.foldRollupDeltas(BATCH_SIZE)).thenReturn(0L);
+
+        assertEquals(0, orderRollupService.foldDeltas());
+        verify(orderRepository).foldRollupDeltas(BATCH_SIZE);
+    }
+
+    @Test
+    void givenDailyRollups_whenGetDailyCounts_thenMapsRollupRows() {
+        when(orderRepository.findDailyRollups(START_DATE, END_DATE, COMPLETED.getCode(), REFUSED.getCode()))
+                .thenReturn(List.of(createOrderRollupView(START_DATE.atStartOfDay(), UUID.fromString(TEST_UUID),
+                        COFFEE_RAF_NAME, 12, 10, 1)));
+
+        List<OrderCountResponseDto> result = orderRollupService.getDailyCounts(requestDto);
+
+        assertEquals(1, result.size());
+        assertEquals(START_DATE.atStartOfDay(), result.get(0).getPeriodStart());
+        assertEquals(TEST_UUID, result.get(0).getDrinkId());
+        assertEquals(12, result.get(0).getOrdersCount());
+        assertEquals(10, result.get(0).getCompletedCount());
+        assertEquals(1, result.get(0).getRefusedCount());
+    }
+
+    @Test
+    void givenTodayRollups_whenGetHourlyCountsForToday_thenQueriesCurrentDay() {
+        LocalDate today = LocalDate.now();
+        when(orderRepository.findHourlyRollups(today.atStartOfDay(), today.plusDays(1).atStartOfDay(),
+                COMPLETED.getCode(), REFUSED.getCode()))
+                .thenReturn(List.of(createOrderRollupView(today.atTime(9, 0), UUID.fromString(TEST_UUID),
+                        COFFEE_RAF_NAME, 3, 2, 0)));
+
+        List<OrderCountResponseDto> result = orderRollupService.getHourlyCountsForToday();
+
+        assertEquals(today.atTime(9, 0), result.get(0).getPeriodStart());
+        assertEquals(3, result.get(0).getOrdersCount());
+    }
+
+    @Test
+    void givenOrdersInPeriod_whenGetSummary_thenReturnsRefusalRate() {
+        when(orderRepository.summarizeRollups(START_DATE, END_DATE, COMPLETED.getCode(), REFUSED.getCode()))
+                .thenReturn(createOrderSummaryView(200, 180, 10));
+
+        OrderSummaryResponseDto result = orderRollupService.getSummary(requestDto);
+
+        assertEquals(200, result.getOrdersCount());
+        assertEquals(180, result.getCompletedCount());
+        assertEquals(10, result.getRefusedCount());
+        assertEquals(0.05, result.getRefusalRate(), 1e-9);
+    }
+
+    @Test
+    void givenNoOrdersInPeriod_whenGetSummary_thenReturnsZeroRefusalRate() {
+        when(orderRepository.summarizeRollups(any(), any(), anyShort(), anyShort())).thenReturn(createOrderSummaryView(0, 0, 0));
+
+        OrderSummaryResponseDto result = orderRollupService.getSummary(requestDto);
+
+        assertEquals(0, result.getOrdersCount());
+        assertEquals(0.0, result.getRefusalRate());
+    }
+}
@@ -6,60 +6,95 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import test.example.coffeemachineservice.dto.request.PeriodRequestDto;
+import test.example.coffeemachineservice.dto.response.OrderPageResponseDto;
 import test.example.coffeemachineservice.dto.response.OrderResponseDto;
+import test.example.coffeemachineservice.event.OrderStatusChangedEvent;
 import test.example.coffeemachineservice.exception.OrderException;
 import test.example.coffeemachineservice.mapper.OrderMapper;
+import test.example.coffeemachineservice.pagination.OrderPageToken;
 import test.example.coffeemachineservice.persistent.entity.Drink;
 import test.example.coffeemachineservice.persistent.entity.Order;
+import test.example.coffeemachineservice.persistent.enums.OrderStatus;
+import test.example.coffeemachineservice.persistent.generator.OrderIds;
+import test.example.coffeemachineservice.persistent.projection.CompletedOrderView;
 import test.example.coffeemachineservice.persistent.repository.OrderRepository;
 import test.example.coffeemachineservice.service.impl.OrderServiceImpl;
 
-import java.time.Duration;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
-import java.util.Set;
 import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyShort;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.never;
-import static org.mockito.Mockito.timeout;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.when;
+import static org.springframework.http.HttpStatus.NOT_FOUND;
+import static test.example.coffeemachineservice.constant.ApplicationConstant.BREWING_QUEUE_FULL_MESSAGE;
 import static test.example.coffeemachineservice.constant.ApplicationConstant.ORDER_DELETED_MESSAGE;
+import static test.example.coffeemachineservice.data.CoffeeMachineData.COFFEE_RAF_NAME;
 import static test.example.coffeemachineservice.data.CoffeeMachineData.TEST_UUID;
+import static test.example.coffeemachineservice.data.CoffeeMachineData.createCompletedOrderView;
 import static test.example.coffeemachineservice.persistent.enums.OrderStatus.COMPLETED;
 import static test.example.coffeemachineservice.persistent.enums.OrderStatus.CREATED;
 import static test.example.coffeemachineservice.persistent.enums.OrderStatus.PROGRESS;
+import static test.example.coffeemachineservice.persistent.enums.OrderStatus.REFUSED;
 
 @ExtendWith(MockitoExtension.class)
 class OrderServiceTest {
 
+    private static final LocalDateTime CREATED_AT = LocalDateTime.of(2025, 2, 1, 10, 15);
+
     @Mock
     private OrderRepository orderRepository;
 
     @Mock
     private OrderMapper orderMapper;
 
+    @Mock
+    private BrewingQueueService brewingQueueService;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private DrinkPopularityService drinkPopularityService;
+
+    @Mock
+    private IngredientReservationService ingredientReservationService;
+
     @InjectMocks
     private OrderServiceImpl orderService;
 
-    private final UUID orderId = UUID.randomUUID();
+    private final UUID orderId = OrderIds.newOrderId(CREATED_AT);
+
+    private final LocalDateTime createdTo = CREATED_AT.plus(1, ChronoUnit.MILLIS);
 
     @Test
-    void givenNoActiveOrders_whenCreateOrder_thenReturnsSuccess() {
+    void givenFreeBrewingQueue_whenCreateOrder_thenReturnsSuccess() {
         Drink drink = Drink.builder().build();
-        String status = CREATED.getStatusName();
+        OrderStatus status = CREATED;
         Order newOrder = Order.builder()
                 .drink(drink)
                 .status(status)
@@ -67,147 +102,256 @@ class OrderServiceTest {
                 .orderId(UUID.randomUUID())
                 .build();
 
-        when(orderRepository.existsByStatusIn(Set.of(CREATED.getStatusName(), PROGRESS.getStatusName())))
-                .thenReturn(false);
+        when(brewingQueueService.isFull()).thenReturn(false);
         when(orderRepository.save(Mockito.any(Order.class))).thenReturn(newOrder);
 
         UUID result = orderService.createOrder(drink, status);
 
         assertNotNull(result);
-        verify(orderRepository).existsByStatusIn(Set.of(CREATED.getStatusName(), PROGRESS.getStatusName()));
-        verify(orderRepository).save(Mockito.any(Order.class));
+        verify(brewingQueueService).isFull();
+        verify(orderRepository).save(argThat((Order order) -> order.getCreatedAt().getNano() % 1_000_000 == 0));
     }
 
     @Test
-    void givenActiveOrderExists_whenCreateOrder_thenReturnsBadRequest() {
+    void givenFullBrewingQueue_whenCreateOrder_thenReturnsBadRequest() {
         Drink drink = Drink.builder().build();
-        String status = CREATED.getStatusName();
+        OrderStatus status = CREATED;
 
-        when(orderRepository.existsByStatusIn(Set.of(CREATED.getStatusName(), PROGRESS.getStatusName())))
-                .thenReturn(true);
+        when(brewingQueueService.isFull()).thenReturn(true);
 
         assertThrows(OrderException.class, () -> orderService.createOrder(drink, status));
-        verify(orderRepository).existsByStatusIn(Set.of(CREATED.getStatusName(), PROGRESS.getStatusName()));
-        verifyNoMoreInteractions(orderRepository);
+        verifyNoInteractions(orderRepository);
+    }
+
+    @Test
+    void givenDrinks_whenCreateOrders_thenSavesAllInOneCall() {
+        List<Drink> drinks = List.of(Drink.builder().build(), Drink.builder().build());
+        UUID secondOrderId = UUID.randomUUID();
+
+        when(orderRepository.saveAll(any())).thenReturn(List.of(
+                Order.builder().orderId(orderId).build(),
+                Order.builder().orderId(secondOrderId).build()));
+
+        List<UUID> result = orderService.createOrders(drinks, CREATED);
+
+        assertEquals(List.of(orderId, secondOrderId), result);
+        verify(orderRepository, times(1)).saveAll(argThat((List<Order> orders) -> orders.stream()
+                .allMatch(order -> order.getCreatedAt().getNano() % 1_000_000 == 0)));
+    }
+
+    @Test
+    void givenNoDrinks_whenCreateOrders_thenSkipsDatabase() {
+        assertTrue(orderService.createOrders(Collections.emptyList(), CREATED).isEmpty());
+        verifyNoInteractions(orderRepository);
+    }
+
+    @Test
+    void givenBatchOfOrders_whenEnqueueOrders_thenStartsBrewingWithOneUpdate() {
+        UUID queuedOrderId = UUID.randomUUID();
+        UUID rejectedOrderId = UUID.randomUUID();
+
+        when(brewingQueueService.enqueue(orderId)).thenReturn(0);
+        when(brewingQueueService.enqueue(queuedOrderId)).thenReturn(1);
+        when(brewingQueueService.enqueue(rejectedOrderId)).thenThrow(new OrderException(BREWING_QUEUE_FULL_MESSAGE));
+        stubStartBrewing(List.of(orderId));
+
+        Map<UUID, Integer> result = orderService.enqueueOrders(List.of(orderId, queuedOrderId, rejectedOrderId));
+
+        assertEquals(Map.of(orderId, 0, queuedOrderId, 1), result);
+        verifyStartedBrewing(List.of(orderId));
+    }
+
+    @Test
+    void givenExistingOrder_whenGetOrder_thenReturnsOrder() {
+        Order order = Order.builder().orderId(UUID.fromString(TEST_UUID)).build();
+        OrderResponseDto expectedResponse = OrderResponseDto.builder().orderId(TEST_UUID).build();
+
+        when(orderRepository.findByIdWithinCreatedAt(eq(UUID.fromString(TEST_UUID)), any(), any()))
+                .thenReturn(Optional.of(order));
+        when(orderMapper.mapToOrderResponseDto(order)).thenReturn(expectedResponse);
+
+        assertEquals(expectedResponse, orderService.getOrder(TEST_UUID));
+    }
+
+    @Test
+    void givenNonExistingOrder_whenGetOrder_thenReturnsNotFound() {
+        when(orderRepository.findByIdWithinCreatedAt(eq(UUID.fromString(TEST_UUID)), any(), any()))
+                .thenReturn(Optional.empty());
+
+        OrderException exception = assertThrows(OrderException.class, () -> orderService.getOrder(TEST_UUID));
+
+        assertEquals(NOT_FOUND, exception.getStatus());
+        verifyNoInteractions(orderMapper);
     }
 
     @Test
     void givenValidOrderIdAndStatus_whenUpdateOrderStatus_thenReturnsSuccess() {
-        String status = COMPLETED.getStatusName();
-        Order order = Order.builder()
-                .orderId(orderId)
-                .status(PROGRESS.getStatusName())
-                .build();
+        OrderStatus status = COMPLETED;
 
-        when(orderRepository.findById(orderId)).thenReturn(Optional.of(order));
+        when(orderRepository.updateStatusWithinCreatedAt(orderId, CREATED_AT, createdTo, status)).thenReturn(1);
 
         orderService.updateOrderStatus(orderId, status);
 
-        assertEquals(status, order.getStatus());
-        verify(orderRepository).findById(orderId);
-        verify(orderRepository).save(order);
+        verify(orderRepository).updateStatusWithinCreatedAt(orderId, CREATED_AT, createdTo, status);
+        verify(eventPublisher).publishEvent(argThat((OrderStatusChangedEvent event) ->
+                event.getOrderId().equals(orderId) && event.getStatus().equals(status)));
+        verifyNoInteractions(ingredientReservationService);
     }
 
     @Test
-    void givenNonExistingOrderId_whenUpdateOrderStatus_thenReturnsNotFound() {
-        String status = COMPLETED.getStatusName();
+    void givenRefusedStatus_whenUpdateOrderStatus_thenReleasesReservation() {
+        when(orderRepository.updateStatusWithinCreatedAt(orderId, CREATED_AT, createdTo, REFUSED)).thenReturn(1);
 
-        when(orderRepository.findById(orderId)).thenReturn(Optional.empty());
+        orderService.updateOrderStatus(orderId, REFUSED);
 
-        assertThrows(OrderException.class, () -> orderService.updateOrderStatus(orderId, status));
-        verify(orderRepository).findById(orderId);
-        verifyNoMoreInteractions(orderRepository);
+        verify(ingredientReservationService).releaseReservations(List.of(orderId));
     }
 
     @Test
-    void givenActiveOrderExists_whenUpdateOrderStatusToProgress_thenReturnsBadRequest() {
-        String status = PROGRESS.getStatusName();
-        Order order = Order.builder().orderId(orderId).build();
+    void givenWaitingOrders_whenRefuseOrders_thenReleasesReservationsAndDequeues() {
+        UUID secondOrderId = UUID.randomUUID();
+        List<UUID> orderIds = List.of(orderId, secondOrderId);
+
+        when(orderRepository.updateStatus(orderIds, batchCreatedFrom(orderIds), batchCreatedTo(orderIds),
+                CREATED.getCode(), REFUSED.getCode())).thenReturn(orderIds);
+
+        int result = orderService.refuseOrders(orderIds);
+
+        assertEquals(2, result);
+        verify(ingredientReservationService).releaseReservations(orderIds);
+        verify(brewingQueueService).remove(orderId);
+        verify(brewingQueueService).remove(secondOrderId);
+        verify(eventPublisher, times(2)).publishEvent(argThat((OrderStatusChangedEvent event) ->
+                event.getStatus().equals(REFUSED)));
+    }
 
-        when(orderRepository.findById(orderId)).thenReturn(Optional.of(order));
-        when(orderRepository.existsByStatusIn(Set.of(PROGRESS.getStatusName()))).thenReturn(true);
+    @Test
+    void givenOrderAlreadyBrewing_whenRefuseOrders_thenPublishesOnlyRefused() {
+        UUID brewingOrderId = UUID.randomUUID();
+        List<UUID> orderIds = List.of(orderId, brewingOrderId);
+
+        when(orderRepository.updateStatus(orderIds, batchCreatedFrom(orderIds), batchCreatedTo(orderIds),
+                CREATED.getCode(), REFUSED.getCode()))
+                .thenReturn(List.of(orderId));
+
+        int result = orderService.refuseOrders(orderIds);
+
+        assertEquals(1, result);
+        verify(ingredientReservationService).releaseReservations(List.of(orderId));
+        verify(brewingQueueService).remove(orderId);
+        verify(brewingQueueService, never()).remove(brewingOrderId);
+        verify(eventPublisher).publishEvent(argThat((OrderStatusChangedEvent event) ->
+                event.getOrderId().equals(orderId) && event.getStatus().equals(REFUSED)));
+        verify(eventPublisher, never()).publishEvent(argThat((OrderStatusChangedEvent event) ->
+                event.getOrderId().equals(brewingOrderId)));
+    }
+
+    @Test
+    void givenNoOrders_whenRefuseOrders_thenSkipsDatabase() {
+        assertEquals(0, orderService.refuseOrders(List.of()));
+        verifyNoInteractions(orderRepository, ingredientReservationService);
+    }
+
+    @Test
+    void givenNonExistingOrderId_whenUpdateOrderStatus_thenReturnsNotFound() {
+        OrderStatus status = COMPLETED;
+
+        when(orderRepository.updateStatusWithinCreatedAt(orderId, CREATED_AT, createdTo, status)).thenReturn(0);
 
         assertThrows(OrderException.class, () -> orderService.updateOrderStatus(orderId, status));
-        verify(orderRepository).findById(orderId);
-        verify(orderRepository).existsByStatusIn(Set.of(PROGRESS.getStatusName()));
+        verify(orderRepository).updateStatusWithinCreatedAt(orderId, CREATED_AT, createdTo, status);
         verifyNoMoreInteractions(orderRepository);
     }
 
     @Test
-    void givenExistingOrders_whenGetAllOrders_thenReturnsSuccess() {
-        List<Order> orders = List.of(
-                Order.builder().build(),
-                Order.builder().build()
-        );
-        List<OrderResponseDto> expectedResponse = List.of(
-                OrderResponseDto.builder().build(),
-                OrderResponseDto.builder().build()
+    void givenExistingOrders_whenGetAllOrders_thenReturnsFirstPage() {
+        List<OrderResponseDto> orders = List.of(
+                createPageOrder(UUID.randomUUID(), CREATED_AT),
+                createPageOrder(UUID.randomUUID(), CREATED_AT.plusMinutes(1))
         );
 
-        when(orderRepository.findAll()).thenReturn(orders);
-        when(orderMapper.mapToOrderResponseDto(Mockito.any())).thenReturn(OrderResponseDto.builder().build());
+        when(orderRepository.findOrderPage(Limit.of(3))).thenReturn(orders);
+
+        OrderPageResponseDto result = orderService.getAllOrders(null, 2);
+
+        assertEquals(orders, result.getOrders());
+        assertNull(result.getNextPageToken());
+        verifyNoInteractions(orderMapper);
+    }
+
+    @Test
+    void givenMoreOrdersThanPageSize_whenGetAllOrders_thenReturnsTokenOfLastOrderOnPage() {
+        OrderResponseDto lastOrder = createPageOrder(UUID.fromString(TEST_UUID), CREATED_AT);
+
+        when(orderRepository.findOrderPage(Limit.of(2)))
+                .thenReturn(List.of(lastOrder, createPageOrder(UUID.randomUUID(), CREATED_AT.plusMinutes(1))));
+
+        OrderPageResponseDto result = orderService.getAllOrders(null, 1);
+
+        assertEquals(List.of(lastOrder), result.getOrders());
+        assertEquals(new OrderPageToken(CREATED_AT, UUID.fromString(TEST_UUID)).encode(), result.getNextPageToken());
+    }
+
+    @Test
+    void givenPageToken_whenGetAllOrders_thenContinuesAfterLastOrder() {
+        String pageToken = new OrderPageToken(CREATED_AT, UUID.fromString(TEST_UUID)).encode();
+
+        when(orderRepository.findOrderPageAfter(CREATED_AT, UUID.fromString(TEST_UUID), Limit.of(6)))
+                .thenReturn(Collections.emptyList());
 
-        List<OrderResponseDto> result = orderService.getAllOrders();
+        OrderPageResponseDto result = orderService.getAllOrders(pageToken, 5);
 
-        assertEquals(expectedResponse.size(), result.size());
-        verify(orderRepository).findAll();
-        verify(orderMapper, times(2)).mapToOrderResponseDto(Mockito.any());
+        assertTrue(result.getOrders().isEmpty());
+        assertNull(result.getNextPageToken());
+    }
+
+    @Test
+    void givenIncorrectPageToken_whenGetAllOrders_thenReturnsBadRequest() {
+        assertThrows(OrderException.class, () -> orderService.getAllOrders("не-токен", 5));
+        verifyNoInteractions(orderRepository);
     }
 
     @Test
     void givenNoOrders_whenGetAllOrders_thenReturnsNotFound() {
-        when(orderRepository.findAll()).thenReturn(Collections.emptyList());
+        when(orderRepository.findOrderPage(Limit.of(101))).thenReturn(Collections.emptyList());
 
-        assertThrows(OrderException.class, () -> orderService.getAllOrders());
-        verify(orderRepository).findAll();
-        verifyNoInteractions(orderMapper);
+        assertThrows(OrderException.class, () -> orderService.getAllOrders(null, 100));
     }
 
     @Test
     void givenExistingOrders_whenGetOrdersForToday_thenReturnsSuccess() {
-        List<Order> orders = List.of(Order.builder().build());
-
-        when(orderRepository.findByCreatedAtBetween(Mockito.any(), Mockito.any())).thenReturn(orders);
-        when(orderMapper.mapToOrderResponseDto(Mockito.any())).thenReturn(OrderResponseDto.builder().build());
+        when(orderRepository.findOrderPageByCreatedAtBetween(Mockito.any(), Mockito.any(), eq(Limit.of(101))))
+                .thenReturn(List.of(createPageOrder(UUID.randomUUID(), CREATED_AT)));
 
-        List<OrderResponseDto> result = orderService.getOrdersForToday();
+        OrderPageResponseDto result = orderService.getOrdersForToday(null, 100);
 
-        assertFalse(result.isEmpty());
-        verify(orderRepository).findByCreatedAtBetween(Mockito.any(), Mockito.any());
-        verify(orderMapper).mapToOrderResponseDto(Mockito.any());
+        assertFalse(result.getOrders().isEmpty());
     }
 
     @Test
     void givenNoOrders_whenGetOrdersForToday_thenReturnsNotFound() {
+        when(orderRepository.findOrderPageByCreatedAtBetween(Mockito.any(), Mockito.any(), Mockito.any()))
+                .thenReturn(Collections.emptyList());
 
-        when(orderRepository.findByCreatedAtBetween(Mockito.any(), Mockito.any())).thenReturn(Collections.emptyList());
-
-        assertThrows(OrderException.class, () -> orderService.getOrdersForToday());
-        verify(orderRepository).findByCreatedAtBetween(Mockito.any(), Mockito.any());
-        verifyNoInteractions(orderMapper);
+        assertThrows(OrderException.class, () -> orderService.getOrdersForToday(null, 100));
     }
 
     @Test
     void givenExistingOrders_whenGetOrdersForCurrentWeek_thenReturnsSuccess() {
-        List<Order> orders = List.of(Order.builder().build());
+        when(orderRepository.findOrderPageByCreatedAtBetween(Mockito.any(), Mockito.any(), eq(Limit.of(101))))
+                .thenReturn(List.of(createPageOrder(UUID.randomUUID(), CREATED_AT)));
 
-        when(orderRepository.findByCreatedAtBetween(Mockito.any(), Mockito.any())).thenReturn(orders);
-        when(orderMapper.mapToOrderResponseDto(Mockito.any())).thenReturn(OrderResponseDto.builder().build());
+        OrderPageResponseDto result = orderService.getOrdersForCurrentWeek(null, 100);
 
-        List<OrderResponseDto> result = orderService.getOrdersForCurrentWeek();
-
-        assertFalse(result.isEmpty());
-        verify(orderRepository).findByCreatedAtBetween(Mockito.any(), Mockito.any());
-        verify(orderMapper).mapToOrderResponseDto(Mockito.any());
+        assertFalse(result.getOrders().isEmpty());
     }
 
     @Test
     void givenNoOrders_whenGetOrdersForCurrentWeek_thenReturnsNotFound() {
-        when(orderRepository.findByCreatedAtBetween(Mockito.any(), Mockito.any())).thenReturn(Collections.emptyList());
+        when(orderRepository.findOrderPageByCreatedAtBetween(Mockito.any(), Mockito.any(), Mockito.any()))
+                .thenReturn(Collections.emptyList());
 
-        assertThrows(OrderException.class, () -> orderService.getOrdersForCurrentWeek());
-        verify(orderRepository).findByCreatedAtBetween(Mockito.any(), Mockito.any());
-        verifyNoInteractions(orderMapper);
+        assertThrows(OrderException.class, () -> orderService.getOrdersForCurrentWeek(null, 100));
     }
 
     @Test
@@ -218,22 +362,40 @@ class OrderServiceTest {
                 .startDate(startDate)
                 .endDate(endDate)
                 .build();
-        List<Order> orders = List.of(Order.builder().build());
 
-        when(orderRepository.findByCreatedAtBetween(
+        when(orderRepository.findOrderPageByCreatedAtBetween(
                 startDate.atStartOfDay(),
-                endDate.atTime(23, 59, 59)
-        )).thenReturn(orders);
-        when(orderMapper.mapToOrderResponseDto(Mockito.any())).thenReturn(OrderResponseDto.builder().build());
+                endDate.atTime(23, 59, 59),
+                Limit.of(101)
+        )).thenReturn(List.of(createPageOrder(UUID.randomUUID(), CREATED_AT)));
 
-        List<OrderResponseDto> result = orderService.getOrdersForPeriod(requestDto);
+        OrderPageResponseDto result = orderService.getOrdersForPeriod(requestDto, null, 100);
 
-        assertFalse(result.isEmpty());
-        verify(orderRepository).findByCreatedAtBetween(
+        assertFalse(result.getOrders().isEmpty());
+    }
+
+    @Test
+    void givenPageTokenAndPeriod_whenGetOrdersForPeriod_thenContinuesAfterLastOrderWithinPeriod() {
+        LocalDate startDate = LocalDate.now().minusDays(7);
+        LocalDate endDate = LocalDate.now();
+        PeriodRequestDto requestDto = PeriodRequestDto.builder()
+                .startDate(startDate)
+                .endDate(endDate)
+                .build();
+        String pageToken = new OrderPageToken(CREATED_AT, UUID.fromString(TEST_UUID)).encode();
+
+        when(orderRepository.findOrderPageByCreatedAtBetweenAfter(
                 startDate.atStartOfDay(),
-                endDate.atTime(23, 59, 59)
-        );
-        verify(orderMapper).mapToOrderResponseDto(Mockito.any());
+                endDate.atTime(23, 59, 59),
+                CREATED_AT,
+                UUID.fromString(TEST_UUID),
+                Limit.of(101)
+        )).thenReturn(List.of(createPageOrder(UUID.randomUUID(), CREATED_AT.plusMinutes(1))));
+
+        OrderPageResponseDto result = orderService.getOrdersForPeriod(requestDto, pageToken, 100);
+
+        assertEquals(1, result.getOrders().size());
+        assertNull(result.getNextPageToken());
     }
 
     @Test
@@ -245,56 +407,227 @@ class OrderServiceTest {
                 .endDate(endDate)
                 .build();
 
-        when(orderRepository.findByCreatedAtBetween(
+        when(orderRepository.findOrderPageByCreatedAtBetween(
                 startDate.atStartOfDay(),
-                endDate.atTime(23, 59, 59)
+                endDate.atTime(23, 59, 59),
+                Limit.of(101)
         )).thenReturn(Collections.emptyList());
 
-        assertThrows(OrderException.class, () -> orderService.getOrdersForPeriod(requestDto));
-        verify(orderRepository).findByCreatedAtBetween(
-                startDate.atStartOfDay(),
-                endDate.atTime(23, 59, 59)
-        );
-        verifyNoInteractions(orderMapper);
+        assertThrows(OrderException.class, () -> orderService.getOrdersForPeriod(requestDto, null, 100));
+    }
+
+    @Test
+    void givenFreeBrewingSlot_whenEnqueueOrder_thenStartsBrewing() {
+        when(brewingQueueService.enqueue(orderId)).thenReturn(0);
+        stubStartBrewing(List.of(orderId));
+
+        int result = orderService.enqueueOrder(orderId);
+
+        assertEquals(0, result);
+        verify(ingredientReservationService).commitReservations(List.of(orderId));
+        verifyStartedBrewing(List.of(orderId));
+    }
+
+    @Test
+    void givenExpiredReservation_whenEnqueueOrder_thenRefusesOrderAndFreesSlot() {
+        UUID waitingOrderId = UUID.randomUUID();
+
+        when(brewingQueueService.enqueue(orderId)).thenReturn(0);
+        when(ingredientReservationService.commitReservations(List.of(orderId))).thenReturn(List.of());
+        List<UUID> orderIds = List.of(orderId);
+        when(orderRepository.updateStatus(orderIds, batchCreatedFrom(orderIds), batchCreatedTo(orderIds),
+                CREATED.getCode(), REFUSED.getCode())).thenReturn(orderIds);
+        when(brewingQueueService.releaseSlots(1)).thenReturn(List.of(waitingOrderId));
+        stubStartBrewing(List.of(waitingOrderId));
+
+        orderService.enqueueOrder(orderId);
+
+        verify(orderRepository, never()).updateStatusAndReadyAt(eq(List.of(orderId)), any(LocalDateTime.class),
+                any(LocalDateTime.class), anyShort(), anyShort(), any(LocalDateTime.class));
+        verify(eventPublisher).publishEvent(argThat((OrderStatusChangedEvent event) ->
+                event.getOrderId().equals(orderId) && event.getStatus().equals(REFUSED)));
+        verifyStartedBrewing(List.of(waitingOrderId));
+    }
+
+    @Test
+    void givenOrderRefusedConcurrently_whenEnqueueOrder_thenDoesNotPublishProgress() {
+        when(brewingQueueService.enqueue(orderId)).thenReturn(0);
+        stubStartBrewing(List.of(orderId), List.of());
+
+        orderService.enqueueOrder(orderId);
+
+        verify(eventPublisher, never()).publishEvent(argThat((OrderStatusChangedEvent event) ->
+                event.getStatus().equals(PROGRESS)));
+        verify(brewingQueueService).releaseSlots(1);
+    }
+
+    @Test
+    void givenStartBrewingFailure_whenEnqueueOrder_thenRefusesOrderAndFreesSlot() {
+        UUID waitingOrderId = UUID.randomUUID();
+        List<UUID> orderIds = List.of(orderId);
+
+        when(brewingQueueService.enqueue(orderId)).thenReturn(0);
+        when(ingredientReservationService.commitReservations(orderIds))
+                .thenThrow(new IllegalStateException("соединение потеряно"));
+        when(orderRepository.updateStatus(orderIds, batchCreatedFrom(orderIds), batchCreatedTo(orderIds),
+                CREATED.getCode(), REFUSED.getCode())).thenReturn(orderIds);
+        when(brewingQueueService.releaseSlots(1)).thenReturn(List.of(waitingOrderId));
+        stubStartBrewing(List.of(waitingOrderId));
+
+        assertThrows(IllegalStateException.class, () -> orderService.enqueueOrder(orderId));
+
+        verify(ingredientReservationService).releaseReservations(orderIds);
+        verifyStartedBrewing(List.of(waitingOrderId));
+    }
+
+    @Test
+    void givenStartedOrderFailure_whenEnqueueOrder_thenKeepsSlot() {
+        List<UUID> orderIds = List.of(orderId);
+
+        when(brewingQueueService.enqueue(orderId)).thenReturn(0);
+        stubStartBrewing(orderIds);
+        doThrow(new IllegalStateException("подписчик упал")).when(eventPublisher).publishEvent(any(Object.class));
+        when(orderRepository.updateStatus(orderIds, batchCreatedFrom(orderIds), batchCreatedTo(orderIds),
+                CREATED.getCode(), REFUSED.getCode())).thenReturn(List.of());
+
+        assertThrows(IllegalStateException.class, () -> orderService.enqueueOrder(orderId));
+
+        verify(brewingQueueService, never()).releaseSlots(anyInt());
     }
 
     @Test
-    void givenValidOrderId_whenUpdateOrderStatusAfterDelay_thenReturnsSuccess() {
-        Order order = Order.builder().orderId(orderId).status(PROGRESS.getStatusName()).build();
-        Duration delay = Duration.ofSeconds(1);
+    void givenBusyBrewingSlots_whenEnqueueOrder_thenReturnsQueuePosition() {
+        when(brewingQueueService.enqueue(orderId)).thenReturn(3);
 
-        when(orderRepository.findById(orderId)).thenReturn(Optional.of(order));
+        int result = orderService.enqueueOrder(orderId);
 
-        orderService.updateOrderStatusAfterDelay(orderId, COMPLETED, delay);
+        assertEquals(3, result);
+        verifyNoInteractions(orderRepository);
+    }
+
+    @Test
+    void givenReadyOrders_whenCompleteReadyOrders_thenPromotesWaitingOrders() {
+        UUID waitingOrderId = UUID.randomUUID();
+        UUID drinkId = UUID.randomUUID();
+        List<CompletedOrderView> completedOrders = List.of(
+                createCompletedOrderView(orderId, drinkId, COFFEE_RAF_NAME),
+                createCompletedOrderView(UUID.randomUUID(), drinkId, COFFEE_RAF_NAME));
+
+        when(orderRepository.completeReadyOrders(eq(PROGRESS.getCode()), eq(COMPLETED.getCode()),
+                any(LocalDateTime.class))).thenReturn(completedOrders);
+        when(brewingQueueService.releaseSlots(2)).thenReturn(List.of(waitingOrderId));
+        stubStartBrewing(List.of(waitingOrderId));
+
+        List<CompletedOrderView> result = orderService.completeReadyOrders();
+
+        assertEquals(completedOrders, result);
+        verify(drinkPopularityService).recordCompletedOrders(completedOrders);
+        verifyStartedBrewing(List.of(waitingOrderId));
+    }
+
+    @Test
+    void givenNoReadyOrders_whenCompleteReadyOrders_thenKeepsQueue() {
+        when(orderRepository.completeReadyOrders(eq(PROGRESS.getCode()), eq(COMPLETED.getCode()),
+                any(LocalDateTime.class))).thenReturn(Collections.emptyList());
+
+        List<CompletedOrderView> result = orderService.completeReadyOrders();
+
+        assertTrue(result.isEmpty());
+        verifyNoInteractions(brewingQueueService);
+        verifyNoMoreInteractions(orderRepository);
+    }
+
+    @Test
+    void givenActiveOrdersInDatabase_whenRestoreBrewingQueue_thenRestoresQueueAndStartsPromoted() {
+        List<UUID> waitingOrderIds = List.of(orderId);
+
+        when(orderRepository.countByStatus(PROGRESS)).thenReturn(0L);
+        when(orderRepository.findOrderIdsByStatus(CREATED)).thenReturn(waitingOrderIds);
+        when(brewingQueueService.restore(0, waitingOrderIds)).thenReturn(waitingOrderIds);
+        stubStartBrewing(waitingOrderIds);
+
+        orderService.restoreBrewingQueue();
+
+        verifyStartedBrewing(waitingOrderIds);
+    }
+
+    @Test
+    void givenBrewingOrder_whenDeleteOrder_thenReleasesSlot() {
+        Order order = Order.builder().orderId(orderId).status(PROGRESS).build();
+
+        when(orderRepository.findByIdWithinCreatedAt(orderId, CREATED_AT, createdTo)).thenReturn(Optional.of(order));
+        when(brewingQueueService.releaseSlots(1)).thenReturn(Collections.emptyList());
 
-        try {
-            Thread.sleep(1500);
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
-        }
+        orderService.deleteOrder(orderId.toString());
 
-        verify(orderRepository, timeout(2000)).findById(orderId);
-        verify(orderRepository, timeout(2000)).save(order);
+        verify(orderRepository).deleteByIdWithinCreatedAt(orderId, CREATED_AT, createdTo);
+        verify(brewingQueueService).releaseSlots(1);
+    }
+
+    @Test
+    void givenQueuedOrder_whenDeleteOrder_thenRemovesFromQueue() {
+        Order order = Order.builder().orderId(orderId).status(CREATED).build();
+
+        when(orderRepository.findByIdWithinCreatedAt(orderId, CREATED_AT, createdTo)).thenReturn(Optional.of(order));
+
+        orderService.deleteOrder(orderId.toString());
+
+        verify(orderRepository).deleteByIdWithinCreatedAt(orderId, CREATED_AT, createdTo);
+        verify(brewingQueueService).remove(orderId);
+        verify(ingredientReservationService).releaseReservations(List.of(orderId));
     }
 
     @Test
     void givenValidOrderId_whenDeleteOrder_thenReturnsSuccess() {
-        Order order = Order.builder().build();
-        when(orderRepository.findById(UUID.fromString(TEST_UUID))).thenReturn(Optional.of(order));
+        Order order = Order.builder().orderId(UUID.fromString(TEST_UUID)).build();
+        when(orderRepository.findByIdWithinCreatedAt(eq(UUID.fromString(TEST_UUID)), any(), any()))
+                .thenReturn(Optional.of(order));
 
         String result = orderService.deleteOrder(TEST_UUID);
 
         assertEquals(ORDER_DELETED_MESSAGE, result);
-        verify(orderRepository).findById(UUID.fromString(TEST_UUID));
-        verify(orderRepository).delete(order);
+        verify(orderRepository).deleteByIdWithinCreatedAt(eq(UUID.fromString(TEST_UUID)), any(), any());
     }
 
     @Test
     void givenNonExistingOrderId_whenDeleteOrder_thenReturnsNotFound() {
-        when(orderRepository.findById(UUID.fromString(TEST_UUID))).thenReturn(Optional.empty());
+        when(orderRepository.findByIdWithinCreatedAt(eq(UUID.fromString(TEST_UUID)), any(), any()))
+                .thenReturn(Optional.empty());
 
         assertThrows(OrderException.class, () -> orderService.deleteOrder(TEST_UUID));
-        verify(orderRepository).findById(UUID.fromString(TEST_UUID));
-        verify(orderRepository, never()).delete(any());
+        verify(orderRepository, never()).deleteByIdWithinCreatedAt(any(), any(), any());
+    }
+
+    private LocalDateTime batchCreatedFrom(List<UUID> orderIds) {
+        return OrderIds.createdAtRange(orderIds).from();
+    }
+
+    private LocalDateTime batchCreatedTo(List<UUID> orderIds) {
+        return OrderIds.createdAtRange(orderIds).to();
+    }
+
+    private void stubStartBrewing(List<UUID> orderIds) {
+        stubStartBrewing(orderIds, orderIds);
+    }
+
+    private void stubStartBrewing(List<UUID> orderIds, List<UUID> startedOrderIds) {
+        when(ingredientReservationService.commitReservations(orderIds)).thenReturn(orderIds);
+        when(orderRepository.updateStatusAndReadyAt(eq(orderIds), eq(batchCreatedFrom(orderIds)),
+                eq(batchCreatedTo(orderIds)), eq(CREATED.getCode()), eq(PROGRESS.getCode()), any(LocalDateTime.class)))
+                .thenReturn(startedOrderIds);
+    }
+
+    private void verifyStartedBrewing(List<UUID> orderIds) {
+        verify(orderRepository).updateStatusAndReadyAt(eq(orderIds), eq(batchCreatedFrom(orderIds)),
+                eq(batchCreatedTo(orderIds)), eq(CREATED.getCode()), eq(PROGRESS.getCode()), any(LocalDateTime.class));
+    }
+
+    private OrderResponseDto createPageOrder(UUID orderId, LocalDateTime createdAt) {
+        return OrderResponseDto.builder()
+                .orderId(orderId.toString())
+                .drinkName(COFFEE_RAF_NAME)
+                .status(COMPLETED.getStatusName())
+                .createdAt(createdAt)
+                .build();
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,90 @@
+package test.example.coffeemachineservice.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import test.example.coffeemachineservice.configuration.CoffeeMachineProperties;
+import test.example.coffeemachineservice.dto.response.OrderResponseDto;
+import test.example.coffeemachineservice.event.OrderStatusChangedEvent;
+import test.example.coffeemachineservice.exception.OrderException;
+import test.example.coffeemachineservice.service.impl.OrderStatusStreamServiceImpl;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.when;
+import static org.springframework.http.HttpStatus.NOT_FOUND;
+import static test.example.coffeemachineservice.constant.ApplicationConstant.ORDER_NOT_FOUND_MESSAGE;
+import static test.example.coffeemachineservice.data.CoffeeMachineData.TEST_UUID;
+import static test.example.coffeemachineservice.persistent.enums.OrderStatus.COMPLETED;
+import static test.example.coffeemachineservice.persistent.enums.OrderStatus.CREATED;
+import static test.example.coffeemachineservice.persistent.enums.OrderStatus.PROGRESS;
+
+@ExtendWith(MockitoExtension.class)
+class OrderStatusStreamServiceTest {
+
+    @Mock
+    private OrderService orderService;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private OrderStatusStreamServiceImpl orderStatusStreamService;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        orderStatusStreamService = new OrderStatusStreamServiceImpl(orderService, new CoffeeMachineProperties(), meterRegistry);
+    }
+
+    @Test
+    void givenActiveOrder_whenSubscribe_thenKeepsSubscriptionUntilFinalStatus() {
+        when(orderService.getOrder(TEST_UUID)).thenReturn(OrderResponseDto.builder()
+                .orderId(TEST_UUID)
+                .status(CREATED.getStatusName())
+                .build());
+
+        assertNotNull(orderStatusStreamService.subscribe(TEST_UUID));
+        assertEquals(1, meterRegistry.get("coffee.order.events.subscribers").gauge().value());
+
+        orderStatusStreamService.onOrderStatusChanged(
+                new OrderStatusChangedEvent(UUID.fromString(TEST_UUID), PROGRESS));
+        assertEquals(1, orderStatusStreamService.getSubscriberCount());
+
+        orderStatusStreamService.onOrderStatusChanged(
+                new OrderStatusChangedEvent(UUID.fromString(TEST_UUID), COMPLETED));
+        assertEquals(0, orderStatusStreamService.getSubscriberCount());
+    }
+
+    @Test
+    void givenCompletedOrder_whenSubscribe_thenClosesStreamAfterCurrentStatus() {
+        when(orderService.getOrder(TEST_UUID)).thenReturn(OrderResponseDto.builder()
+                .orderId(TEST_UUID)
+                .status(COMPLETED.getStatusName())
+                .build());
+
+        orderStatusStreamService.subscribe(TEST_UUID);
+
+        assertEquals(0, orderStatusStreamService.getSubscriberCount());
+    }
+
+    @Test
+    void givenNonExistingOrder_whenSubscribe_thenThrowsAndDropsSubscription() {
+        when(orderService.getOrder(TEST_UUID)).thenThrow(new OrderException(NOT_FOUND, ORDER_NOT_FOUND_MESSAGE));
+
+        assertThrows(OrderException.class, () -> orderStatusStreamService.subscribe(TEST_UUID));
+        assertEquals(0, orderStatusStreamService.getSubscriberCount());
+    }
+
+    @Test
+    void givenNoSubscribers_whenOrderStatusChanged_thenIgnoresEvent() {
+        orderStatusStreamService.onOrderStatusChanged(
+                new OrderStatusChangedEvent(UUID.randomUUID(), PROGRESS));
+
+        assertEquals(0, orderStatusStreamService.getSubscriberCount());
+    }
+}
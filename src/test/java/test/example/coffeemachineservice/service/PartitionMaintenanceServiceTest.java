@@ -0,0 +1,168 @@
+package test.example.coffeemachineservice.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import test.example.coffeemachineservice.configuration.CoffeeMachineProperties;
+import test.example.coffeemachineservice.partition.PartitionGranularity;
+import test.example.coffeemachineservice.partition.PartitionRetentionPolicy;
+import test.example.coffeemachineservice.persistent.projection.OrderPartitionView;
+import test.example.coffeemachineservice.persistent.repository.OrderRepository;
+import test.example.coffeemachineservice.service.impl.PartitionMaintenanceServiceImpl;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.Period;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static test.example.coffeemachineservice.data.CoffeeMachineData.createOrderPartitionView;
+
+@ExtendWith(MockitoExtension.class)
+class PartitionMaintenanceServiceTest {
+
+    private static final String DEFAULT_PARTITION = "orders_default";
+
+    @Mock
+    private OrderRepository orderRepository;
+
+    @Mock
+    private OrderArchiveService orderArchiveService;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private final CoffeeMachineProperties properties = new CoffeeMachineProperties();
+
+    private final LocalDate currentMonth = LocalDate.now().withDayOfMonth(1);
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        properties.getPartitions().setGranularity(PartitionGranularity.MONTH);
+        properties.getPartitions().setAhead(2);
+        properties.getPartitions().setRetention(Period.ofYears(1));
+        properties.getPartitions().setRetentionPolicy(PartitionRetentionPolicy.DETACH);
+    }
+
+    @Test
+    void givenOnlyDefaultPartition_whenMaintainPartitions_thenCreatesCurrentAndNextMonths() {
+        when(orderRepository.findPartitions()).thenReturn(List.of(defaultPartition()));
+
+        createService().maintainPartitions();
+
+        for (int i = 0; i <= 2; i++) {
+            LocalDate rangeStart = currentMonth.plusMonths(i);
+            verify(orderRepository).createPartition(PartitionGranularity.MONTH.partitionName(rangeStart),
+                    rangeStart.atStartOfDay(), rangeStart.plusMonths(1).atStartOfDay());
+        }
+        assertEquals(3.0, meterRegistry.get("coffee.orders.partitions.created").counter().count());
+    }
+
+    @Test
+    void givenYearPartitionCoveringCurrentMonth_whenMaintainPartitions_thenCreatesOnlyUncoveredMonths() {
+        LocalDate nextMonth = currentMonth.plusMonths(1);
+        OrderPartitionView coveringPartition = createOrderPartitionView("orders_legacy",
+                currentMonth.atStartOfDay(), nextMonth.atStartOfDay(), 8192);
+        when(orderRepository.findPartitions()).thenReturn(List.of(defaultPartition(), coveringPartition));
+
+        createService().maintainPartitions();
+
+        verify(orderRepository, never()).createPartition(eq(PartitionGranularity.MONTH.partitionName(currentMonth)),
+                any(), any());
+        verify(orderRepository, times(2)).createPartition(anyString(), any(), any());
+    }
+
+    @Test
+    void givenExpiredPartitionAndDetachPolicy_whenMaintainPartitions_thenDetachesIt() {
+        OrderPartitionView expired = monthPartition(currentMonth.minusYears(2));
+        OrderPartitionView retained = monthPartition(currentMonth.minusMonths(6));
+        when(orderRepository.findPartitions()).thenReturn(List.of(defaultPartition(), expired, retained));
+
+        createService().maintainPartitions();
+
+        verify(orderRepository).detachPartition(expired.getPartitionName());
+        verify(orderRepository, never()).detachPartition(retained.getPartitionName());
+        verify(orderRepository, never()).dropPartition(anyString());
+    }
+
+    @Test
+    void givenExpiredPartitionAndDropPolicy_whenMaintainPartitions_thenDropsIt() {
+        properties.getPartitions().setRetentionPolicy(PartitionRetentionPolicy.DROP);
+        OrderPartitionView expired = monthPartition(currentMonth.minusYears(2));
+        when(orderRepository.findPartitions()).thenReturn(List.of(defaultPartition(), expired));
+
+        createService().maintainPartitions();
+
+        verify(orderRepository).dropPartition(expired.getPartitionName());
+        verify(orderRepository, never()).detachPartition(anyString());
+    }
+
+    @Test
+    void givenExpiredPartitionAndArchivePolicy_whenMaintainPartitions_thenArchivesIt() throws IOException {
+        properties.getPartitions().setRetentionPolicy(PartitionRetentionPolicy.ARCHIVE);
+        OrderPartitionView expired = monthPartition(currentMonth.minusYears(2));
+        when(orderRepository.findPartitions()).thenReturn(List.of(defaultPartition(), expired));
+
+        createService().maintainPartitions();
+
+        verify(orderArchiveService).archiveDetachedPartitions();
+        verify(orderArchiveService).archivePartition(expired.getPartitionName());
+        verify(orderRepository, never()).detachPartition(anyString());
+        verify(orderRepository, never()).dropPartition(anyString());
+    }
+
+    @Test
+    void givenFailedPartitionCreation_whenMaintainPartitions_thenCreatesRemainingPartitions() {
+        when(orderRepository.findPartitions()).thenReturn(List.of(defaultPartition()));
+        doThrow(new DataIntegrityViolationException("default partition contains rows"))
+                .when(orderRepository).createPartition(eq(PartitionGranularity.MONTH.partitionName(currentMonth)),
+                        any(), any());
+
+        createService().maintainPartitions();
+
+        verify(orderRepository, times(3)).createPartition(anyString(), any(), any());
+        assertEquals(2.0, meterRegistry.get("coffee.orders.partitions.created").counter().count());
+        assertEquals(1.0, meterRegistry.get("coffee.orders.partitions.failed").counter().count());
+    }
+
+    @Test
+    void givenCompletePartitions_whenMaintainPartitions_thenReportsCountsAndSizes() {
+        List<OrderPartitionView> partitions = List.of(defaultPartition(), monthPartition(currentMonth),
+                monthPartition(currentMonth.plusMonths(1)), monthPartition(currentMonth.plusMonths(2)));
+        when(orderRepository.findPartitions()).thenReturn(partitions);
+
+        createService().maintainPartitions();
+
+        verify(orderRepository, never()).createPartition(anyString(), any(), any());
+        assertEquals(4.0, meterRegistry.get("coffee.orders.partitions").gauge().value());
+        assertEquals(16384.0, meterRegistry.get("coffee.orders.partition.size")
+                .tag("partition", PartitionGranularity.MONTH.partitionName(currentMonth)).gauge().value());
+    }
+
+    private PartitionMaintenanceServiceImpl createService() {
+        return new PartitionMaintenanceServiceImpl(orderRepository, orderArchiveService, properties, meterRegistry);
+    }
+
+    private OrderPartitionView defaultPartition() {
+        return createOrderPartitionView(DEFAULT_PARTITION, null, null, 8192);
+    }
+
+    private OrderPartitionView monthPartition(LocalDate rangeStart) {
+        LocalDateTime start = rangeStart.atStartOfDay();
+        return createOrderPartitionView(PartitionGranularity.MONTH.partitionName(rangeStart), start,
+                start.plusMonths(1), 16384);
+    }
+}
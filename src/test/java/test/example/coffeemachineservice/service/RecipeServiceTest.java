@@ -14,7 +14,6 @@ import test.example.coffeemachineservice.persistent.entity.Ingredient;
 import test.example.coffeemachineservice.persistent.entity.Recipe;
 import test.example.coffeemachineservice.persistent.entity.RecipeIngredient;
 import test.example.coffeemachineservice.persistent.repository.IngredientRepository;
-import test.example.coffeemachineservice.persistent.repository.RecipeIngredientRepository;
 import test.example.coffeemachineservice.persistent.repository.RecipeRepository;
 import test.example.coffeemachineservice.service.impl.RecipeServiceImpl;
 
@@ -52,9 +51,6 @@ class RecipeServiceTest {
     @Mock
     private RecipeRepository recipeRepository;
 
-    @Mock
-    private RecipeIngredientRepository recipeIngredientRepository;
-
     @Mock
     private IngredientRepository ingredientRepository;
 
@@ -111,19 +107,19 @@ class RecipeServiceTest {
         assertEquals(RECIPE_ALREADY_EXISTS_MESSAGE, exception.getMessage());
 
         verify(recipeRepository).findByRecipeName(requestDto.getRecipeName());
-        verifyNoMoreInteractions(recipeRepository, ingredientRepository, recipeMapper, recipeIngredientRepository);
+        verifyNoMoreInteractions(recipeRepository, ingredientRepository, recipeMapper);
     }
 
     @Test
-    void givenNewRecipeAndAllIngredientsFound_whenAddRecipe_thenSavesRecipeAndIngredients() {
-        Ingredient ingredient = Ingredient.builder().build();
+    void givenNewRecipeAndAllIngredientsFound_whenAddRecipe_thenSavesRecipeWithIngredients() {
+        Ingredient ingredient = Ingredient.builder().ingredientName(COFFEE_MILK_NAME).build();
         AddNewRecipeRequestDto requestDto = createAddNewRecipeRequestDto();
         when(recipeRepository.findByRecipeName(COFFEE_RAF_NAME)).thenReturn(Optional.empty());
 
         Recipe newRecipe = Recipe.builder().build();
         when(recipeMapper.mapToRecipe(requestDto)).thenReturn(newRecipe);
-        when(ingredientRepository.findByIngredientName(COFFEE_MILK_NAME))
-                .thenReturn(Optional.of(ingredient));
+        when(ingredientRepository.findAllByIngredientNameIn(List.of(COFFEE_MILK_NAME)))
+                .thenReturn(List.of(ingredient));
 
         RecipeIngredient recipeIngredient = RecipeIngredient.builder().build();
         when(recipeMapper.mapToRecipeIngredient(any(), eq(newRecipe), eq(ingredient)))
@@ -132,10 +128,10 @@ class RecipeServiceTest {
         recipeService.addRecipe(requestDto);
         verify(recipeRepository).findByRecipeName(COFFEE_RAF_NAME);
         verify(recipeMapper).mapToRecipe(requestDto);
-        verify(ingredientRepository).findByIngredientName(COFFEE_MILK_NAME);
+        verify(ingredientRepository).findAllByIngredientNameIn(List.of(COFFEE_MILK_NAME));
         verify(recipeMapper).mapToRecipeIngredient(any(), eq(newRecipe), eq(ingredient));
         verify(recipeRepository).save(newRecipe);
-        verify(recipeIngredientRepository).saveAll(List.of(recipeIngredient));
+        assertEquals(List.of(recipeIngredient), newRecipe.getRecipeIngredients());
     }
 
     @Test
@@ -147,8 +143,8 @@ class RecipeServiceTest {
         Recipe newRecipe = Recipe.builder().recipeId(UUID.randomUUID()).recipeName(COFFEE_RAF_NAME).build();
         when(recipeMapper.mapToRecipe(requestDto)).thenReturn(newRecipe);
 
-        when(ingredientRepository.findByIngredientName(COFFEE_MILK_NAME))
-                .thenReturn(Optional.empty());
+        when(ingredientRepository.findAllByIngredientNameIn(List.of(COFFEE_MILK_NAME)))
+                .thenReturn(List.of());
 
         RecipeException exception = assertThrows(RecipeException.class,
                 () -> recipeService.addRecipe(requestDto));
@@ -157,8 +153,8 @@ class RecipeServiceTest {
 
         verify(recipeRepository).findByRecipeName(COFFEE_RAF_NAME);
         verify(recipeMapper).mapToRecipe(requestDto);
-        verify(ingredientRepository).findByIngredientName(COFFEE_MILK_NAME);
-        verifyNoMoreInteractions(recipeIngredientRepository);
+        verify(ingredientRepository).findAllByIngredientNameIn(List.of(COFFEE_MILK_NAME));
+        verify(recipeRepository, never()).save(any());
     }
 
     @Test
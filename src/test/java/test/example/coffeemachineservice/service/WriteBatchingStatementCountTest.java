@@ -0,0 +1,103 @@
+package test.example.coffeemachineservice.service;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.PersistenceContext;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+import test.example.coffeemachineservice.dto.request.AddNewRecipeRequestDto;
+import test.example.coffeemachineservice.dto.request.RecipeIngredientDto;
+import test.example.coffeemachineservice.persistent.entity.Drink;
+import test.example.coffeemachineservice.persistent.repository.DrinkRepository;
+
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static test.example.coffeemachineservice.persistent.enums.OrderStatus.CREATED;
+
+// Сравнивает число подготовленных SQL-выражений на запрос без пакетной записи и с профилем записи по умолчанию.
+// Размер пакета переключается на сессии, всё записанное откатывается вместе с транзакцией теста
+@Slf4j
+@Transactional
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class WriteBatchingStatementCountTest {
+
+    private static final List<String> RECIPE_INGREDIENT_NAMES = List.of("Кофе", "Вода", "Молоко");
+
+    private static final int BATCH_ORDERS = 10;
+
+    @Autowired
+    private RecipeService recipeService;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private DrinkRepository drinkRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    void givenRecipeWithSeveralIngredients_whenAddRecipe_thenBatchingCutsStatements() {
+        long unbatched = countStatements(1, () -> recipeService.addRecipe(createRecipe("Проверка без пакетов")));
+        long batched = countStatements(null, () -> recipeService.addRecipe(createRecipe("Проверка с пакетами")));
+
+        log.info("Создание рецепта: без пакетов {} SQL-выражений, с пакетами {}", unbatched, batched);
+        assertTrue(batched <= unbatched - (RECIPE_INGREDIENT_NAMES.size() - 1),
+                "с пакетами " + batched + ", без пакетов " + unbatched);
+    }
+
+    @Test
+    void givenBurstOfDrinks_whenCreateOrders_thenBatchingCutsStatements() {
+        List<Drink> drinks = drinkRepository.findAll();
+        assertFalse(drinks.isEmpty());
+        List<Drink> burst = Collections.nCopies(BATCH_ORDERS, drinks.get(0));
+
+        long unbatched = countStatements(1, () -> orderService.createOrders(burst, CREATED));
+        long batched = countStatements(null, () -> orderService.createOrders(burst, CREATED));
+
+        log.info("Пакет из {} заказов: без пакетов {} SQL-выражений, с пакетами {}", BATCH_ORDERS, unbatched, batched);
+        assertTrue(batched < unbatched, "с пакетами " + batched + ", без пакетов " + unbatched);
+    }
+
+    // null возвращает размер пакета из профиля записи
+    private long countStatements(Integer jdbcBatchSize, Runnable writes) {
+        entityManager.unwrap(Session.class).setJdbcBatchSize(jdbcBatchSize);
+        statistics.clear();
+        writes.run();
+        entityManager.flush();
+        return statistics.getPrepareStatementCount();
+    }
+
+    private AddNewRecipeRequestDto createRecipe(String recipeName) {
+        return AddNewRecipeRequestDto.builder()
+                .recipeName(recipeName)
+                .recipeIngredients(RECIPE_INGREDIENT_NAMES.stream()
+                        .map(ingredientName -> RecipeIngredientDto.builder()
+                                .ingredientName(ingredientName)
+                                .quantityOnRecipe(10)
+                                .build())
+                        .toList())
+                .build();
+    }
+}